@@ -15,6 +15,7 @@ import uk.gov.di.accountmanagement.entity.AuthPolicy;
 import uk.gov.di.accountmanagement.entity.TokenAuthorizerContext;
 import uk.gov.di.authentication.shared.entity.CustomScopeValue;
 import uk.gov.di.authentication.shared.helpers.NowHelper;
+import uk.gov.di.authentication.shared.services.CloudwatchMetricsService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.JwksService;
@@ -53,7 +54,8 @@ public class AuthoriseAccessTokenHandler
                         new JwksService(
                                 configurationService,
                                 new KmsConnectionService(configurationService)),
-                        configurationService);
+                        configurationService,
+                        new CloudwatchMetricsService(configurationService));
         clientService = new DynamoClientService(configurationService);
     }
 
@@ -64,7 +66,8 @@ public class AuthoriseAccessTokenHandler
                         new JwksService(
                                 configurationService,
                                 new KmsConnectionService(configurationService)),
-                        configurationService);
+                        configurationService,
+                        new CloudwatchMetricsService(configurationService));
         clientService = new DynamoClientService(configurationService);
     }
 
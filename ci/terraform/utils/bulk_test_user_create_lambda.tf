@@ -31,8 +31,9 @@ resource "aws_lambda_function" "bulk_test_user_create_lambda" {
 
   environment {
     variables = merge({
-      ENVIRONMENT              = var.environment
-      TERMS_CONDITIONS_VERSION = var.terms_and_conditions
+      ENVIRONMENT                      = var.environment
+      TERMS_CONDITIONS_VERSION         = var.terms_and_conditions
+      BULK_TEST_USER_WRITE_CONCURRENCY = var.bulk_test_user_write_concurrency
     })
   }
 
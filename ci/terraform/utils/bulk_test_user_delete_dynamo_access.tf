@@ -6,6 +6,7 @@ data "aws_iam_policy_document" "user_profile_dynamo_delete_access" {
     actions = [
       "dynamodb:DescribeTable",
       "dynamodb:Scan",
+      "dynamodb:BatchWriteItem",
       "dynamodb:Delete*"
     ]
 
@@ -34,6 +35,7 @@ data "aws_iam_policy_document" "user_credentials_dynamo_delete_access" {
     actions = [
       "dynamodb:DescribeTable",
       "dynamodb:Scan",
+      "dynamodb:BatchWriteItem",
       "dynamodb:Delete*"
     ]
 
@@ -26,7 +26,8 @@ resource "aws_lambda_function" "bulk_test_user_delete_lambda" {
 
   environment {
     variables = merge({
-      ENVIRONMENT = var.environment
+      ENVIRONMENT                      = var.environment
+      BULK_TEST_USER_WRITE_CONCURRENCY = var.bulk_test_user_write_concurrency
     })
   }
 
@@ -69,6 +69,7 @@ resource "aws_lambda_function" "bulk_user_email_audience_loader_lambda" {
       ENVIRONMENT                                       = var.environment
       BULK_USER_EMAIL_MAX_AUDIENCE_LOAD_USER_COUNT      = var.bulk_user_email_max_audience_load_user_count
       BULK_USER_EMAIL_MAX_AUDIENCE_LOAD_USER_BATCH_SIZE = var.bulk_user_email_max_audience_load_user_batch_size
+      BULK_USER_EMAIL_AUDIENCE_LOAD_TOTAL_SEGMENTS      = var.bulk_user_email_audience_load_total_segments
       BULK_USER_EMAIL_AUDIENCE_LOADER_LAMBDA_NAME       = local.bulk_user_email_audience_loader_lambda_name
       BULK_USER_EMAIL_INCLUDED_TERMS_AND_CONDITIONS     = var.bulk_user_email_included_terms_and_conditions
     })
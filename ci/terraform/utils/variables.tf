@@ -100,8 +100,9 @@ variable "bulk_user_email_batch_pause_duration" {
 }
 
 variable "bulk_user_email_max_audience_load_user_count" {
-  type    = number
-  default = 0
+  type        = number
+  default     = 0
+  description = "Maximum users added across the whole audience load. With several segments each loads an equal share, rounded down, and segment 0 also loads the remainder"
 }
 
 variable "bulk_user_email_max_audience_load_user_batch_size" {
@@ -109,6 +110,16 @@ variable "bulk_user_email_max_audience_load_user_batch_size" {
   default = 0
 }
 
+variable "bulk_test_user_write_concurrency" {
+  type    = number
+  default = 8
+}
+
+variable "bulk_user_email_audience_load_total_segments" {
+  type    = number
+  default = 1
+}
+
 variable "bulk_user_email_email_sending_enabled" {
   type    = string
   default = "false"
@@ -22,6 +22,8 @@ import uk.gov.di.authentication.shared.services.DynamoAccountModifiersService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.UserContext;
 
+import java.util.Set;
+
 import static uk.gov.di.authentication.frontendapi.domain.FrontendAuditableEvent.ACCOUNT_RECOVERY_NOT_PERMITTED;
 import static uk.gov.di.authentication.frontendapi.domain.FrontendAuditableEvent.ACCOUNT_RECOVERY_PERMITTED;
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyResponse;
@@ -68,6 +70,11 @@ public class AccountRecoveryHandler extends BaseFrontendHandler<AccountRecoveryR
         return super.handleRequest(input, context);
     }
 
+    @Override
+    protected Set<String> getUserProfileAttributes() {
+        return Set.of(UserProfile.ATTRIBUTE_SUBJECT_ID, UserProfile.ATTRIBUTE_SALT);
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequestWithUserContext(
             APIGatewayProxyRequestEvent input,
@@ -38,7 +38,6 @@ import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.UserContext;
 
 import java.util.Objects;
-import java.util.Optional;
 
 import static uk.gov.di.authentication.frontendapi.domain.FrontendAuditableEvent.LOG_IN_SUCCESS;
 import static uk.gov.di.authentication.frontendapi.services.UserMigrationService.userHasBeenPartlyMigrated;
@@ -120,9 +119,9 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
             var persistentSessionId =
                     PersistentIdHelper.extractPersistentIdFromHeaders(input.getHeaders());
             var clientId = userContext.getClientId();
-            Optional<UserProfile> userProfileMaybe =
-                    authenticationService.getUserProfileByEmailMaybe(request.getEmail());
-            if (userProfileMaybe.isEmpty() || userContext.getUserCredentials().isEmpty()) {
+            var userProfileMaybe = userContext.getUserProfile();
+            var userCredentialsMaybe = userContext.getUserCredentials();
+            if (userProfileMaybe.isEmpty() || userCredentialsMaybe.isEmpty()) {
 
                 auditService.submitAuditEvent(
                         FrontendAuditableEvent.NO_ACCOUNT_WITH_EMAIL,
@@ -139,7 +138,7 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
             }
 
             UserProfile userProfile = userProfileMaybe.get();
-            UserCredentials userCredentials = userContext.getUserCredentials().get();
+            UserCredentials userCredentials = userCredentialsMaybe.get();
 
             int incorrectPasswordCount =
                     codeStorageService.getIncorrectPasswordCount(request.getEmail());
@@ -169,7 +168,7 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
                 return generateApiGatewayProxyErrorResponse(400, ErrorResponse.ERROR_1028);
             }
 
-            if (!credentialsAreValid(request, userProfile)) {
+            if (!credentialsAreValid(request, userProfile, userCredentials)) {
                 codeStorageService.increaseIncorrectPasswordCount(request.getEmail());
 
                 auditService.submitAuditEvent(
@@ -272,9 +271,8 @@ public class LoginHandler extends BaseFrontendHandler<LoginRequest>
         }
     }
 
-    private boolean credentialsAreValid(LoginRequest request, UserProfile userProfile) {
-        var userCredentials = authenticationService.getUserCredentialsFromEmail(request.getEmail());
-
+    private boolean credentialsAreValid(
+            LoginRequest request, UserProfile userProfile, UserCredentials userCredentials) {
         var userIsAMigratedUser =
                 userHasBeenPartlyMigrated(userProfile.getLegacySubjectID(), userCredentials);
 
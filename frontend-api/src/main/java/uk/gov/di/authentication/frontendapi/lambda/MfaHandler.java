@@ -16,6 +16,7 @@ import uk.gov.di.authentication.shared.entity.JourneyType;
 import uk.gov.di.authentication.shared.entity.NotificationType;
 import uk.gov.di.authentication.shared.entity.NotifyRequest;
 import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.exceptions.ClientNotFoundException;
 import uk.gov.di.authentication.shared.helpers.IpAddressHelper;
 import uk.gov.di.authentication.shared.helpers.PersistentIdHelper;
@@ -33,8 +34,10 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.UserContext;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 import static uk.gov.di.authentication.shared.entity.ErrorResponse.ERROR_1000;
 import static uk.gov.di.authentication.shared.entity.ErrorResponse.ERROR_1001;
@@ -110,6 +113,11 @@ public class MfaHandler extends BaseFrontendHandler<MfaRequest>
         return super.handleRequest(input, context);
     }
 
+    @Override
+    protected Set<String> getUserProfileAttributes() {
+        return Set.of(UserProfile.ATTRIBUTE_EMAIL);
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequestWithUserContext(
             APIGatewayProxyRequestEvent input,
@@ -266,13 +274,16 @@ public class MfaHandler extends BaseFrontendHandler<MfaRequest>
                     session.resetCodeRequestCount(NotificationType.MFA_SMS, JourneyType.SIGN_IN));
             return Optional.of(ErrorResponse.ERROR_1025);
         }
-        if (codeStorageService.isBlockedForEmail(email, newCodeRequestBlockPrefix)) {
+        var blockedPrefixes =
+                codeStorageService.getBlockedPrefixesForEmail(
+                        email, List.of(newCodeRequestBlockPrefix, newCodeBlockPrefix));
+        if (blockedPrefixes.contains(newCodeRequestBlockPrefix)) {
             LOG.info(
                     "User is blocked from requesting any OTP codes. Code request block prefix: {}",
                     newCodeRequestBlockPrefix);
             return Optional.of(ErrorResponse.ERROR_1026);
         }
-        if (codeStorageService.isBlockedForEmail(email, newCodeBlockPrefix)) {
+        if (blockedPrefixes.contains(newCodeBlockPrefix)) {
             LOG.info(
                     "User is blocked from entering any OTP codes. Code attempt block prefix: {}",
                     newCodeBlockPrefix);
@@ -42,6 +42,7 @@ import uk.gov.di.authentication.shared.validation.PasswordValidator;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static uk.gov.di.authentication.frontendapi.domain.FrontendAuditableEvent.ACCOUNT_RECOVERY_BLOCK_ADDED;
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyErrorResponse;
@@ -114,6 +115,11 @@ public class ResetPasswordHandler extends BaseFrontendHandler<ResetPasswordCompl
         return super.handleRequest(input, context);
     }
 
+    @Override
+    protected Set<String> getUserProfileAttributes() {
+        return Set.of(UserProfile.ATTRIBUTE_EMAIL);
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequestWithUserContext(
             APIGatewayProxyRequestEvent input,
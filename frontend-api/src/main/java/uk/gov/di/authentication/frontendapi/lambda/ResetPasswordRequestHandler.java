@@ -14,6 +14,7 @@ import uk.gov.di.authentication.shared.entity.CodeRequestType;
 import uk.gov.di.authentication.shared.entity.ErrorResponse;
 import uk.gov.di.authentication.shared.entity.JourneyType;
 import uk.gov.di.authentication.shared.entity.NotifyRequest;
+import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.exceptions.ClientNotFoundException;
 import uk.gov.di.authentication.shared.helpers.IpAddressHelper;
 import uk.gov.di.authentication.shared.helpers.PersistentIdHelper;
@@ -31,8 +32,10 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.UserContext;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static uk.gov.di.authentication.frontendapi.domain.FrontendAuditableEvent.PASSWORD_RESET_REQUESTED;
 import static uk.gov.di.authentication.frontendapi.domain.FrontendAuditableEvent.PASSWORD_RESET_REQUESTED_FOR_TEST_CLIENT;
@@ -99,6 +102,11 @@ public class ResetPasswordRequestHandler extends BaseFrontendHandler<ResetPasswo
         return super.handleRequest(input, context);
     }
 
+    @Override
+    protected Set<String> getUserProfileAttributes() {
+        return Set.of(UserProfile.ATTRIBUTE_EMAIL);
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequestWithUserContext(
             APIGatewayProxyRequestEvent input,
@@ -198,11 +206,14 @@ public class ResetPasswordRequestHandler extends BaseFrontendHandler<ResetPasswo
             sessionService.save(userContext.getSession().resetPasswordResetCount());
             return Optional.of(ErrorResponse.ERROR_1022);
         }
-        if (codeStorageService.isBlockedForEmail(email, codeRequestBlockedKeyPrefix)) {
+        var blockedPrefixes =
+                codeStorageService.getBlockedPrefixesForEmail(
+                        email, List.of(codeRequestBlockedKeyPrefix, codeAttemptsBlockedKeyPrefix));
+        if (blockedPrefixes.contains(codeRequestBlockedKeyPrefix)) {
             LOG.info("Code is blocked for email as user has requested too many OTPs");
             return Optional.of(ErrorResponse.ERROR_1023);
         }
-        if (codeStorageService.isBlockedForEmail(email, codeAttemptsBlockedKeyPrefix)) {
+        if (blockedPrefixes.contains(codeAttemptsBlockedKeyPrefix)) {
             LOG.info("Code is blocked for email as user has entered too many invalid OTPs");
             return Optional.of(ErrorResponse.ERROR_1039);
         }
@@ -24,8 +24,10 @@ import uk.gov.di.authentication.shared.services.SessionService;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -63,10 +65,14 @@ class AccountRecoveryHandlerTest {
 
     @BeforeEach
     void setup() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         var userProfile = generateUserProfile();
         when(configurationService.getInternalSectorUri()).thenReturn(INTERNAL_SECTOR_URI);
         when(authenticationService.getOrGenerateSalt(userProfile)).thenReturn(SALT);
-        when(authenticationService.getUserProfileFromEmail(EMAIL))
+        when(authenticationService.getUserProfileFromEmail(
+                        EMAIL,
+                        Set.of(UserProfile.ATTRIBUTE_SUBJECT_ID, UserProfile.ATTRIBUTE_SALT)))
                 .thenReturn(Optional.of(userProfile));
         handler =
                 new AccountRecoveryHandler(
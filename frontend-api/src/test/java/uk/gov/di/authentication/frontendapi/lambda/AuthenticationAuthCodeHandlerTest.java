@@ -25,8 +25,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -63,6 +65,8 @@ class AuthenticationAuthCodeHandlerTest {
 
     @BeforeEach
     void setUp() throws Json.JsonException {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(context.getAwsRequestId()).thenReturn("aws-session-id");
         when(sessionService.getSessionFromRequestHeaders(anyMap()))
                 .thenReturn(Optional.of(session));
@@ -171,7 +175,8 @@ class AuthenticationAuthCodeHandlerTest {
         when(configurationService.getAuthCodeExpiry()).thenReturn(Long.valueOf(12));
         var userProfile = new UserProfile();
         userProfile.setSubjectID(TEST_SUBJECT_ID);
-        when(authenticationService.getUserProfileFromEmail(TEST_EMAIL_ADDRESS))
+        when(authenticationService.getUserProfileFromEmail(
+                        TEST_EMAIL_ADDRESS, Set.of(UserProfile.ATTRIBUTE_SUBJECT_ID)))
                 .thenReturn(Optional.of(userProfile));
         var event = validAuthCodeRequest();
 
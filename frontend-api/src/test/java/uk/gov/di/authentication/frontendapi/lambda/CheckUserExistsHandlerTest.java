@@ -46,6 +46,7 @@ import java.util.Optional;
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
@@ -101,6 +102,8 @@ class CheckUserExistsHandlerTest {
 
     @BeforeEach
     void setup() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(context.getAwsRequestId()).thenReturn("aws-session-id");
         when(configurationService.getMaxPasswordRetries()).thenReturn(5);
         when(codeStorageService.getIncorrectPasswordCount(EMAIL_ADDRESS)).thenReturn(0);
@@ -126,8 +129,8 @@ class CheckUserExistsHandlerTest {
         when(authenticationService.getUserProfileByEmailMaybe(EMAIL_ADDRESS))
                 .thenReturn(Optional.of(userProfile));
         when(clientService.getClient(CLIENT_ID)).thenReturn(Optional.of(generateClientRegistry()));
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(getClientSession()));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(getClientSession())));
 
         var event =
                 new APIGatewayProxyRequestEvent()
@@ -172,8 +175,8 @@ class CheckUserExistsHandlerTest {
     void shouldReturn200IfUserDoesNotExist() throws Json.JsonException {
         usingValidSession();
         when(clientService.getClient(CLIENT_ID)).thenReturn(Optional.of(generateClientRegistry()));
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(getClientSession()));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(getClientSession())));
         when(authenticationService.getUserProfileByEmailMaybe(
                         "joe.bloggs@digital.cabinet-office.gov.uk"))
                 .thenReturn(Optional.empty());
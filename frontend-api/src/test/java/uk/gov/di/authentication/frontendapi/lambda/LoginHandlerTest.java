@@ -29,6 +29,7 @@ import uk.gov.di.authentication.shared.entity.MFAMethod;
 import uk.gov.di.authentication.shared.entity.MFAMethodType;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.entity.TermsAndConditions;
+import uk.gov.di.authentication.shared.entity.User;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.entity.VectorOfTrust;
@@ -58,6 +59,7 @@ import java.util.Optional;
 
 import static java.lang.String.format;
 import static java.util.Objects.nonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
@@ -139,10 +141,12 @@ class LoginHandlerTest {
 
     @BeforeEach
     void setUp() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(configurationService.getMaxPasswordRetries()).thenReturn(5);
         when(configurationService.getTermsAndConditionsVersion()).thenReturn("1.0");
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(context.getAwsRequestId()).thenReturn("aws-session-id");
         when(clientService.getClient(CLIENT_ID.getValue()))
                 .thenReturn(Optional.of(generateClientRegistry()));
@@ -169,8 +173,6 @@ class LoginHandlerTest {
         headers.put("Session-Id", session.getSessionId());
         headers.put(CLIENT_SESSION_ID_HEADER, CLIENT_SESSION_ID);
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(clientSession.getAuthRequestParams())
                 .thenReturn(generateAuthRequest(LOW_LEVEL).toParameters());
         var vot =
@@ -179,7 +181,7 @@ class LoginHandlerTest {
         when(clientSession.getEffectiveVectorOfTrust()).thenReturn(vot);
 
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(SMS, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, SMS, true);
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setRequestContext(contextWithSourceIp("123.123.123.123"));
@@ -197,7 +199,7 @@ class LoginHandlerTest {
                 response.getRedactedPhoneNumber(),
                 equalTo(RedactPhoneNumberHelper.redactPhoneNumber(PHONE_NUMBER)));
         assertThat(response.getLatestTermsAndConditionsAccepted(), equalTo(true));
-        verify(authenticationService).getUserProfileByEmailMaybe(EMAIL);
+        verify(authenticationService).getUser(EMAIL);
 
         verify(auditService)
                 .submitAuditEvent(
@@ -239,11 +241,9 @@ class LoginHandlerTest {
         headers.put("Session-Id", session.getSessionId());
         headers.put(CLIENT_SESSION_ID_HEADER, CLIENT_SESSION_ID);
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(clientSession.getAuthRequestParams()).thenReturn(generateAuthRequest().toParameters());
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, true);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -262,7 +262,7 @@ class LoginHandlerTest {
                 response.getRedactedPhoneNumber(),
                 equalTo(RedactPhoneNumberHelper.redactPhoneNumber(PHONE_NUMBER)));
         assertThat(response.getLatestTermsAndConditionsAccepted(), equalTo(true));
-        verify(authenticationService).getUserProfileByEmailMaybe(EMAIL);
+        verify(authenticationService).getUser(EMAIL);
 
         verify(auditService)
                 .submitAuditEvent(
@@ -298,11 +298,9 @@ class LoginHandlerTest {
         headers.put("Session-Id", session.getSessionId());
         headers.put(CLIENT_SESSION_ID_HEADER, CLIENT_SESSION_ID);
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(clientSession.getAuthRequestParams()).thenReturn(generateAuthRequest().toParameters());
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, true);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -321,7 +319,7 @@ class LoginHandlerTest {
                 response.getRedactedPhoneNumber(),
                 equalTo(RedactPhoneNumberHelper.redactPhoneNumber(PHONE_NUMBER)));
         assertThat(response.getLatestTermsAndConditionsAccepted(), equalTo(false));
-        verify(authenticationService).getUserProfileByEmailMaybe(EMAIL);
+        verify(authenticationService).getUser(EMAIL);
 
         verify(auditService)
                 .submitAuditEvent(
@@ -364,9 +362,8 @@ class LoginHandlerTest {
                                         .withMethodVerified(false)
                                         .withEnabled(true));
         when(authenticationService.login(userCredentials, PASSWORD)).thenReturn(true);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
-        when(authenticationService.getUserCredentialsFromEmail(EMAIL)).thenReturn(userCredentials);
+        when(authenticationService.getUser(EMAIL))
+                .thenReturn(Optional.of(new User(userProfile, userCredentials)));
         when(clientSession.getAuthRequestParams()).thenReturn(generateAuthRequest().toParameters());
         usingValidSession();
 
@@ -390,7 +387,7 @@ class LoginHandlerTest {
         assertThat(response.getLatestTermsAndConditionsAccepted(), equalTo(true));
         assertThat(response.getMfaMethodType(), equalTo(SMS));
         assertThat(response.isMfaMethodVerified(), equalTo(true));
-        verify(authenticationService).getUserProfileByEmailMaybe(EMAIL);
+        verify(authenticationService).getUser(EMAIL);
 
         verify(auditService)
                 .submitAuditEvent(
@@ -422,11 +419,9 @@ class LoginHandlerTest {
             throws Json.JsonException {
         when(commonPasswordsService.isCommonPassword(anyString())).thenReturn(true);
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(clientSession.getAuthRequestParams()).thenReturn(generateAuthRequest().toParameters());
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, true);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -458,10 +453,8 @@ class LoginHandlerTest {
             throws Json.JsonException {
         String legacySubjectId = new Subject().getValue();
         UserProfile userProfile = generateUserProfile(legacySubjectId);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         UserCredentials applicableUserCredentials =
-                usingApplicableUserCredentialsWithLogin(mfaMethodType, false);
+                usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, false);
         applicableUserCredentials.withPassword(null);
         when(userMigrationService.processMigratedUser(applicableUserCredentials, PASSWORD))
                 .thenReturn(true);
@@ -498,12 +491,10 @@ class LoginHandlerTest {
     void shouldReturn200IfPasswordIsEnteredAgain(MFAMethodType mfaMethodType)
             throws Json.JsonException {
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(clientSession.getAuthRequestParams()).thenReturn(generateAuthRequest().toParameters());
 
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, true);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -534,11 +525,9 @@ class LoginHandlerTest {
     void shouldChangeStateToAccountTemporarilyLockedAfter5UnsuccessfulAttempts(
             MFAMethodType mfaMethodType) {
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(codeStorageService.getIncorrectPasswordCount(EMAIL)).thenReturn(5);
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, false);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, false);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -563,11 +552,9 @@ class LoginHandlerTest {
     void shouldKeepUserLockedWhenTheyEnterSuccessfulLoginRequestInNewSession(
             MFAMethodType mfaMethodType) {
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(codeStorageService.getIncorrectPasswordCount(EMAIL)).thenReturn(5);
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, true);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -610,9 +597,8 @@ class LoginHandlerTest {
     void shouldRemoveIncorrectPasswordCountRemovesUponSuccessfulLogin(MFAMethodType mfaMethodType)
             throws Json.JsonException {
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
-        UserCredentials applicableUserCredentials = usingApplicableUserCredentials(mfaMethodType);
+        UserCredentials applicableUserCredentials =
+                usingApplicableUserCredentials(userProfile, mfaMethodType);
         when(codeStorageService.getIncorrectPasswordCount(EMAIL)).thenReturn(4);
         usingValidSession();
         usingDefaultVectorOfTrust();
@@ -645,9 +631,7 @@ class LoginHandlerTest {
     @EnumSource(MFAMethodType.class)
     void shouldReturn401IfUserHasInvalidCredentials(MFAMethodType mfaMethodType) {
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
-        usingApplicableUserCredentialsWithLogin(mfaMethodType, false);
+        usingApplicableUserCredentialsWithLogin(userProfile, mfaMethodType, false);
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setRequestContext(contextWithSourceIp("123.123.123.123"));
@@ -694,10 +678,9 @@ class LoginHandlerTest {
     void shouldReturn401IfMigratedUserHasInvalidCredentials(MFAMethodType mfaMethodType) {
         String legacySubjectId = new Subject().getValue();
         UserProfile userProfile = generateUserProfile(legacySubjectId);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
 
-        UserCredentials applicableUserCredentials = usingApplicableUserCredentials(mfaMethodType);
+        UserCredentials applicableUserCredentials =
+                usingApplicableUserCredentials(userProfile, mfaMethodType);
 
         when(userMigrationService.processMigratedUser(applicableUserCredentials, PASSWORD))
                 .thenReturn(false);
@@ -770,7 +753,7 @@ class LoginHandlerTest {
 
     @Test
     void shouldReturn400IfUserDoesNotHaveAnAccount() {
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL)).thenReturn(Optional.empty());
+        when(authenticationService.getUser(EMAIL)).thenReturn(Optional.empty());
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setRequestContext(contextWithSourceIp("123.123.123.123"));
         event.setHeaders(
@@ -803,6 +786,57 @@ class LoginHandlerTest {
         verify(sessionService, never()).save(any(Session.class));
     }
 
+    @Test
+    void shouldReturn400WithoutLoadingCredentialsIfSessionHasNoEmail() {
+        usingApplicableUserCredentialsWithLogin(generateUserProfile(null), SMS, true);
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setRequestContext(contextWithSourceIp("123.123.123.123"));
+        event.setHeaders(
+                Map.of(
+                        "Session-Id",
+                        session.getSessionId(),
+                        CLIENT_SESSION_ID_HEADER,
+                        CLIENT_SESSION_ID));
+        event.setBody(format("{ \"password\": \"%s\", \"email\": \"%s\" }", PASSWORD, EMAIL));
+        when(sessionService.getSessionFromRequestHeaders(anyMap()))
+                .thenReturn(Optional.of(new Session(session.getSessionId())));
+        usingDefaultVectorOfTrust();
+
+        APIGatewayProxyResponseEvent result = handler.handleRequest(event, context);
+
+        assertThat(result, hasStatus(400));
+        assertThat(result, hasJsonBody(ErrorResponse.ERROR_1010));
+        verify(authenticationService, never()).getUser(anyString());
+        verify(authenticationService, never()).login(any(UserCredentials.class), anyString());
+        verify(sessionService, never()).save(any(Session.class));
+    }
+
+    @Test
+    void shouldReturn400WithoutLoadingCredentialsIfRequestEmailDoesNotMatchSession() {
+        usingApplicableUserCredentialsWithLogin(generateUserProfile(null), SMS, true);
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setRequestContext(contextWithSourceIp("123.123.123.123"));
+        event.setHeaders(
+                Map.of(
+                        "Session-Id",
+                        session.getSessionId(),
+                        CLIENT_SESSION_ID_HEADER,
+                        CLIENT_SESSION_ID));
+        event.setBody(
+                format(
+                        "{ \"password\": \"%s\", \"email\": \"%s\" }",
+                        PASSWORD, "someone.else@test.com"));
+        usingValidSession();
+        usingDefaultVectorOfTrust();
+
+        APIGatewayProxyResponseEvent result = handler.handleRequest(event, context);
+
+        assertThat(result, hasStatus(400));
+        assertThat(result, hasJsonBody(ErrorResponse.ERROR_1010));
+        verify(authenticationService, never()).getUser(anyString());
+        verify(authenticationService, never()).login(any(UserCredentials.class), anyString());
+    }
+
     @Test
     void termsAndConditionsShouldBeAcceptedIfClientIsSmokeTestClient() throws Json.JsonException {
         when(configurationService.getTermsAndConditionsVersion()).thenReturn("2.0");
@@ -812,11 +846,9 @@ class LoginHandlerTest {
         headers.put("Session-Id", session.getSessionId());
         headers.put(CLIENT_SESSION_ID_HEADER, CLIENT_SESSION_ID);
         UserProfile userProfile = generateUserProfile(null);
-        when(authenticationService.getUserProfileByEmailMaybe(EMAIL))
-                .thenReturn(Optional.of(userProfile));
         when(clientSession.getAuthRequestParams()).thenReturn(generateAuthRequest().toParameters());
         usingValidSession();
-        usingApplicableUserCredentialsWithLogin(SMS, true);
+        usingApplicableUserCredentialsWithLogin(userProfile, SMS, true);
         usingDefaultVectorOfTrust();
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -835,7 +867,7 @@ class LoginHandlerTest {
                 response.getRedactedPhoneNumber(),
                 equalTo(RedactPhoneNumberHelper.redactPhoneNumber(PHONE_NUMBER)));
         assertThat(response.getLatestTermsAndConditionsAccepted(), equalTo(true));
-        verify(authenticationService).getUserProfileByEmailMaybe(EMAIL);
+        verify(authenticationService).getUser(EMAIL);
 
         verify(auditService)
                 .submitAuditEvent(
@@ -887,17 +919,19 @@ class LoginHandlerTest {
                 .thenReturn(Optional.of(session));
     }
 
-    private UserCredentials usingApplicableUserCredentials(MFAMethodType mfaMethodType) {
+    private UserCredentials usingApplicableUserCredentials(
+            UserProfile userProfile, MFAMethodType mfaMethodType) {
         UserCredentials applicableUserCredentials =
                 mfaMethodType.equals(SMS) ? userCredentials : userCredentialsAuthApp;
-        when(authenticationService.getUserCredentialsFromEmail(EMAIL))
-                .thenReturn(applicableUserCredentials);
+        when(authenticationService.getUser(EMAIL))
+                .thenReturn(Optional.of(new User(userProfile, applicableUserCredentials)));
         return applicableUserCredentials;
     }
 
     private UserCredentials usingApplicableUserCredentialsWithLogin(
-            MFAMethodType mfaMethodType, boolean loginSuccessful) {
-        UserCredentials applicableUserCredentials = usingApplicableUserCredentials(mfaMethodType);
+            UserProfile userProfile, MFAMethodType mfaMethodType, boolean loginSuccessful) {
+        UserCredentials applicableUserCredentials =
+                usingApplicableUserCredentials(userProfile, mfaMethodType);
         when(authenticationService.login(applicableUserCredentials, PASSWORD))
                 .thenReturn(loginSuccessful);
         return applicableUserCredentials;
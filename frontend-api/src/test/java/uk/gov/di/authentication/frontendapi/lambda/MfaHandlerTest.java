@@ -46,15 +46,19 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -122,6 +126,8 @@ public class MfaHandlerTest {
 
     @BeforeEach
     void setUp() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(context.getAwsRequestId()).thenReturn("aws-session-id");
         when(configurationService.getDefaultOtpCodeExpiry()).thenReturn(CODE_EXPIRY_TIME);
         when(configurationService.getCodeMaxRetries()).thenReturn(5);
@@ -381,10 +387,11 @@ public class MfaHandlerTest {
         CodeRequestType codeRequestTypeForBlockedOtpRequestType =
                 CodeRequestType.getCodeRequestType(
                         NotificationType.VERIFY_EMAIL, JourneyType.REGISTRATION);
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_REQUEST_BLOCKED_KEY_PREFIX + codeRequestTypeForBlockedOtpRequestType))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(
+                        Set.of(
+                                CODE_REQUEST_BLOCKED_KEY_PREFIX
+                                        + codeRequestTypeForBlockedOtpRequestType));
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setHeaders(
@@ -448,10 +455,8 @@ public class MfaHandlerTest {
     @Test
     void shouldReturn400IfUserIsBlockedFromRequestingAnyMoreMfaCodes() {
         usingValidSession();
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_REQUEST_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_SIGN_IN))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(Set.of(CODE_REQUEST_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_SIGN_IN));
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setHeaders(
@@ -486,9 +491,8 @@ public class MfaHandlerTest {
         usingValidSession();
         when(authenticationService.getPhoneNumber(TEST_EMAIL_ADDRESS))
                 .thenReturn(Optional.of(PHONE_NUMBER));
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS, CODE_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_SIGN_IN))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(Set.of(CODE_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_SIGN_IN));
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setHeaders(
                 Map.of(
@@ -629,8 +633,8 @@ public class MfaHandlerTest {
     }
 
     private void usingValidClientSession(String clientId) {
-        when(clientSessionService.getClientSessionFromRequestHeaders(anyMap()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(clientSession.getAuthRequestParams())
                 .thenReturn(withAuthenticationRequest(clientId).toParameters());
     }
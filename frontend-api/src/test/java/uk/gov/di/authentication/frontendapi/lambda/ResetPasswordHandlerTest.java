@@ -53,6 +53,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
@@ -123,6 +124,8 @@ class ResetPasswordHandlerTest {
 
     @BeforeEach
     public void setUp() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         doReturn(Optional.of(ErrorResponse.ERROR_1007))
                 .when(passwordValidator)
                 .validate("password");
@@ -485,8 +488,8 @@ class ResetPasswordHandlerTest {
                         .state(new State())
                         .nonce(new Nonce())
                         .build();
-        when(clientSessionService.getClientSessionFromRequestHeaders(anyMap()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(clientSession.getAuthRequestParams()).thenReturn(authRequest.toParameters());
     }
 
@@ -47,14 +47,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -136,6 +139,8 @@ class ResetPasswordRequestHandlerTest {
 
     @BeforeEach
     void setup() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(clientService.getClient(TEST_CLIENT_ID)).thenReturn(Optional.of(testClientRegistry));
         when(configurationService.getDefaultOtpCodeExpiry()).thenReturn(CODE_EXPIRY_TIME);
         when(codeGeneratorService.twentyByteEncodedRandomCode()).thenReturn(TEST_SIX_DIGIT_CODE);
@@ -374,8 +379,8 @@ class ResetPasswordRequestHandlerTest {
                 CodeRequestType.getCodeRequestType(
                         RESET_PASSWORD_WITH_CODE, JourneyType.PASSWORD_RESET);
         var codeRequestBlockedKeyPrefix = CODE_REQUEST_BLOCKED_KEY_PREFIX + codeRequestType;
-        when(codeStorageService.isBlockedForEmail(TEST_EMAIL_ADDRESS, codeRequestBlockedKeyPrefix))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(Set.of(codeRequestBlockedKeyPrefix));
         when(sessionService.getSessionFromRequestHeaders(anyMap()))
                 .thenReturn(Optional.of(session));
 
@@ -403,8 +408,8 @@ class ResetPasswordRequestHandlerTest {
                 CodeRequestType.getCodeRequestType(
                         RESET_PASSWORD_WITH_CODE, JourneyType.PASSWORD_RESET);
         var codeRequestBlockedKeyPrefix = CODE_BLOCKED_KEY_PREFIX + codeRequestType;
-        when(codeStorageService.isBlockedForEmail(TEST_EMAIL_ADDRESS, codeRequestBlockedKeyPrefix))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(Set.of(codeRequestBlockedKeyPrefix));
         when(sessionService.getSessionFromRequestHeaders(anyMap()))
                 .thenReturn(Optional.of(session));
 
@@ -461,8 +466,8 @@ class ResetPasswordRequestHandlerTest {
                         .state(new State())
                         .nonce(new Nonce())
                         .build();
-        when(clientSessionService.getClientSessionFromRequestHeaders(anyMap()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(clientSession.getAuthRequestParams()).thenReturn(authRequest.toParameters());
     }
 }
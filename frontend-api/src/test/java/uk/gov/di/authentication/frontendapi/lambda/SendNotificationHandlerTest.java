@@ -52,18 +52,22 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -165,6 +169,8 @@ class SendNotificationHandlerTest {
 
     @BeforeEach
     void setup() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(configurationService.getDefaultOtpCodeExpiry()).thenReturn(CODE_EXPIRY_TIME);
         when(configurationService.getEmailAccountCreationOtpCodeExpiry())
                 .thenReturn(CODE_EXPIRY_TIME);
@@ -174,8 +180,8 @@ class SendNotificationHandlerTest {
         when(configurationService.getEnvironment()).thenReturn("unit-test");
         when(clientService.getClient(CLIENT_ID)).thenReturn(Optional.of(clientRegistry));
         when(clientService.getClient(TEST_CLIENT_ID)).thenReturn(Optional.of(testClientRegistry));
-        when(clientSessionService.getClientSessionFromRequestHeaders(anyMap()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
     }
 
     @ParameterizedTest
@@ -620,10 +626,11 @@ class SendNotificationHandlerTest {
             JourneyType journeyTypeTwo) {
         CodeRequestType codeRequestTypeForBlockedOtpRequestType =
                 CodeRequestType.getCodeRequestType(notificationTypeOne, journeyTypeOne);
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_REQUEST_BLOCKED_KEY_PREFIX + codeRequestTypeForBlockedOtpRequestType))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(
+                        Set.of(
+                                CODE_REQUEST_BLOCKED_KEY_PREFIX
+                                        + codeRequestTypeForBlockedOtpRequestType));
 
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
@@ -761,10 +768,11 @@ class SendNotificationHandlerTest {
 
     @Test
     void shouldReturn400IfUserIsBlockedFromRequestingAnyMoreRegistrationEmailOtps() {
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_REQUEST_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_REGISTRATION))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(
+                        Set.of(
+                                CODE_REQUEST_BLOCKED_KEY_PREFIX
+                                        + CodeRequestType.EMAIL_REGISTRATION));
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
 
@@ -792,10 +800,11 @@ class SendNotificationHandlerTest {
 
     @Test
     void shouldReturn400IfUserIsBlockedFromRequestingAnyMoreAccountRecoveryEmailOtps() {
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_REQUEST_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_ACCOUNT_RECOVERY))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(
+                        Set.of(
+                                CODE_REQUEST_BLOCKED_KEY_PREFIX
+                                        + CodeRequestType.EMAIL_ACCOUNT_RECOVERY));
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
 
@@ -825,10 +834,9 @@ class SendNotificationHandlerTest {
 
     @Test
     void shouldReturn400IfUserIsBlockedFromRequestingAnyMorePhoneOtpCodes() {
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_REQUEST_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_REGISTRATION))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(
+                        Set.of(CODE_REQUEST_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_REGISTRATION));
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
 
@@ -862,10 +870,8 @@ class SendNotificationHandlerTest {
     void shouldReturn400IfUserIsBlockedFromEnteringRegistrationEmailOtpCodes() {
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_REGISTRATION))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(Set.of(CODE_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_REGISTRATION));
 
         var result =
                 sendRequest(
@@ -893,10 +899,9 @@ class SendNotificationHandlerTest {
     void shouldReturn400IfUserIsBlockedFromEnteringAccountRecoveryEmailOtpCodes() {
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_ACCOUNT_RECOVERY))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(
+                        Set.of(CODE_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_ACCOUNT_RECOVERY));
 
         var result =
                 sendRequest(
@@ -924,10 +929,8 @@ class SendNotificationHandlerTest {
 
     @Test
     void shouldReturn400IfUserIsBlockedFromEnteringPhoneOtpCodes() {
-        when(codeStorageService.isBlockedForEmail(
-                        TEST_EMAIL_ADDRESS,
-                        CODE_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_REGISTRATION))
-                .thenReturn(true);
+        when(codeStorageService.getBlockedPrefixesForEmail(eq(TEST_EMAIL_ADDRESS), anyList()))
+                .thenReturn(Set.of(CODE_BLOCKED_KEY_PREFIX + CodeRequestType.SMS_REGISTRATION));
         usingValidSession();
         usingValidClientSession(CLIENT_ID);
 
@@ -1037,8 +1040,8 @@ class SendNotificationHandlerTest {
                         .state(new State())
                         .nonce(new Nonce())
                         .build();
-        when(clientSessionService.getClientSessionFromRequestHeaders(anyMap()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(clientSession.getAuthRequestParams()).thenReturn(authRequest.toParameters());
     }
 
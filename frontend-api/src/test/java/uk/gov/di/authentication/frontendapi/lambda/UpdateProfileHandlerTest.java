@@ -42,6 +42,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
@@ -120,6 +121,8 @@ class UpdateProfileHandlerTest {
 
     @BeforeEach
     void setUp() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         when(context.getAwsRequestId()).thenReturn("request-id");
         handler =
                 new UpdateProfileHandler(
@@ -267,8 +270,8 @@ class UpdateProfileHandlerTest {
                         LocalDateTime.now(),
                         mock(VectorOfTrust.class),
                         CLIENT_NAME);
-        when(clientSessionService.getClientSessionFromRequestHeaders(anyMap()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
     }
 
     private APIGatewayProxyResponseEvent makeHandlerRequest(APIGatewayProxyRequestEvent event) {
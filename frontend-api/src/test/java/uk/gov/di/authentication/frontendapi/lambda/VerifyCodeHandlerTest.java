@@ -49,11 +49,15 @@ import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -146,6 +150,8 @@ class VerifyCodeHandlerTest {
 
     @BeforeEach
     void setup() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         handler =
                 new VerifyCodeHandler(
                         configurationService,
@@ -158,10 +164,10 @@ class VerifyCodeHandlerTest {
                         cloudwatchMetricsService,
                         accountModifiersService);
 
-        when(authenticationService.getUserProfileFromEmail(TEST_EMAIL_ADDRESS))
+        when(authenticationService.getUserProfileFromEmail(eq(TEST_EMAIL_ADDRESS), anySet()))
                 .thenReturn(Optional.of(userProfile));
 
-        when(authenticationService.getUserProfileFromEmail(TEST_CLIENT_EMAIL))
+        when(authenticationService.getUserProfileFromEmail(eq(TEST_CLIENT_EMAIL), anySet()))
                 .thenReturn(Optional.of(userProfile));
 
         when(configurationService.getDefaultOtpCodeExpiry()).thenReturn(CODE_EXPIRY_TIME);
@@ -358,7 +364,8 @@ class VerifyCodeHandlerTest {
     void
             shouldReturnMaxReachedAndNotSetBlockWhenRegistrationEmailCodeAttemptsExceedMaxRetryCount() {
         when(configurationService.getCodeMaxRetries()).thenReturn(5);
-        when(codeStorageService.getIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS)).thenReturn(6);
+        when(codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS))
+                .thenReturn(6);
         when(codeStorageService.getOtpCode(TEST_EMAIL_ADDRESS, VERIFY_EMAIL))
                 .thenReturn(Optional.of(CODE));
         var result = makeCallWithCode(INVALID_CODE, VERIFY_EMAIL.name());
@@ -437,7 +444,8 @@ class VerifyCodeHandlerTest {
         var codeBlockedKeyPrefix = CODE_BLOCKED_KEY_PREFIX + CodeRequestType.EMAIL_ACCOUNT_RECOVERY;
         when(codeStorageService.isBlockedForEmail(TEST_EMAIL_ADDRESS, codeBlockedKeyPrefix))
                 .thenReturn(false);
-        when(codeStorageService.getIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS)).thenReturn(6);
+        when(codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS))
+                .thenReturn(6);
 
         var result = makeCallWithCode(CODE, VERIFY_CHANGE_HOW_GET_SECURITY_CODES.name());
 
@@ -578,7 +586,8 @@ class VerifyCodeHandlerTest {
         when(configurationService.getBlockedEmailDuration()).thenReturn(BLOCKED_EMAIL_DURATION);
         when(codeStorageService.getOtpCode(TEST_EMAIL_ADDRESS, MFA_SMS))
                 .thenReturn(Optional.of(CODE));
-        when(codeStorageService.getIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS)).thenReturn(1);
+        when(codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS))
+                .thenReturn(1);
 
         var result = makeCallWithCode(INVALID_CODE, MFA_SMS.toString());
 
@@ -614,7 +623,8 @@ class VerifyCodeHandlerTest {
         when(configurationService.getBlockedEmailDuration()).thenReturn(BLOCKED_EMAIL_DURATION);
         when(codeStorageService.getOtpCode(TEST_EMAIL_ADDRESS, RESET_PASSWORD_WITH_CODE))
                 .thenReturn(Optional.of(CODE));
-        when(codeStorageService.getIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS)).thenReturn(1);
+        when(codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL_ADDRESS))
+                .thenReturn(1);
 
         var result = makeCallWithCode(INVALID_CODE, RESET_PASSWORD_WITH_CODE.toString());
 
@@ -682,14 +692,14 @@ class VerifyCodeHandlerTest {
                         "{ \"code\": \"%s\", \"notificationType\": \"%s\" }",
                         code, notificationType));
         when(sessionService.getSessionFromRequestHeaders(event.getHeaders())).thenReturn(session);
-        when(clientSessionService.getClientSessionFromRequestHeaders(event.getHeaders()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(event.getHeaders()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(clientSession.getAuthRequestParams())
                 .thenReturn(withAuthenticationRequest(clientId).toParameters());
         when(clientService.getClient(CLIENT_ID)).thenReturn(Optional.of(clientRegistry));
         when(clientService.getClient(TEST_CLIENT_ID)).thenReturn(Optional.of(testClientRegistry));
-        when(clientSessionService.getClientSessionFromRequestHeaders(event.getHeaders()))
-                .thenReturn(Optional.of(clientSession));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(event.getHeaders()))
+                .thenReturn(completedFuture(Optional.of(clientSession)));
         when(clientSessionService.getClientSession(CLIENT_SESSION_ID))
                 .thenReturn(Optional.of(clientSession));
         when(clientSession.getEffectiveVectorOfTrust()).thenReturn(VectorOfTrust.getDefaults());
@@ -6,6 +6,7 @@ import com.nimbusds.openid.connect.sdk.OIDCScopeValue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.MFAMethod;
 import uk.gov.di.authentication.shared.entity.MFAMethodType;
@@ -24,6 +25,7 @@ import java.util.Set;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class DynamoServiceIntegrationTest {
 
@@ -80,6 +82,26 @@ class DynamoServiceIntegrationTest {
                 equalTo(SdkBytes.fromByteBuffer(savedProfile.getSalt()).asByteArray()));
     }
 
+    @Test
+    void getOrGenerateSaltShouldKeepStoredSaltWhenProfileWasReadWithoutIt() {
+        setUpDynamo();
+        byte[] existingSalt = userStore.addSalt(TEST_EMAIL);
+
+        UserProfile userProfile =
+                dynamoService
+                        .getUserProfileFromEmail(
+                                TEST_EMAIL, Set.of(UserProfile.ATTRIBUTE_SUBJECT_ID))
+                        .orElseThrow();
+        byte[] salt = dynamoService.getOrGenerateSalt(userProfile);
+
+        assertThat(salt, equalTo(existingSalt));
+        UserProfile savedProfile =
+                dynamoService.getUserProfileByEmailMaybe(TEST_EMAIL).orElseThrow();
+        assertThat(
+                existingSalt,
+                equalTo(SdkBytes.fromByteBuffer(savedProfile.getSalt()).asByteArray()));
+    }
+
     private void setUpDynamo() {
         userStore.signUp(TEST_EMAIL, "password-1", new Subject());
     }
@@ -371,6 +393,128 @@ class DynamoServiceIntegrationTest {
                 equalTo(4L));
     }
 
+    @Test
+    void shouldOnlyUpdateChangedAttributesOnPartialUpdate() {
+        setUpDynamo();
+        dynamoService.updateConsent(TEST_EMAIL, CLIENT_CONSENT);
+        var before = dynamoService.getUserProfileByEmail(TEST_EMAIL);
+
+        dynamoService.updatePhoneNumber(TEST_EMAIL, PHONE_NUMBER);
+        dynamoService.setAccountVerified(TEST_EMAIL);
+
+        var after = dynamoService.getUserProfileByEmail(TEST_EMAIL);
+        assertThat(after.getPhoneNumber(), equalTo(PHONE_NUMBER));
+        assertThat(after.getAccountVerified(), equalTo(1));
+        assertThat(after.getClientConsent(), equalTo(before.getClientConsent()));
+        assertThat(after.getTermsAndConditions(), equalTo(before.getTermsAndConditions()));
+        assertThat(after.getSubjectID(), equalTo(before.getSubjectID()));
+        assertThat(after.getPublicSubjectID(), equalTo(before.getPublicSubjectID()));
+    }
+
+    @Test
+    void shouldMergeConsentsAndMfaMethodsWithPartialUpdates() {
+        setUpDynamo();
+        var otherConsent =
+                new ClientConsent("other-client-id", CLAIMS, CREATED_DATE_TIME.toString());
+
+        dynamoService.updateConsent(TEST_EMAIL, CLIENT_CONSENT);
+        dynamoService.updateConsent(TEST_EMAIL, otherConsent);
+        dynamoService.updateMFAMethod(
+                TEST_EMAIL, MFAMethodType.AUTH_APP, false, true, TEST_MFA_APP_CREDENTIAL);
+        dynamoService.updateMFAMethod(
+                TEST_EMAIL, MFAMethodType.AUTH_APP, true, true, TEST_MFA_APP_CREDENTIAL);
+
+        assertThat(dynamoService.getUserConsents(TEST_EMAIL).orElseThrow().size(), equalTo(2));
+        var mfaMethods = dynamoService.getUserCredentialsFromEmail(TEST_EMAIL).getMfaMethods();
+        assertThat(mfaMethods.size(), equalTo(1));
+        assertThat(mfaMethods.get(0).isMethodVerified(), equalTo(true));
+    }
+
+    @Test
+    void shouldClearMigratedPasswordWhenPasswordUpdated() {
+        setUpDynamo();
+        var before = dynamoService.getUserCredentialsFromEmail(TEST_EMAIL);
+
+        dynamoService.updatePassword(TEST_EMAIL, "new-password-1");
+
+        var after = dynamoService.getUserCredentialsFromEmail(TEST_EMAIL);
+        assertThat(dynamoService.login(TEST_EMAIL, "new-password-1"), equalTo(true));
+        assertThat(after.getMigratedPassword(), equalTo(null));
+        assertThat(after.getSubjectID(), equalTo(before.getSubjectID()));
+        assertThat(after.getCreated(), equalTo(before.getCreated()));
+    }
+
+    @Test
+    void shouldNotCreateItemWhenPartiallyUpdatingMissingUser() {
+        assertThrows(
+                ConditionalCheckFailedException.class,
+                () -> dynamoService.updatePhoneNumber(TEST_EMAIL, PHONE_NUMBER));
+        assertThrows(
+                ConditionalCheckFailedException.class,
+                () -> dynamoService.updateConsent(TEST_EMAIL, CLIENT_CONSENT));
+
+        assertThat(dynamoService.getUserProfileByEmail(TEST_EMAIL), equalTo(null));
+    }
+
+    @Test
+    void shouldOnlyLoadProjectedUserProfileAttributes() {
+        setUpDynamo();
+        dynamoService.updatePhoneNumber(TEST_EMAIL, PHONE_NUMBER);
+        var fullProfile = dynamoService.getUserProfileByEmail(TEST_EMAIL);
+
+        var userProfile =
+                dynamoService
+                        .getUserProfileFromEmail(
+                                TEST_EMAIL, Set.of(UserProfile.ATTRIBUTE_SUBJECT_ID))
+                        .orElseThrow();
+
+        assertThat(userProfile.getEmail(), equalTo(TEST_EMAIL));
+        assertThat(userProfile.getSubjectID(), equalTo(fullProfile.getSubjectID()));
+        assertThat(userProfile.getPhoneNumber(), equalTo(null));
+        assertThat(userProfile.getPublicSubjectID(), equalTo(null));
+        assertThat(
+                dynamoService.getUserProfileFromEmail(
+                        UPDATED_TEST_EMAIL, Set.of(UserProfile.ATTRIBUTE_SUBJECT_ID)),
+                equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldGetUserProfileAndCredentialsTogether() {
+        setUpDynamo();
+
+        var user = dynamoService.getUser(TEST_EMAIL.toUpperCase()).orElseThrow();
+
+        assertThat(user.getUserProfile().getEmail(), equalTo(TEST_EMAIL));
+        assertThat(user.getUserCredentials().getEmail(), equalTo(TEST_EMAIL));
+        assertThat(
+                user.getUserProfile().getSubjectID(),
+                equalTo(user.getUserCredentials().getSubjectID()));
+        assertThat(dynamoService.getUser(UPDATED_TEST_EMAIL), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldFindUserBySubjectIdAfterTheirEmailChanges() {
+        setupDynamoWithMultipleUsers();
+        var publicSubjectId = dynamoService.getUserProfileFromSubject("1111").getPublicSubjectID();
+        assertThat(
+                dynamoService.getUserCredentialsFromSubject("1111").getEmail(), equalTo("email1"));
+        assertThat(
+                dynamoService.getUserProfileFromPublicSubject(publicSubjectId).getEmail(),
+                equalTo("email1"));
+
+        dynamoService.updateEmail("email1", UPDATED_TEST_EMAIL);
+
+        assertThat(
+                dynamoService.getUserProfileFromSubject("1111").getEmail(),
+                equalTo(UPDATED_TEST_EMAIL));
+        assertThat(
+                dynamoService.getUserCredentialsFromSubject("1111").getEmail(),
+                equalTo(UPDATED_TEST_EMAIL));
+        assertThat(
+                dynamoService.getUserProfileFromPublicSubject(publicSubjectId).getEmail(),
+                equalTo(UPDATED_TEST_EMAIL));
+    }
+
     @Test
     void shouldThrowWhenUserNotFoundBySubjectId() {
         setupDynamoWithMultipleUsers();
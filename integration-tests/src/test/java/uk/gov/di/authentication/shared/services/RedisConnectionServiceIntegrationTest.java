@@ -2,12 +2,18 @@ package uk.gov.di.authentication.shared.services;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.nullValue;
@@ -72,6 +78,30 @@ class RedisConnectionServiceIntegrationTest {
         }
     }
 
+    @Test
+    void popValueShouldReturnNullWhenKeyDoesNotExist() {
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            assertThat(redis.popValue(testKey), nullValue());
+        }
+    }
+
+    @Test
+    void popValuesShouldReturnValuesInKeyOrderAndClearAllKeys() {
+        var otherKey = UUID.randomUUID().toString();
+        var missingKey = UUID.randomUUID().toString();
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            redis.saveWithExpiry(testKey, TEST_VALUE, TEN_SECOND_EXPIRY);
+            redis.saveWithExpiry(otherKey, "other-value", TEN_SECOND_EXPIRY);
+
+            List<String> expected = Arrays.asList(TEST_VALUE, null, "other-value");
+            assertThat(redis.popValues(List.of(testKey, missingKey, otherKey)), equalTo(expected));
+            assertThat(redis.keyExists(testKey), is(false));
+            assertThat(redis.keyExists(otherKey), is(false));
+        }
+    }
+
     @Test
     void getValueReturnsNullIfKeyDoesNotExist() {
         try (RedisConnectionService redis =
@@ -99,6 +129,143 @@ class RedisConnectionServiceIntegrationTest {
         }
     }
 
+    @Test
+    void incrementWithExpiryShouldCreateAndIncrementACounterThatExpires() {
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            assertThat(redis.incrementWithExpiry(testKey, 1), equalTo(1L));
+            assertThat(redis.incrementWithExpiry(testKey, 1), equalTo(2L));
+            assertThat(redis.getValue(testKey), equalTo("2"));
+
+            await().atMost(2, SECONDS)
+                    .untilAsserted(() -> assertThat(redis.getValue(testKey), is(nullValue())));
+        }
+    }
+
+    @Test
+    void getValuesShouldReturnValuesInKeyOrderWithNullForMissingKeys() {
+        var otherKey = testKey + "-other";
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            redis.saveWithExpiry(testKey, TEST_VALUE, TEN_SECOND_EXPIRY);
+
+            List<String> expected = Arrays.asList(null, TEST_VALUE);
+            assertThat(redis.getValues(List.of(otherKey, testKey)), equalTo(expected));
+        }
+    }
+
+    @Test
+    void executeBatchShouldReturnResultsInTheOrderCommandsWereQueued() {
+        var counterKey = testKey + "-counter";
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            var results =
+                    redis.executeBatch(
+                            new RedisBatch()
+                                    .saveWithExpiry(testKey, TEST_VALUE, TEN_SECOND_EXPIRY)
+                                    .get(testKey)
+                                    .increment(counterKey)
+                                    .increment(counterKey)
+                                    .expire(counterKey, TEN_SECOND_EXPIRY)
+                                    .deleteValue(testKey)
+                                    .get(testKey));
+
+            List<Object> expected = Arrays.asList("OK", TEST_VALUE, 1L, 2L, true, 1L, null);
+            assertThat(results, equalTo(expected));
+            assertThat(redis.getValue(counterKey), equalTo("2"));
+            assertThat(redis.keyExists(testKey), is(false));
+        }
+    }
+
+    @Test
+    void saveHashFieldsShouldOnlyOverwriteTheGivenFields() {
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            redis.executeBatch(
+                    new RedisBatch()
+                            .saveHashFields(testKey, Map.of("first", "1", "second", "2"))
+                            .expire(testKey, TEN_SECOND_EXPIRY));
+            redis.executeBatch(new RedisBatch().saveHashFields(testKey, Map.of("second", "3")));
+
+            assertThat(redis.getHash(testKey), equalTo(Map.of("first", "1", "second", "3")));
+        }
+    }
+
+    @Test
+    void shouldCountOneRoundTripPerCommandAndPerBatch() {
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            RedisConnectionService.resetRoundTripCount();
+
+            redis.saveWithExpiry(testKey, TEST_VALUE, TEN_SECOND_EXPIRY);
+            redis.getValue(testKey);
+            redis.executeBatch(new RedisBatch().get(testKey).deleteValue(testKey));
+
+            assertThat(RedisConnectionService.getRoundTripCount(), equalTo(3L));
+        }
+    }
+
+    @Test
+    void executeBatchShouldNotContactRedisForAnEmptyBatch() {
+        try (RedisConnectionService redis =
+                new RedisConnectionService("bad-host-name", 6379, false, REDIS_PASSWORD, false)) {
+            assertThat(redis.executeBatch(new RedisBatch()), is(empty()));
+        }
+    }
+
+    @Test
+    void asyncCommandsShouldReadValuesOnTheSharedConnection() {
+        try (RedisConnectionService redis =
+                new RedisConnectionService(REDIS_HOST, 6379, false, REDIS_PASSWORD, false)) {
+            redis.saveWithExpiry(testKey, TEST_VALUE, TEN_SECOND_EXPIRY);
+
+            assertThat(redis.getValueAsync(testKey).join(), equalTo(TEST_VALUE));
+            assertThat(
+                    redis.getValuesAsync(List.of(testKey, "missing-" + testKey)).join(),
+                    equalTo(Arrays.asList(TEST_VALUE, null)));
+            assertThat(redis.getValueAsync("missing-" + testKey).join(), nullValue());
+        }
+    }
+
+    @Test
+    void getInstanceShouldShareOneConnectionServicePerRedisEndpoint() {
+        var configurationService =
+                new ConfigurationService() {
+                    @Override
+                    public String getRedisHost() {
+                        return REDIS_HOST;
+                    }
+
+                    @Override
+                    public int getRedisPort() {
+                        return 6379;
+                    }
+
+                    @Override
+                    public boolean getUseRedisTLS() {
+                        return false;
+                    }
+
+                    @Override
+                    public Optional<String> getRedisPassword() {
+                        return REDIS_PASSWORD;
+                    }
+                };
+
+        var redis = RedisConnectionService.getInstance(configurationService);
+        try (var other = RedisConnectionService.getInstance(configurationService)) {
+            redis.saveWithExpiry(testKey, TEST_VALUE, TEN_SECOND_EXPIRY);
+
+            assertThat(other, sameInstance(redis));
+        }
+        assertThat(redis.getValue(testKey), equalTo(TEST_VALUE));
+
+        redis.close();
+        try (var replacement = RedisConnectionService.getInstance(configurationService)) {
+            assertThat(replacement, not(sameInstance(redis)));
+        }
+    }
+
     @Test
     void shouldThrowRedisConnectionExceptionIfRedisUnavailable() {
         try (RedisConnectionService redis =
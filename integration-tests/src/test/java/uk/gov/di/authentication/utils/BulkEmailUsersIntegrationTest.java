@@ -15,6 +15,8 @@ import java.time.ZoneOffset;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -58,6 +60,25 @@ public class BulkEmailUsersIntegrationTest {
                 createdUser.getCreatedAt());
     }
 
+    @Test
+    void shouldAddBulkEmailUsersAcrossMoreThanOneBatchWrite() {
+        var subjectIds =
+                IntStream.range(0, 60)
+                        .mapToObj(i -> "subject-id-" + i)
+                        .collect(Collectors.toList());
+
+        bulkEmailUsersService.addUsers(subjectIds, BulkEmailStatus.PENDING);
+
+        subjectIds.forEach(
+                subjectId -> {
+                    var createdUser = bulkEmailUsersService.getBulkEmailUsers(subjectId).get();
+                    assertEquals(BulkEmailStatus.PENDING, createdUser.getBulkEmailStatus());
+                    assertEquals(
+                            LocalDateTime.ofInstant(fixedNow, ZoneId.of("UTC")).toString(),
+                            createdUser.getCreatedAt());
+                });
+    }
+
     @Test
     void updateUserStatusUpdatesaUserWithTheProvidedStatus() {
         bulkEmailUsersExtension.addBulkEmailUser(SUBJECT_ID_1, BulkEmailStatus.PENDING);
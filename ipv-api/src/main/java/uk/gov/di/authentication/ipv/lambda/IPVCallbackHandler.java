@@ -58,7 +58,6 @@ import static com.nimbusds.oauth2.sdk.OAuth2Error.ACCESS_DENIED_CODE;
 import static uk.gov.di.authentication.shared.entity.IdentityClaims.VOT;
 import static uk.gov.di.authentication.shared.entity.IdentityClaims.VTM;
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyResponse;
-import static uk.gov.di.authentication.shared.helpers.ClientSubjectHelper.getSectorIdentifierForClient;
 import static uk.gov.di.authentication.shared.helpers.ConstructUriHelper.buildURI;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 import static uk.gov.di.authentication.shared.helpers.LogLineHelper.LogFieldName.CLIENT_ID;
@@ -127,7 +126,7 @@ public class IPVCallbackHandler
         this.ipvAuthorisationService =
                 new IPVAuthorisationService(
                         configurationService,
-                        new RedisConnectionService(configurationService),
+                        RedisConnectionService.getInstance(configurationService),
                         kmsConnectionService);
         this.ipvTokenService = new IPVTokenService(configurationService, kmsConnectionService);
         this.sessionService = new SessionService(configurationService);
@@ -199,7 +198,7 @@ public class IPVCallbackHandler
             attachLogFieldToLogs(CLIENT_ID, clientId);
             var clientRegistry =
                     dynamoClientService
-                            .getClient(clientId)
+                            .getCompiledClient(clientId)
                             .orElseThrow(
                                     () ->
                                             new IpvCallbackException(
@@ -280,10 +279,7 @@ public class IPVCallbackHandler
                             "calculatePairwiseSubject",
                             () ->
                                     ClientSubjectHelper.getSubject(
-                                            userProfile,
-                                            clientRegistry,
-                                            dynamoService,
-                                            configurationService.getInternalSectorUri()));
+                                            userProfile, clientRegistry, dynamoService));
 
             var userIdentityUserInfo =
                     ipvTokenService.sendIpvUserIdentityRequest(
@@ -333,8 +329,7 @@ public class IPVCallbackHandler
                             clientSessionId);
             queueSPOTRequest(
                     logIds,
-                    getSectorIdentifierForClient(
-                            clientRegistry, configurationService.getInternalSectorUri()),
+                    clientRegistry.getSectorIdentifier(),
                     userProfile,
                     pairwiseSubject,
                     userIdentityUserInfo,
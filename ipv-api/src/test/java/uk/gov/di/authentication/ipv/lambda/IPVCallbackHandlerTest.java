@@ -39,6 +39,7 @@ import uk.gov.di.authentication.ipv.services.IPVAuthorisationService;
 import uk.gov.di.authentication.ipv.services.IPVTokenService;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.IdentityClaims;
 import uk.gov.di.authentication.shared.entity.LevelOfConfidence;
 import uk.gov.di.authentication.shared.entity.NoSessionEntity;
@@ -357,8 +358,11 @@ class IPVCallbackHandlerTest {
         Map<String, String> responseHeaders = new HashMap<>();
         responseHeaders.put("code", AUTH_CODE.getValue());
         responseHeaders.put("state", STATE.getValue());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(generateClientRegistry()));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(
+                                CompiledClientRegistry.compile(
+                                        generateClientRegistry(), INTERNAL_SECTOR_URI)));
         when(responseService.validateResponse(responseHeaders, SESSION_ID))
                 .thenReturn(Optional.empty());
         when(dynamoService.getUserProfileFromEmail(TEST_EMAIL_ADDRESS))
@@ -414,8 +418,11 @@ class IPVCallbackHandlerTest {
         responseHeaders.put("code", AUTH_CODE.getValue());
         responseHeaders.put("state", STATE.getValue());
         responseHeaders.put("error", errorObject.toString());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(generateClientRegistry()));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(
+                                CompiledClientRegistry.compile(
+                                        generateClientRegistry(), INTERNAL_SECTOR_URI)));
         when(responseService.validateResponse(responseHeaders, SESSION_ID))
                 .thenReturn(Optional.of(new ErrorObject(errorObject.getCode(), errorDescription)));
 
@@ -459,7 +466,8 @@ class IPVCallbackHandlerTest {
         Map<String, String> responseHeaders = new HashMap<>();
         responseHeaders.put("code", AUTH_CODE.getValue());
         responseHeaders.put("state", STATE.getValue());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue())).thenReturn(Optional.empty());
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(Optional.empty());
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setHeaders(Map.of(COOKIE, buildCookieString()));
@@ -480,7 +488,8 @@ class IPVCallbackHandlerTest {
 
         var event = getApiGatewayProxyRequestEvent(null);
 
-        when(dynamoClientService.getClient(CLIENT_ID.getValue())).thenReturn(Optional.empty());
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(Optional.empty());
 
         assertDoesRedirectToFrontendErrorPage(event, "error");
 
@@ -503,8 +512,11 @@ class IPVCallbackHandlerTest {
         Map<String, String> responseHeaders = new HashMap<>();
         responseHeaders.put("code", AUTH_CODE.getValue());
         responseHeaders.put("state", STATE.getValue());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(clientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(
+                                CompiledClientRegistry.compile(
+                                        clientRegistry, INTERNAL_SECTOR_URI)));
         when(responseService.validateResponse(responseHeaders, SESSION_ID))
                 .thenReturn(Optional.empty());
         when(dynamoService.getUserProfileFromEmail(TEST_EMAIL_ADDRESS))
@@ -713,8 +725,11 @@ class IPVCallbackHandlerTest {
         Map<String, String> responseHeaders = new HashMap<>();
         responseHeaders.put("code", AUTH_CODE.getValue());
         responseHeaders.put("state", STATE.getValue());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(clientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(
+                                CompiledClientRegistry.compile(
+                                        clientRegistry, INTERNAL_SECTOR_URI)));
         when(responseService.validateResponse(responseHeaders, SESSION_ID))
                 .thenReturn(Optional.empty());
         when(dynamoService.getUserProfileFromEmail(TEST_EMAIL_ADDRESS))
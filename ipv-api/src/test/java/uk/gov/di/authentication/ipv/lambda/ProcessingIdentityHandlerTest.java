@@ -43,6 +43,7 @@ import java.util.Optional;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
@@ -93,6 +94,8 @@ class ProcessingIdentityHandlerTest {
 
     @BeforeEach
     void setup() {
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(anyMap()))
+                .thenReturn(completedFuture(Optional.empty()));
         var userProfile = generateUserProfile();
         when(dynamoClientService.getClient(CLIENT_ID))
                 .thenReturn(Optional.of(generateClientRegistry()));
@@ -137,8 +140,8 @@ class ProcessingIdentityHandlerTest {
                         .withCoreIdentityJWT("a-core-identity");
         when(dynamoIdentityService.getIdentityCredentials(anyString()))
                 .thenReturn(Optional.of(identityCredentials));
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(getClientSession()));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(getClientSession())));
 
         var result = handler.handleRequest(event, context);
 
@@ -169,8 +172,8 @@ class ProcessingIdentityHandlerTest {
                         .withAdditionalClaims(Collections.emptyMap());
         when(dynamoIdentityService.getIdentityCredentials(anyString()))
                 .thenReturn(Optional.of(identityCredentials));
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(getClientSession()));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(getClientSession())));
 
         var result = handler.handleRequest(event, context);
 
@@ -198,8 +201,8 @@ class ProcessingIdentityHandlerTest {
         usingValidSession();
         when(dynamoIdentityService.getIdentityCredentials(PAIRWISE_SUBJECT.getValue()))
                 .thenReturn(Optional.empty());
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(getClientSession()));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(getClientSession())));
 
         var result = handler.handleRequest(event, context);
 
@@ -225,8 +228,8 @@ class ProcessingIdentityHandlerTest {
         usingValidSession();
         when(dynamoIdentityService.getIdentityCredentials(PAIRWISE_SUBJECT.getValue()))
                 .thenReturn(Optional.empty());
-        when(clientSessionService.getClientSessionFromRequestHeaders(any()))
-                .thenReturn(Optional.of(getClientSession()));
+        when(clientSessionService.getClientSessionFromRequestHeadersAsync(any()))
+                .thenReturn(completedFuture(Optional.of(getClientSession())));
 
         var result = handler.handleRequest(event, context);
 
@@ -268,7 +268,7 @@ public class AuthCodeHandler
                                                         "Unable to find user with given email address"));
                 var client =
                         dynamoClientService
-                                .getClient(clientID.getValue())
+                                .getCompiledClient(clientID.getValue())
                                 .orElseThrow(
                                         () -> new ClientNotFoundException(clientID.getValue()));
                 internalSubjectId =
@@ -276,11 +276,7 @@ public class AuthCodeHandler
                                 ? AuditService.UNKNOWN
                                 : userProfile.getSubjectID();
                 rpPairwiseId =
-                        ClientSubjectHelper.getSubject(
-                                        userProfile,
-                                        client,
-                                        dynamoService,
-                                        configurationService.getInternalSectorUri())
+                        ClientSubjectHelper.getSubject(userProfile, client, dynamoService)
                                 .getValue();
             }
 
@@ -36,11 +36,11 @@ import uk.gov.di.authentication.shared.conditions.DocAppUserHelper;
 import uk.gov.di.authentication.shared.conditions.IdentityHelper;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.CustomScopeValue;
 import uk.gov.di.authentication.shared.entity.ResponseHeaders;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.exceptions.ClientNotFoundException;
-import uk.gov.di.authentication.shared.helpers.ClientSubjectHelper;
 import uk.gov.di.authentication.shared.helpers.CookieHelper;
 import uk.gov.di.authentication.shared.helpers.DocAppSubjectIdHelper;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
@@ -139,7 +139,7 @@ public class AuthorisationHandler
         this.docAppAuthorisationService =
                 new DocAppAuthorisationService(
                         configurationService,
-                        new RedisConnectionService(configurationService),
+                        RedisConnectionService.getInstance(configurationService),
                         kmsConnectionService,
                         new JwksService(configurationService, kmsConnectionService));
         this.cloudwatchMetricsService = new CloudwatchMetricsService(configurationService);
@@ -162,7 +162,7 @@ public class AuthorisationHandler
 
     public APIGatewayProxyResponseEvent authoriseRequestHandler(
             APIGatewayProxyRequestEvent input, Context context) throws ClientNotFoundException {
-        var client = new ClientRegistry();
+        CompiledClientRegistry compiledClient;
         var persistentSessionId =
                 orchestrationAuthorizationService.getExistingOrCreateNewPersistentSessionId(
                         input.getHeaders());
@@ -209,9 +209,9 @@ public class AuthorisationHandler
                                             Map.Entry::getKey, entry -> List.of(entry.getValue())));
             authRequest = AuthenticationRequest.parse(requestParameters);
             String clientId = authRequest.getClientID().getValue();
-            client =
+            compiledClient =
                     clientService
-                            .getClient(clientId)
+                            .getCompiledClient(clientId)
                             .orElseThrow(() -> new ClientNotFoundException(clientId));
         } catch (ParseException e) {
             if (e.getRedirectionURI() == null) {
@@ -239,6 +239,7 @@ public class AuthorisationHandler
                     e);
         }
 
+        var client = compiledClient.getClientRegistry();
         Optional<AuthRequestError> authRequestError;
         if (authRequest.getRequestObject() != null && configurationService.isDocAppApiEnabled()) {
             LOG.info("RequestObject auth request received");
@@ -286,7 +287,7 @@ public class AuthorisationHandler
                 authRequest,
                 ipAddress,
                 persistentSessionId,
-                client,
+                compiledClient,
                 clientSessionId);
     }
 
@@ -324,6 +325,7 @@ public class AuthorisationHandler
         LOG.info("Subject saved to ClientSession for DocCheckingAppUser");
 
         session.addClientSession(clientSessionId);
+        clientSessionService.pruneClientSessions(session);
         updateAttachedLogFieldToLogs(CLIENT_SESSION_ID, clientSessionId);
         updateAttachedLogFieldToLogs(GOVUK_SIGNIN_JOURNEY_ID, clientSessionId);
         updateAttachedLogFieldToLogs(CLIENT_ID, authenticationRequest.getClientID().getValue());
@@ -381,7 +383,7 @@ public class AuthorisationHandler
             AuthenticationRequest authenticationRequest,
             String ipAddress,
             String persistentSessionId,
-            ClientRegistry client,
+            CompiledClientRegistry compiledClient,
             String clientSessionId) {
         if (Objects.nonNull(authenticationRequest.getPrompt())
                 && (authenticationRequest.getPrompt().contains(Prompt.Type.CONSENT)
@@ -421,18 +423,19 @@ public class AuthorisationHandler
                 ipAddress,
                 AuditService.UNKNOWN,
                 persistentSessionId,
-                pair("client-name", client.getClientName()));
+                pair("client-name", compiledClient.getClientRegistry().getClientName()));
 
         clientSessionService.storeClientSession(clientSessionId, clientSession);
 
         session.addClientSession(clientSessionId);
+        clientSessionService.pruneClientSessions(session);
         updateAttachedLogFieldToLogs(CLIENT_SESSION_ID, clientSessionId);
         updateAttachedLogFieldToLogs(GOVUK_SIGNIN_JOURNEY_ID, clientSessionId);
         updateAttachedLogFieldToLogs(CLIENT_ID, authenticationRequest.getClientID().getValue());
         sessionService.save(session);
         LOG.info("Session saved successfully");
         return generateAuthRedirect(
-                session, clientSessionId, authenticationRequest, persistentSessionId, client);
+                session, clientSessionId, authenticationRequest, persistentSessionId, compiledClient);
     }
 
     private APIGatewayProxyResponseEvent generateAuthRedirect(
@@ -440,8 +443,9 @@ public class AuthorisationHandler
             String clientSessionId,
             AuthenticationRequest authenticationRequest,
             String persistentSessionId,
-            ClientRegistry client) {
+            CompiledClientRegistry compiledClient) {
         LOG.info("Redirecting");
+        var client = compiledClient.getClientRegistry();
         String redirectURI;
         try {
             var redirectUriBuilder = new URIBuilder(configurationService.getLoginURI());
@@ -474,9 +478,7 @@ public class AuthorisationHandler
         if (configurationService.isAuthOrchSplitEnabled()) {
             var jwtID = IdGenerator.generate();
             var expiryDate = NowHelper.nowPlus(3, ChronoUnit.MINUTES);
-            var rpSectorIdentifierHost =
-                    ClientSubjectHelper.getSectorIdentifierForClient(
-                            client, configurationService.getInternalSectorUri());
+            var rpSectorIdentifierHost = compiledClient.getSectorIdentifier();
             var state = new State();
             orchestrationAuthorizationService.storeState(session.getSessionId(), state);
             var claimsBuilder =
@@ -8,6 +8,7 @@ import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.gov.di.authentication.shared.services.CloudwatchMetricsService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.JwksService;
 import uk.gov.di.authentication.shared.services.KmsConnectionService;
@@ -15,8 +16,12 @@ import uk.gov.di.authentication.shared.services.KmsConnectionService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyResponse;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.ETAG_HEADER;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.entityTag;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.ifNoneMatchHeaderMatches;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 
 public class JwksHandler
@@ -24,6 +29,7 @@ public class JwksHandler
 
     private final JwksService jwksService;
     private final ConfigurationService configurationService;
+    private volatile RenderedJwks rendered;
     private static final Logger LOG = LogManager.getLogger(JwksHandler.class);
 
     public JwksHandler(ConfigurationService configurationService, JwksService jwksService) {
@@ -35,7 +41,9 @@ public class JwksHandler
         this.configurationService = configurationService;
         this.jwksService =
                 new JwksService(
-                        configurationService, new KmsConnectionService(configurationService));
+                        configurationService,
+                        new KmsConnectionService(configurationService),
+                        new CloudwatchMetricsService(configurationService));
     }
 
     public JwksHandler() {
@@ -67,18 +75,41 @@ public class JwksHandler
                 signingKeys.add(jwksService.getPublicTokenRsaJwkWithOpaqueId());
             }
 
-            JWKSet jwkSet = new JWKSet(signingKeys);
+            signingKeys.addAll(jwksService.getPreviousPublicJwks());
+
+            var jwks = renderedJwks(signingKeys);
+            var headers = Map.of("Cache-Control", "max-age=86400", ETAG_HEADER, jwks.entityTag());
+
+            if (ifNoneMatchHeaderMatches(input.getHeaders(), jwks.entityTag())) {
+                LOG.info("JWKs have not changed, generating not modified response");
+                return generateApiGatewayProxyResponse(304, "", headers, null);
+            }
 
             LOG.info("Generating JWKs successful response");
 
-            return generateApiGatewayProxyResponse(
-                    200,
-                    segmentedFunctionCall("serialiseJWKSet", () -> jwkSet.toString(true)),
-                    Map.of("Cache-Control", "max-age=86400"),
-                    null);
+            return generateApiGatewayProxyResponse(200, jwks.body(), headers, null);
         } catch (Exception e) {
             LOG.error("Error in JWKs lambda", e);
             return generateApiGatewayProxyResponse(500, "Error providing JWKs data");
         }
     }
+
+    /*
+     * The key set only changes when a key is rotated, so it is serialised once per set of keys
+     * rather than on every request.
+     */
+    private RenderedJwks renderedJwks(List<JWK> signingKeys) {
+        var keys = List.copyOf(signingKeys);
+        var jwks = rendered;
+        if (Objects.isNull(jwks) || !jwks.keys().equals(keys)) {
+            var body =
+                    segmentedFunctionCall(
+                            "serialiseJWKSet", () -> new JWKSet(keys).toString(true));
+            jwks = new RenderedJwks(keys, body, entityTag(body));
+            rendered = jwks;
+        }
+        return jwks;
+    }
+
+    private record RenderedJwks(List<JWK> keys, String body, String entityTag) {}
 }
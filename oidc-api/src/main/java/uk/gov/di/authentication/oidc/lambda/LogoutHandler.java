@@ -13,7 +13,8 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.ThreadContext;
 import uk.gov.di.authentication.oidc.domain.OidcAuditableEvent;
 import uk.gov.di.authentication.oidc.services.BackChannelLogoutService;
-import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.ResponseHeaders;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.helpers.CookieHelper;
@@ -36,6 +37,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyResponse;
+import static uk.gov.di.authentication.shared.helpers.ConcurrentLookupHelper.join;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 import static uk.gov.di.authentication.shared.helpers.LogLineHelper.LogFieldName.CLIENT_ID;
 import static uk.gov.di.authentication.shared.helpers.LogLineHelper.LogFieldName.CLIENT_SESSION_ID;
@@ -72,7 +74,8 @@ public class LogoutHandler
                         new JwksService(
                                 configurationService,
                                 new KmsConnectionService(configurationService)),
-                        configurationService);
+                        configurationService,
+                        new CloudwatchMetricsService(configurationService));
         this.auditService = new AuditService(configurationService);
         this.cloudwatchMetricsService = new CloudwatchMetricsService();
         this.backChannelLogoutService = new BackChannelLogoutService(configurationService);
@@ -164,10 +167,15 @@ public class LogoutHandler
                     Optional.of(session.getSessionId()));
         }
 
+        // In flight while the id_token_hint signature is checked
+        var clientSessionsLookup =
+                clientSessionService.getClientSessionsAsync(session.getClientSessions());
+
         Map<String, String> queryStringParameters = input.getQueryStringParameters();
         if (queryStringParameters == null || queryStringParameters.isEmpty()) {
             LOG.info("Deleting session and returning default logout as no input parameters");
-            segmentedFunctionCall("destroySessions", () -> destroySessions(session));
+            segmentedFunctionCall(
+                    "destroySessions", () -> destroySessions(session, join(clientSessionsLookup)));
             return generateDefaultLogoutResponse(
                     state, input, context, Optional.empty(), Optional.of(session.getSessionId()));
         }
@@ -180,8 +188,12 @@ public class LogoutHandler
 
         if (idTokenHint.isPresent()) {
             LOG.info("ID token hint is present");
-            if (!doesIDTokenExistInSession(idTokenHint.get(), session)) {
-                LOG.warn("ID token does not exist");
+            boolean isTokenSignatureValid =
+                    segmentedFunctionCall(
+                            "isTokenSignatureValid",
+                            () -> tokenValidationService.isTokenSignatureValid(idTokenHint.get()));
+            if (!isTokenSignatureValid) {
+                LOG.warn("Unable to validate ID token signature");
                 return generateErrorLogoutResponse(
                         Optional.empty(),
                         new ErrorObject(
@@ -192,12 +204,8 @@ public class LogoutHandler
                         Optional.empty(),
                         Optional.of(session.getSessionId()));
             }
-            boolean isTokenSignatureValid =
-                    segmentedFunctionCall(
-                            "isTokenSignatureValid",
-                            () -> tokenValidationService.isTokenSignatureValid(idTokenHint.get()));
-            if (!isTokenSignatureValid) {
-                LOG.warn("Unable to validate ID token signature");
+            if (!doesIDTokenExistInSession(idTokenHint.get(), join(clientSessionsLookup))) {
+                LOG.warn("ID token does not exist");
                 return generateErrorLogoutResponse(
                         Optional.empty(),
                         new ErrorObject(
@@ -223,7 +231,8 @@ public class LogoutHandler
                         Optional.of(session.getSessionId()));
             }
         }
-        segmentedFunctionCall("destroySessions", () -> destroySessions(session));
+        segmentedFunctionCall(
+                "destroySessions", () -> destroySessions(session, join(clientSessionsLookup)));
         if (audience.isPresent()) {
             final String finalAudience = audience.get();
             return segmentedFunctionCall(
@@ -251,7 +260,8 @@ public class LogoutHandler
             Optional<String> sessionId) {
         LOG.info("Validating ClientID");
         attachLogFieldToLogs(CLIENT_ID, clientID);
-        Optional<ClientRegistry> clientRegistry = dynamoClientService.getClient(clientID);
+        Optional<CompiledClientRegistry> clientRegistry =
+                dynamoClientService.getCompiledClient(clientID);
         if (clientRegistry.isEmpty()) {
             LOG.warn("Client not found in ClientRegistry");
             return generateErrorLogoutResponse(
@@ -266,7 +276,7 @@ public class LogoutHandler
         return postLogoutRedirectUri
                 .map(
                         uri -> {
-                            if (!clientRegistry.get().getPostLogoutRedirectUrls().contains(uri)) {
+                            if (!clientRegistry.get().isPostLogoutRedirectUrlRegistered(uri)) {
                                 LOG.warn(
                                         "Client registry does not contain PostLogoutRedirectUri which was sent in the logout request. Value is {}",
                                         uri);
@@ -378,32 +388,27 @@ public class LogoutHandler
                 302, "", Map.of(ResponseHeaders.LOCATION, uri.toString()), null);
     }
 
-    private void destroySessions(Session session) {
-        for (String clientSessionId : session.getClientSessions()) {
-            clientSessionService
-                    .getClientSession(clientSessionId)
-                    .flatMap(
-                            t ->
-                                    t.getAuthRequestParams().get("client_id").stream()
-                                            .findFirst()
-                                            .flatMap(dynamoClientService::getClient))
+    private void destroySessions(Session session, Map<String, ClientSession> clientSessions) {
+        for (var clientSession : clientSessions.values()) {
+            clientSession.getAuthRequestParams().get("client_id").stream()
+                    .findFirst()
+                    .flatMap(dynamoClientService::getClient)
                     .ifPresent(
                             clientRegistry ->
                                     backChannelLogoutService.sendLogoutMessage(
                                             clientRegistry,
                                             session.getEmailAddress(),
                                             configurationService.getInternalSectorUri()));
-            LOG.info("Deleting Client Session");
-            clientSessionService.deleteClientSessionFromRedis(clientSessionId);
         }
+        LOG.info("Deleting Client Sessions");
+        clientSessionService.deleteClientSessionsFromRedis(session.getClientSessions());
         LOG.info("Deleting Session");
         sessionService.deleteSessionFromRedis(session.getSessionId());
     }
 
-    private boolean doesIDTokenExistInSession(String idTokenHint, Session session) {
-        return session.getClientSessions().stream()
-                .map(clientSessionService::getClientSession)
-                .flatMap(Optional::stream)
+    private boolean doesIDTokenExistInSession(
+            String idTokenHint, Map<String, ClientSession> clientSessions) {
+        return clientSessions.values().stream()
                 .anyMatch(cs -> idTokenHint.equals(cs.getIdTokenHint()));
     }
 }
@@ -29,6 +29,7 @@ import uk.gov.di.authentication.shared.serialization.Json;
 import uk.gov.di.authentication.shared.serialization.Json.JsonException;
 import uk.gov.di.authentication.shared.services.AuthorisationCodeService;
 import uk.gov.di.authentication.shared.services.ClientSessionService;
+import uk.gov.di.authentication.shared.services.CloudwatchMetricsService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.DynamoService;
@@ -95,11 +96,16 @@ public class TokenHandler
 
     public TokenHandler(ConfigurationService configurationService) {
         var kms = new KmsConnectionService(configurationService);
+        var metricsService = new CloudwatchMetricsService(configurationService);
 
         this.configurationService = configurationService;
-        this.redisConnectionService = new RedisConnectionService(configurationService);
+        this.redisConnectionService = RedisConnectionService.getInstance(configurationService);
         this.tokenService =
-                new TokenService(configurationService, this.redisConnectionService, kms);
+                new TokenService(
+                        configurationService,
+                        this.redisConnectionService,
+                        kms,
+                        metricsService);
         this.dynamoService = new DynamoService(configurationService);
         this.authorisationCodeService =
                 new AuthorisationCodeService(
@@ -108,7 +114,9 @@ public class TokenHandler
                 new ClientSessionService(configurationService, redisConnectionService);
         this.tokenValidationService =
                 new TokenValidationService(
-                        new JwksService(configurationService, kms), configurationService);
+                        new JwksService(configurationService, kms, metricsService),
+                        configurationService,
+                        metricsService);
         this.tokenClientAuthValidatorFactory =
                 new TokenClientAuthValidatorFactory(
                         configurationService, new DynamoClientService(configurationService));
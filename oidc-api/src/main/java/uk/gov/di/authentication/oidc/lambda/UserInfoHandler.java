@@ -70,13 +70,14 @@ public class UserInfoHandler
                         new AuthenticationUserInfoStorageService(configurationService));
         this.accessTokenService =
                 new AccessTokenService(
-                        new RedisConnectionService(configurationService),
+                        RedisConnectionService.getInstance(configurationService),
                         new DynamoClientService(configurationService),
                         new TokenValidationService(
                                 new JwksService(
                                         configurationService,
                                         new KmsConnectionService(configurationService)),
-                                configurationService));
+                                configurationService,
+                                new CloudwatchMetricsService(configurationService)));
         this.auditService = new AuditService(configurationService);
     }
 
@@ -23,11 +23,15 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import static com.nimbusds.langtag.LangTagUtils.parseLangTagList;
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyResponse;
 import static uk.gov.di.authentication.shared.helpers.ConstructUriHelper.buildURI;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.ETAG_HEADER;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.entityTag;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.ifNoneMatchHeaderMatches;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 
 public class WellknownHandler
@@ -36,13 +40,15 @@ public class WellknownHandler
     private static final Logger LOG = LogManager.getLogger(WellknownHandler.class);
 
     private final String providerMetadata;
+    private final String providerMetadataEntityTag;
 
     public WellknownHandler(ConfigurationService configService) {
         providerMetadata = constructProviderMetadata(configService);
+        providerMetadataEntityTag = entityTag(providerMetadata);
     }
 
     public WellknownHandler() {
-        providerMetadata = constructProviderMetadata(ConfigurationService.getInstance());
+        this(ConfigurationService.getInstance());
     }
 
     @Override
@@ -56,7 +62,11 @@ public class WellknownHandler
     public APIGatewayProxyResponseEvent wellknownRequestHandler(
             APIGatewayProxyRequestEvent input, Context context) {
         LOG.info("Wellknown request received");
-        return generateApiGatewayProxyResponse(200, providerMetadata);
+        var headers = Map.of(ETAG_HEADER, providerMetadataEntityTag);
+        if (ifNoneMatchHeaderMatches(input.getHeaders(), providerMetadataEntityTag)) {
+            return generateApiGatewayProxyResponse(304, "", headers, null);
+        }
+        return generateApiGatewayProxyResponse(200, providerMetadata, headers, null);
     }
 
     private String constructProviderMetadata(ConfigurationService configService) {
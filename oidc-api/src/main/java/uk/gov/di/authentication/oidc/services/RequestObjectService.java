@@ -1,8 +1,6 @@
 package uk.gov.di.authentication.oidc.services;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.langtag.LangTagException;
@@ -16,6 +14,7 @@ import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.oidc.entity.AuthRequestError;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientType;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.CustomScopeValue;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
 import uk.gov.di.authentication.shared.entity.VectorOfTrust;
@@ -23,15 +22,8 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 
 import java.net.URI;
-import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
-import java.security.PublicKey;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -72,15 +64,16 @@ public class RequestObjectService {
 
         attachLogFieldToLogs(CLIENT_ID, clientId);
 
-        var client = dynamoClientService.getClient(clientId).orElse(null);
+        var compiledClient = dynamoClientService.getCompiledClient(clientId).orElse(null);
 
-        if (Objects.isNull(client)) {
+        if (Objects.isNull(compiledClient)) {
             var errorMsg = "No Client found with given ClientID";
             LOG.warn(errorMsg);
             throw new RuntimeException(errorMsg);
         }
+        var client = compiledClient.getClientRegistry();
         var signedJWT = (SignedJWT) authRequest.getRequestObject();
-        var signatureValid = isSignatureValid(signedJWT, client.getPublicKey());
+        var signatureValid = isSignatureValid(signedJWT, compiledClient);
         if (!signatureValid) {
             LOG.error("Invalid Signature on request JWT");
             throw new RuntimeException();
@@ -90,8 +83,8 @@ public class RequestObjectService {
             var jwtClaimsSet = signedJWT.getJWTClaimsSet();
 
             if (jwtClaimsSet.getStringClaim("redirect_uri") == null
-                    || !client.getRedirectUrls()
-                            .contains(jwtClaimsSet.getStringClaim("redirect_uri"))) {
+                    || !compiledClient.isRedirectUrlRegistered(
+                            jwtClaimsSet.getStringClaim("redirect_uri"))) {
                 throw new RuntimeException("Invalid Redirect URI in request JWT");
             }
 
@@ -215,15 +208,16 @@ public class RequestObjectService {
         return false;
     }
 
-    private static boolean isSignatureValid(SignedJWT signedJWT, String publicKey) {
+    private static boolean isSignatureValid(
+            SignedJWT signedJWT, CompiledClientRegistry compiledClient) {
+        var verifier = compiledClient.getVerifier();
+        if (verifier.isEmpty()) {
+            LOG.error("Client has no valid RSA public key to validate JWT signature with");
+            throw new RuntimeException("Client has no valid RSA public key");
+        }
         try {
-            byte[] decodedKey = Base64.getMimeDecoder().decode(publicKey);
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decodedKey);
-            KeyFactory kf = KeyFactory.getInstance("RSA");
-            PublicKey pubKey = kf.generatePublic(keySpec);
-            JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) pubKey);
-            return signedJWT.verify(verifier);
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException | JOSEException e) {
+            return signedJWT.verify(verifier.get());
+        } catch (JOSEException e) {
             LOG.error("Error when validating JWT signature");
             throw new RuntimeException(e);
         }
@@ -30,6 +30,7 @@ import uk.gov.di.authentication.oidc.entity.AuthCodeResponse;
 import uk.gov.di.authentication.oidc.services.OrchestrationAuthorizationService;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
 import uk.gov.di.authentication.shared.entity.CustomScopeValue;
 import uk.gov.di.authentication.shared.entity.ErrorResponse;
@@ -180,8 +181,11 @@ class AuthCodeHandlerTest {
             MFAMethodType mfaMethodType)
             throws ClientNotFoundException, Json.JsonException, JOSEException {
         var userProfile = new UserProfile().withEmail(EMAIL).withSubjectID(SUBJECT.getValue());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(generateClientRegistry()));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(
+                                CompiledClientRegistry.compile(
+                                        generateClientRegistry(), INTERNAL_SECTOR_URI)));
         when(dynamoService.getOrGenerateSalt(userProfile)).thenReturn(SALT);
         var expectedCommonSubject =
                 ClientSubjectHelper.calculatePairwiseIdentifier(
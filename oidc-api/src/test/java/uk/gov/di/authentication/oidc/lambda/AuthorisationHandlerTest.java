@@ -56,6 +56,7 @@ import uk.gov.di.authentication.shared.domain.AuditableEvent;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
 import uk.gov.di.authentication.shared.entity.ClientType;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
 import uk.gov.di.authentication.shared.entity.ResponseHeaders;
 import uk.gov.di.authentication.shared.entity.Session;
@@ -156,6 +157,7 @@ class AuthorisationHandlerTest {
     private static final Boolean IS_COOKIE_CONSENT_SHARED = false;
     private static final Boolean IS_CONSENT_REQUIRED = true;
     private static final String RP_SERVICE_TYPE = "MANDATORY";
+    private static final String INTERNAL_SECTOR_URI = "https://test.account.gov.uk";
 
     static {
         try {
@@ -212,8 +214,11 @@ class AuthorisationHandlerTest {
         when(clientSessionService.generateClientSession(any(), any(), any(), any()))
                 .thenReturn(clientSession);
         when(clientSession.getDocAppSubjectId()).thenReturn(new Subject("test-subject-id"));
-        when(clientService.getClient(anyString()))
-                .thenReturn(Optional.of(generateClientRegistry()));
+        when(clientService.getCompiledClient(anyString()))
+                .thenReturn(
+                        Optional.of(
+                                CompiledClientRegistry.compile(
+                                        generateClientRegistry(), INTERNAL_SECTOR_URI)));
     }
 
     @Nested
@@ -521,7 +526,8 @@ class AuthorisationHandlerTest {
 
         @Test
         void shouldThrowErrorWhenClientIsNotPresent() {
-            when(clientService.getClient(CLIENT_ID.getValue())).thenReturn(Optional.empty());
+            when(clientService.getCompiledClient(CLIENT_ID.getValue()))
+                    .thenReturn(Optional.empty());
 
             assertThrows(
                     RuntimeException.class,
@@ -870,8 +876,11 @@ class AuthorisationHandlerTest {
 
             var clientRegistry = generateClientRegistry().withClientType(ClientType.APP.getValue());
 
-            when(clientService.getClient(CLIENT_ID.getValue()))
-                    .thenReturn(Optional.of(clientRegistry));
+            when(clientService.getCompiledClient(CLIENT_ID.getValue()))
+                    .thenReturn(
+                            Optional.of(
+                                    CompiledClientRegistry.compile(
+                                            clientRegistry, INTERNAL_SECTOR_URI)));
 
             docAppSubjectIdHelperMock = mockStatic(DocAppSubjectIdHelper.class);
 
@@ -900,6 +909,7 @@ class AuthorisationHandlerTest {
                     .thenReturn(Optional.of(sessionSpy));
             makeDocAppHandlerRequest();
             verify(sessionSpy).addClientSession(CLIENT_SESSION_ID);
+            verify(clientSessionService).pruneClientSessions(sessionSpy);
         }
 
         @Test
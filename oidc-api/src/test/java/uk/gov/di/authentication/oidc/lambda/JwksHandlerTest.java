@@ -13,9 +13,12 @@ import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.JwksService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.sharedtest.matchers.APIGatewayProxyResponseEventMatcher.hasBody;
@@ -109,4 +112,51 @@ class JwksHandlerTest {
         var response = handler.handleRequest(new APIGatewayProxyRequestEvent(), context);
         assertThat(response, hasHeader("Cache-Control", "max-age=86400"));
     }
+
+    @Test
+    void shouldReturnNotModifiedWhenTheClientAlreadyHasTheCurrentKeys() throws JOSEException {
+        var opaqueSigningKey =
+                new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+        when(jwksService.getPublicTokenJwkWithOpaqueId()).thenReturn(opaqueSigningKey);
+
+        var first = handler.handleRequest(new APIGatewayProxyRequestEvent(), context);
+        var entityTag = first.getHeaders().get("ETag");
+        var second =
+                handler.handleRequest(
+                        new APIGatewayProxyRequestEvent()
+                                .withHeaders(Map.of("If-None-Match", entityTag)),
+                        context);
+
+        assertThat(second, hasStatus(304));
+        assertThat(second, hasBody(""));
+        assertThat(second, hasHeader("ETag", entityTag));
+        assertThat(second, hasHeader("Cache-Control", "max-age=86400"));
+    }
+
+    @Test
+    void shouldServeTheNewKeysWithANewEntityTagOnceAKeyIsRotated() throws JOSEException {
+        var opaqueSigningKey =
+                new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+        var rotatedSigningKey =
+                new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+        when(jwksService.getPublicTokenJwkWithOpaqueId()).thenReturn(opaqueSigningKey);
+        var entityTag =
+                handler.handleRequest(new APIGatewayProxyRequestEvent(), context)
+                        .getHeaders()
+                        .get("ETag");
+
+        when(jwksService.getPublicTokenJwkWithOpaqueId()).thenReturn(rotatedSigningKey);
+        when(jwksService.getPreviousPublicJwks()).thenReturn(List.of(opaqueSigningKey));
+        var result =
+                handler.handleRequest(
+                        new APIGatewayProxyRequestEvent()
+                                .withHeaders(Map.of("If-None-Match", entityTag)),
+                        context);
+
+        var expectedJWKSet = new JWKSet(List.of(rotatedSigningKey, opaqueSigningKey));
+
+        assertThat(result, hasStatus(200));
+        assertThat(result, hasBody(expectedJWKSet.toString(true)));
+        assertThat(result.getHeaders().get("ETag"), not(equalTo(entityTag)));
+    }
 }
@@ -24,6 +24,7 @@ import uk.gov.di.authentication.oidc.domain.OidcAuditableEvent;
 import uk.gov.di.authentication.oidc.services.BackChannelLogoutService;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.ResponseHeaders;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.entity.VectorOfTrust;
@@ -43,16 +44,20 @@ import uk.gov.di.authentication.sharedtest.logging.CaptureLoggingExtension;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -72,6 +77,7 @@ class LogoutHandlerTest {
     private final SessionService sessionService = mock(SessionService.class);
     private final DynamoClientService dynamoClientService = mock(DynamoClientService.class);
     private final ClientSessionService clientSessionService = mock(ClientSessionService.class);
+    private final Map<String, ClientSession> clientSessions = new HashMap<>();
     private final AuditService auditService = mock(AuditService.class);
 
     private final CloudwatchMetricsService cloudwatchMetricsService =
@@ -133,12 +139,22 @@ class LogoutHandlerTest {
                         "client-id", SUBJECT, "http://localhost-rp", ecSigningKey);
         session = generateSession().setEmailAddress(EMAIL);
         when(context.getAwsRequestId()).thenReturn("aws-session-id");
+        when(clientSessionService.getClientSessionsAsync(anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            List<String> ids = invocation.getArgument(0);
+                            Map<String, ClientSession> found = new LinkedHashMap<>();
+                            ids.stream()
+                                    .filter(clientSessions::containsKey)
+                                    .forEach(id -> found.put(id, clientSessions.get(id)));
+                            return completedFuture(found);
+                        });
     }
 
     @Test
     public void shouldDeleteSessionAndRedirectToClientLogoutUriForValidLogoutRequest() {
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
         APIGatewayProxyRequestEvent event =
@@ -152,6 +168,7 @@ class LogoutHandlerTest {
         APIGatewayProxyResponseEvent response = handler.handleRequest(event, context);
 
         verifySessions();
+        verify(clientSessionService, times(1)).getClientSessionsAsync(anyList());
         assertThat(response, hasStatus(302));
         assertThat(
                 response.getHeaders().get(ResponseHeaders.LOCATION),
@@ -173,8 +190,8 @@ class LogoutHandlerTest {
 
     @Test
     public void shouldNotThrowWhenTryingToDeleteClientSessionWhichHasExpired() {
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
         var event =
@@ -211,8 +228,8 @@ class LogoutHandlerTest {
     @Test
     public void
             shouldDeleteSessionAndRedirectToDefaultLogoutUriForValidLogoutRequestWithHintOnly() {
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
         APIGatewayProxyRequestEvent event =
@@ -244,8 +261,8 @@ class LogoutHandlerTest {
     @Test
     public void
             shouldDeleteSessionAndRedirectToDefaultLogoutUriForValidLogoutRequestWithLogoutURIOnly() {
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
         APIGatewayProxyRequestEvent event =
@@ -278,8 +295,8 @@ class LogoutHandlerTest {
     @Test
     public void
             shouldDeleteSessionAndRedirectToDefaultLogoutUriForValidLogoutRequestWithNoQueryParams() {
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
         APIGatewayProxyRequestEvent event = generateRequestEvent(null);
@@ -309,8 +326,8 @@ class LogoutHandlerTest {
 
     @Test
     public void shouldNotReturnStateWhenStateIsNotSentInRequest() {
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
         APIGatewayProxyRequestEvent event =
@@ -324,7 +341,7 @@ class LogoutHandlerTest {
 
         verify(cloudwatchMetricsService).incrementLogout(Optional.of("client-id"));
         verify(sessionService, times(1)).deleteSessionFromRedis(SESSION_ID);
-        verify(clientSessionService).deleteClientSessionFromRedis(CLIENT_SESSION_ID);
+        verify(clientSessionService).deleteClientSessionsFromRedis(List.of(CLIENT_SESSION_ID));
         assertThat(response, hasStatus(302));
         assertThat(
                 response.getHeaders().get(ResponseHeaders.LOCATION),
@@ -556,8 +573,8 @@ class LogoutHandlerTest {
                     throws URISyntaxException {
         when(tokenValidationService.isTokenSignatureValid(signedIDToken.serialize()))
                 .thenReturn(true);
-        when(dynamoClientService.getClient("client-id"))
-                .thenReturn(Optional.of(createClientRegistry()));
+        when(dynamoClientService.getCompiledClient("client-id"))
+                .thenReturn(Optional.of(createCompiledClientRegistry()));
         APIGatewayProxyRequestEvent event =
                 generateRequestEvent(
                         Map.of(
@@ -616,8 +633,7 @@ class LogoutHandlerTest {
                         mock(VectorOfTrust.class),
                         "client_name");
         clientSession.setIdTokenHint(idToken.serialize());
-        when(clientSessionService.getClientSession(CLIENT_SESSION_ID))
-                .thenReturn(Optional.of(clientSession));
+        clientSessions.put(CLIENT_SESSION_ID, clientSession);
     }
 
     private Session generateSession() {
@@ -639,6 +655,10 @@ class LogoutHandlerTest {
                 .withRedirectUrls(singletonList("http://localhost/redirect"));
     }
 
+    private CompiledClientRegistry createCompiledClientRegistry() {
+        return CompiledClientRegistry.compile(createClientRegistry(), INTERNAL_SECTOR_URI);
+    }
+
     private static String buildCookieString(String clientSessionId) {
         return format(
                 "gs=%s.%s; %s=%s; Max-Age=%d; %s",
@@ -670,14 +690,13 @@ class LogoutHandlerTest {
 
     private void setUpClientSession(String clientSessionId, String clientId) {
         session.getClientSessions().add(clientSessionId);
-        when(clientSessionService.getClientSession(clientSessionId))
-                .thenReturn(
-                        Optional.of(
-                                new ClientSession(
-                                        Map.of("client_id", List.of(clientId)),
-                                        LocalDateTime.now(),
-                                        VectorOfTrust.getDefaults(),
-                                        "client_name")));
+        clientSessions.put(
+                clientSessionId,
+                new ClientSession(
+                        Map.of("client_id", List.of(clientId)),
+                        LocalDateTime.now(),
+                        VectorOfTrust.getDefaults(),
+                        "client_name"));
         when(dynamoClientService.getClient(clientId))
                 .thenReturn(Optional.of(new ClientRegistry().withClientID(clientId)));
     }
@@ -695,9 +714,9 @@ class LogoutHandlerTest {
                 .sendLogoutMessage(
                         argThat(withClientId("client-id-3")), eq(EMAIL), eq(INTERNAL_SECTOR_URI));
 
-        verify(clientSessionService).deleteClientSessionFromRedis(CLIENT_SESSION_ID);
-        verify(clientSessionService).deleteClientSessionFromRedis("client-session-id-2");
-        verify(clientSessionService).deleteClientSessionFromRedis("client-session-id-3");
+        verify(clientSessionService)
+                .deleteClientSessionsFromRedis(
+                        List.of(CLIENT_SESSION_ID, "client-session-id-2", "client-session-id-3"));
     }
 
     public static ArgumentMatcher<ClientRegistry> withClientId(String clientId) {
@@ -13,6 +13,7 @@ import uk.gov.di.authentication.shared.entity.ValidClaims;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -60,6 +61,21 @@ class WellknownHandlerTest {
         Approvals.verify(result.getBody());
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenTheClientAlreadyHasTheMetadata() {
+        var entityTag = getWellKnown().getHeaders().get("ETag");
+
+        var result =
+                new WellknownHandler(configService)
+                        .handleRequest(
+                                new APIGatewayProxyRequestEvent()
+                                        .withHeaders(Map.of("If-None-Match", entityTag)),
+                                context);
+
+        assertThat(result, hasStatus(304));
+        assertThat(result.getHeaders().get("ETag"), equalTo(entityTag));
+    }
+
     @Test
     void shouldThrowExceptionWhenBaseUrlIsMissing() {
         when(configService.getOidcApiBaseURL()).thenReturn(Optional.empty());
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientType;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.CustomScopeValue;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
@@ -67,8 +68,8 @@ class RequestObjectServiceTest {
                         new Scope(
                                 OIDCScopeValue.OPENID.getValue(),
                                 CustomScopeValue.DOC_CHECKING_APP.getValue()));
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(clientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(Optional.of(CompiledClientRegistry.compile(clientRegistry, null)));
     }
 
     @Test
@@ -162,7 +163,8 @@ class RequestObjectServiceTest {
 
     @Test
     void shouldThrowWhenInvalidClient() throws JOSEException {
-        when(dynamoClientService.getClient(CLIENT_ID.getValue())).thenReturn(Optional.empty());
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(Optional.empty());
         var jwtClaimsSet =
                 new JWTClaimsSet.Builder()
                         .audience(AUDIENCE)
@@ -190,8 +192,8 @@ class RequestObjectServiceTest {
                         new Scope(
                                 OIDCScopeValue.OPENID.getValue(),
                                 CustomScopeValue.DOC_CHECKING_APP.getValue()));
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(clientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(Optional.of(CompiledClientRegistry.compile(clientRegistry, null)));
         var jwtClaimsSet =
                 new JWTClaimsSet.Builder()
                         .audience(AUDIENCE)
@@ -339,8 +341,8 @@ class RequestObjectServiceTest {
         var clientRegistry =
                 generateClientRegistry(
                         ClientType.APP.getValue(), new Scope(OIDCScopeValue.OPENID.getValue()));
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(clientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(Optional.of(CompiledClientRegistry.compile(clientRegistry, null)));
 
         var jwtClaimsSet =
                 new JWTClaimsSet.Builder()
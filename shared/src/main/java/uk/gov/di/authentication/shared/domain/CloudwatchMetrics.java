@@ -7,7 +7,28 @@ public enum CloudwatchMetrics {
             "AuthenticationSuccessExistingAccountByClient"),
     SIGN_IN_NEW_ACCOUNT_BY_CLIENT("SignInNewAccountByClient"),
     SIGN_IN_EXISTING_ACCOUNT_BY_CLIENT("SignInExistingAccountByClient"),
-    LOGOUT_SUCCESS("LogoutSuccess");
+    LOGOUT_SUCCESS("LogoutSuccess"),
+    REDIS_POOL_ACTIVE("RedisPoolActive"),
+    REDIS_POOL_IDLE("RedisPoolIdle"),
+    REDIS_POOL_WAITERS("RedisPoolWaiters"),
+    REDIS_POOL_CREATED("RedisPoolCreated"),
+    REDIS_POOL_DESTROYED("RedisPoolDestroyed"),
+    REDIS_POOL_MEAN_BORROW_WAIT("RedisPoolMeanBorrowWait"),
+    REDIS_POOL_MAX_BORROW_WAIT("RedisPoolMaxBorrowWait"),
+    REDIS_COMMAND_LATENCY("RedisCommandLatency"),
+    REDIS_COMMAND_COUNT("RedisCommandCount"),
+    CLIENT_REGISTRY_CACHE_HIT("ClientRegistryCacheHit"),
+    CLIENT_REGISTRY_CACHE_MISS("ClientRegistryCacheMiss"),
+    SUBJECT_INDEX_QUERIES("SubjectIndexQueries"),
+    SUBJECT_INDEX_QUERIES_AVOIDED("SubjectIndexQueriesAvoided"),
+    BULK_WRITE_ITEMS("BulkWriteItems"),
+    BULK_WRITE_FAILED_ITEMS("BulkWriteFailedItems"),
+    TOKEN_SIGNING_LATENCY("TokenSigningLatency"),
+    TOKEN_VERIFIER_CACHE_HIT("TokenVerifierCacheHit"),
+    TOKEN_VERIFIER_CACHE_MISS("TokenVerifierCacheMiss"),
+    SIGNING_KEY_REFRESHES("SigningKeyRefreshes"),
+    SIGNING_KEY_REFRESH_FAILURES("SigningKeyRefreshFailures"),
+    SIGNING_KEY_ROTATIONS("SigningKeyRotations");
     private String value;
 
     CloudwatchMetrics(String value) {
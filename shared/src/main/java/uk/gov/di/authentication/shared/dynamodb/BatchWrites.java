@@ -0,0 +1,106 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.RequestLimitExceededException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import uk.gov.di.authentication.shared.exceptions.UnprocessedItemsException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+
+class BatchWrites {
+
+    private static final Logger LOG = LogManager.getLogger(BatchWrites.class);
+    static final int MAX_BATCH_SIZE = 25;
+    private static final int MAX_ATTEMPTS = 8;
+    static final long BASE_BACKOFF_MILLIS = 50;
+
+    private BatchWrites() {}
+
+    /*
+     * Writes up to 25 requests with BatchWriteItem. Unprocessed items, and whole batches rejected
+     * for throttling once the SDK has given up retrying them, are written again with exponential
+     * backoff.
+     */
+    static void writeWithRetry(
+            DynamoDbClient client,
+            Map<String, List<WriteRequest>> requests,
+            long baseBackoffMillis) {
+        var pending = requests;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > MAX_ATTEMPTS) {
+                throw new UnprocessedItemsException(
+                        format(
+                                "Unable to write %d items within batch write attempts",
+                                count(pending)));
+            }
+            if (attempt > 1) {
+                backOff(attempt, baseBackoffMillis);
+            }
+            try {
+                pending =
+                        client.batchWriteItem(
+                                        BatchWriteItemRequest.builder()
+                                                .requestItems(pending)
+                                                .build())
+                                .unprocessedItems();
+            } catch (ProvisionedThroughputExceededException | RequestLimitExceededException e) {
+                LOG.warn("Batch write throttled: {}", e.getMessage());
+            }
+        }
+    }
+
+    static <T> WriteRequest putRequest(DynamoDbTable<T> table, T item) {
+        return WriteRequest.builder()
+                .putRequest(
+                        PutRequest.builder()
+                                .item(table.tableSchema().itemToMap(item, true))
+                                .build())
+                .build();
+    }
+
+    static <T> WriteRequest deleteRequest(DynamoDbTable<T> table, T item) {
+        var primaryKeys = table.tableSchema().tableMetadata().primaryKeys();
+        return deleteRequest(table.tableSchema().itemToMap(item, primaryKeys));
+    }
+
+    static <T> WriteRequest deleteRequest(DynamoDbTable<T> table, Key key) {
+        return deleteRequest(key.keyMap(table.tableSchema(), TableMetadata.primaryIndexName()));
+    }
+
+    static int count(Map<String, List<WriteRequest>> requests) {
+        return requests.values().stream().mapToInt(List::size).sum();
+    }
+
+    private static WriteRequest deleteRequest(Map<String, AttributeValue> key) {
+        return WriteRequest.builder()
+                .deleteRequest(DeleteRequest.builder().key(key).build())
+                .build();
+    }
+
+    // Full jitter, so writers throttled together do not all retry at the same moment
+    private static void backOff(int attempt, long baseBackoffMillis) {
+        var backoffMillis =
+                ThreadLocalRandom.current().nextLong((baseBackoffMillis << (attempt - 2)) + 1);
+        LOG.info("Retrying unprocessed batch write items in {} ms", backoffMillis);
+        try {
+            Thread.sleep(backoffMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnprocessedItemsException("Interrupted retrying batch write items", e);
+        }
+    }
+}
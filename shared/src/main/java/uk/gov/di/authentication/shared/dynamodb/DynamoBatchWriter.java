@@ -0,0 +1,69 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers puts and deletes against a single table and writes them with BatchWriteItem, 25 at a
+ * time. Items DynamoDB leaves unprocessed are retried with jittered exponential backoff. Anything
+ * still buffered is written on close, so use it in a try-with-resources block. Not thread safe.
+ */
+public class DynamoBatchWriter<T> implements AutoCloseable {
+
+    private final DynamoDbClient client;
+    private final DynamoDbTable<T> table;
+    private final long baseBackoffMillis;
+    private final List<WriteRequest> buffer = new ArrayList<>(BatchWrites.MAX_BATCH_SIZE);
+    private long written = 0;
+
+    public DynamoBatchWriter(DynamoDbClient client, DynamoDbTable<T> table) {
+        this(client, table, BatchWrites.BASE_BACKOFF_MILLIS);
+    }
+
+    DynamoBatchWriter(DynamoDbClient client, DynamoDbTable<T> table, long baseBackoffMillis) {
+        this.client = client;
+        this.table = table;
+        this.baseBackoffMillis = baseBackoffMillis;
+    }
+
+    public DynamoBatchWriter<T> put(T item) {
+        return add(BatchWrites.putRequest(table, item));
+    }
+
+    public DynamoBatchWriter<T> delete(T item) {
+        return add(BatchWrites.deleteRequest(table, item));
+    }
+
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<WriteRequest> pending = new ArrayList<>(buffer);
+        buffer.clear();
+        BatchWrites.writeWithRetry(client, Map.of(table.tableName(), pending), baseBackoffMillis);
+        written += pending.size();
+    }
+
+    /** The number of items written to the table so far. */
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private DynamoBatchWriter<T> add(WriteRequest writeRequest) {
+        buffer.add(writeRequest);
+        if (buffer.size() >= BatchWrites.MAX_BATCH_SIZE) {
+            flush();
+        }
+        return this;
+    }
+}
@@ -0,0 +1,208 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import uk.gov.di.authentication.shared.exceptions.UnprocessedItemsException;
+import uk.gov.di.authentication.shared.services.CloudwatchMetricsService;
+import uk.gov.di.authentication.shared.services.PeriodicMetricsPublisher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.BULK_WRITE_FAILED_ITEMS;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.BULK_WRITE_ITEMS;
+
+/**
+ * Writes large numbers of puts and deletes, across any number of tables, as BatchWriteItem
+ * requests spread over a fixed number of threads. Adding blocks once every thread is busy and a
+ * batch is already queued for each, so memory stays bounded however many items are written. A
+ * batch that cannot be written is logged and counted, and the rest carry on. Progress is logged as
+ * batches complete and published as metrics. close() waits for all outstanding batches and throws
+ * if any failed. Adding items is not thread safe.
+ */
+public class DynamoBulkWriter implements AutoCloseable {
+
+    private static final Logger LOG = LogManager.getLogger(DynamoBulkWriter.class);
+    private static final long PROGRESS_LOG_INTERVAL = 10000;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final DynamoDbClient client;
+    private final PeriodicMetricsPublisher metricsPublisher;
+    private final String environment;
+    private final long baseBackoffMillis;
+    private final ExecutorService executor;
+    private final Semaphore queuedBatches;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final long startTime = System.nanoTime();
+    private Map<String, List<WriteRequest>> buffer = new HashMap<>();
+    private int buffered = 0;
+    // Only used by publications, which the publisher runs one at a time
+    private long publishedWritten = 0;
+    private long publishedFailed = 0;
+
+    public DynamoBulkWriter(
+            DynamoDbClient client,
+            int concurrency,
+            PeriodicMetricsPublisher metricsPublisher,
+            String environment) {
+        this(client, concurrency, metricsPublisher, environment, BatchWrites.BASE_BACKOFF_MILLIS);
+    }
+
+    DynamoBulkWriter(
+            DynamoDbClient client,
+            int concurrency,
+            PeriodicMetricsPublisher metricsPublisher,
+            String environment,
+            long baseBackoffMillis) {
+        this.client = client;
+        this.metricsPublisher = metricsPublisher;
+        this.environment = environment;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.executor =
+                Executors.newFixedThreadPool(
+                        concurrency,
+                        runnable -> {
+                            var thread =
+                                    new Thread(
+                                            runnable,
+                                            "bulk-writer-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        this.queuedBatches = new Semaphore(concurrency * 2);
+    }
+
+    public <T> DynamoBulkWriter put(DynamoDbTable<T> table, T item) {
+        return add(table.tableName(), BatchWrites.putRequest(table, item));
+    }
+
+    public <T> DynamoBulkWriter delete(DynamoDbTable<T> table, Key key) {
+        return add(table.tableName(), BatchWrites.deleteRequest(table, key));
+    }
+
+    /** The number of items written so far. */
+    public long written() {
+        return written.get();
+    }
+
+    /** The number of items in batches that could not be written. */
+    public long failed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            submitBuffer();
+        } finally {
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new UnprocessedItemsException("Interrupted waiting for bulk write", e);
+        }
+        metricsPublisher.publishNow(this::publishMetrics);
+        LOG.info(
+                "Bulk write complete: {} items written and {} failed in {} ms",
+                written.get(),
+                failed.get(),
+                elapsedMillis());
+        if (failed.get() > 0) {
+            throw new UnprocessedItemsException(
+                    format(
+                            "Unable to write %d of %d items",
+                            failed.get(), failed.get() + written.get()),
+                    failure.get());
+        }
+    }
+
+    private DynamoBulkWriter add(String tableName, WriteRequest writeRequest) {
+        buffer.computeIfAbsent(tableName, t -> new ArrayList<>()).add(writeRequest);
+        if (++buffered >= BatchWrites.MAX_BATCH_SIZE) {
+            submitBuffer();
+        }
+        return this;
+    }
+
+    private void submitBuffer() {
+        if (buffered == 0) {
+            return;
+        }
+        var batch = buffer;
+        var batchSize = buffered;
+        buffer = new HashMap<>();
+        buffered = 0;
+        try {
+            queuedBatches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnprocessedItemsException("Interrupted queueing bulk write batch", e);
+        }
+        executor.execute(
+                () -> {
+                    try {
+                        BatchWrites.writeWithRetry(client, batch, baseBackoffMillis);
+                        recordProgress(batchSize);
+                    } catch (RuntimeException e) {
+                        LOG.error("Unable to write batch of {} items", batchSize, e);
+                        failed.addAndGet(batchSize);
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        queuedBatches.release();
+                    }
+                });
+        metricsPublisher.publishIfDue(this::publishMetrics);
+    }
+
+    private void recordProgress(int batchSize) {
+        var total = written.addAndGet(batchSize);
+        if (total / PROGRESS_LOG_INTERVAL != (total - batchSize) / PROGRESS_LOG_INTERVAL) {
+            var elapsedMillis = elapsedMillis();
+            LOG.info(
+                    "Bulk write progress: {} items in {} ms ({} items/s)",
+                    total,
+                    elapsedMillis,
+                    elapsedMillis == 0 ? total : total * 1000 / elapsedMillis);
+        }
+    }
+
+    private void publishMetrics(CloudwatchMetricsService metricsService) {
+        var writtenCount = written.get();
+        var failedCount = failed.get();
+        metricsService.putEmbeddedValues(
+                Map.of(
+                        BULK_WRITE_ITEMS.getValue(),
+                        List.of((double) (writtenCount - publishedWritten)),
+                        BULK_WRITE_FAILED_ITEMS.getValue(),
+                        List.of((double) (failedCount - publishedFailed))),
+                Unit.COUNT,
+                Map.of(ENVIRONMENT.getValue(), environment));
+        publishedWritten = writtenCount;
+        publishedFailed = failedCount;
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+}
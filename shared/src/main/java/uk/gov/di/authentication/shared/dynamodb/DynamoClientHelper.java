@@ -1,8 +1,10 @@
 package uk.gov.di.authentication.shared.dynamodb;
 
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 
@@ -27,4 +29,26 @@ public class DynamoClientHelper {
         var dynamoDbClient = createDynamoClient(configurationService);
         return DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDbClient).build();
     }
+
+    public static DynamoDbAsyncClient createDynamoAsyncClient(
+            ConfigurationService configurationService) {
+        var dynamoDbAsyncClientBuilder =
+                DynamoDbAsyncClient.builder()
+                        .credentialsProvider(DefaultCredentialsProvider.create())
+                        .region(Region.of(configurationService.getAwsRegion()));
+        configurationService
+                .getDynamoEndpointUri()
+                .ifPresent(
+                        endpoint ->
+                                dynamoDbAsyncClientBuilder.endpointOverride(URI.create(endpoint)));
+        return dynamoDbAsyncClientBuilder.build();
+    }
+
+    public static DynamoDbEnhancedAsyncClient createDynamoEnhancedAsyncClient(
+            ConfigurationService configurationService) {
+        var dynamoDbAsyncClient = createDynamoAsyncClient(configurationService);
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
+                .build();
+    }
 }
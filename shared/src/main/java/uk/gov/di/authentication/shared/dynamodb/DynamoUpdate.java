@@ -0,0 +1,130 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Builds a single UpdateItem request which only touches the named attributes of an existing item.
+ * Values for SET are read from a bean through the table schema, so they are converted exactly as
+ * they would be by the enhanced client. Attributes whose value is null are removed.
+ */
+public class DynamoUpdate<T> {
+
+    private final DynamoDbTable<T> table;
+    private final T values;
+    private final Set<String> setAttributes = new LinkedHashSet<>();
+    private final Set<String> removeAttributes = new LinkedHashSet<>();
+    private final Set<String> absentAttributes = new LinkedHashSet<>();
+    private String versionAttribute;
+    private String expectedVersion;
+
+    public DynamoUpdate(DynamoDbTable<T> table, T values) {
+        this.table = table;
+        this.values = values;
+    }
+
+    // An attribute can only appear once in an update expression, so the later of set or remove wins
+    public DynamoUpdate<T> set(String... attributes) {
+        removeAttributes.removeAll(Arrays.asList(attributes));
+        setAttributes.addAll(Arrays.asList(attributes));
+        return this;
+    }
+
+    public DynamoUpdate<T> remove(String... attributes) {
+        setAttributes.removeAll(Arrays.asList(attributes));
+        removeAttributes.addAll(Arrays.asList(attributes));
+        return this;
+    }
+
+    public DynamoUpdate<T> ifUnchangedSince(String versionAttribute, String expectedVersion) {
+        this.versionAttribute = versionAttribute;
+        this.expectedVersion = expectedVersion;
+        return this;
+    }
+
+    public DynamoUpdate<T> ifAbsent(String... attributes) {
+        absentAttributes.addAll(Arrays.asList(attributes));
+        return this;
+    }
+
+    public UpdateItemRequest toRequest(String partitionValue) {
+        var partitionKey = table.tableSchema().tableMetadata().primaryPartitionKey();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> expressionValues = new HashMap<>();
+        List<String> setClauses = new ArrayList<>();
+        List<String> removeClauses = new ArrayList<>();
+
+        for (String attribute : setAttributes) {
+            var name = addName(names, attribute);
+            var value = table.tableSchema().attributeValue(values, attribute);
+            if (value == null || Boolean.TRUE.equals(value.nul())) {
+                removeClauses.add(name);
+            } else {
+                var placeholder = ":v" + expressionValues.size();
+                expressionValues.put(placeholder, value);
+                setClauses.add(name + " = " + placeholder);
+            }
+        }
+        for (String attribute : removeAttributes) {
+            removeClauses.add(addName(names, attribute));
+        }
+
+        var updateExpression = new StringBuilder();
+        if (!setClauses.isEmpty()) {
+            updateExpression.append("SET ").append(String.join(", ", setClauses));
+        }
+        if (!removeClauses.isEmpty()) {
+            updateExpression
+                    .append(updateExpression.length() == 0 ? "" : " ")
+                    .append("REMOVE ")
+                    .append(String.join(", ", removeClauses));
+        }
+
+        var conditionExpression = format("attribute_exists(%s)", addName(names, partitionKey));
+        if (versionAttribute != null) {
+            var versionName = addName(names, versionAttribute);
+            if (expectedVersion == null) {
+                conditionExpression += format(" AND attribute_not_exists(%s)", versionName);
+            } else {
+                expressionValues.put(":expected", AttributeValue.fromS(expectedVersion));
+                conditionExpression += format(" AND %s = :expected", versionName);
+            }
+        }
+        for (String attribute : absentAttributes) {
+            conditionExpression +=
+                    format(" AND attribute_not_exists(%s)", addName(names, attribute));
+        }
+
+        var request =
+                UpdateItemRequest.builder()
+                        .tableName(table.tableName())
+                        .key(Map.of(partitionKey, AttributeValue.fromS(partitionValue)))
+                        .updateExpression(updateExpression.toString())
+                        .conditionExpression(conditionExpression)
+                        .expressionAttributeNames(names)
+                        .returnValuesOnConditionCheckFailure(
+                                ReturnValuesOnConditionCheckFailure.ALL_OLD);
+        if (!expressionValues.isEmpty()) {
+            request.expressionAttributeValues(expressionValues);
+        }
+        return request.build();
+    }
+
+    private static String addName(Map<String, String> names, String attribute) {
+        var name = "#a" + names.size();
+        names.put(name, attribute);
+        return name;
+    }
+}
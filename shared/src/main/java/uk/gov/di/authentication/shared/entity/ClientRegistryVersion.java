@@ -0,0 +1,43 @@
+package uk.gov.di.authentication.shared.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+@DynamoDbBean
+public class ClientRegistryVersion {
+
+    private String clientID;
+    private String version;
+
+    public ClientRegistryVersion() {}
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("ClientID")
+    public String getClientID() {
+        return clientID;
+    }
+
+    public void setClientID(String clientID) {
+        this.clientID = clientID;
+    }
+
+    public ClientRegistryVersion withClientID(String clientID) {
+        this.clientID = clientID;
+        return this;
+    }
+
+    @DynamoDbAttribute("Version")
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public ClientRegistryVersion withVersion(String version) {
+        this.version = version;
+        return this;
+    }
+}
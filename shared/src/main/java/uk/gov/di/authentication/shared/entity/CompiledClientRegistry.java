@@ -0,0 +1,117 @@
+package uk.gov.di.authentication.shared.entity;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.authentication.shared.helpers.ClientSubjectHelper;
+
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A ClientRegistry record together with the values request validation derives from it: the
+ * decoded public key and a verifier for it, and the redirect URIs as sets. It is built once when
+ * the record is loaded and cached alongside it, so none of this is repeated per request. The
+ * wrapped record must not be modified.
+ */
+public class CompiledClientRegistry {
+
+    private static final Logger LOG = LogManager.getLogger(CompiledClientRegistry.class);
+
+    private final ClientRegistry clientRegistry;
+    private final String internalSectorUri;
+    private final PublicKey publicKey;
+    private final JWSVerifier verifier;
+    private final Set<String> redirectUrls;
+    private final Set<String> postLogoutRedirectUrls;
+    private volatile String sectorIdentifier;
+
+    private CompiledClientRegistry(ClientRegistry clientRegistry, String internalSectorUri) {
+        this.clientRegistry = clientRegistry;
+        this.internalSectorUri = internalSectorUri;
+        this.publicKey = parsePublicKey(clientRegistry);
+        this.verifier =
+                publicKey instanceof RSAPublicKey rsaKey ? new RSASSAVerifier(rsaKey) : null;
+        this.redirectUrls = toSet(clientRegistry.getRedirectUrls());
+        this.postLogoutRedirectUrls = toSet(clientRegistry.getPostLogoutRedirectUrls());
+    }
+
+    public static CompiledClientRegistry compile(
+            ClientRegistry clientRegistry, String internalSectorUri) {
+        return new CompiledClientRegistry(clientRegistry, internalSectorUri);
+    }
+
+    public ClientRegistry getClientRegistry() {
+        return clientRegistry;
+    }
+
+    public String getClientID() {
+        return clientRegistry.getClientID();
+    }
+
+    public Optional<PublicKey> getPublicKey() {
+        return Optional.ofNullable(publicKey);
+    }
+
+    public Optional<JWSVerifier> getVerifier() {
+        return Optional.ofNullable(verifier);
+    }
+
+    public boolean isRedirectUrlRegistered(String redirectUrl) {
+        return redirectUrls.contains(redirectUrl);
+    }
+
+    public boolean isPostLogoutRedirectUrlRegistered(String postLogoutRedirectUrl) {
+        return postLogoutRedirectUrls.contains(postLogoutRedirectUrl);
+    }
+
+    /*
+     * Worked out on first use rather than when compiling, as it throws for a client whose sector
+     * identifier cannot be determined and most requests never need it.
+     */
+    public String getSectorIdentifier() {
+        var result = sectorIdentifier;
+        if (Objects.isNull(result)) {
+            result =
+                    ClientSubjectHelper.getSectorIdentifierForClient(
+                            clientRegistry, internalSectorUri);
+            sectorIdentifier = result;
+        }
+        return result;
+    }
+
+    private static PublicKey parsePublicKey(ClientRegistry clientRegistry) {
+        if (Objects.isNull(clientRegistry.getPublicKey())) {
+            return null;
+        }
+        try {
+            byte[] decodedKey = Base64.getMimeDecoder().decode(clientRegistry.getPublicKey());
+            return KeyFactory.getInstance("RSA")
+                    .generatePublic(new X509EncodedKeySpec(decodedKey));
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException | IllegalArgumentException e) {
+            LOG.warn(
+                    "Unable to parse public key for client {}: {}",
+                    clientRegistry.getClientID(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private static Set<String> toSet(List<String> values) {
+        return Objects.isNull(values)
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(values));
+    }
+}
@@ -5,9 +5,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class Session {
 
@@ -20,6 +24,25 @@ public class Session {
         UNKNOWN
     }
 
+    public enum Field {
+        SESSION_ID,
+        CLIENT_SESSIONS,
+        EMAIL_ADDRESS,
+        RETRY_COUNT,
+        PASSWORD_RESET_COUNT,
+        CODE_REQUEST_COUNT_MAP,
+        CURRENT_CREDENTIAL_STRENGTH,
+        IS_NEW_ACCOUNT,
+        AUTHENTICATED,
+        PROCESSING_IDENTITY_ATTEMPTS,
+        VERIFIED_MFA_METHOD_TYPE,
+        INTERNAL_COMMON_SUBJECT_IDENTIFIER;
+
+        public String getKey() {
+            return name().toLowerCase();
+        }
+    }
+
     @Expose private String sessionId;
 
     @Expose private List<String> clientSessions;
@@ -44,6 +67,9 @@ public class Session {
 
     @Expose private String internalCommonSubjectIdentifier;
 
+    // null means every field is treated as changed, e.g. for a session not read from a hash
+    private transient EnumSet<Field> dirtyFields;
+
     public Session(String sessionId) {
         this.sessionId = sessionId;
         this.clientSessions = new ArrayList<>();
@@ -59,6 +85,7 @@ public class Session {
 
     public void setSessionId(String sessionId) {
         this.sessionId = sessionId;
+        markDirty(Field.SESSION_ID);
     }
 
     public List<String> getClientSessions() {
@@ -67,6 +94,14 @@ public class Session {
 
     public Session addClientSession(String clientSessionId) {
         this.clientSessions.add(clientSessionId);
+        markDirty(Field.CLIENT_SESSIONS);
+        return this;
+    }
+
+    public Session removeClientSessions(Collection<String> clientSessionIds) {
+        if (this.clientSessions.removeAll(clientSessionIds)) {
+            markDirty(Field.CLIENT_SESSIONS);
+        }
         return this;
     }
 
@@ -80,6 +115,7 @@ public class Session {
 
     public Session setEmailAddress(String emailAddress) {
         this.emailAddress = emailAddress;
+        markDirty(Field.EMAIL_ADDRESS);
         return this;
     }
 
@@ -87,17 +123,31 @@ public class Session {
         return retryCount;
     }
 
+    public Session setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+        markDirty(Field.RETRY_COUNT);
+        return this;
+    }
+
     public int getPasswordResetCount() {
         return passwordResetCount;
     }
 
     public Session incrementPasswordResetCount() {
         this.passwordResetCount = passwordResetCount + 1;
+        markDirty(Field.PASSWORD_RESET_COUNT);
         return this;
     }
 
     public Session resetPasswordResetCount() {
         this.passwordResetCount = 0;
+        markDirty(Field.PASSWORD_RESET_COUNT);
+        return this;
+    }
+
+    public Session setPasswordResetCount(int passwordResetCount) {
+        this.passwordResetCount = passwordResetCount;
+        markDirty(Field.PASSWORD_RESET_COUNT);
         return this;
     }
 
@@ -118,6 +168,7 @@ public class Session {
                 CodeRequestType.getCodeRequestType(notificationType, journeyType);
         int currentCount = getCodeRequestCount(requestType);
         codeRequestCountMap.put(requestType, currentCount + 1);
+        markDirty(Field.CODE_REQUEST_COUNT_MAP);
         LOG.info("CodeRequest count incremented: {}", codeRequestCountMap);
 
         return this;
@@ -128,16 +179,28 @@ public class Session {
         CodeRequestType requestType =
                 CodeRequestType.getCodeRequestType(notificationType, journeyType);
         codeRequestCountMap.put(requestType, 0);
+        markDirty(Field.CODE_REQUEST_COUNT_MAP);
         LOG.info("CodeRequest count reset: {}", codeRequestCountMap);
         return this;
     }
 
+    public Map<CodeRequestType, Integer> getCodeRequestCountMap() {
+        return Collections.unmodifiableMap(codeRequestCountMap);
+    }
+
+    public Session setCodeRequestCount(CodeRequestType requestType, int count) {
+        codeRequestCountMap.put(requestType, count);
+        markDirty(Field.CODE_REQUEST_COUNT_MAP);
+        return this;
+    }
+
     public CredentialTrustLevel getCurrentCredentialStrength() {
         return currentCredentialStrength;
     }
 
     public Session setCurrentCredentialStrength(CredentialTrustLevel currentCredentialStrength) {
         this.currentCredentialStrength = currentCredentialStrength;
+        markDirty(Field.CURRENT_CREDENTIAL_STRENGTH);
         return this;
     }
 
@@ -147,6 +210,7 @@ public class Session {
 
     public Session setNewAccount(AccountState isNewAccount) {
         this.isNewAccount = isNewAccount;
+        markDirty(Field.IS_NEW_ACCOUNT);
         return this;
     }
 
@@ -156,6 +220,7 @@ public class Session {
 
     public Session setAuthenticated(boolean authenticated) {
         this.authenticated = authenticated;
+        markDirty(Field.AUTHENTICATED);
         return this;
     }
 
@@ -165,10 +230,18 @@ public class Session {
 
     public void resetProcessingIdentityAttempts() {
         this.processingIdentityAttempts = 0;
+        markDirty(Field.PROCESSING_IDENTITY_ATTEMPTS);
+    }
+
+    public Session setProcessingIdentityAttempts(int processingIdentityAttempts) {
+        this.processingIdentityAttempts = processingIdentityAttempts;
+        markDirty(Field.PROCESSING_IDENTITY_ATTEMPTS);
+        return this;
     }
 
     public int incrementProcessingIdentityAttempts() {
         this.processingIdentityAttempts += 1;
+        markDirty(Field.PROCESSING_IDENTITY_ATTEMPTS);
         return processingIdentityAttempts;
     }
 
@@ -178,6 +251,7 @@ public class Session {
 
     public Session setVerifiedMfaMethodType(MFAMethodType verifiedMfaMethodType) {
         this.verifiedMfaMethodType = verifiedMfaMethodType;
+        markDirty(Field.VERIFIED_MFA_METHOD_TYPE);
         return this;
     }
 
@@ -187,9 +261,25 @@ public class Session {
 
     public Session setInternalCommonSubjectIdentifier(String internalCommonSubjectIdentifier) {
         this.internalCommonSubjectIdentifier = internalCommonSubjectIdentifier;
+        markDirty(Field.INTERNAL_COMMON_SUBJECT_IDENTIFIER);
         return this;
     }
 
+    public Set<Field> getDirtyFields() {
+        return dirtyFields == null ? EnumSet.allOf(Field.class) : EnumSet.copyOf(dirtyFields);
+    }
+
+    public Session clearDirtyFields() {
+        this.dirtyFields = EnumSet.noneOf(Field.class);
+        return this;
+    }
+
+    private void markDirty(Field field) {
+        if (dirtyFields != null) {
+            dirtyFields.add(field);
+        }
+    }
+
     private void initializeCodeRequestMap() {
         for (CodeRequestType requestType : CodeRequestType.values()) {
             codeRequestCountMap.put(requestType, 0);
@@ -0,0 +1,12 @@
+package uk.gov.di.authentication.shared.exceptions;
+
+public class UnprocessedItemsException extends RuntimeException {
+
+    public UnprocessedItemsException(String message) {
+        super(message);
+    }
+
+    public UnprocessedItemsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
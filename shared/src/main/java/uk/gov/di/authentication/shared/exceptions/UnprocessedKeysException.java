@@ -0,0 +1,12 @@
+package uk.gov.di.authentication.shared.exceptions;
+
+public class UnprocessedKeysException extends RuntimeException {
+
+    public UnprocessedKeysException(String message) {
+        super(message);
+    }
+
+    public UnprocessedKeysException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jose4j.base64url.Base64Url;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
 
@@ -37,6 +38,21 @@ public class ClientSubjectHelper {
         }
     }
 
+    public static Subject getSubject(
+            UserProfile userProfile,
+            CompiledClientRegistry client,
+            AuthenticationService authenticationService) {
+        if (PUBLIC.toString().equalsIgnoreCase(client.getClientRegistry().getSubjectType())) {
+            return new Subject(userProfile.getPublicSubjectID());
+        } else {
+            return new Subject(
+                    calculatePairwiseIdentifier(
+                            userProfile.getSubjectID(),
+                            client.getSectorIdentifier(),
+                            authenticationService.getOrGenerateSalt(userProfile)));
+        }
+    }
+
     public static Subject getSubjectWithSectorIdentifier(
             UserProfile userProfile,
             String sectorIdentifierURI,
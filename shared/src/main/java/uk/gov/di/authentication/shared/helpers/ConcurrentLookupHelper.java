@@ -0,0 +1,69 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import com.amazonaws.xray.AWSXRay;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent blocking lookups (Redis, DynamoDB) alongside each other so that a request waits
+ * for the slowest of them rather than for all of them in turn. The X-Ray trace entity and log
+ * context of the calling thread are carried over to the thread doing the lookup.
+ */
+public class ConcurrentLookupHelper {
+
+    private static final boolean tracingEnabled =
+            Boolean.parseBoolean(System.getenv().getOrDefault("TRACING_ENABLED", "true"));
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService EXECUTOR =
+            Executors.newCachedThreadPool(
+                    runnable -> {
+                        var thread =
+                                new Thread(runnable, "lookup-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    private ConcurrentLookupHelper() {}
+
+    public static <T> CompletableFuture<T> lookup(Supplier<T> supplier) {
+        var traceEntity = tracingEnabled ? AWSXRay.getTraceEntity() : null;
+        var logContext = ThreadContext.getImmutableContext();
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    if (traceEntity != null) {
+                        AWSXRay.setTraceEntity(traceEntity);
+                    }
+                    ThreadContext.putAll(logContext);
+                    try {
+                        return supplier.get();
+                    } finally {
+                        ThreadContext.clearMap();
+                        if (traceEntity != null) {
+                            AWSXRay.clearTraceEntity();
+                        }
+                    }
+                },
+                EXECUTOR);
+    }
+
+    /** Waits for a lookup, rethrowing the exception it failed with rather than a wrapper. */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+import static uk.gov.di.authentication.shared.helpers.HashHelper.hashSha256String;
+import static uk.gov.di.authentication.shared.helpers.RequestHeaderHelper.getHeaderValueFromHeaders;
+
+public final class EntityTagHelper {
+
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    private EntityTagHelper() {}
+
+    /** A strong entity tag for a response body, which changes whenever the body does. */
+    public static String entityTag(String body) {
+        return "\"" + hashSha256String(body) + "\"";
+    }
+
+    /*
+     * If-None-Match uses the weak comparison, so a W/ prefix the client or a proxy added to one of
+     * our tags still counts as a match.
+     */
+    public static boolean ifNoneMatchHeaderMatches(Map<String, String> headers, String entityTag) {
+        var ifNoneMatch = getHeaderValueFromHeaders(headers, IF_NONE_MATCH_HEADER, true);
+        if (Objects.isNull(ifNoneMatch)) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(entityTag));
+    }
+}
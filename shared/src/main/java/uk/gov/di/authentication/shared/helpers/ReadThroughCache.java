@@ -0,0 +1,123 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A size-bounded, in-memory read-through cache. Values are loaded on a miss and kept for a fixed
+ * time. Absent values are cached too, for their own time, so repeated lookups of unknown keys do
+ * not reach the backing store either. Once full, the least recently used entry is evicted. Loads
+ * happen outside the lock, so two threads missing on the same key may both load it.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Clock clock;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long generation = 0;
+
+    public ReadThroughCache(Duration ttl, Duration negativeTtl, int maxSize, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.clock = clock;
+        this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                        return size() > maxSize;
+                    }
+                };
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        var cached = lookUp(key);
+        if (cached != null) {
+            return cached.value();
+        }
+        var loadGeneration = generation();
+        var value = loader.apply(key);
+        store(key, value, loadGeneration);
+        return value;
+    }
+
+    public CompletableFuture<Optional<V>> getAsync(
+            K key, Function<K, CompletableFuture<Optional<V>>> loader) {
+        var cached = lookUp(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.value());
+        }
+        var loadGeneration = generation();
+        return loader.apply(key)
+                .thenApply(
+                        value -> {
+                            store(key, value, loadGeneration);
+                            return value;
+                        });
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /** Drops every entry, including any a load already in flight would otherwise add. */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    private Entry<V> lookUp(K key) {
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > clock.millis()) {
+                hits.incrementAndGet();
+                return entry;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private void store(K key, Optional<V> value, long loadGeneration) {
+        var ttl = value.isPresent() ? ttlMillis : negativeTtlMillis;
+        if (ttl <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, clock.millis() + ttl));
+            }
+        }
+    }
+
+    private long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    private record Entry<V>(Optional<V> value, long expiresAt) {}
+}
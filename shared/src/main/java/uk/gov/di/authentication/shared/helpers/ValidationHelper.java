@@ -152,9 +152,7 @@ public class ValidationHelper {
             return Optional.of(ErrorResponse.ERROR_1002);
         }
 
-        codeStorageService.increaseIncorrectMfaCodeAttemptsCount(emailAddress);
-
-        if (codeStorageService.getIncorrectMfaCodeAttemptsCount(emailAddress) > maxRetries) {
+        if (codeStorageService.increaseIncorrectMfaCodeAttemptsCount(emailAddress) > maxRetries) {
             switch (type) {
                 case MFA_SMS:
                     return Optional.of(ErrorResponse.ERROR_1027);
@@ -8,9 +8,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.ThreadContext;
 import uk.gov.di.authentication.shared.entity.BaseFrontendRequest;
+import uk.gov.di.authentication.shared.entity.ClientRegistry;
 import uk.gov.di.authentication.shared.entity.ClientSession;
 import uk.gov.di.authentication.shared.entity.ErrorResponse;
 import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.User;
+import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.helpers.LogLineHelper;
 import uk.gov.di.authentication.shared.helpers.PersistentIdHelper;
 import uk.gov.di.authentication.shared.serialization.Json;
@@ -21,15 +24,22 @@ import uk.gov.di.authentication.shared.services.ClientSessionService;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 import uk.gov.di.authentication.shared.services.DynamoService;
+import uk.gov.di.authentication.shared.services.RedisConnectionService;
 import uk.gov.di.authentication.shared.services.SerializationService;
 import uk.gov.di.authentication.shared.services.SessionService;
 import uk.gov.di.authentication.shared.state.UserContext;
 
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static uk.gov.di.authentication.shared.domain.RequestHeaders.CLIENT_SESSION_ID_HEADER;
 import static uk.gov.di.authentication.shared.helpers.ApiGatewayResponseHelper.generateApiGatewayProxyErrorResponse;
+import static uk.gov.di.authentication.shared.helpers.ConcurrentLookupHelper.join;
+import static uk.gov.di.authentication.shared.helpers.ConcurrentLookupHelper.lookup;
+import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.addAnnotation;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 import static uk.gov.di.authentication.shared.helpers.LocaleHelper.getUserLanguageFromRequestHeaders;
 import static uk.gov.di.authentication.shared.helpers.LocaleHelper.matchSupportedLanguage;
@@ -106,13 +116,28 @@ public abstract class BaseFrontendHandler<T>
     @Override
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
-        return segmentedFunctionCall(
-                "frontend-api::" + getClass().getSimpleName(),
-                () -> validateAndHandleRequest(input, context));
+        RedisConnectionService.resetRoundTripCount();
+        try {
+            return segmentedFunctionCall(
+                    "frontend-api::" + getClass().getSimpleName(),
+                    () -> validateAndHandleRequest(input, context));
+        } finally {
+            long redisRoundTrips = RedisConnectionService.getRoundTripCount();
+            addAnnotation("redisRoundTrips", redisRoundTrips);
+            LOG.info("Redis round trips for request: {}", redisRoundTrips);
+        }
     }
 
     public void onRequestReceived(String clientSessionId) {}
 
+    /**
+     * The user profile attributes this handler reads from the UserContext. Only these are loaded
+     * from DynamoDB; an empty set loads the full profile.
+     */
+    protected Set<String> getUserProfileAttributes() {
+        return Set.of();
+    }
+
     public void onRequestValidationError(String clientSessionId) {}
 
     public abstract APIGatewayProxyResponseEvent handleRequestWithUserContext(
@@ -132,9 +157,9 @@ public abstract class BaseFrontendHandler<T>
                         configurationService.getHeadersCaseInsensitive());
 
         onRequestReceived(clientSessionId);
+        var clientSessionLookup =
+                clientSessionService.getClientSessionFromRequestHeadersAsync(input.getHeaders());
         Optional<Session> session = sessionService.getSessionFromRequestHeaders(input.getHeaders());
-        Optional<ClientSession> clientSession =
-                clientSessionService.getClientSessionFromRequestHeaders(input.getHeaders());
         if (session.isEmpty()) {
             LOG.warn("Session cannot be found");
             return generateApiGatewayProxyErrorResponse(400, ErrorResponse.ERROR_1000);
@@ -156,10 +181,33 @@ public abstract class BaseFrontendHandler<T>
             return generateApiGatewayProxyErrorResponse(400, ErrorResponse.ERROR_1001);
         }
 
+        var sessionEmail = session.map(Session::getEmailAddress);
+        var requestEmail =
+                Optional.of(request)
+                        .filter(BaseFrontendRequest.class::isInstance)
+                        .map(r -> ((BaseFrontendRequest) r).getEmail())
+                        .map(email -> email.toLowerCase(Locale.ROOT));
+        // Credentials are only loaded for the user the session belongs to
+        var loadUser =
+                loadUserCredentials
+                        && sessionEmail.isPresent()
+                        && requestEmail.map(sessionEmail.get()::equalsIgnoreCase).orElse(true);
+        CompletableFuture<Optional<User>> userLookup = completedFuture(Optional.empty());
+        CompletableFuture<Optional<UserProfile>> userProfileLookup =
+                completedFuture(Optional.empty());
+        if (loadUser) {
+            userLookup = lookUpUser(sessionEmail.get());
+        } else if (sessionEmail.isPresent()) {
+            userProfileLookup = lookUpUserProfile(sessionEmail.get());
+        } else if (requestEmail.isPresent()) {
+            userProfileLookup = lookUpUserProfile(requestEmail.get());
+        }
+
         UserContext.Builder userContextBuilder = UserContext.builder(session.get());
 
         userContextBuilder.withClientSessionId(clientSessionId);
 
+        Optional<ClientSession> clientSession = join(clientSessionLookup);
         var clientID =
                 clientSession
                         .map(ClientSession::getAuthRequestParams)
@@ -168,39 +216,58 @@ public abstract class BaseFrontendHandler<T>
 
         attachLogFieldToLogs(LogLineHelper.LogFieldName.CLIENT_ID, clientID.orElse(UNKNOWN));
 
-        clientID.ifPresent(c -> userContextBuilder.withClient(clientService.getClient(c)));
+        clientID.ifPresent(c -> userContextBuilder.withClient(join(lookUpClient(c))));
 
         clientSession.ifPresent(userContextBuilder::withClientSession);
 
-        session.map(Session::getEmailAddress)
-                .map(authenticationService::getUserProfileFromEmail)
-                .ifPresentOrElse(
-                        userProfile ->
-                                userContextBuilder
-                                        .withUserProfile(userProfile)
-                                        .withUserAuthenticated(true),
-                        () -> {
-                            if (request instanceof BaseFrontendRequest)
-                                userContextBuilder
-                                        .withUserProfile(
-                                                authenticationService.getUserProfileFromEmail(
-                                                        ((BaseFrontendRequest) request)
-                                                                .getEmail()
-                                                                .toLowerCase(Locale.ROOT)))
-                                        .withUserAuthenticated(false);
-                        });
-
-        if (loadUserCredentials) {
-            session.map(Session::getEmailAddress)
-                    .map(authenticationService::getUserCredentialsFromEmail)
-                    .ifPresent(
-                            userCredentials ->
-                                    userContextBuilder.withUserCredentials(
-                                            Optional.of(userCredentials)));
+        if (loadUser) {
+            var user = join(userLookup);
+            userContextBuilder
+                    .withUserProfile(user.map(User::getUserProfile))
+                    .withUserCredentials(user.map(User::getUserCredentials))
+                    .withUserAuthenticated(true);
+        } else if (sessionEmail.isPresent()) {
+            userContextBuilder
+                    .withUserProfile(join(userProfileLookup))
+                    .withUserAuthenticated(true);
+        } else if (requestEmail.isPresent()) {
+            userContextBuilder
+                    .withUserProfile(join(userProfileLookup))
+                    .withUserAuthenticated(false);
         }
 
         userContextBuilder.withUserLanguage(matchSupportedLanguage(userLanguage));
 
         return handleRequestWithUserContext(input, context, request, userContextBuilder.build());
     }
+
+    /*
+     * The Dynamo services read through the async client so no thread is held while waiting.
+     * Other implementations are run on the lookup executor, which gives the same overlap.
+     */
+    private CompletableFuture<Optional<ClientRegistry>> lookUpClient(String clientId) {
+        if (clientService instanceof DynamoClientService dynamoClientService) {
+            return dynamoClientService.getClientAsync(clientId);
+        }
+        return lookup(() -> clientService.getClient(clientId));
+    }
+
+    private CompletableFuture<Optional<User>> lookUpUser(String email) {
+        if (authenticationService instanceof DynamoService dynamoService) {
+            return dynamoService.getUserAsync(email);
+        }
+        return lookup(() -> authenticationService.getUser(email));
+    }
+
+    private CompletableFuture<Optional<UserProfile>> lookUpUserProfile(String email) {
+        var attributes = getUserProfileAttributes();
+        if (authenticationService instanceof DynamoService dynamoService) {
+            return dynamoService.getUserProfileFromEmailAsync(email, attributes);
+        }
+        return lookup(
+                () ->
+                        attributes.isEmpty()
+                                ? authenticationService.getUserProfileFromEmail(email)
+                                : authenticationService.getUserProfileFromEmail(email, attributes));
+    }
 }
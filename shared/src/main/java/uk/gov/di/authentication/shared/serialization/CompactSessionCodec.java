@@ -0,0 +1,291 @@
+package uk.gov.di.authentication.shared.serialization;
+
+import com.nimbusds.oauth2.sdk.id.Subject;
+import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CodeRequestType;
+import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
+import uk.gov.di.authentication.shared.entity.LevelOfConfidence;
+import uk.gov.di.authentication.shared.entity.MFAMethodType;
+import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.VectorOfTrust;
+import uk.gov.di.authentication.shared.serialization.Json.JsonException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class CompactSessionCodec {
+
+    public static final String PREFIX = "~";
+    private static final int VERSION = 1;
+
+    public static boolean isCompact(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    public String encode(Session session) throws JsonException {
+        return write(
+                out -> {
+                    writeString(out, session.getSessionId());
+                    writeVarInt(out, session.getClientSessions().size());
+                    for (String clientSessionId : session.getClientSessions()) {
+                        writeString(out, clientSessionId);
+                    }
+                    writeString(out, session.getEmailAddress());
+                    writeVarInt(out, session.getPasswordResetCount());
+                    var codeRequestCounts = nonZeroCounts(session.getCodeRequestCountMap());
+                    writeVarInt(out, codeRequestCounts.size());
+                    for (var count : codeRequestCounts.entrySet()) {
+                        writeEnum(out, count.getKey());
+                        writeVarInt(out, count.getValue());
+                    }
+                    writeEnum(out, session.getCurrentCredentialStrength());
+                    writeEnum(out, session.isNewAccount());
+                    out.writeBoolean(session.isAuthenticated());
+                    writeVarInt(out, session.getProcessingIdentityAttempts());
+                    writeEnum(out, session.getVerifiedMfaMethodType());
+                    writeString(out, session.getInternalCommonSubjectIdentifier());
+                    writeVarInt(out, session.getRetryCount());
+                });
+    }
+
+    public String encode(ClientSession clientSession) throws JsonException {
+        return write(
+                out -> {
+                    writeParams(out, clientSession.getAuthRequestParams());
+                    writeString(out, clientSession.getIdTokenHint());
+                    writeDateTime(out, clientSession.getCreationDate());
+                    var vot = clientSession.getEffectiveVectorOfTrust();
+                    out.writeBoolean(vot != null);
+                    if (vot != null) {
+                        writeEnum(out, vot.getCredentialTrustLevel());
+                        writeEnum(out, vot.getLevelOfConfidence());
+                    }
+                    var docAppSubjectId = clientSession.getDocAppSubjectId();
+                    writeString(out, docAppSubjectId == null ? null : docAppSubjectId.getValue());
+                    writeString(out, clientSession.getClientName());
+                });
+    }
+
+    public Session decodeSession(String value) throws JsonException {
+        return read(
+                value,
+                in -> {
+                    var session = new Session(readString(in));
+                    var clientSessionCount = readVarInt(in);
+                    for (int i = 0; i < clientSessionCount; i++) {
+                        session.addClientSession(readString(in));
+                    }
+                    session.setEmailAddress(readString(in));
+                    session.setPasswordResetCount(readVarInt(in));
+                    var codeRequestCountSize = readVarInt(in);
+                    for (int i = 0; i < codeRequestCountSize; i++) {
+                        session.setCodeRequestCount(
+                                readEnum(in, CodeRequestType.class), readVarInt(in));
+                    }
+                    session.setCurrentCredentialStrength(readEnum(in, CredentialTrustLevel.class))
+                            .setNewAccount(readEnum(in, Session.AccountState.class))
+                            .setAuthenticated(in.readBoolean())
+                            .setProcessingIdentityAttempts(readVarInt(in))
+                            .setVerifiedMfaMethodType(readEnum(in, MFAMethodType.class))
+                            .setInternalCommonSubjectIdentifier(readString(in))
+                            .setRetryCount(readVarInt(in));
+                    return session;
+                });
+    }
+
+    public ClientSession decodeClientSession(String value) throws JsonException {
+        return read(
+                value,
+                in -> {
+                    var authRequestParams = readParams(in);
+                    var idTokenHint = readString(in);
+                    var creationDate = readDateTime(in);
+                    VectorOfTrust vot = null;
+                    if (in.readBoolean()) {
+                        vot =
+                                VectorOfTrust.of(
+                                        readEnum(in, CredentialTrustLevel.class),
+                                        readEnum(in, LevelOfConfidence.class));
+                    }
+                    var docAppSubjectId = readString(in);
+                    var clientSession =
+                            new ClientSession(authRequestParams, creationDate, vot, readString(in));
+                    clientSession.setIdTokenHint(idTokenHint);
+                    if (docAppSubjectId != null) {
+                        clientSession.setDocAppSubjectId(new Subject(docAppSubjectId));
+                    }
+                    return clientSession;
+                });
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static String write(Writer writer) throws JsonException {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writer.write(out);
+        } catch (IOException | RuntimeException e) {
+            throw new JsonException(e);
+        }
+        return PREFIX + Base64.getEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static <T> T read(String value, Reader<T> reader) throws JsonException {
+        if (!isCompact(value)) {
+            throw new JsonException("Value is not compact session encoded");
+        }
+        try (var in =
+                new DataInputStream(
+                        new ByteArrayInputStream(
+                                Base64.getDecoder().decode(value.substring(PREFIX.length()))))) {
+            var version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new JsonException("Unsupported compact session version: " + version);
+            }
+            return reader.read(in);
+        } catch (IOException | RuntimeException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    private static Map<CodeRequestType, Integer> nonZeroCounts(
+            Map<CodeRequestType, Integer> counts) {
+        var nonZero = new HashMap<CodeRequestType, Integer>();
+        counts.forEach(
+                (type, count) -> {
+                    if (type != null && count != null && count != 0) {
+                        nonZero.put(type, count);
+                    }
+                });
+        return nonZero;
+    }
+
+    private static void writeParams(DataOutputStream out, Map<String, List<String>> params)
+            throws IOException {
+        if (params == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, params.size() + 1);
+        for (var param : params.entrySet()) {
+            writeString(out, param.getKey());
+            var values = param.getValue();
+            writeVarInt(out, values == null ? 0 : values.size() + 1);
+            if (values != null) {
+                for (String value : values) {
+                    writeString(out, value);
+                }
+            }
+        }
+    }
+
+    private static Map<String, List<String>> readParams(DataInputStream in) throws IOException {
+        var size = readVarInt(in) - 1;
+        if (size < 0) {
+            return null;
+        }
+        Map<String, List<String>> params = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            var key = readString(in);
+            var valueCount = readVarInt(in) - 1;
+            List<String> values = null;
+            if (valueCount >= 0) {
+                values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(readString(in));
+                }
+            }
+            params.put(key, values);
+        }
+        return params;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime)
+            throws IOException {
+        out.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            writeVarInt(out, dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), readVarInt(in), ZoneOffset.UTC);
+    }
+
+    // Enums are written by name so reordering constants cannot corrupt stored sessions
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value == null ? null : value.name());
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type)
+            throws IOException {
+        var name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    // Lengths are stored off by one so that zero can represent null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        var bytes = value.getBytes(UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            var b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+}
@@ -11,6 +11,7 @@ import uk.gov.di.authentication.shared.entity.UserProfile;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface AuthenticationService {
     boolean userExists(String email);
@@ -65,6 +66,15 @@ public interface AuthenticationService {
 
     Optional<UserProfile> getUserProfileFromEmail(String email);
 
+    /**
+     * Loads only the named profile attributes along with the email. Any other field of the
+     * returned profile is left unset.
+     */
+    Optional<UserProfile> getUserProfileFromEmail(String email, Set<String> attributes);
+
+    /** Loads the profile and credentials for an email together, in a single round trip. */
+    Optional<User> getUser(String email);
+
     UserCredentials getUserCredentialsFromEmail(String email);
 
     void migrateLegacyPassword(String email, String password);
@@ -9,6 +9,7 @@ import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
 import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import uk.gov.di.authentication.shared.dynamodb.DynamoBatchWriter;
 
 import java.util.Optional;
 
@@ -47,6 +48,10 @@ public class BaseDynamoService<T> {
         get(partition).ifPresent(dynamoTable::deleteItem);
     }
 
+    public DynamoBatchWriter<T> batchWriter() {
+        return new DynamoBatchWriter<>(client, dynamoTable);
+    }
+
     private void warmUp() {
         dynamoTable.describeTable();
     }
@@ -68,6 +68,19 @@ public class BulkEmailUsersService extends BaseDynamoService<BulkEmailUser> {
                         .withCreatedAt(now.toString()));
     }
 
+    public void addUsers(List<String> subjectIDs, BulkEmailStatus bulkEmailStatus) {
+        LocalDateTime now = LocalDateTime.now(configurationService.getClock());
+        try (var writer = batchWriter()) {
+            subjectIDs.forEach(
+                    subjectID ->
+                            writer.put(
+                                    new BulkEmailUser()
+                                            .withSubjectID(subjectID)
+                                            .withBulkEmailStatus(bulkEmailStatus)
+                                            .withCreatedAt(now.toString())));
+        }
+    }
+
     public List<String> getNSubjectIdsByStatus(Integer limit, BulkEmailStatus bulkEmailStatus) {
         QueryRequest queryRequest =
                 QueryRequest.builder()
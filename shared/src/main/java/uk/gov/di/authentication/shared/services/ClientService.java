@@ -2,6 +2,7 @@ package uk.gov.di.authentication.shared.services;
 
 import com.nimbusds.oauth2.sdk.id.ClientID;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
 
 import java.util.List;
@@ -32,6 +33,8 @@ public interface ClientService {
 
     Optional<ClientRegistry> getClient(String clientId);
 
+    Optional<CompiledClientRegistry> getCompiledClient(String clientId);
+
     ClientID generateClientID();
 
     ClientRegistry updateClient(String clientId, UpdateClientConfigRequest updateRequest);
@@ -3,15 +3,21 @@ package uk.gov.di.authentication.shared.services;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.entity.VectorOfTrust;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
+import uk.gov.di.authentication.shared.serialization.CompactSessionCodec;
 import uk.gov.di.authentication.shared.serialization.Json;
 import uk.gov.di.authentication.shared.serialization.Json.JsonException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static uk.gov.di.authentication.shared.domain.RequestHeaders.CLIENT_SESSION_ID_HEADER;
 import static uk.gov.di.authentication.shared.helpers.LogLineHelper.LogFieldName.CLIENT_SESSION_ID;
@@ -24,6 +30,7 @@ public class ClientSessionService {
 
     private static final Logger LOG = LogManager.getLogger(ClientSessionService.class);
     public static final String CLIENT_SESSION_PREFIX = "client-session-";
+    private static final CompactSessionCodec CLIENT_SESSION_CODEC = new CompactSessionCodec();
 
     private final RedisConnectionService redisConnectionService;
     private final ConfigurationService configurationService;
@@ -31,12 +38,7 @@ public class ClientSessionService {
 
     public ClientSessionService(ConfigurationService configurationService) {
         this.configurationService = configurationService;
-        this.redisConnectionService =
-                new RedisConnectionService(
-                        configurationService.getRedisHost(),
-                        configurationService.getRedisPort(),
-                        configurationService.getUseRedisTLS(),
-                        configurationService.getRedisPassword());
+        this.redisConnectionService = RedisConnectionService.getInstance(configurationService);
         objectMapper = SerializationService.getInstance();
     }
 
@@ -61,7 +63,7 @@ public class ClientSessionService {
         try {
             redisConnectionService.saveWithExpiry(
                     CLIENT_SESSION_PREFIX.concat(clientSessionId),
-                    objectMapper.writeValueAsString(clientSession),
+                    serialise(clientSession),
                     configurationService.getSessionExpiry());
         } catch (JsonException e) {
             LOG.error("Error saving client session to Redis");
@@ -78,17 +80,32 @@ public class ClientSessionService {
         attachLogFieldToLogs(CLIENT_SESSION_ID, clientSessionId);
         attachLogFieldToLogs(GOVUK_SIGNIN_JOURNEY_ID, clientSessionId);
 
+        return deserialiseClientSession(
+                redisConnectionService.getValue(CLIENT_SESSION_PREFIX.concat(clientSessionId)));
+    }
+
+    public CompletableFuture<Optional<ClientSession>> getClientSessionAsync(
+            String clientSessionId) {
+        attachLogFieldToLogs(CLIENT_SESSION_ID, clientSessionId);
+        attachLogFieldToLogs(GOVUK_SIGNIN_JOURNEY_ID, clientSessionId);
+
+        return redisConnectionService
+                .getValueAsync(CLIENT_SESSION_PREFIX.concat(clientSessionId))
+                .thenApply(this::deserialiseClientSession);
+    }
+
+    private Optional<ClientSession> deserialiseClientSession(String serialisedClientSession) {
+        if (serialisedClientSession == null) {
+            LOG.warn("Client session with given key is not present in redis");
+            return Optional.empty();
+        }
         try {
-            if (redisConnectionService.keyExists(CLIENT_SESSION_PREFIX.concat(clientSessionId))) {
+            if (CompactSessionCodec.isCompact(serialisedClientSession)) {
                 return Optional.of(
-                        objectMapper.readValue(
-                                redisConnectionService.getValue(
-                                        CLIENT_SESSION_PREFIX.concat(clientSessionId)),
-                                ClientSession.class));
-            } else {
-                LOG.warn("Client session with given key is not present in redis");
-                return Optional.empty();
+                        CLIENT_SESSION_CODEC.decodeClientSession(serialisedClientSession));
             }
+            return Optional.of(
+                    objectMapper.readValue(serialisedClientSession, ClientSession.class));
         } catch (JsonException e) {
             LOG.error("Unable to deserialize client session from redis");
             throw new RuntimeException(e);
@@ -102,7 +119,7 @@ public class ClientSessionService {
         try {
             redisConnectionService.saveWithExpiry(
                     CLIENT_SESSION_PREFIX.concat(clientSessionId),
-                    objectMapper.writeValueAsString(clientSession),
+                    serialise(clientSession),
                     configurationService.getSessionExpiry());
         } catch (JsonException e) {
             LOG.error("Error saving client session to Redis");
@@ -110,11 +127,104 @@ public class ClientSessionService {
         }
     }
 
-    public void deleteClientSessionFromRedis(String clientSessionId) {
-        redisConnectionService.deleteValue(clientSessionId);
+    private String serialise(ClientSession clientSession) throws JsonException {
+        if (configurationService.isCompactSessionEncodingEnabled()) {
+            return CLIENT_SESSION_CODEC.encode(clientSession);
+        }
+        return objectMapper.writeValueAsString(clientSession);
+    }
+
+    public CompletableFuture<Map<String, ClientSession>> getClientSessionsAsync(
+            List<String> clientSessionIds) {
+        return redisConnectionService
+                .getValuesAsync(
+                        clientSessionIds.stream()
+                                .map(CLIENT_SESSION_PREFIX::concat)
+                                .collect(Collectors.toList()))
+                .thenApply(
+                        serialisedClientSessions ->
+                                deserialiseClientSessions(
+                                        clientSessionIds, serialisedClientSessions));
+    }
+
+    private Map<String, ClientSession> deserialiseClientSessions(
+            List<String> clientSessionIds, List<String> serialisedClientSessions) {
+        Map<String, ClientSession> clientSessions = new LinkedHashMap<>();
+        for (int i = 0; i < clientSessionIds.size(); i++) {
+            var serialisedClientSession = serialisedClientSessions.get(i);
+            if (serialisedClientSession != null) {
+                var clientSessionId = clientSessionIds.get(i);
+                deserialiseClientSession(serialisedClientSession)
+                        .ifPresent(
+                                clientSession ->
+                                        clientSessions.put(clientSessionId, clientSession));
+            }
+        }
+        return clientSessions;
+    }
+
+    public void deleteClientSessionsFromRedis(List<String> clientSessionIds) {
+        redisConnectionService.deleteValues(
+                clientSessionIds.stream()
+                        .map(CLIENT_SESSION_PREFIX::concat)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Keeps the session's client session list within the configured maximum. Ids whose client
+     * session has already expired from Redis are dropped first; only if the session is still over
+     * the limit are the oldest live client sessions evicted, and their Redis entries are deleted
+     * along with them.
+     */
+    public void pruneClientSessions(Session session) {
+        var maxClientSessions = configurationService.getMaxClientSessionsPerSession();
+        var clientSessionIds = List.copyOf(session.getClientSessions());
+        if (clientSessionIds.size() <= maxClientSessions) {
+            return;
+        }
+        var serialisedClientSessions =
+                redisConnectionService.getValues(
+                        clientSessionIds.stream()
+                                .map(CLIENT_SESSION_PREFIX::concat)
+                                .collect(Collectors.toList()));
+        List<String> expired = new ArrayList<>();
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < clientSessionIds.size(); i++) {
+            if (serialisedClientSessions.get(i) == null) {
+                expired.add(clientSessionIds.get(i));
+            } else {
+                live.add(clientSessionIds.get(i));
+            }
+        }
+        var evicted = live.subList(0, Math.max(0, live.size() - maxClientSessions));
+        if (!evicted.isEmpty()) {
+            LOG.info("Evicting {} oldest client sessions from session", evicted.size());
+            deleteClientSessionsFromRedis(evicted);
+        }
+        session.removeClientSessions(expired);
+        session.removeClientSessions(evicted);
     }
 
     public Optional<ClientSession> getClientSessionFromRequestHeaders(Map<String, String> headers) {
+        var clientSessionId = getClientSessionIdFromRequestHeaders(headers);
+        if (clientSessionId.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return getClientSession(clientSessionId.get());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public CompletableFuture<Optional<ClientSession>> getClientSessionFromRequestHeadersAsync(
+            Map<String, String> headers) {
+        return getClientSessionIdFromRequestHeaders(headers)
+                .map(this::getClientSessionAsync)
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    private Optional<String> getClientSessionIdFromRequestHeaders(Map<String, String> headers) {
         if (!headersContainValidHeader(
                 headers,
                 CLIENT_SESSION_ID_HEADER,
@@ -130,10 +240,6 @@ public class ClientSessionService {
             LOG.warn("Value not found for Client-Session-Id header");
             return Optional.empty();
         }
-        try {
-            return getClientSession(clientSessionId);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return Optional.of(clientSessionId);
     }
 }
@@ -5,6 +5,7 @@ import software.amazon.cloudwatchlogs.emf.model.DimensionSet;
 import software.amazon.cloudwatchlogs.emf.model.Unit;
 import uk.gov.di.authentication.shared.entity.Session;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -53,6 +54,25 @@ public class CloudwatchMetricsService {
                 });
     }
 
+    public void putEmbeddedValues(
+            Map<String, List<Double>> values, Unit unit, Map<String, String> dimensions) {
+        segmentedFunctionCall(
+                "Metrics::EMF",
+                () -> {
+                    var metrics = new MetricsLogger();
+                    var dimensionsSet = new DimensionSet();
+
+                    dimensions.forEach(dimensionsSet::addDimension);
+
+                    metrics.setNamespace("Authentication");
+                    metrics.putDimensions(dimensionsSet);
+                    values.forEach(
+                            (name, samples) ->
+                                    samples.forEach(value -> metrics.putMetric(name, value, unit)));
+                    metrics.flush();
+                });
+    }
+
     public void incrementCounter(String name, Map<String, String> dimensions) {
         putEmbeddedValue(name, 1, dimensions);
     }
@@ -6,7 +6,11 @@ import uk.gov.di.authentication.shared.entity.MFAMethodType;
 import uk.gov.di.authentication.shared.entity.NotificationType;
 import uk.gov.di.authentication.shared.helpers.HashHelper;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
@@ -32,9 +36,10 @@ public class CodeStorageService {
     private static final String VERIFY_CHANGE_HOW_GET_SECURITY_CODES_KEY_PREFIX =
             "change-how-get-security-codes";
     private static final long MFA_ATTEMPTS_COUNTER_TIME_TO_LIVE_SECONDS = 900;
+    private static final long INCORRECT_PASSWORD_COUNTER_TIME_TO_LIVE_SECONDS = 900;
 
     public CodeStorageService(ConfigurationService configurationService) {
-        this(new RedisConnectionService(configurationService));
+        this(RedisConnectionService.getInstance(configurationService));
     }
 
     public CodeStorageService(RedisConnectionService redisConnectionService) {
@@ -60,34 +65,17 @@ public class CodeStorageService {
         return count.map(Integer::parseInt).orElse(0);
     }
 
-    public void increaseIncorrectMfaCodeAttemptsCount(String email) {
+    public int increaseIncorrectMfaCodeAttemptsCount(String email) {
         String encodedHash = HashHelper.hashSha256String(email);
         String key = MULTIPLE_INCORRECT_MFA_CODES_KEY_PREFIX + encodedHash;
-        Optional<String> count =
-                Optional.ofNullable(
-                        redisConnectionService.getValue(
-                                MULTIPLE_INCORRECT_MFA_CODES_KEY_PREFIX + encodedHash));
-        int newCount = count.map(t -> Integer.parseInt(t) + 1).orElse(1);
-        try {
-            redisConnectionService.saveWithExpiry(
-                    key, String.valueOf(newCount), MFA_ATTEMPTS_COUNTER_TIME_TO_LIVE_SECONDS);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return incrementCounter(key, MFA_ATTEMPTS_COUNTER_TIME_TO_LIVE_SECONDS);
     }
 
-    public void increaseIncorrectMfaCodeAttemptsCount(String email, MFAMethodType mfaMethodType) {
+    public int increaseIncorrectMfaCodeAttemptsCount(String email, MFAMethodType mfaMethodType) {
         String encodedHash = HashHelper.hashSha256String(email);
         String key =
                 MULTIPLE_INCORRECT_MFA_CODES_KEY_PREFIX + mfaMethodType.getValue() + encodedHash;
-        Optional<String> count = Optional.ofNullable(redisConnectionService.getValue(key));
-        int newCount = count.map(t -> Integer.parseInt(t) + 1).orElse(1);
-        try {
-            redisConnectionService.saveWithExpiry(
-                    key, String.valueOf(newCount), MFA_ATTEMPTS_COUNTER_TIME_TO_LIVE_SECONDS);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return incrementCounter(key, MFA_ATTEMPTS_COUNTER_TIME_TO_LIVE_SECONDS);
     }
 
     public void deleteIncorrectMfaCodeAttemptsCount(String email) {
@@ -113,19 +101,10 @@ public class CodeStorageService {
         }
     }
 
-    public void increaseIncorrectPasswordCount(String email) {
+    public int increaseIncorrectPasswordCount(String email) {
         String encodedHash = HashHelper.hashSha256String(email);
         String key = MULTIPLE_INCORRECT_PASSWORDS_PREFIX + encodedHash;
-        Optional<String> count =
-                Optional.ofNullable(
-                        redisConnectionService.getValue(
-                                MULTIPLE_INCORRECT_PASSWORDS_PREFIX + encodedHash));
-        int newCount = count.map(t -> Integer.parseInt(t) + 1).orElse(1);
-        try {
-            redisConnectionService.saveWithExpiry(key, String.valueOf(newCount), 900L);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return incrementCounter(key, INCORRECT_PASSWORD_COUNTER_TIME_TO_LIVE_SECONDS);
     }
 
     public int getIncorrectPasswordCount(String email) {
@@ -163,6 +142,22 @@ public class CodeStorageService {
                 != null;
     }
 
+    public Set<String> getBlockedPrefixesForEmail(String emailAddress, List<String> prefixes) {
+        String encodedHash = HashHelper.hashSha256String(emailAddress);
+        List<String> values =
+                redisConnectionService.getValues(
+                        prefixes.stream()
+                                .map(prefix -> prefix + encodedHash)
+                                .collect(Collectors.toList()));
+        Set<String> blockedPrefixes = new HashSet<>();
+        for (int i = 0; i < prefixes.size(); i++) {
+            if (values.get(i) != null) {
+                blockedPrefixes.add(prefixes.get(i));
+            }
+        }
+        return blockedPrefixes;
+    }
+
     public void saveOtpCode(
             String emailAddress,
             String code,
@@ -219,6 +214,14 @@ public class CodeStorageService {
         }
     }
 
+    private int incrementCounter(String key, long timeToLive) {
+        try {
+            return Math.toIntExact(redisConnectionService.incrementWithExpiry(key, timeToLive));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private String getPrefixForNotificationType(NotificationType notificationType) {
         switch (notificationType) {
             case VERIFY_EMAIL:
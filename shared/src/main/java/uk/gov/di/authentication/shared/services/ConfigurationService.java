@@ -105,6 +105,17 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
                         .getOrDefault("BULK_USER_EMAIL_MAX_AUDIENCE_LOAD_USER_BATCH_SIZE", "0"));
     }
 
+    public int getBulkTestUserWriteConcurrency() {
+        return Integer.parseInt(
+                System.getenv().getOrDefault("BULK_TEST_USER_WRITE_CONCURRENCY", "8"));
+    }
+
+    public int getBulkUserEmailAudienceLoadTotalSegments() {
+        return Integer.parseInt(
+                System.getenv()
+                        .getOrDefault("BULK_USER_EMAIL_AUDIENCE_LOAD_TOTAL_SEGMENTS", "1"));
+    }
+
     public long getBulkUserEmailBatchPauseDuration() {
         return Long.parseLong(
                 System.getenv().getOrDefault("BULK_USER_EMAIL_BATCH_PAUSE_DURATION", "0"));
@@ -136,6 +147,26 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
         return Clock.systemDefaultZone();
     }
 
+    public long getClientRegistryCacheTtlSeconds() {
+        return Long.parseLong(
+                System.getenv().getOrDefault("CLIENT_REGISTRY_CACHE_TTL_SECONDS", "300"));
+    }
+
+    public long getClientRegistryCacheNegativeTtlSeconds() {
+        return Long.parseLong(
+                System.getenv().getOrDefault("CLIENT_REGISTRY_CACHE_NEGATIVE_TTL_SECONDS", "30"));
+    }
+
+    public int getClientRegistryCacheMaxSize() {
+        return Integer.parseInt(
+                System.getenv().getOrDefault("CLIENT_REGISTRY_CACHE_MAX_SIZE", "500"));
+    }
+
+    public long getClientRegistryCacheVersionCheckSeconds() {
+        return Long.parseLong(
+                System.getenv().getOrDefault("CLIENT_REGISTRY_CACHE_VERSION_CHECK_SECONDS", "30"));
+    }
+
     public long getEmailAccountCreationOtpCodeExpiry() {
         return Long.parseLong(
                 System.getenv().getOrDefault("EMAIL_OTP_ACCOUNT_CREATION_CODE_EXPIRY", "3600"));
@@ -185,6 +216,11 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
         return System.getenv().getOrDefault("CONTACT_US_LINK_ROUTE", "");
     }
 
+    public int getMaxClientSessionsPerSession() {
+        return Integer.parseInt(
+                System.getenv().getOrDefault("MAX_CLIENT_SESSIONS_PER_SESSION", "50"));
+    }
+
     public int getMaxPasswordRetries() {
         return Integer.parseInt(System.getenv().getOrDefault("PASSWORD_MAX_RETRIES", "5"));
     }
@@ -395,6 +431,20 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
         return System.getenv("INTERNAl_SECTOR_URI");
     }
 
+    public long getKmsKeyMetadataCacheTtlSeconds() {
+        return Long.parseLong(
+                System.getenv().getOrDefault("KMS_KEY_METADATA_CACHE_TTL_SECONDS", "300"));
+    }
+
+    public long getSigningKeyCacheTtlSeconds() {
+        return Long.parseLong(System.getenv().getOrDefault("SIGNING_KEY_CACHE_TTL_SECONDS", "900"));
+    }
+
+    public long getSigningKeyRotationWindowSeconds() {
+        return Long.parseLong(
+                System.getenv().getOrDefault("SIGNING_KEY_ROTATION_WINDOW_SECONDS", "86400"));
+    }
+
     public URI getLoginURI() {
         return URI.create(System.getenv("LOGIN_URI"));
     }
@@ -474,12 +524,32 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
                 .get(format("{0}-{1}-redis-master-host", getEnvironment(), getRedisKey()));
     }
 
+    public int getRedisMaxIdleConnections() {
+        return Integer.parseInt(System.getenv().getOrDefault("REDIS_MAX_IDLE_CONNECTIONS", "8"));
+    }
+
+    public int getRedisMaxTotalConnections() {
+        return Integer.parseInt(System.getenv().getOrDefault("REDIS_MAX_TOTAL_CONNECTIONS", "8"));
+    }
+
+    public long getRedisMetricsIntervalSeconds() {
+        return Long.parseLong(System.getenv().getOrDefault("REDIS_METRICS_INTERVAL_SECONDS", "60"));
+    }
+
+    public int getRedisMinIdleConnections() {
+        return Integer.parseInt(System.getenv().getOrDefault("REDIS_MIN_IDLE_CONNECTIONS", "0"));
+    }
+
     public Optional<String> getRedisPassword() {
         return Optional.ofNullable(
                 getSsmRedisParameters()
                         .get(format("{0}-{1}-redis-password", getEnvironment(), getRedisKey())));
     }
 
+    public long getRedisPoolMaxWaitMillis() {
+        return Long.parseLong(System.getenv().getOrDefault("REDIS_POOL_MAX_WAIT_MILLIS", "-1"));
+    }
+
     public int getRedisPort() {
         return Integer.parseInt(
                 getSsmRedisParameters()
@@ -519,6 +589,18 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
         return Long.parseLong(System.getenv().getOrDefault("SESSION_EXPIRY", "3600"));
     }
 
+    public boolean isCompactSessionEncodingEnabled() {
+        return System.getenv()
+                .getOrDefault("COMPACT_SESSION_ENCODING_ENABLED", "false")
+                .equals("true");
+    }
+
+    public boolean isSessionHashStorageEnabled() {
+        return System.getenv()
+                .getOrDefault("SESSION_HASH_STORAGE_ENABLED", "false")
+                .equals("true");
+    }
+
     public String getSmoketestBucketName() {
         return System.getenv("SMOKETEST_SMS_BUCKET_NAME");
     }
@@ -551,6 +633,16 @@ public class ConfigurationService implements BaseLambdaConfiguration, AuditPubli
         return System.getenv().getOrDefault("SYNTHETICS_USERS", "");
     }
 
+    public long getUserSubjectCacheTtlSeconds() {
+        return Long.parseLong(
+                System.getenv().getOrDefault("USER_SUBJECT_CACHE_TTL_SECONDS", "3600"));
+    }
+
+    public int getUserSubjectCacheMaxSize() {
+        return Integer.parseInt(
+                System.getenv().getOrDefault("USER_SUBJECT_CACHE_MAX_SIZE", "10000"));
+    }
+
     public String getTokenSigningKeyAlias() {
         return System.getenv("TOKEN_SIGNING_KEY_ALIAS");
     }
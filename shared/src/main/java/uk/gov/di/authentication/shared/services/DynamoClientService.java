@@ -1,48 +1,104 @@
 package uk.gov.di.authentication.shared.services;
 
 import com.nimbusds.oauth2.sdk.id.ClientID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.ClientRegistryVersion;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
 import uk.gov.di.authentication.shared.helpers.Argon2EncoderHelper;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
+import uk.gov.di.authentication.shared.helpers.ReadThroughCache;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
+import static java.util.Objects.isNull;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.CLIENT_REGISTRY_CACHE_HIT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.CLIENT_REGISTRY_CACHE_MISS;
+import static uk.gov.di.authentication.shared.dynamodb.DynamoClientHelper.createDynamoEnhancedAsyncClient;
 import static uk.gov.di.authentication.shared.dynamodb.DynamoClientHelper.createDynamoEnhancedClient;
 import static uk.gov.di.authentication.shared.helpers.TestClientHelper.emailMatchesAllowlist;
 
 public class DynamoClientService implements ClientService {
 
+    private static final Logger LOG = LogManager.getLogger(DynamoClientService.class);
     private static final String CLIENT_REGISTRY_TABLE = "client-registry";
+    static final String VERSION_MARKER_CLIENT_ID = "client-registry-version";
+    private final ConfigurationService configurationService;
     private final DynamoDbTable<ClientRegistry> dynamoClientRegistryTable;
+    private final DynamoDbTable<ClientRegistryVersion> versionTable;
+    private DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
+    private DynamoDbAsyncTable<ClientRegistry> asyncClientRegistryTable;
+    private DynamoDbAsyncTable<ClientRegistryVersion> asyncVersionTable;
+    private ReadThroughCache<String, CompiledClientRegistry> clientCache;
+    private PeriodicMetricsPublisher metricsPublisher = new PeriodicMetricsPublisher(null);
+    private Clock clock;
+    private long versionCheckIntervalMillis;
+    private long nextVersionCheck = 0;
+    private String cacheVersion;
+    private long publishedHits = 0;
+    private long publishedMisses = 0;
 
     public DynamoClientService(ConfigurationService configurationService) {
-        String tableName = configurationService.getEnvironment() + "-" + CLIENT_REGISTRY_TABLE;
-        var dynamoDBEnhanced = createDynamoEnhancedClient(configurationService);
-        this.dynamoClientRegistryTable =
-                dynamoDBEnhanced.table(tableName, TableSchema.fromBean(ClientRegistry.class));
+        this(configurationService, createDynamoEnhancedClient(configurationService));
+        this.metricsPublisher =
+                new PeriodicMetricsPublisher(new CloudwatchMetricsService(configurationService));
         warmUp();
     }
 
     public DynamoClientService(
             ConfigurationService configurationService,
             DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this(configurationService, dynamoDbEnhancedClient, null);
+    }
+
+    DynamoClientService(
+            ConfigurationService configurationService,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        this.configurationService = configurationService;
+        this.dynamoDbEnhancedAsyncClient = dynamoDbEnhancedAsyncClient;
         String tableName = configurationService.getEnvironment() + "-" + CLIENT_REGISTRY_TABLE;
         this.dynamoClientRegistryTable =
                 dynamoDbEnhancedClient.table(tableName, TableSchema.fromBean(ClientRegistry.class));
+        this.versionTable =
+                dynamoDbEnhancedClient.table(
+                        tableName, TableSchema.fromBean(ClientRegistryVersion.class));
+        var ttlSeconds = configurationService.getClientRegistryCacheTtlSeconds();
+        if (ttlSeconds > 0) {
+            this.clock = configurationService.getClock();
+            this.clientCache =
+                    new ReadThroughCache<>(
+                            Duration.ofSeconds(ttlSeconds),
+                            Duration.ofSeconds(
+                                    configurationService
+                                            .getClientRegistryCacheNegativeTtlSeconds()),
+                            configurationService.getClientRegistryCacheMaxSize(),
+                            clock);
+            this.versionCheckIntervalMillis =
+                    configurationService.getClientRegistryCacheVersionCheckSeconds() * 1000;
+        }
     }
 
     @Override
     public boolean isValidClient(String clientId) {
-        return dynamoClientRegistryTable.getItem(Key.builder().partitionValue(clientId).build())
-                != null;
+        return getClient(clientId).isPresent();
     }
 
     @Override
@@ -86,6 +142,7 @@ public class DynamoClientService implements ClientService {
             clientRegistry.withClientSecret(Argon2EncoderHelper.argon2Hash(clientSecret));
         }
         dynamoClientRegistryTable.putItem(clientRegistry);
+        bumpCacheVersion();
     }
 
     @Override
@@ -107,13 +164,43 @@ public class DynamoClientService implements ClientService {
                 .ifPresent(clientRegistry::withSectorIdentifierUri);
         Optional.ofNullable(updateRequest.getClaims()).ifPresent(clientRegistry::withClaims);
         dynamoClientRegistryTable.putItem(clientRegistry);
+        bumpCacheVersion();
         return clientRegistry;
     }
 
     @Override
     public Optional<ClientRegistry> getClient(String clientId) {
-        return Optional.ofNullable(
-                dynamoClientRegistryTable.getItem(Key.builder().partitionValue(clientId).build()));
+        if (isNull(clientCache) && !VERSION_MARKER_CLIENT_ID.equals(clientId)) {
+            return loadClient(clientId);
+        }
+        return getCompiledClient(clientId).map(CompiledClientRegistry::getClientRegistry);
+    }
+
+    @Override
+    public Optional<CompiledClientRegistry> getCompiledClient(String clientId) {
+        if (VERSION_MARKER_CLIENT_ID.equals(clientId)) {
+            return Optional.empty();
+        }
+        if (isNull(clientCache)) {
+            return loadClient(clientId).map(this::compile);
+        }
+        checkCacheVersion();
+        publishCacheMetrics();
+        return clientCache.get(clientId, id -> loadClient(id).map(this::compile));
+    }
+
+    public CompletableFuture<Optional<ClientRegistry>> getClientAsync(String clientId) {
+        if (VERSION_MARKER_CLIENT_ID.equals(clientId)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        if (isNull(clientCache)) {
+            return loadClientAsync(clientId);
+        }
+        publishCacheMetrics();
+        return checkCacheVersionAsync()
+                .thenCompose(
+                        ignored -> clientCache.getAsync(clientId, this::loadCompiledClientAsync))
+                .thenApply(client -> client.map(CompiledClientRegistry::getClientRegistry));
     }
 
     @Override
@@ -131,6 +218,128 @@ public class DynamoClientService implements ClientService {
                 .orElse(false);
     }
 
+    private Optional<ClientRegistry> loadClient(String clientId) {
+        return Optional.ofNullable(
+                dynamoClientRegistryTable.getItem(Key.builder().partitionValue(clientId).build()));
+    }
+
+    private CompletableFuture<Optional<CompiledClientRegistry>> loadCompiledClientAsync(
+            String clientId) {
+        return loadClientAsync(clientId).thenApply(client -> client.map(this::compile));
+    }
+
+    private CompiledClientRegistry compile(ClientRegistry clientRegistry) {
+        return CompiledClientRegistry.compile(
+                clientRegistry, configurationService.getInternalSectorUri());
+    }
+
+    private CompletableFuture<Optional<ClientRegistry>> loadClientAsync(String clientId) {
+        return asyncClientRegistryTable()
+                .getItem(Key.builder().partitionValue(clientId).build())
+                .thenApply(Optional::ofNullable);
+    }
+
+    /*
+     * Every client write stores a new random version under a reserved client ID. Each container
+     * reads it back at most once per check interval and drops its cache when it has changed, so
+     * an update is picked up everywhere within that interval rather than only once entries expire.
+     */
+    private void bumpCacheVersion() {
+        versionTable.putItem(
+                new ClientRegistryVersion()
+                        .withClientID(VERSION_MARKER_CLIENT_ID)
+                        .withVersion(IdGenerator.generate()));
+        if (!isNull(clientCache)) {
+            clientCache.invalidateAll();
+        }
+    }
+
+    private void checkCacheVersion() {
+        if (isVersionCheckDue()) {
+            updateCacheVersion(
+                    versionTable.getItem(
+                            Key.builder().partitionValue(VERSION_MARKER_CLIENT_ID).build()));
+        }
+    }
+
+    // Reads the version marker without blocking, so the async lookup never waits on a sync read
+    private CompletableFuture<Void> checkCacheVersionAsync() {
+        if (!isVersionCheckDue()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return asyncVersionTable()
+                .getItem(Key.builder().partitionValue(VERSION_MARKER_CLIENT_ID).build())
+                .thenAccept(this::updateCacheVersion);
+    }
+
+    private synchronized boolean isVersionCheckDue() {
+        var now = clock.millis();
+        if (now < nextVersionCheck) {
+            return false;
+        }
+        nextVersionCheck = now + versionCheckIntervalMillis;
+        return true;
+    }
+
+    private synchronized void updateCacheVersion(ClientRegistryVersion versionMarker) {
+        var version =
+                Optional.ofNullable(versionMarker)
+                        .map(ClientRegistryVersion::getVersion)
+                        .orElse(null);
+        if (!Objects.equals(version, cacheVersion)) {
+            LOG.info("Client registry version changed, clearing client cache");
+            clientCache.invalidateAll();
+            cacheVersion = version;
+        }
+    }
+
+    private void publishCacheMetrics() {
+        metricsPublisher.publishIfDue(
+                metricsService -> {
+                    var hits = clientCache.hits() - publishedHits;
+                    var misses = clientCache.misses() - publishedMisses;
+                    publishedHits += hits;
+                    publishedMisses += misses;
+                    metricsService.putEmbeddedValues(
+                            Map.of(
+                                    CLIENT_REGISTRY_CACHE_HIT.getValue(),
+                                    List.of((double) hits),
+                                    CLIENT_REGISTRY_CACHE_MISS.getValue(),
+                                    List.of((double) misses)),
+                            Unit.COUNT,
+                            Map.of(ENVIRONMENT.getValue(), configurationService.getEnvironment()));
+                });
+    }
+
+    private synchronized DynamoDbAsyncTable<ClientRegistry> asyncClientRegistryTable() {
+        if (isNull(asyncClientRegistryTable)) {
+            asyncClientRegistryTable =
+                    asyncClient()
+                            .table(
+                                    dynamoClientRegistryTable.tableName(),
+                                    TableSchema.fromBean(ClientRegistry.class));
+        }
+        return asyncClientRegistryTable;
+    }
+
+    private synchronized DynamoDbAsyncTable<ClientRegistryVersion> asyncVersionTable() {
+        if (isNull(asyncVersionTable)) {
+            asyncVersionTable =
+                    asyncClient()
+                            .table(
+                                    versionTable.tableName(),
+                                    TableSchema.fromBean(ClientRegistryVersion.class));
+        }
+        return asyncVersionTable;
+    }
+
+    private synchronized DynamoDbEnhancedAsyncClient asyncClient() {
+        if (isNull(dynamoDbEnhancedAsyncClient)) {
+            dynamoDbEnhancedAsyncClient = createDynamoEnhancedAsyncClient(configurationService);
+        }
+        return dynamoDbEnhancedAsyncClient;
+    }
+
     private void warmUp() {
         dynamoClientRegistryTable.describeTable();
     }
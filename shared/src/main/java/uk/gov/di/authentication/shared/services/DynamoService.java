@@ -14,8 +14,17 @@ import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import uk.gov.di.authentication.shared.dynamodb.DynamoClientHelper;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import uk.gov.di.authentication.shared.dynamodb.DynamoBulkWriter;
+import uk.gov.di.authentication.shared.dynamodb.DynamoUpdate;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.MFAMethod;
 import uk.gov.di.authentication.shared.entity.MFAMethodType;
@@ -23,51 +32,87 @@ import uk.gov.di.authentication.shared.entity.TermsAndConditions;
 import uk.gov.di.authentication.shared.entity.User;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
 import uk.gov.di.authentication.shared.entity.UserProfile;
+import uk.gov.di.authentication.shared.exceptions.UnprocessedKeysException;
 import uk.gov.di.authentication.shared.helpers.Argon2EncoderHelper;
 import uk.gov.di.authentication.shared.helpers.Argon2MatcherHelper;
 import uk.gov.di.authentication.shared.helpers.NowHelper;
 import uk.gov.di.authentication.shared.helpers.PhoneNumberHelper;
+import uk.gov.di.authentication.shared.helpers.ReadThroughCache;
 import uk.gov.di.authentication.shared.helpers.SaltHelper;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
-import static java.util.Objects.nonNull;
+import static java.util.Objects.isNull;
+import static java.util.concurrent.CompletableFuture.delayedExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static software.amazon.awssdk.enhanced.dynamodb.internal.AttributeValues.numberValue;
 import static software.amazon.awssdk.enhanced.dynamodb.internal.AttributeValues.stringValue;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.SUBJECT_INDEX_QUERIES;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.SUBJECT_INDEX_QUERIES_AVOIDED;
+import static uk.gov.di.authentication.shared.dynamodb.DynamoClientHelper.createDynamoAsyncClient;
+import static uk.gov.di.authentication.shared.dynamodb.DynamoClientHelper.createDynamoClient;
 
 public class DynamoService implements AuthenticationService {
     private final DynamoDbTable<UserProfile> dynamoUserProfileTable;
     private final DynamoDbTable<UserCredentials> dynamoUserCredentialsTable;
     private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    private final DynamoDbClient dynamoDbClient;
+    private final ConfigurationService configurationService;
+    private final PeriodicMetricsPublisher metricsPublisher;
+    private final ReadThroughCache<String, String> subjectIdEmails;
+    private final ReadThroughCache<String, String> publicSubjectIdEmails;
+    private final AtomicLong subjectIndexQueries = new AtomicLong();
+    private final AtomicLong subjectIndexQueriesAvoided = new AtomicLong();
+    private DynamoDbAsyncClient dynamoDbAsyncClient;
     private static final String USER_PROFILE_TABLE = "user-profile";
     private static final String USER_CREDENTIAL_TABLE = "user-credentials";
     private static final String TEST_USER_INDEX_NAME = "TestUserIndex";
+    private static final String SUBJECT_ID_INDEX_NAME = "SubjectIDIndex";
+    private static final String PUBLIC_SUBJECT_ID_INDEX_NAME = "PublicSubjectIDIndex";
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    private static final int MAX_BATCH_GET_ATTEMPTS = 3;
+    private static final long BASE_BATCH_GET_BACKOFF_MILLIS = 25;
+    private static final String ATTRIBUTE_UPDATED = "Updated";
     private static final Logger LOG = LogManager.getLogger(DynamoService.class);
 
     public DynamoService(ConfigurationService configurationService) {
+        this.configurationService = configurationService;
         String userProfileTableName =
                 configurationService.getEnvironment() + "-" + USER_PROFILE_TABLE;
         String userCredentialsTableName =
                 configurationService.getEnvironment() + "-" + USER_CREDENTIAL_TABLE;
+        dynamoDbClient = createDynamoClient(configurationService);
         dynamoDbEnhancedClient =
-                DynamoClientHelper.createDynamoEnhancedClient(configurationService);
+                DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDbClient).build();
         this.dynamoUserProfileTable =
                 dynamoDbEnhancedClient.table(
                         userProfileTableName, TableSchema.fromBean(UserProfile.class));
         this.dynamoUserCredentialsTable =
                 dynamoDbEnhancedClient.table(
                         userCredentialsTableName, TableSchema.fromBean(UserCredentials.class));
+        this.metricsPublisher =
+                new PeriodicMetricsPublisher(new CloudwatchMetricsService(configurationService));
+        this.subjectIdEmails = subjectEmailCache(configurationService);
+        this.publicSubjectIdEmails = subjectEmailCache(configurationService);
         warmUp();
     }
 
@@ -151,24 +196,33 @@ public class DynamoService implements AuthenticationService {
     @Override
     public void updatePhoneNumber(String email, String phoneNumber) {
         var formattedPhoneNumber = PhoneNumberHelper.formatPhoneNumber(phoneNumber);
-        dynamoUserProfileTable.updateItem(
-                dynamoUserProfileTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .withPhoneNumber(formattedPhoneNumber));
+        var userProfile =
+                new UserProfile()
+                        .withPhoneNumber(formattedPhoneNumber)
+                        .withUpdated(NowHelper.toTimestampString(NowHelper.now()));
+        update(
+                email,
+                new DynamoUpdate<>(dynamoUserProfileTable, userProfile)
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER, UserProfile.ATTRIBUTE_UPDATED));
     }
 
     @Override
     public void updateConsent(String email, ClientConsent clientConsent) {
-        dynamoUserProfileTable.updateItem(
-                dynamoUserProfileTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .withClientConsent(clientConsent));
+        updateWithRetry(
+                email,
+                dynamoUserProfileTable,
+                UserProfile.ATTRIBUTE_CLIENT_CONSENT,
+                userProfile ->
+                        new DynamoUpdate<>(
+                                        dynamoUserProfileTable,
+                                        userProfile
+                                                .withClientConsent(clientConsent)
+                                                .withUpdated(
+                                                        NowHelper.toTimestampString(
+                                                                NowHelper.now())))
+                                .set(
+                                        UserProfile.ATTRIBUTE_CLIENT_CONSENT,
+                                        UserProfile.ATTRIBUTE_UPDATED));
     }
 
     @Override
@@ -186,13 +240,16 @@ public class DynamoService implements AuthenticationService {
     public void updateTermsAndConditions(String email, String version) {
         var termsAndConditions =
                 new TermsAndConditions(version, LocalDateTime.now(ZoneId.of("UTC")).toString());
-        dynamoUserProfileTable.updateItem(
-                dynamoUserProfileTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .withTermsAndConditions(termsAndConditions));
+        var userProfile =
+                new UserProfile()
+                        .withTermsAndConditions(termsAndConditions)
+                        .withUpdated(NowHelper.toTimestampString(NowHelper.now()));
+        update(
+                email,
+                new DynamoUpdate<>(dynamoUserProfileTable, userProfile)
+                        .set(
+                                UserProfile.ATTRIBUTE_TERMS_AND_CONDITIONS,
+                                UserProfile.ATTRIBUTE_UPDATED));
     }
 
     @Override
@@ -238,14 +295,7 @@ public class DynamoService implements AuthenticationService {
 
     @Override
     public void updatePassword(String email, String newPassword) {
-        dynamoUserCredentialsTable.updateItem(
-                dynamoUserCredentialsTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .withPassword(hashPassword(newPassword))
-                        .withMigratedPassword(null));
+        updatePasswordHash(email, hashPassword(newPassword));
     }
 
     @Override
@@ -267,17 +317,14 @@ public class DynamoService implements AuthenticationService {
 
     @Override
     public UserCredentials getUserCredentialsFromSubject(String subject) {
-        QueryConditional q =
-                QueryConditional.keyEqualTo(Key.builder().partitionValue(subject).build());
-        DynamoDbIndex<UserCredentials> subjectIDIndex =
-                dynamoUserCredentialsTable.index("SubjectIDIndex");
-        QueryEnhancedRequest queryEnhancedRequest =
-                QueryEnhancedRequest.builder().consistentRead(false).queryConditional(q).build();
         Optional<UserCredentials> userCredentials =
-                subjectIDIndex.query(queryEnhancedRequest).stream()
-                        .limit(1)
-                        .map(t -> t.items().get(0))
-                        .findFirst();
+                getFromSubjectIndex(
+                        dynamoUserCredentialsTable,
+                        SUBJECT_ID_INDEX_NAME,
+                        subjectIdEmails,
+                        subject,
+                        UserCredentials::getEmail,
+                        UserCredentials::getSubjectID);
         if (userCredentials.isEmpty()) {
             throw new RuntimeException("No userCredentials found with query search");
         }
@@ -286,16 +333,28 @@ public class DynamoService implements AuthenticationService {
 
     @Override
     public Optional<UserProfile> getUserProfileFromEmail(String email) {
-        if (nonNull(email) && !email.isBlank()) {
-            var userCredentials =
-                    dynamoUserCredentialsTable.getItem(
-                            Key.builder().partitionValue(email.toLowerCase(Locale.ROOT)).build());
+        return getUserProfileFromEmail(email, Set.of());
+    }
 
-            if (nonNull(userCredentials)) {
-                return Optional.of(getUserProfileFromSubject(userCredentials.getSubjectID()));
-            }
-        }
-        return Optional.empty();
+    @Override
+    public Optional<UserProfile> getUserProfileFromEmail(String email, Set<String> attributes) {
+        return getUser(email, attributes, Set.of(UserCredentials.ATTRIBUTE_SUBJECT_ID))
+                .map(User::getUserProfile);
+    }
+
+    @Override
+    public Optional<User> getUser(String email) {
+        return getUser(email, Set.of(), Set.of());
+    }
+
+    public CompletableFuture<Optional<UserProfile>> getUserProfileFromEmailAsync(
+            String email, Set<String> attributes) {
+        return getUserAsync(email, attributes, Set.of(UserCredentials.ATTRIBUTE_SUBJECT_ID))
+                .thenApply(user -> user.map(User::getUserProfile));
+    }
+
+    public CompletableFuture<Optional<User>> getUserAsync(String email) {
+        return getUserAsync(email, Set.of(), Set.of());
     }
 
     @Override
@@ -306,25 +365,32 @@ public class DynamoService implements AuthenticationService {
 
     @Override
     public void migrateLegacyPassword(String email, String password) {
-        dynamoUserCredentialsTable.updateItem(
-                dynamoUserCredentialsTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .withPassword(hashPassword(password))
-                        .withMigratedPassword(null));
+        updatePasswordHash(email, hashPassword(password));
     }
 
     @Override
     public byte[] getOrGenerateSalt(UserProfile userProfile) {
         if (userProfile.getSalt() == null
                 || SdkBytes.fromByteBuffer(userProfile.getSalt()).asByteArray().length == 0) {
-            byte[] salt = SaltHelper.generateNewSalt();
-            userProfile.setSalt(salt);
-            dynamoUserProfileTable.updateItem(
-                    getUserProfileFromSubject(userProfile.getSubjectID())
-                            .withSalt(userProfile.getSalt()));
+            var salt = ByteBuffer.wrap(SaltHelper.generateNewSalt()).asReadOnlyBuffer();
+            try {
+                update(
+                        userProfile.getEmail(),
+                        new DynamoUpdate<>(dynamoUserProfileTable, new UserProfile().withSalt(salt))
+                                .set(UserProfile.ATTRIBUTE_SALT)
+                                .ifAbsent(UserProfile.ATTRIBUTE_SALT));
+                userProfile.setSalt(salt);
+            } catch (ConditionalCheckFailedException e) {
+                // The profile was read without its salt, or another request stored one first
+                var storedSalt =
+                        e.hasItem()
+                                ? dynamoUserProfileTable.tableSchema().mapToItem(e.item()).getSalt()
+                                : null;
+                if (storedSalt == null) {
+                    throw e;
+                }
+                userProfile.setSalt(storedSalt);
+            }
         }
         return SdkBytes.fromByteBuffer(userProfile.getSalt()).asByteArray();
     }
@@ -463,13 +529,19 @@ public class DynamoService implements AuthenticationService {
                         methodVerified,
                         enabled,
                         dateTime);
-        dynamoUserCredentialsTable.updateItem(
-                dynamoUserCredentialsTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .setMfaMethod(mfaMethod));
+        updateWithRetry(
+                email,
+                dynamoUserCredentialsTable,
+                UserCredentials.ATTRIBUTE_MFA_METHODS,
+                userCredentials ->
+                        new DynamoUpdate<>(
+                                        dynamoUserCredentialsTable,
+                                        userCredentials
+                                                .setMfaMethod(mfaMethod)
+                                                .withUpdated(dateTime))
+                                .set(
+                                        UserCredentials.ATTRIBUTE_MFA_METHODS,
+                                        UserCredentials.ATTRIBUTE_UPDATED));
     }
 
     @Override
@@ -531,16 +603,7 @@ public class DynamoService implements AuthenticationService {
 
     @Override
     public UserProfile getUserProfileFromSubject(String subject) {
-        QueryConditional q =
-                QueryConditional.keyEqualTo(Key.builder().partitionValue(subject).build());
-        DynamoDbIndex<UserProfile> subjectIDIndex = dynamoUserProfileTable.index("SubjectIDIndex");
-        QueryEnhancedRequest queryEnhancedRequest =
-                QueryEnhancedRequest.builder().consistentRead(false).queryConditional(q).build();
-        Optional<UserProfile> userProfile =
-                subjectIDIndex.query(queryEnhancedRequest).stream()
-                        .limit(1)
-                        .map(t -> t.items().get(0))
-                        .findFirst();
+        Optional<UserProfile> userProfile = getOptionalUserProfileFromSubject(subject);
         if (userProfile.isEmpty()) {
             throw new RuntimeException("No userCredentials found with query search");
         }
@@ -548,28 +611,25 @@ public class DynamoService implements AuthenticationService {
     }
 
     public Optional<UserProfile> getOptionalUserProfileFromSubject(String subject) {
-        QueryConditional q =
-                QueryConditional.keyEqualTo(Key.builder().partitionValue(subject).build());
-        QueryEnhancedRequest queryEnhancedRequest =
-                QueryEnhancedRequest.builder().consistentRead(false).queryConditional(q).build();
-        return dynamoUserProfileTable.index("SubjectIDIndex").query(queryEnhancedRequest).stream()
-                .findFirst()
-                .flatMap(page -> page.items().stream().findFirst());
+        return getFromSubjectIndex(
+                dynamoUserProfileTable,
+                SUBJECT_ID_INDEX_NAME,
+                subjectIdEmails,
+                subject,
+                UserProfile::getEmail,
+                UserProfile::getSubjectID);
     }
 
     @Override
     public UserProfile getUserProfileFromPublicSubject(String subject) {
-        QueryConditional q =
-                QueryConditional.keyEqualTo(Key.builder().partitionValue(subject).build());
-        DynamoDbIndex<UserProfile> subjectIDIndex =
-                dynamoUserProfileTable.index("PublicSubjectIDIndex");
-        QueryEnhancedRequest queryEnhancedRequest =
-                QueryEnhancedRequest.builder().consistentRead(false).queryConditional(q).build();
         Optional<UserProfile> userProfile =
-                subjectIDIndex.query(queryEnhancedRequest).stream()
-                        .limit(1)
-                        .map(t -> t.items().get(0))
-                        .findFirst();
+                getFromSubjectIndex(
+                        dynamoUserProfileTable,
+                        PUBLIC_SUBJECT_ID_INDEX_NAME,
+                        publicSubjectIdEmails,
+                        subject,
+                        UserProfile::getEmail,
+                        UserProfile::getPublicSubjectID);
         if (userProfile.isEmpty()) {
             throw new RuntimeException("No userCredentials found with query search");
         }
@@ -578,13 +638,16 @@ public class DynamoService implements AuthenticationService {
 
     @Override
     public void setAccountVerified(String email) {
-        dynamoUserProfileTable.updateItem(
-                dynamoUserProfileTable
-                        .getItem(
-                                Key.builder()
-                                        .partitionValue(email.toLowerCase(Locale.ROOT))
-                                        .build())
-                        .withAccountVerified(1));
+        var userProfile =
+                new UserProfile()
+                        .withAccountVerified(1)
+                        .withUpdated(NowHelper.toTimestampString(NowHelper.now()));
+        update(
+                email,
+                new DynamoUpdate<>(dynamoUserProfileTable, userProfile)
+                        .set(
+                                UserProfile.ATTRIBUTE_ACCOUNT_VERIFIED,
+                                UserProfile.ATTRIBUTE_UPDATED));
     }
 
     public List<UserProfile> getAllBulkTestUsers() {
@@ -609,136 +672,56 @@ public class DynamoService implements AuthenticationService {
     }
 
     public void createBatchTestUsers(Map<UserProfile, UserCredentials> testUsers) {
-        int maxBatchWriteUsersToBothTables = 12;
-        List<Map<UserProfile, UserCredentials>> partitions = new ArrayList<>();
-
-        Iterator<Map.Entry<UserProfile, UserCredentials>> iterator =
-                testUsers.entrySet().iterator();
-
-        Map<UserProfile, UserCredentials> currentPartition = new HashMap<>();
-
-        while (iterator.hasNext()) {
-            Map.Entry<UserProfile, UserCredentials> entry = iterator.next();
-            if (currentPartition.size() == maxBatchWriteUsersToBothTables) {
-                partitions.add(currentPartition);
-                currentPartition = new HashMap<>();
-            }
-            currentPartition.put(entry.getKey(), entry.getValue());
-        }
-
-        partitions.add(currentPartition);
-
-        LOG.info(
-                "Partitions: {} of max size {}", partitions.size(), maxBatchWriteUsersToBothTables);
-
-        int numberOfThreadsForPartitionWrite = 4;
-        int indexOfFinalPartition = partitions.size() - 1;
-        int numberOfPartitionsPerThread =
-                (int) Math.ceil((double) partitions.size() / numberOfThreadsForPartitionWrite);
-        int indexOfFirstPartitionToBeProcessedByCurrentThread = 0;
-        int indexOfLastPartitionToBeProcessedByCurrentThread = numberOfPartitionsPerThread - 1;
-
-        List<Thread> dbWriterThreads = new ArrayList<>();
-
-        while (indexOfFirstPartitionToBeProcessedByCurrentThread <= indexOfFinalPartition) {
-            List<Map<UserProfile, UserCredentials>> partitionsForThisThread =
-                    partitions.subList(
-                            Math.min(
-                                    indexOfFirstPartitionToBeProcessedByCurrentThread,
-                                    indexOfFinalPartition),
-                            Math.min(
-                                    indexOfLastPartitionToBeProcessedByCurrentThread + 1,
-                                    indexOfFinalPartition + 1));
-
-            Runnable testUserDbWriter = new TestUserDbWriter(partitionsForThisThread);
-            Thread dbWriterThread = new Thread(testUserDbWriter);
-            dbWriterThreads.add(dbWriterThread);
-            dbWriterThread.start();
-
-            indexOfFirstPartitionToBeProcessedByCurrentThread += numberOfPartitionsPerThread;
-            indexOfLastPartitionToBeProcessedByCurrentThread += numberOfPartitionsPerThread;
-        }
-
-        for (Thread thread : dbWriterThreads) {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                LOG.error("Thread failed to write to DB");
-                Thread.currentThread().interrupt();
-            }
+        try (var writer = openTestUserWriter()) {
+            testUsers.forEach(writer::add);
         }
     }
 
-    private class TestUserDbWriter implements Runnable {
-        private final List<Map<UserProfile, UserCredentials>> partitionsToWrite;
-
-        public TestUserDbWriter(List<Map<UserProfile, UserCredentials>> partitionsToWrite) {
-            this.partitionsToWrite = partitionsToWrite;
-        }
-
-        @Override
-        public void run() {
-            writeTestUserBatchPartitionToDb(partitionsToWrite);
-        }
-
-        private void writeTestUserBatchPartitionToDb(
-                List<Map<UserProfile, UserCredentials>> testUserBatchPartitions) {
-            for (Map<UserProfile, UserCredentials> testUserBatch : testUserBatchPartitions) {
-                TransactWriteItemsEnhancedRequest.Builder insertItemsRequestBuilder =
-                        TransactWriteItemsEnhancedRequest.builder();
-
-                testUserBatch.forEach(
-                        (key, value) ->
-                                insertItemsRequestBuilder
-                                        .addPutItem(dynamoUserProfileTable, key)
-                                        .addPutItem(dynamoUserCredentialsTable, value));
-
-                var insertItemsBatchRequest = insertItemsRequestBuilder.build();
-
-                dynamoDbEnhancedClient.transactWriteItems(insertItemsBatchRequest);
-            }
-        }
+    /**
+     * Opens a writer which streams test users through a single bulk writer until it is closed, so
+     * a whole import shares one pool of writer threads.
+     */
+    public TestUserWriter openTestUserWriter() {
+        return new TestUserWriter(bulkWriter());
     }
 
     public void deleteBatchTestUsers(List<String> emailAddresses) {
-        int maxBatchWriteItemsToBothTables = 12;
-        List<List<String>> partitions = new ArrayList<>();
-
-        for (int i = 0; i < emailAddresses.size(); i += maxBatchWriteItemsToBothTables) {
-            partitions.add(
-                    emailAddresses.subList(
-                            i,
-                            Math.min(i + maxBatchWriteItemsToBothTables, emailAddresses.size())));
+        try (var writer = bulkWriter()) {
+            emailAddresses.forEach(
+                    emailAddress -> {
+                        var key =
+                                Key.builder()
+                                        .partitionValue(emailAddress.toLowerCase(Locale.ROOT))
+                                        .build();
+                        writer.delete(dynamoUserCredentialsTable, key)
+                                .delete(dynamoUserProfileTable, key);
+                    });
         }
+    }
 
-        for (List<String> testUserBatch : partitions) {
-            TransactWriteItemsEnhancedRequest.Builder deleteItemsRequestBuilder =
-                    TransactWriteItemsEnhancedRequest.builder();
-
-            testUserBatch.forEach(
-                    emailAddress ->
-                            deleteItemsRequestBuilder
-                                    .addDeleteItem(
-                                            dynamoUserCredentialsTable,
-                                            Key.builder()
-                                                    .partitionValue(
-                                                            emailAddress.toLowerCase(Locale.ROOT))
-                                                    .build())
-                                    .addDeleteItem(
-                                            dynamoUserProfileTable,
-                                            Key.builder()
-                                                    .partitionValue(
-                                                            emailAddress.toLowerCase(Locale.ROOT))
-                                                    .build()));
-
-            var deleteItemsBatchRequest = deleteItemsRequestBuilder.build();
-
-            dynamoDbEnhancedClient.transactWriteItems(deleteItemsBatchRequest);
-        }
+    private DynamoBulkWriter bulkWriter() {
+        return new DynamoBulkWriter(
+                dynamoDbClient,
+                configurationService.getBulkTestUserWriteConcurrency(),
+                new PeriodicMetricsPublisher(new CloudwatchMetricsService(configurationService)),
+                configurationService.getEnvironment());
     }
 
     public Stream<UserProfile> getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
             Map<String, AttributeValue> exclusiveStartKey, List<String> termsAndConditionsVersion) {
+        return getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                exclusiveStartKey, termsAndConditionsVersion, null, null);
+    }
+
+    /**
+     * Scans one segment of the user profile table when segment and totalSegments are given, so the
+     * audience can be loaded by several workers at once. Null for both scans the whole table.
+     */
+    public Stream<UserProfile> getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+            Map<String, AttributeValue> exclusiveStartKey,
+            List<String> termsAndConditionsVersion,
+            Integer segment,
+            Integer totalSegments) {
 
         List<String> termsAndConditionsExpression = new ArrayList<>();
         List<String> expression = new ArrayList<>();
@@ -767,6 +750,8 @@ public class DynamoService implements AuthenticationService {
                         .addAttributeToProject("SubjectID")
                         .addAttributeToProject("Email")
                         .exclusiveStartKey(exclusiveStartKey)
+                        .segment(segment)
+                        .totalSegments(totalSegments)
                         .filterExpression(
                                 Expression.builder()
                                         .expression(expressionString)
@@ -776,6 +761,304 @@ public class DynamoService implements AuthenticationService {
         return dynamoUserProfileTable.scan(scanRequest).items().stream();
     }
 
+    private void updatePasswordHash(String email, String hashedPassword) {
+        var userCredentials =
+                new UserCredentials()
+                        .withPassword(hashedPassword)
+                        .withUpdated(NowHelper.toTimestampString(NowHelper.now()));
+        update(
+                email,
+                new DynamoUpdate<>(dynamoUserCredentialsTable, userCredentials)
+                        .set(UserCredentials.ATTRIBUTE_PASSWORD, UserCredentials.ATTRIBUTE_UPDATED)
+                        .remove(UserCredentials.ATTRIBUTE_MIGRATED_PASSWORD));
+    }
+
+    private void update(String email, DynamoUpdate<?> update) {
+        dynamoDbClient.updateItem(update.toRequest(email.toLowerCase(Locale.ROOT)));
+    }
+
+    /*
+     * List attributes are merged client side, so the current list is read on its own and written
+     * back only if the item's Updated timestamp has not moved in the meantime.
+     */
+    private <T> void updateWithRetry(
+            String email,
+            DynamoDbTable<T> table,
+            String attribute,
+            Function<T, DynamoUpdate<T>> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            var current = getItem(table, email, true, Set.of(attribute, ATTRIBUTE_UPDATED));
+            if (current == null) {
+                throw ConditionalCheckFailedException.builder()
+                        .message(format("No item found in %s", table.tableName()))
+                        .build();
+            }
+            var expectedUpdated = table.tableSchema().attributeValue(current, ATTRIBUTE_UPDATED);
+            try {
+                update(
+                        email,
+                        mutation.apply(current)
+                                .ifUnchangedSince(
+                                        ATTRIBUTE_UPDATED,
+                                        expectedUpdated == null ? null : expectedUpdated.s()));
+                return;
+            } catch (ConditionalCheckFailedException e) {
+                if (!e.hasItem() || attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                LOG.warn("Concurrent update to {}, retrying attempt {}", attribute, attempt);
+            }
+        }
+    }
+
+    /*
+     * Reads the profile and credentials rows for an email in a single BatchGetItem. An empty
+     * attribute set reads the whole item; otherwise only those attributes and the key are read.
+     */
+    private Optional<User> getUser(
+            String email, Set<String> profileAttributes, Set<String> credentialsAttributes) {
+        if (isNull(email) || email.isBlank()) {
+            return Optional.empty();
+        }
+        var requestItems = userRequestItems(email, profileAttributes, credentialsAttributes);
+        Map<String, Map<String, AttributeValue>> items = new HashMap<>();
+        for (int attempt = 1; !requestItems.isEmpty(); attempt++) {
+            if (attempt > MAX_BATCH_GET_ATTEMPTS) {
+                throw new UnprocessedKeysException("Unable to read user within batch get attempts");
+            }
+            if (attempt > 1) {
+                try {
+                    Thread.sleep(batchGetBackoffMillis(attempt));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UnprocessedKeysException("Interrupted reading user", e);
+                }
+            }
+            var response =
+                    dynamoDbClient.batchGetItem(
+                            BatchGetItemRequest.builder().requestItems(requestItems).build());
+            collectItems(response, items);
+            requestItems = response.unprocessedKeys();
+        }
+        return toUser(items);
+    }
+
+    private CompletableFuture<Optional<User>> getUserAsync(
+            String email, Set<String> profileAttributes, Set<String> credentialsAttributes) {
+        if (isNull(email) || email.isBlank()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return batchGetItemsAsync(
+                        userRequestItems(email, profileAttributes, credentialsAttributes),
+                        new HashMap<>(),
+                        1)
+                .thenApply(this::toUser);
+    }
+
+    private CompletableFuture<Map<String, Map<String, AttributeValue>>> batchGetItemsAsync(
+            Map<String, KeysAndAttributes> requestItems,
+            Map<String, Map<String, AttributeValue>> items,
+            int attempt) {
+        if (requestItems.isEmpty()) {
+            return CompletableFuture.completedFuture(items);
+        }
+        if (attempt > MAX_BATCH_GET_ATTEMPTS) {
+            return CompletableFuture.failedFuture(
+                    new UnprocessedKeysException("Unable to read user within batch get attempts"));
+        }
+        var request = BatchGetItemRequest.builder().requestItems(requestItems).build();
+        var batchGet =
+                attempt == 1
+                        ? dynamoDbAsyncClient().batchGetItem(request)
+                        : CompletableFuture.runAsync(
+                                        () -> {},
+                                        delayedExecutor(
+                                                batchGetBackoffMillis(attempt), MILLISECONDS))
+                                .thenCompose(
+                                        ignored -> dynamoDbAsyncClient().batchGetItem(request));
+        return batchGet.thenCompose(
+                response -> {
+                    collectItems(response, items);
+                    return batchGetItemsAsync(response.unprocessedKeys(), items, attempt + 1);
+                });
+    }
+
+    /*
+     * Exponential backoff with full jitter, so readers throttled together do not all retry at
+     * the same moment.
+     */
+    private static long batchGetBackoffMillis(int attempt) {
+        return ThreadLocalRandom.current()
+                .nextLong((BASE_BATCH_GET_BACKOFF_MILLIS << (attempt - 2)) + 1);
+    }
+
+    private Map<String, KeysAndAttributes> userRequestItems(
+            String email, Set<String> profileAttributes, Set<String> credentialsAttributes) {
+        return Map.of(
+                dynamoUserProfileTable.tableName(),
+                keysAndAttributes(dynamoUserProfileTable, email, profileAttributes),
+                dynamoUserCredentialsTable.tableName(),
+                keysAndAttributes(dynamoUserCredentialsTable, email, credentialsAttributes));
+    }
+
+    private static void collectItems(
+            BatchGetItemResponse response, Map<String, Map<String, AttributeValue>> items) {
+        response.responses()
+                .forEach(
+                        (tableName, tableItems) ->
+                                tableItems.stream()
+                                        .findFirst()
+                                        .ifPresent(item -> items.put(tableName, item)));
+    }
+
+    private Optional<User> toUser(Map<String, Map<String, AttributeValue>> items) {
+        var userProfile = mapItem(dynamoUserProfileTable, items);
+        var userCredentials = mapItem(dynamoUserCredentialsTable, items);
+        if (isNull(userProfile) || isNull(userCredentials)) {
+            return Optional.empty();
+        }
+        return Optional.of(new User(userProfile, userCredentials));
+    }
+
+    /*
+     * A subject ID never moves to another account, so once the subject index has told us which
+     * email it belongs to, the item can be read from the base table by that email instead. The
+     * email can still change, or the account be deleted, so an item that no longer carries the
+     * subject ID sends the lookup back to the index.
+     */
+    private <T> Optional<T> getFromSubjectIndex(
+            DynamoDbTable<T> table,
+            String indexName,
+            ReadThroughCache<String, String> emails,
+            String subject,
+            Function<T, String> emailOf,
+            Function<T, String> subjectIdOf) {
+        if (isNull(emails)) {
+            return queryIndex(table, indexName, subject);
+        }
+        var queried = new AtomicReference<Optional<T>>();
+        var email =
+                emails.get(
+                        subject,
+                        s -> {
+                            queried.set(queryIndex(table, indexName, s));
+                            return queried.get().map(emailOf);
+                        });
+        if (!isNull(queried.get())) {
+            return queried.get();
+        }
+        var item =
+                email.map(e -> table.getItem(Key.builder().partitionValue(e).build()))
+                        .filter(i -> subject.equals(subjectIdOf.apply(i)));
+        if (item.isEmpty()) {
+            emails.invalidate(subject);
+            return getFromSubjectIndex(table, indexName, emails, subject, emailOf, subjectIdOf);
+        }
+        subjectIndexQueriesAvoided.incrementAndGet();
+        publishSubjectIndexMetricsIfDue();
+        return item;
+    }
+
+    private <T> Optional<T> queryIndex(DynamoDbTable<T> table, String indexName, String subject) {
+        subjectIndexQueries.incrementAndGet();
+        publishSubjectIndexMetricsIfDue();
+        QueryConditional q =
+                QueryConditional.keyEqualTo(Key.builder().partitionValue(subject).build());
+        QueryEnhancedRequest queryEnhancedRequest =
+                QueryEnhancedRequest.builder().consistentRead(false).queryConditional(q).build();
+        return table.index(indexName).query(queryEnhancedRequest).stream()
+                .findFirst()
+                .flatMap(page -> page.items().stream().findFirst());
+    }
+
+    private void publishSubjectIndexMetricsIfDue() {
+        metricsPublisher.publishIfDue(
+                metricsService ->
+                        metricsService.putEmbeddedValues(
+                                Map.of(
+                                        SUBJECT_INDEX_QUERIES.getValue(),
+                                        List.of((double) subjectIndexQueries.getAndSet(0)),
+                                        SUBJECT_INDEX_QUERIES_AVOIDED.getValue(),
+                                        List.of((double) subjectIndexQueriesAvoided.getAndSet(0))),
+                                Unit.COUNT,
+                                Map.of(
+                                        ENVIRONMENT.getValue(),
+                                        configurationService.getEnvironment())));
+    }
+
+    private static ReadThroughCache<String, String> subjectEmailCache(
+            ConfigurationService configurationService) {
+        var ttlSeconds = configurationService.getUserSubjectCacheTtlSeconds();
+        if (ttlSeconds <= 0) {
+            return null;
+        }
+        return new ReadThroughCache<>(
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ZERO,
+                configurationService.getUserSubjectCacheMaxSize(),
+                configurationService.getClock());
+    }
+
+    private synchronized DynamoDbAsyncClient dynamoDbAsyncClient() {
+        if (isNull(dynamoDbAsyncClient)) {
+            dynamoDbAsyncClient = createDynamoAsyncClient(configurationService);
+        }
+        return dynamoDbAsyncClient;
+    }
+
+    private static <T> KeysAndAttributes keysAndAttributes(
+            DynamoDbTable<T> table, String email, Set<String> attributes) {
+        var keysAndAttributes = KeysAndAttributes.builder().keys(key(table, email));
+        if (!attributes.isEmpty()) {
+            var names = projectionNames(table, attributes);
+            keysAndAttributes
+                    .projectionExpression(String.join(", ", names.keySet()))
+                    .expressionAttributeNames(names);
+        }
+        return keysAndAttributes.build();
+    }
+
+    private static <T> T mapItem(
+            DynamoDbTable<T> table, Map<String, Map<String, AttributeValue>> items) {
+        var item = items.get(table.tableName());
+        return isNull(item) ? null : table.tableSchema().mapToItem(item);
+    }
+
+    private <T> T getItem(
+            DynamoDbTable<T> table,
+            String email,
+            boolean consistentRead,
+            Set<String> attributes) {
+        var names = projectionNames(table, attributes);
+        var response =
+                dynamoDbClient.getItem(
+                        GetItemRequest.builder()
+                                .tableName(table.tableName())
+                                .key(key(table, email))
+                                .projectionExpression(String.join(", ", names.keySet()))
+                                .expressionAttributeNames(names)
+                                .consistentRead(consistentRead)
+                                .build());
+        return response.hasItem() ? table.tableSchema().mapToItem(response.item()) : null;
+    }
+
+    private static <T> Map<String, AttributeValue> key(DynamoDbTable<T> table, String email) {
+        return Map.of(
+                table.tableSchema().tableMetadata().primaryPartitionKey(),
+                AttributeValue.fromS(email.toLowerCase(Locale.ROOT)));
+    }
+
+    private static <T> Map<String, String> projectionNames(
+            DynamoDbTable<T> table, Set<String> attributes) {
+        var partitionKey = table.tableSchema().tableMetadata().primaryPartitionKey();
+        Map<String, String> names = new HashMap<>();
+        names.put("#p0", partitionKey);
+        attributes.stream()
+                .filter(attribute -> !attribute.equals(partitionKey))
+                .forEach(attribute -> names.put("#p" + names.size(), attribute));
+        return names;
+    }
+
     private static String hashPassword(String password) {
         return Argon2EncoderHelper.argon2Hash(password);
     }
@@ -783,4 +1066,24 @@ public class DynamoService implements AuthenticationService {
     private void warmUp() {
         dynamoUserProfileTable.describeTable();
     }
+
+    public class TestUserWriter implements AutoCloseable {
+
+        private final DynamoBulkWriter writer;
+
+        private TestUserWriter(DynamoBulkWriter writer) {
+            this.writer = writer;
+        }
+
+        public void add(UserProfile userProfile, UserCredentials userCredentials) {
+            writer.put(dynamoUserProfileTable, userProfile)
+                    .put(dynamoUserCredentialsTable, userCredentials);
+        }
+
+        /** Waits for the outstanding batches and throws if any items could not be written. */
+        @Override
+        public void close() {
+            writer.close();
+        }
+    }
 }
@@ -23,8 +23,10 @@ import java.net.URL;
 import java.security.PublicKey;
 import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.nimbusds.jose.JWSAlgorithm.ES256;
 import static com.nimbusds.jose.JWSAlgorithm.RS256;
@@ -37,13 +39,22 @@ public class JwksService {
 
     private final ConfigurationService configurationService;
     private final KmsConnectionService kmsConnectionService;
-    private static final Map<String, JWK> KEY_CACHE = new HashMap<>();
+    private final SigningKeyStore keyStore;
+    private final Set<String> loadedAliases = ConcurrentHashMap.newKeySet();
     private static final Logger LOG = LogManager.getLogger(JwksService.class);
 
     public JwksService(
             ConfigurationService configurationService, KmsConnectionService kmsConnectionService) {
+        this(configurationService, kmsConnectionService, null);
+    }
+
+    public JwksService(
+            ConfigurationService configurationService,
+            KmsConnectionService kmsConnectionService,
+            CloudwatchMetricsService metricsService) {
         this.configurationService = configurationService;
         this.kmsConnectionService = kmsConnectionService;
+        this.keyStore = new SigningKeyStore(configurationService, this::loadJwk, metricsService);
     }
 
     public JWK getPublicTokenJwkWithOpaqueId() {
@@ -61,6 +72,19 @@ public class JwksService {
         return getPublicJWKWithKeyId(configurationService.getDocAppTokenSigningKeyAlias());
     }
 
+    /** Keys an alias pointed at before it was rotated, while they are still published. */
+    public List<JWK> getPreviousPublicJwks() {
+        return keyStore.getPreviousKeys();
+    }
+
+    public Optional<JWK> findPublicTokenJwkWithKeyId(String keyId) {
+        return keyStore.findKey(keyId, configurationService.getTokenSigningKeyAlias());
+    }
+
+    public Optional<JWK> findPublicTokenRsaJwkWithKeyId(String keyId) {
+        return keyStore.findKey(keyId, configurationService.getTokenSigningKeyRsaAlias());
+    }
+
     public JWK retrieveJwkFromURLWithKeyId(URL url, String keyId) {
         JWKSelector selector = new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
         JWKSource<SecurityContext> jwkSource =
@@ -81,21 +105,23 @@ public class JwksService {
         }
     }
 
+    /*
+     * JWKs are immutable, so the cached instance is handed out as it is rather than copied.
+     */
     private JWK getPublicJWKWithKeyId(String keyId) {
-        var jwk =
-                segmentedFunctionCall(
-                        "createJwk", () -> KEY_CACHE.computeIfAbsent(keyId, this::createJwk));
-
-        return segmentedFunctionCall(
-                "parseJwk",
-                () -> {
-                    try {
-                        return JWK.parse(jwk.toString());
-                    } catch (java.text.ParseException e) {
-                        LOG.error("Error parsing the public key to JWK", e);
-                        throw new RuntimeException(e);
-                    }
-                });
+        return segmentedFunctionCall("createJwk", () -> keyStore.getCurrentKey(keyId));
+    }
+
+    /*
+     * The first lookup of an alias can use the public key KmsConnectionService warmed up with.
+     * Later ones are refreshes, so they drop it to find out whether the alias has moved, which
+     * also moves token signing over to the new key.
+     */
+    private JWK loadJwk(String keyId) {
+        if (!loadedAliases.add(keyId)) {
+            kmsConnectionService.invalidatePublicKey(keyId);
+        }
+        return createJwk(keyId);
     }
 
     private JWK createJwk(String keyId) {
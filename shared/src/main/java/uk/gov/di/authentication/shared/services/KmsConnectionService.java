@@ -4,50 +4,92 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
 import software.amazon.awssdk.services.kms.model.GetPublicKeyResponse;
 import software.amazon.awssdk.services.kms.model.SignRequest;
 import software.amazon.awssdk.services.kms.model.SignResponse;
+import uk.gov.di.authentication.shared.helpers.ReadThroughCache;
 
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
 
 public class KmsConnectionService {
 
     private final KmsClient kmsClient;
+    private final Supplier<KmsAsyncClient> kmsAsyncClientFactory;
+    private KmsAsyncClient kmsAsyncClient;
+    private final ReadThroughCache<String, GetPublicKeyResponse> keyMetadata;
     private static final Logger LOG = LogManager.getLogger(KmsConnectionService.class);
+    private static final Duration DEFAULT_KEY_METADATA_TTL = Duration.ofMinutes(5);
+    private static final int MAX_CACHED_KEYS = 20;
 
     public KmsConnectionService(ConfigurationService configurationService) {
         this(
                 configurationService.getLocalstackEndpointUri(),
                 configurationService.getAwsRegion(),
-                configurationService.getTokenSigningKeyAlias());
+                configurationService.getTokenSigningKeyAlias(),
+                Duration.ofSeconds(configurationService.getKmsKeyMetadataCacheTtlSeconds()));
     }
 
     public KmsConnectionService(
             Optional<String> localstackEndpointUri, String awsRegion, String tokenSigningKeyId) {
-        if (localstackEndpointUri.isPresent()) {
-            LOG.info("Localstack endpoint URI is present: " + localstackEndpointUri.get());
-            this.kmsClient =
-                    KmsClient.builder()
-                            .endpointOverride(URI.create(localstackEndpointUri.get()))
-                            .credentialsProvider(DefaultCredentialsProvider.create())
-                            .region(Region.of(awsRegion))
-                            .build();
-        } else {
-            this.kmsClient =
-                    KmsClient.builder()
-                            .region(Region.of(awsRegion))
-                            .credentialsProvider(DefaultCredentialsProvider.create())
-                            .build();
-        }
+        this(localstackEndpointUri, awsRegion, tokenSigningKeyId, DEFAULT_KEY_METADATA_TTL);
+    }
+
+    public KmsConnectionService(
+            KmsClient kmsClient, KmsAsyncClient kmsAsyncClient, Duration keyMetadataTtl) {
+        this(kmsClient, () -> kmsAsyncClient, keyMetadataTtl);
+    }
+
+    private KmsConnectionService(
+            KmsClient kmsClient,
+            Supplier<KmsAsyncClient> kmsAsyncClientFactory,
+            Duration keyMetadataTtl) {
+        this.kmsClient = kmsClient;
+        this.kmsAsyncClientFactory = kmsAsyncClientFactory;
+        this.keyMetadata =
+                new ReadThroughCache<>(
+                        keyMetadataTtl, Duration.ZERO, MAX_CACHED_KEYS, Clock.systemUTC());
+    }
+
+    private KmsConnectionService(
+            Optional<String> localstackEndpointUri,
+            String awsRegion,
+            String tokenSigningKeyId,
+            Duration keyMetadataTtl) {
+        this(
+                createKmsClient(localstackEndpointUri, awsRegion),
+                () -> createKmsAsyncClient(localstackEndpointUri, awsRegion),
+                keyMetadataTtl);
         warmUp(tokenSigningKeyId);
     }
 
+    /*
+     * Public keys are cached per key ID or alias, so signing only needs the one Sign call. An
+     * alias can be moved to a new key, so entries expire, and callers that find a cached key can
+     * no longer be used should invalidate it and look it up again.
+     */
     public GetPublicKeyResponse getPublicKey(GetPublicKeyRequest getPublicKeyRequest) {
-        LOG.info("Retrieving public key from KMS with KeyID {}", getPublicKeyRequest.keyId());
-        return kmsClient.getPublicKey(getPublicKeyRequest);
+        return keyMetadata
+                .get(
+                        getPublicKeyRequest.keyId(),
+                        keyId -> {
+                            LOG.info("Retrieving public key from KMS with KeyID {}", keyId);
+                            return Optional.of(kmsClient.getPublicKey(getPublicKeyRequest));
+                        })
+                .orElseThrow();
+    }
+
+    public void invalidatePublicKey(String keyId) {
+        keyMetadata.invalidate(keyId);
     }
 
     public SignResponse sign(SignRequest signRequest) {
@@ -55,10 +97,52 @@ public class KmsConnectionService {
         return kmsClient.sign(signRequest);
     }
 
+    /*
+     * Lets callers that need several signatures have them all in flight at once. The async client
+     * is only created on first use, so lambdas that never sign this way don't pay for it.
+     */
+    public CompletableFuture<SignResponse> signAsync(SignRequest signRequest) {
+        LOG.info("Calling KMS asynchronously with SignRequest and KeyId {}", signRequest.keyId());
+        return kmsAsyncClient().sign(signRequest);
+    }
+
+    private synchronized KmsAsyncClient kmsAsyncClient() {
+        if (isNull(kmsAsyncClient)) {
+            kmsAsyncClient = kmsAsyncClientFactory.get();
+        }
+        return kmsAsyncClient;
+    }
+
+    private static KmsClient createKmsClient(
+            Optional<String> localstackEndpointUri, String awsRegion) {
+        if (localstackEndpointUri.isPresent()) {
+            LOG.info("Localstack endpoint URI is present: " + localstackEndpointUri.get());
+            return KmsClient.builder()
+                    .endpointOverride(URI.create(localstackEndpointUri.get()))
+                    .credentialsProvider(DefaultCredentialsProvider.create())
+                    .region(Region.of(awsRegion))
+                    .build();
+        }
+        return KmsClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .build();
+    }
+
+    private static KmsAsyncClient createKmsAsyncClient(
+            Optional<String> localstackEndpointUri, String awsRegion) {
+        var builder =
+                KmsAsyncClient.builder()
+                        .region(Region.of(awsRegion))
+                        .credentialsProvider(DefaultCredentialsProvider.create());
+        localstackEndpointUri.map(URI::create).ifPresent(builder::endpointOverride);
+        return builder.build();
+    }
+
     private void warmUp(String keyId) {
         GetPublicKeyRequest request = GetPublicKeyRequest.builder().keyId(keyId).build();
         try {
-            kmsClient.getPublicKey(request);
+            getPublicKey(request);
         } catch (Exception e) {
             LOG.info("Unable to retrieve Public Key whilst warming up");
         }
@@ -13,10 +13,15 @@ import software.amazon.awssdk.services.lambda.model.InvokeRequest;
 import uk.gov.di.authentication.shared.exceptions.LambdaInvokerServiceException;
 import uk.gov.di.authentication.shared.serialization.Json;
 
+import java.util.List;
+
 public class LambdaInvokerService implements LambdaInvoker {
 
     private static final Logger LOG = LogManager.getLogger(LambdaInvokerService.class);
 
+    private static final List<String> DETAIL_FIELDS =
+            List.of("lastEvaluatedKey", "globalUsersAddedCount", "segment", "totalSegments");
+
     protected final Json objectMapper = SerializationService.getInstance();
 
     private final ConfigurationService configurationService;
@@ -48,9 +53,12 @@ public class LambdaInvokerService implements LambdaInvoker {
         }
 
         JSONObject detail = new JSONObject();
-        detail.appendField("lastEvaluatedKey", scheduledEvent.getDetail().get("lastEvaluatedKey"));
-        detail.appendField(
-                "globalUsersAddedCount", scheduledEvent.getDetail().get("globalUsersAddedCount"));
+        for (String field : DETAIL_FIELDS) {
+            var value = scheduledEvent.getDetail().get(field);
+            if (value != null) {
+                detail.appendField(field, value);
+            }
+        }
 
         String jsonPayload = new JSONObject().appendField("detail", detail).toJSONString();
         SdkBytes payload = SdkBytes.fromUtf8String(jsonPayload);
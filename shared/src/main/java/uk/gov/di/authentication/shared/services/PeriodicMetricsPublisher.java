@@ -0,0 +1,73 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Publishes a service's own metrics at most once per interval. The first caller after the interval
+ * has passed publishes on its own thread, so the EMF write happens inside the invocation that
+ * triggered it and within its trace. Callers never contend on a lock to find out whether it is
+ * their turn.
+ */
+public class PeriodicMetricsPublisher {
+
+    private static final Logger LOG = LogManager.getLogger(PeriodicMetricsPublisher.class);
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+
+    private final CloudwatchMetricsService metricsService;
+    private final long intervalMillis;
+    private final Clock clock;
+    private final AtomicLong nextPublish = new AtomicLong();
+
+    public PeriodicMetricsPublisher(CloudwatchMetricsService metricsService) {
+        this(metricsService, DEFAULT_INTERVAL);
+    }
+
+    public PeriodicMetricsPublisher(CloudwatchMetricsService metricsService, Duration interval) {
+        this(metricsService, interval, Clock.systemUTC());
+    }
+
+    PeriodicMetricsPublisher(
+            CloudwatchMetricsService metricsService, Duration interval, Clock clock) {
+        this.metricsService = metricsService;
+        this.intervalMillis = interval.toMillis();
+        this.clock = clock;
+    }
+
+    /** Does nothing when there is no metrics service, or when the interval has not passed. */
+    public void publishIfDue(Consumer<CloudwatchMetricsService> publication) {
+        if (isNull(metricsService)) {
+            return;
+        }
+        var now = clock.millis();
+        var due = nextPublish.get();
+        if (now < due || !nextPublish.compareAndSet(due, now + intervalMillis)) {
+            return;
+        }
+        run(publication);
+    }
+
+    /** Publishes regardless of the interval, for a final publication while shutting down. */
+    public void publishNow(Consumer<CloudwatchMetricsService> publication) {
+        if (isNull(metricsService)) {
+            return;
+        }
+        run(publication);
+    }
+
+    // Publications read and reset counters, so two for the same service must not overlap
+    private synchronized void run(Consumer<CloudwatchMetricsService> publication) {
+        try {
+            publication.accept(metricsService);
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to publish metrics", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package uk.gov.di.authentication.shared.services;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class RedisBatch {
+
+    public enum CommandType {
+        GET,
+        HGETALL,
+        SETEX,
+        DEL,
+        INCR,
+        EXPIRE,
+        HSET
+    }
+
+    public record Command(
+            CommandType type, String key, String value, Map<String, String> fields, long seconds) {
+
+        RedisFuture<?> dispatch(RedisAsyncCommands<String, String> commands) {
+            return switch (type) {
+                case GET -> commands.get(key);
+                case HGETALL -> commands.hgetall(key);
+                case SETEX -> commands.setex(key, seconds, value);
+                case DEL -> commands.del(key);
+                case INCR -> commands.incr(key);
+                case EXPIRE -> commands.expire(key, seconds);
+                case HSET -> commands.hset(key, fields);
+            };
+        }
+    }
+
+    private final List<Command> commands = new ArrayList<>();
+
+    public RedisBatch get(final String key) {
+        return add(new Command(CommandType.GET, key, null, null, 0));
+    }
+
+    public RedisBatch getHash(final String key) {
+        return add(new Command(CommandType.HGETALL, key, null, null, 0));
+    }
+
+    public RedisBatch saveWithExpiry(final String key, final String value, final long expiry) {
+        return add(new Command(CommandType.SETEX, key, value, null, expiry));
+    }
+
+    public RedisBatch deleteValue(final String key) {
+        return add(new Command(CommandType.DEL, key, null, null, 0));
+    }
+
+    public RedisBatch increment(final String key) {
+        return add(new Command(CommandType.INCR, key, null, null, 0));
+    }
+
+    public RedisBatch expire(final String key, final long expiry) {
+        return add(new Command(CommandType.EXPIRE, key, null, null, expiry));
+    }
+
+    public RedisBatch saveHashFields(final String key, final Map<String, String> fields) {
+        return add(new Command(CommandType.HSET, key, null, Map.copyOf(fields), 0));
+    }
+
+    public List<Command> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    private RedisBatch add(Command command) {
+        commands.add(command);
+        return this;
+    }
+}
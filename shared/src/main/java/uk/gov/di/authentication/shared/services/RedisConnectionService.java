@@ -1,34 +1,103 @@
 package uk.gov.di.authentication.shared.services;
 
+import io.lettuce.core.LettuceFutures;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.RedisURI;
-import io.lettuce.core.TransactionResult;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.sync.RedisCommands;
 import io.lettuce.core.api.sync.RedisServerCommands;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static io.lettuce.core.support.ConnectionPoolSupport.createGenericObjectPool;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.REDIS_COMMAND;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_COMMAND_COUNT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_COMMAND_LATENCY;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_ACTIVE;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_CREATED;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_DESTROYED;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_IDLE;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_MAX_BORROW_WAIT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_MEAN_BORROW_WAIT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.REDIS_POOL_WAITERS;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 
 public class RedisConnectionService implements AutoCloseable {
 
+    private static final Logger LOG = LogManager.getLogger(RedisConnectionService.class);
     public static final String REDIS_CONNECTION_ERROR = "Error getting Redis connection";
+    private static final AtomicLong ROUND_TRIPS = new AtomicLong();
+    // EMF accepts at most 100 values for a metric in one record
+    private static final int LATENCY_SAMPLES_PER_COMMAND = 100;
+    private static final String INCREMENT_WITH_EXPIRY_SCRIPT =
+            "local count = redis.call('INCR', KEYS[1]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+                    + "return count";
+    private static final String POP_VALUE_SCRIPT =
+            "local value = redis.call('GET', KEYS[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return value";
+    private static final String POP_VALUES_SCRIPT =
+            "local values = redis.call('MGET', unpack(KEYS)) "
+                    + "redis.call('DEL', unpack(KEYS)) "
+                    + "return values";
+    private static final Map<ConnectionKey, RedisConnectionService> SHARED_CONNECTIONS =
+            new ConcurrentHashMap<>();
     private final RedisClient client;
 
     private final GenericObjectPool<StatefulRedisConnection<String, String>> pool;
+    private volatile StatefulRedisConnection<String, String> multiplexedConnection;
+    private volatile boolean getDelSupported = true;
+
+    private final Map<String, LatencySamples> commandLatencies = new ConcurrentHashMap<>();
+    private final PeriodicMetricsPublisher metricsPublisher;
+    private final String environment;
+    private final AtomicLong lastCreatedCount = new AtomicLong();
+    private final AtomicLong lastDestroyedCount = new AtomicLong();
+    // Only read or written while holding this instance's entry in SHARED_CONNECTIONS
+    private ConnectionKey sharedKey;
+    private int references;
+
+    private record ConnectionKey(String host, int port, boolean useSsl) {}
+
+    public RedisConnectionService(
+            String host,
+            int port,
+            boolean useSsl,
+            Optional<String> password,
+            GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig,
+            boolean warmup) {
+        this(
+                createClient(host, port, useSsl, password),
+                poolConfig,
+                new PeriodicMetricsPublisher(null),
+                null,
+                warmup);
+    }
 
     public RedisConnectionService(
             String host, int port, boolean useSsl, Optional<String> password, boolean warmup) {
-        RedisURI.Builder builder = RedisURI.builder().withHost(host).withPort(port).withSsl(useSsl);
-        password.ifPresent(s -> builder.withPassword(s.toCharArray()));
-        RedisURI redisURI = builder.build();
-        this.client = RedisClient.create(redisURI);
-        this.pool = createGenericObjectPool(client::connect, new GenericObjectPoolConfig<>());
-        if (warmup) warmUp();
+        this(host, port, useSsl, password, new GenericObjectPoolConfig<>(), warmup);
     }
 
     public RedisConnectionService(
@@ -38,10 +107,84 @@ public class RedisConnectionService implements AutoCloseable {
 
     public RedisConnectionService(ConfigurationService configurationService) {
         this(
-                configurationService.getRedisHost(),
-                configurationService.getRedisPort(),
-                configurationService.getUseRedisTLS(),
-                configurationService.getRedisPassword());
+                createClient(
+                        configurationService.getRedisHost(),
+                        configurationService.getRedisPort(),
+                        configurationService.getUseRedisTLS(),
+                        configurationService.getRedisPassword()),
+                poolConfig(configurationService),
+                new PeriodicMetricsPublisher(
+                        new CloudwatchMetricsService(configurationService),
+                        Duration.ofSeconds(configurationService.getRedisMetricsIntervalSeconds())),
+                configurationService.getEnvironment(),
+                true);
+    }
+
+    private RedisConnectionService(
+            RedisClient client,
+            GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig,
+            PeriodicMetricsPublisher metricsPublisher,
+            String environment,
+            boolean warmup) {
+        this(
+                client,
+                createGenericObjectPool(client::connect, poolConfig),
+                metricsPublisher,
+                environment);
+        if (warmup) warmUp();
+    }
+
+    RedisConnectionService(
+            RedisClient client,
+            GenericObjectPool<StatefulRedisConnection<String, String>> pool,
+            PeriodicMetricsPublisher metricsPublisher,
+            String environment) {
+        this.client = client;
+        this.pool = pool;
+        this.metricsPublisher = metricsPublisher;
+        this.environment = environment;
+    }
+
+    private static RedisClient createClient(
+            String host, int port, boolean useSsl, Optional<String> password) {
+        RedisURI.Builder builder = RedisURI.builder().withHost(host).withPort(port).withSsl(useSsl);
+        password.ifPresent(s -> builder.withPassword(s.toCharArray()));
+        return RedisClient.create(builder.build());
+    }
+
+    /**
+     * Returns the connection service shared by everything in this container that talks to the
+     * same Redis endpoint. Each caller holds a reference, and the shared pool is only shut down
+     * once every holder has closed it.
+     */
+    public static RedisConnectionService getInstance(ConfigurationService configurationService) {
+        var key =
+                new ConnectionKey(
+                        configurationService.getRedisHost(),
+                        configurationService.getRedisPort(),
+                        configurationService.getUseRedisTLS());
+        return SHARED_CONNECTIONS.compute(
+                key,
+                (k, existing) -> {
+                    var service =
+                            existing == null
+                                    ? new RedisConnectionService(configurationService)
+                                    : existing;
+                    service.sharedKey = k;
+                    service.references++;
+                    return service;
+                });
+    }
+
+    private static GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig(
+            ConfigurationService configurationService) {
+        GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig =
+                new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(configurationService.getRedisMaxTotalConnections());
+        poolConfig.setMaxIdle(configurationService.getRedisMaxIdleConnections());
+        poolConfig.setMinIdle(configurationService.getRedisMinIdleConnections());
+        poolConfig.setMaxWait(Duration.ofMillis(configurationService.getRedisPoolMaxWaitMillis()));
+        return poolConfig;
     }
 
     @FunctionalInterface
@@ -49,61 +192,324 @@ public class RedisConnectionService implements AutoCloseable {
         T getResult(RedisCommands<String, String> commands);
     }
 
-    private <T> T executeCommand(RedisFunction<T> callable) {
+    @FunctionalInterface
+    private interface RedisConnectionFunction<T> {
+        T getResult(StatefulRedisConnection<String, String> connection) throws Exception;
+    }
+
+    private void recordLatency(String command, double latencyMillis) {
+        commandLatencies.computeIfAbsent(command, k -> new LatencySamples()).add(latencyMillis);
+        metricsPublisher.publishIfDue(this::publishMetrics);
+    }
+
+    private void publishMetrics(CloudwatchMetricsService metricsService) {
+        var dimensions = Map.of(ENVIRONMENT.getValue(), environment);
+        var createdCount = pool.getCreatedCount();
+        var destroyedCount = pool.getDestroyedCount();
+        var created = createdCount - lastCreatedCount.getAndSet(createdCount);
+        var destroyed = destroyedCount - lastDestroyedCount.getAndSet(destroyedCount);
+        metricsService.putEmbeddedValues(
+                Map.of(
+                        REDIS_POOL_ACTIVE.getValue(),
+                        List.of((double) pool.getNumActive()),
+                        REDIS_POOL_IDLE.getValue(),
+                        List.of((double) pool.getNumIdle()),
+                        REDIS_POOL_WAITERS.getValue(),
+                        List.of((double) pool.getNumWaiters()),
+                        REDIS_POOL_CREATED.getValue(),
+                        List.of((double) created),
+                        REDIS_POOL_DESTROYED.getValue(),
+                        List.of((double) destroyed)),
+                Unit.COUNT,
+                dimensions);
+        metricsService.putEmbeddedValues(
+                Map.of(
+                        REDIS_POOL_MEAN_BORROW_WAIT.getValue(),
+                        List.of((double) pool.getMeanBorrowWaitDuration().toMillis()),
+                        REDIS_POOL_MAX_BORROW_WAIT.getValue(),
+                        List.of((double) pool.getMaxBorrowWaitDuration().toMillis())),
+                Unit.MILLISECONDS,
+                dimensions);
+        commandLatencies.forEach(
+                (command, latencies) -> {
+                    var drained = latencies.drain();
+                    if (drained.count() == 0) {
+                        return;
+                    }
+                    var commandDimensions =
+                            Map.of(
+                                    ENVIRONMENT.getValue(),
+                                    environment,
+                                    REDIS_COMMAND.getValue(),
+                                    command);
+                    metricsService.putEmbeddedValues(
+                            Map.of(
+                                    REDIS_COMMAND_COUNT.getValue(),
+                                    List.of((double) drained.count())),
+                            Unit.COUNT,
+                            commandDimensions);
+                    metricsService.putEmbeddedValues(
+                            Map.of(REDIS_COMMAND_LATENCY.getValue(), drained.samples()),
+                            Unit.MILLISECONDS,
+                            commandDimensions);
+                });
+    }
+
+    private <T> T executeCommand(String command, RedisFunction<T> callable) {
+        return executeOnConnection(command, connection -> callable.getResult(connection.sync()));
+    }
+
+    private <T> T executeOnConnection(String command, RedisConnectionFunction<T> callable) {
+        return segmentedFunctionCall("Redis: " + command, () -> runOnConnection(command, callable));
+    }
+
+    /*
+     * Latency is timed once a connection has been borrowed, so time spent waiting for the pool
+     * shows up in the borrow wait metrics rather than in the command latency.
+     */
+    private <T> T runOnConnection(String command, RedisConnectionFunction<T> callable) {
         try (StatefulRedisConnection<String, String> connection =
                 segmentedFunctionCall("Redis: getConnection", () -> pool.borrowObject())) {
-            return callable.getResult(connection.sync());
+            ROUND_TRIPS.incrementAndGet();
+            var start = System.nanoTime();
+            try {
+                return callable.getResult(connection);
+            } finally {
+                recordLatency(command, (System.nanoTime() - start) / 1_000_000.0);
+            }
         } catch (Exception e) {
             throw new RedisConnectionException(REDIS_CONNECTION_ERROR, e);
         }
     }
 
     public void saveWithExpiry(final String key, final String value, final long expiry) {
-        segmentedFunctionCall(
-                "Redis: saveWithExpiry",
-                () -> executeCommand(commands -> commands.setex(key, expiry, value)));
+        executeCommand("saveWithExpiry", commands -> commands.setex(key, expiry, value));
     }
 
     public boolean keyExists(final String key) {
-        return segmentedFunctionCall(
-                "Redis: keyExists", () -> executeCommand(commands -> commands.exists(key) == 1));
+        return executeCommand("keyExists", commands -> commands.exists(key) == 1);
     }
 
     public String getValue(final String key) {
-        return segmentedFunctionCall(
-                "Redis: getValue", () -> executeCommand(commands -> commands.get(key)));
+        return executeCommand("getValue", commands -> commands.get(key));
+    }
+
+    public Map<String, String> getHash(final String key) {
+        return executeCommand("getHash", commands -> commands.hgetall(key));
+    }
+
+    public List<String> getValues(final List<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return executeCommand(
+                "getValues",
+                commands ->
+                        commands.mget(keys.toArray(new String[0])).stream()
+                                .map(keyValue -> keyValue.getValueOrElse(null))
+                                .collect(Collectors.toList()));
+    }
+
+    public long incrementWithExpiry(final String key, final long expiry) {
+        return executeCommand(
+                "incrementWithExpiry",
+                commands ->
+                        commands.<Long>eval(
+                                INCREMENT_WITH_EXPIRY_SCRIPT,
+                                ScriptOutputType.INTEGER,
+                                new String[] {key},
+                                String.valueOf(expiry)));
     }
 
     public long deleteValue(final String key) {
-        return segmentedFunctionCall(
-                "Redis: deleteValue", () -> executeCommand(commands -> commands.del(key)));
+        return executeCommand("deleteValue", commands -> commands.del(key));
+    }
+
+    public long deleteValues(final List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        return executeCommand(
+                "deleteValues", commands -> commands.del(keys.toArray(new String[0])));
+    }
+
+    public CompletableFuture<String> getValueAsync(final String key) {
+        return executeAsyncCommand(commands -> commands.get(key));
+    }
+
+    public CompletableFuture<List<String>> getValuesAsync(final List<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return executeAsyncCommand(commands -> commands.mget(keys.toArray(new String[0])))
+                .thenApply(
+                        keyValues ->
+                                keyValues.stream()
+                                        .map(keyValue -> keyValue.getValueOrElse(null))
+                                        .collect(Collectors.toList()));
+    }
+
+    private <T> CompletableFuture<T> executeAsyncCommand(
+            Function<RedisAsyncCommands<String, String>, RedisFuture<T>> command) {
+        try {
+            RedisFuture<T> future = command.apply(getMultiplexedConnection().async());
+            ROUND_TRIPS.incrementAndGet();
+            return future.toCompletableFuture();
+        } catch (Exception e) {
+            throw new RedisConnectionException(REDIS_CONNECTION_ERROR, e);
+        }
+    }
+
+    private StatefulRedisConnection<String, String> getMultiplexedConnection() {
+        if (multiplexedConnection == null) {
+            synchronized (this) {
+                if (multiplexedConnection == null) {
+                    multiplexedConnection =
+                            segmentedFunctionCall(
+                                    "Redis: getMultiplexedConnection", () -> client.connect());
+                }
+            }
+        }
+        return multiplexedConnection;
     }
 
     public String popValue(final String key) {
-        return segmentedFunctionCall(
-                "Redis: popValue",
-                () ->
-                        executeCommand(
-                                commands -> {
-                                    commands.multi();
-                                    commands.get(key);
-                                    commands.del(key);
-                                    TransactionResult result = commands.exec();
-                                    return result.get(0);
-                                }));
+        return executeCommand("popValue", commands -> popValue(commands, key));
+    }
+
+    public List<String> popValues(final List<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return executeCommand(
+                "popValues",
+                commands ->
+                        commands.<List<String>>eval(
+                                POP_VALUES_SCRIPT,
+                                ScriptOutputType.MULTI,
+                                keys.toArray(new String[0])));
+    }
+
+    private String popValue(RedisCommands<String, String> commands, String key) {
+        if (getDelSupported) {
+            try {
+                return commands.getdel(key);
+            } catch (RedisCommandExecutionException e) {
+                if (!e.getMessage().startsWith("ERR unknown command")) {
+                    throw e;
+                }
+                getDelSupported = false;
+            }
+        }
+        return commands.<String>eval(POP_VALUE_SCRIPT, ScriptOutputType.VALUE, key);
+    }
+
+    public List<Object> executeBatch(final RedisBatch batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        return executeOnConnection("executeBatch", connection -> pipeline(connection, batch));
+    }
+
+    private List<Object> pipeline(
+            StatefulRedisConnection<String, String> connection, RedisBatch batch)
+            throws Exception {
+        var commands = connection.async();
+        connection.setAutoFlushCommands(false);
+        try {
+            List<RedisFuture<?>> futures = new ArrayList<>(batch.size());
+            for (RedisBatch.Command command : batch.getCommands()) {
+                futures.add(command.dispatch(commands));
+            }
+            connection.flushCommands();
+
+            if (!LettuceFutures.awaitAll(
+                    connection.getTimeout(), futures.toArray(new RedisFuture[0]))) {
+                throw new RedisConnectionException(
+                        "Timed out waiting for Redis batch to complete", null);
+            }
+
+            List<Object> results = new ArrayList<>(futures.size());
+            for (RedisFuture<?> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            connection.setAutoFlushCommands(true);
+        }
+    }
+
+    public static long getRoundTripCount() {
+        return ROUND_TRIPS.get();
+    }
+
+    public static void resetRoundTripCount() {
+        ROUND_TRIPS.set(0);
     }
 
     private void warmUp() {
-        segmentedFunctionCall(
-                "Redis: warmUp", () -> executeCommand(RedisServerCommands::clientGetname));
+        executeCommand("warmUp", RedisServerCommands::clientGetname);
     }
 
     @Override
     public void close() {
+        if (sharedKey != null && !releaseShared()) {
+            return;
+        }
+        metricsPublisher.publishNow(this::publishMetrics);
+        if (multiplexedConnection != null) {
+            multiplexedConnection.close();
+        }
         pool.close();
         client.shutdown();
     }
 
+    // Returns whether this was the last reference to a shared instance
+    private boolean releaseShared() {
+        var released = new boolean[1];
+        SHARED_CONNECTIONS.computeIfPresent(
+                sharedKey,
+                (k, service) -> {
+                    if (service != this) {
+                        return service;
+                    }
+                    released[0] = --references == 0;
+                    return released[0] ? null : service;
+                });
+        return released[0];
+    }
+
+    /*
+     * A uniform random sample of the latencies seen since the last publish (reservoir sampling),
+     * so a busy interval is represented evenly rather than by its first few commands. The full
+     * count is published alongside it.
+     */
+    private static class LatencySamples {
+        private final List<Double> samples = new ArrayList<>(LATENCY_SAMPLES_PER_COMMAND);
+        private long count;
+
+        synchronized void add(double latencyMillis) {
+            count++;
+            if (samples.size() < LATENCY_SAMPLES_PER_COMMAND) {
+                samples.add(latencyMillis);
+                return;
+            }
+            var index = ThreadLocalRandom.current().nextLong(count);
+            if (index < LATENCY_SAMPLES_PER_COMMAND) {
+                samples.set((int) index, latencyMillis);
+            }
+        }
+
+        synchronized Drained drain() {
+            var drained = new Drained(List.copyOf(samples), count);
+            samples.clear();
+            count = 0;
+            return drained;
+        }
+    }
+
+    private record Drained(List<Double> samples, long count) {}
+
     public static class RedisConnectionException extends RuntimeException {
         public RedisConnectionException(String message, Throwable cause) {
             super(message, cause);
@@ -5,10 +5,17 @@ import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.helpers.CookieHelper;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
+import uk.gov.di.authentication.shared.serialization.CompactSessionCodec;
 import uk.gov.di.authentication.shared.serialization.Json;
+import uk.gov.di.authentication.shared.serialization.Json.JsonException;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static uk.gov.di.authentication.shared.domain.RequestHeaders.SESSION_ID_HEADER;
 import static uk.gov.di.authentication.shared.helpers.InputSanitiser.sanitiseBase64;
@@ -21,6 +28,12 @@ public class SessionService {
     private static final Logger LOG = LogManager.getLogger(SessionService.class);
 
     private static final Json OBJECT_MAPPER = SerializationService.getInstance();
+    private static final CompactSessionCodec SESSION_CODEC = new CompactSessionCodec();
+    public static final String SESSION_HASH_PREFIX = "session-hash-";
+    private static final Set<String> SESSION_HASH_FIELDS =
+            Arrays.stream(Session.Field.values())
+                    .map(Session.Field::getKey)
+                    .collect(Collectors.toSet());
 
     private final ConfigurationService configurationService;
     private final RedisConnectionService redisConnectionService;
@@ -35,13 +48,7 @@ public class SessionService {
     }
 
     public SessionService(ConfigurationService configurationService) {
-        this(
-                configurationService,
-                new RedisConnectionService(
-                        configurationService.getRedisHost(),
-                        configurationService.getRedisPort(),
-                        configurationService.getUseRedisTLS(),
-                        configurationService.getRedisPassword()));
+        this(configurationService, RedisConnectionService.getInstance(configurationService));
     }
 
     public Session createSession() {
@@ -50,9 +57,19 @@ public class SessionService {
 
     public void save(Session session) {
         try {
+            if (configurationService.isSessionHashStorageEnabled()) {
+                var dirtyFields = session.getDirtyFields();
+                var batch = saveFields(new RedisBatch(), session, dirtyFields);
+                if (dirtyFields.size() == Session.Field.values().length) {
+                    batch.deleteValue(session.getSessionId());
+                }
+                redisConnectionService.executeBatch(batch);
+                session.clearDirtyFields();
+                return;
+            }
             redisConnectionService.saveWithExpiry(
                     session.getSessionId(),
-                    OBJECT_MAPPER.writeValueAsString(session),
+                    serialise(session),
                     configurationService.getSessionExpiry());
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -64,8 +81,21 @@ public class SessionService {
             String oldSessionId = session.getSessionId();
             session.setSessionId(IdGenerator.generate());
             session.resetProcessingIdentityAttempts();
-            save(session);
-            redisConnectionService.deleteValue(oldSessionId);
+            if (configurationService.isSessionHashStorageEnabled()) {
+                redisConnectionService.executeBatch(
+                        saveFields(new RedisBatch(), session, EnumSet.allOf(Session.Field.class))
+                                .deleteValue(SESSION_HASH_PREFIX + oldSessionId)
+                                .deleteValue(oldSessionId));
+                session.clearDirtyFields();
+                return;
+            }
+            redisConnectionService.executeBatch(
+                    new RedisBatch()
+                            .saveWithExpiry(
+                                    session.getSessionId(),
+                                    serialise(session),
+                                    configurationService.getSessionExpiry())
+                            .deleteValue(oldSessionId));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -108,24 +138,109 @@ public class SessionService {
     }
 
     public void deleteSessionFromRedis(String sessionId) {
+        if (configurationService.isSessionHashStorageEnabled()) {
+            redisConnectionService.executeBatch(
+                    new RedisBatch()
+                            .deleteValue(SESSION_HASH_PREFIX + sessionId)
+                            .deleteValue(sessionId));
+            return;
+        }
         redisConnectionService.deleteValue(sessionId);
     }
 
     public Optional<Session> readSessionFromRedis(String sessionId) {
         try {
-            if (redisConnectionService.keyExists(sessionId)) {
-                return Optional.of(
-                        segmentedFunctionCall(
-                                "Deserialise session",
-                                () ->
-                                        OBJECT_MAPPER.readValue(
-                                                redisConnectionService.getValue(sessionId),
-                                                Session.class)));
-            } else {
-                return Optional.empty();
+            if (configurationService.isSessionHashStorageEnabled()) {
+                return readSessionHashOrValue(sessionId);
             }
+            return deserialiseValue(redisConnectionService.getValue(sessionId));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
+
+    /*
+     * The hash and the value a session had before it was migrated are fetched in one pipeline, so
+     * absent and not-yet-migrated sessions cost a single round trip. A hash only counts when it
+     * has every field: one that expired between a read and a save is recreated by the save with
+     * just the changed fields.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Session> readSessionHashOrValue(String sessionId) {
+        var results =
+                redisConnectionService.executeBatch(
+                        new RedisBatch().getHash(SESSION_HASH_PREFIX + sessionId).get(sessionId));
+        var fields = (Map<String, String>) results.get(0);
+        if (fields.keySet().containsAll(SESSION_HASH_FIELDS)) {
+            var session = segmentedFunctionCall("Deserialise session", () -> deserialise(fields));
+            return Optional.of(session.clearDirtyFields());
+        }
+        if (!fields.isEmpty()) {
+            LOG.warn("Session hash is missing fields, ignoring it");
+        }
+        return deserialiseValue((String) results.get(1));
+    }
+
+    private Optional<Session> deserialiseValue(String serialisedSession) {
+        if (serialisedSession == null) {
+            return Optional.empty();
+        }
+        return Optional.of(
+                segmentedFunctionCall("Deserialise session", () -> deserialise(serialisedSession)));
+    }
+
+    private RedisBatch saveFields(RedisBatch batch, Session session, Set<Session.Field> fields)
+            throws JsonException {
+        var key = SESSION_HASH_PREFIX + session.getSessionId();
+        if (!fields.isEmpty()) {
+            Map<String, String> values = new HashMap<>();
+            for (Session.Field field : fields) {
+                values.put(
+                        field.getKey(),
+                        OBJECT_MAPPER.writeValueAsString(fieldValue(session, field)));
+            }
+            batch.saveHashFields(key, values);
+        }
+        return batch.expire(key, configurationService.getSessionExpiry());
+    }
+
+    private static Object fieldValue(Session session, Session.Field field) {
+        return switch (field) {
+            case SESSION_ID -> session.getSessionId();
+            case CLIENT_SESSIONS -> session.getClientSessions();
+            case EMAIL_ADDRESS -> session.getEmailAddress();
+            case RETRY_COUNT -> session.getRetryCount();
+            case PASSWORD_RESET_COUNT -> session.getPasswordResetCount();
+            case CODE_REQUEST_COUNT_MAP -> session.getCodeRequestCountMap();
+            case CURRENT_CREDENTIAL_STRENGTH -> session.getCurrentCredentialStrength();
+            case IS_NEW_ACCOUNT -> session.isNewAccount();
+            case AUTHENTICATED -> session.isAuthenticated();
+            case PROCESSING_IDENTITY_ATTEMPTS -> session.getProcessingIdentityAttempts();
+            case VERIFIED_MFA_METHOD_TYPE -> session.getVerifiedMfaMethodType();
+            case INTERNAL_COMMON_SUBJECT_IDENTIFIER -> session.getInternalCommonSubjectIdentifier();
+        };
+    }
+
+    // Each hash field holds the JSON of one session property, so they can be reassembled
+    private Session deserialise(Map<String, String> fields) throws JsonException {
+        var json =
+                fields.entrySet().stream()
+                        .map(field -> "\"" + field.getKey() + "\":" + field.getValue())
+                        .collect(Collectors.joining(",", "{", "}"));
+        return OBJECT_MAPPER.readValue(json, Session.class);
+    }
+
+    private String serialise(Session session) throws JsonException {
+        if (configurationService.isCompactSessionEncodingEnabled()) {
+            return SESSION_CODEC.encode(session);
+        }
+        return OBJECT_MAPPER.writeValueAsString(session);
+    }
+
+    private Session deserialise(String serialisedSession) throws JsonException {
+        if (CompactSessionCodec.isCompact(serialisedSession)) {
+            return SESSION_CODEC.decodeSession(serialisedSession);
+        }
+        return OBJECT_MAPPER.readValue(serialisedSession, Session.class);
+    }
 }
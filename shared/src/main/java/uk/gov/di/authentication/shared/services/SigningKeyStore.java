@@ -0,0 +1,198 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.nimbusds.jose.jwk.JWK;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.SIGNING_KEY_REFRESHES;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.SIGNING_KEY_REFRESH_FAILURES;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.SIGNING_KEY_ROTATIONS;
+
+/**
+ * The public signing keys for each KMS alias. Keys are kept for a fixed time and looked up again
+ * in the background a little before that runs out, so requests only wait on KMS for the first
+ * lookup of an alias. When an alias turns out to point at a new key, the old one is kept as well
+ * for the rotation window, so tokens it signed still verify and it stays in the published JWKS.
+ * If a lookup fails, the key already held is served until a retry succeeds.
+ */
+public class SigningKeyStore {
+
+    private static final Logger LOG = LogManager.getLogger(SigningKeyStore.class);
+    private static final long FAILURE_RETRY_MILLIS = 30000;
+    private static final Executor REFRESHER =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        var thread = new Thread(runnable, "signing-key-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    private final Function<String, JWK> loader;
+    private final ConfigurationService configurationService;
+    private final PeriodicMetricsPublisher metricsPublisher;
+    private final Executor executor;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long rotationWindowMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong rotations = new AtomicLong();
+
+    public SigningKeyStore(
+            ConfigurationService configurationService,
+            Function<String, JWK> loader,
+            CloudwatchMetricsService metricsService) {
+        this(configurationService, loader, new PeriodicMetricsPublisher(metricsService), REFRESHER);
+    }
+
+    SigningKeyStore(
+            ConfigurationService configurationService,
+            Function<String, JWK> loader,
+            PeriodicMetricsPublisher metricsPublisher,
+            Executor executor) {
+        this.configurationService = configurationService;
+        this.loader = loader;
+        this.metricsPublisher = metricsPublisher;
+        this.executor = executor;
+        this.clock = configurationService.getClock();
+        this.ttlMillis = configurationService.getSigningKeyCacheTtlSeconds() * 1000;
+        this.rotationWindowMillis =
+                configurationService.getSigningKeyRotationWindowSeconds() * 1000;
+    }
+
+    public JWK getCurrentKey(String alias) {
+        var entry = entries.get(alias);
+        var now = clock.millis();
+        if (isNull(entry) || now >= entry.expiresAt()) {
+            entry =
+                    entries.compute(
+                            alias,
+                            (key, existing) ->
+                                    Objects.nonNull(existing)
+                                                    && clock.millis() < existing.expiresAt()
+                                            ? existing
+                                            : load(key, existing));
+        } else if (now >= entry.refreshAt()) {
+            refreshInBackground(alias);
+        }
+        publishMetricsIfDue();
+        return entry.current();
+    }
+
+    /** Keys replaced by a rotation that are still within the rotation window. */
+    public List<JWK> getPreviousKeys() {
+        var now = clock.millis();
+        return entries.values().stream()
+                .filter(entry -> Objects.nonNull(entry.previous()) && now < entry.previousUntil())
+                .map(Entry::previous)
+                .toList();
+    }
+
+    /**
+     * The key with the given ID that the alias points at, or pointed at before a rotation that is
+     * still within its window. Keys held for other aliases are never returned.
+     */
+    public Optional<JWK> findKey(String keyId, String alias) {
+        var entry = entries.get(alias);
+        if (isNull(entry)) {
+            return Optional.empty();
+        }
+        var previous = clock.millis() < entry.previousUntil() ? entry.previous() : null;
+        return Stream.of(entry.current(), previous)
+                .filter(key -> Objects.nonNull(key) && keyId.equals(key.getKeyID()))
+                .findFirst();
+    }
+
+    private void refreshInBackground(String alias) {
+        if (!refreshing.add(alias)) {
+            return;
+        }
+        executor.execute(
+                () -> {
+                    try {
+                        entries.compute(alias, this::load);
+                    } catch (RuntimeException e) {
+                        LOG.warn("Unable to refresh signing key {} in the background", alias, e);
+                    } finally {
+                        refreshing.remove(alias);
+                    }
+                });
+    }
+
+    private Entry load(String alias, Entry existing) {
+        JWK key;
+        try {
+            key = loader.apply(alias);
+            refreshes.incrementAndGet();
+        } catch (RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            if (isNull(existing)) {
+                throw e;
+            }
+            LOG.warn("Unable to refresh signing key {}, keeping the cached key", alias, e);
+            var retryAt = clock.millis() + FAILURE_RETRY_MILLIS;
+            return new Entry(
+                    existing.current(),
+                    existing.previous(),
+                    existing.previousUntil(),
+                    retryAt,
+                    Math.max(existing.expiresAt(), retryAt));
+        }
+
+        var now = clock.millis();
+        var refreshAt = now + ttlMillis * 4 / 5;
+        var expiresAt = now + ttlMillis;
+        if (isNull(existing)) {
+            return new Entry(key, null, 0, refreshAt, expiresAt);
+        }
+        if (Objects.equals(existing.current().getKeyID(), key.getKeyID())) {
+            return new Entry(
+                    key, existing.previous(), existing.previousUntil(), refreshAt, expiresAt);
+        }
+        LOG.info(
+                "Signing key for {} has been rotated from {} to {}",
+                alias,
+                existing.current().getKeyID(),
+                key.getKeyID());
+        rotations.incrementAndGet();
+        return new Entry(key, existing.current(), now + rotationWindowMillis, refreshAt, expiresAt);
+    }
+
+    private void publishMetricsIfDue() {
+        metricsPublisher.publishIfDue(
+                metricsService ->
+                        metricsService.putEmbeddedValues(
+                                Map.of(
+                                        SIGNING_KEY_REFRESHES.getValue(),
+                                        List.of((double) refreshes.getAndSet(0)),
+                                        SIGNING_KEY_REFRESH_FAILURES.getValue(),
+                                        List.of((double) refreshFailures.getAndSet(0)),
+                                        SIGNING_KEY_ROTATIONS.getValue(),
+                                        List.of((double) rotations.getAndSet(0))),
+                                Unit.COUNT,
+                                Map.of(
+                                        ENVIRONMENT.getValue(),
+                                        configurationService.getEnvironment())));
+    }
+
+    private record Entry(
+            JWK current, JWK previous, long previousUntil, long refreshAt, long expiresAt) {}
+}
@@ -29,10 +29,14 @@ import com.nimbusds.openid.connect.sdk.token.OIDCTokens;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kms.model.DisabledException;
 import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
+import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
 import software.amazon.awssdk.services.kms.model.SignRequest;
 import software.amazon.awssdk.services.kms.model.SignResponse;
 import software.amazon.awssdk.services.kms.model.SigningAlgorithmSpec;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
 import uk.gov.di.authentication.shared.entity.AccessTokenStore;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.RefreshTokenStore;
@@ -52,8 +56,15 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.TOKEN_TYPE;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.TOKEN_SIGNING_LATENCY;
+import static uk.gov.di.authentication.shared.helpers.ConcurrentLookupHelper.join;
 import static uk.gov.di.authentication.shared.helpers.ConstructUriHelper.buildURI;
 import static uk.gov.di.authentication.shared.helpers.HashHelper.hashSha256String;
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
@@ -63,6 +74,7 @@ public class TokenService {
     private final ConfigurationService configService;
     private final RedisConnectionService redisConnectionService;
     private final KmsConnectionService kmsConnectionService;
+    private final CloudwatchMetricsService metricsService;
     private static final JWSAlgorithm TOKEN_ALGORITHM = JWSAlgorithm.ES256;
     private static final Logger LOG = LogManager.getLogger(TokenService.class);
     private static final String REFRESH_TOKEN_PREFIX = "REFRESH_TOKEN:";
@@ -76,9 +88,18 @@ public class TokenService {
             ConfigurationService configService,
             RedisConnectionService redisConnectionService,
             KmsConnectionService kmsConnectionService) {
+        this(configService, redisConnectionService, kmsConnectionService, null);
+    }
+
+    public TokenService(
+            ConfigurationService configService,
+            RedisConnectionService redisConnectionService,
+            KmsConnectionService kmsConnectionService,
+            CloudwatchMetricsService metricsService) {
         this.configService = configService;
         this.redisConnectionService = redisConnectionService;
         this.kmsConnectionService = kmsConnectionService;
+        this.metricsService = metricsService;
     }
 
     public OIDCTokenResponse generateTokenResponse(
@@ -100,50 +121,55 @@ public class TokenService {
         } else {
             scopesForToken = authRequestScopes.toStringList();
         }
-        AccessToken accessToken =
-                segmentedFunctionCall(
-                        "generateAndStoreAccessToken",
-                        () ->
-                                generateAndStoreAccessToken(
-                                        clientID,
-                                        internalSubject,
-                                        scopesForToken,
-                                        subject,
-                                        claimsRequest,
-                                        signingAlgorithm));
+        boolean includeRefreshToken =
+                scopesForToken.contains(OIDCScopeValue.OFFLINE_ACCESS.getValue());
+        var signingLatencies = new ConcurrentHashMap<String, Double>();
+
+        var accessTokenSignature =
+                signAsync(
+                        accessTokenClaims(clientID, scopesForToken, subject, claimsRequest),
+                        signingAlgorithm,
+                        "access",
+                        signingLatencies);
+        JWTClaimsSet refreshTokenClaims =
+                includeRefreshToken ? refreshTokenClaims(clientID, scopesForToken, subject) : null;
+        var refreshTokenSignature =
+                includeRefreshToken
+                        ? signAsync(
+                                refreshTokenClaims, signingAlgorithm, "refresh", signingLatencies)
+                        : null;
+
+        AccessToken accessToken = toAccessToken(join(accessTokenSignature));
         AccessTokenHash accessTokenHash =
                 segmentedFunctionCall(
                         "AccessTokenHash.compute",
                         () -> AccessTokenHash.compute(accessToken, TOKEN_ALGORITHM, null));
-
-        SignedJWT idToken =
-                segmentedFunctionCall(
-                        "generateIDToken",
-                        () ->
-                                generateIDToken(
-                                        clientID,
-                                        subject,
-                                        additionalTokenClaims,
-                                        accessTokenHash,
-                                        vot,
-                                        isDocAppJourney,
-                                        signingAlgorithm,
-                                        journeyId));
-        if (scopesForToken.contains(OIDCScopeValue.OFFLINE_ACCESS.getValue())) {
-            RefreshToken refreshToken =
-                    segmentedFunctionCall(
-                            "generateAndStoreRefreshToken",
-                            () ->
-                                    generateAndStoreRefreshToken(
-                                            clientID,
-                                            internalSubject,
-                                            scopesForToken,
-                                            subject,
-                                            signingAlgorithm));
-            return new OIDCTokenResponse(new OIDCTokens(idToken, accessToken, refreshToken));
-        } else {
-            return new OIDCTokenResponse(new OIDCTokens(idToken, accessToken, null));
+        var idTokenSignature =
+                signAsync(
+                        idTokenClaims(
+                                clientID,
+                                subject,
+                                additionalTokenClaims,
+                                accessTokenHash,
+                                vot,
+                                isDocAppJourney,
+                                journeyId),
+                        signingAlgorithm,
+                        "id",
+                        signingLatencies);
+
+        segmentedFunctionCall(
+                "storeAccessToken",
+                () -> storeAccessToken(clientID, internalSubject, subject, accessToken));
+        SignedJWT idToken = segmentedFunctionCall("generateIDToken", () -> join(idTokenSignature));
+
+        RefreshToken refreshToken = null;
+        if (includeRefreshToken) {
+            refreshToken = new RefreshToken(join(refreshTokenSignature).serialize());
+            storeRefreshToken(refreshToken, refreshTokenClaims.getJWTID(), internalSubject);
         }
+        publishSigningLatencies(signingLatencies);
+        return new OIDCTokenResponse(new OIDCTokens(idToken, accessToken, refreshToken));
     }
 
     public OIDCTokenResponse generateRefreshTokenResponse(
@@ -152,12 +178,22 @@ public class TokenService {
             List<String> scopes,
             Subject subject,
             JWSAlgorithm signingAlgorithm) {
-        AccessToken accessToken =
-                generateAndStoreAccessToken(
-                        clientID, internalSubject, scopes, subject, null, signingAlgorithm);
-        RefreshToken refreshToken =
-                generateAndStoreRefreshToken(
-                        clientID, internalSubject, scopes, subject, signingAlgorithm);
+        var signingLatencies = new ConcurrentHashMap<String, Double>();
+        var accessTokenSignature =
+                signAsync(
+                        accessTokenClaims(clientID, scopes, subject, null),
+                        signingAlgorithm,
+                        "access",
+                        signingLatencies);
+        var refreshTokenClaims = refreshTokenClaims(clientID, scopes, subject);
+        var refreshTokenSignature =
+                signAsync(refreshTokenClaims, signingAlgorithm, "refresh", signingLatencies);
+
+        AccessToken accessToken = toAccessToken(join(accessTokenSignature));
+        storeAccessToken(clientID, internalSubject, subject, accessToken);
+        RefreshToken refreshToken = new RefreshToken(join(refreshTokenSignature).serialize());
+        storeRefreshToken(refreshToken, refreshTokenClaims.getJWTID(), internalSubject);
+        publishSigningLatencies(signingLatencies);
         return new OIDCTokenResponse(new OIDCTokens(accessToken, refreshToken));
     }
 
@@ -231,14 +267,13 @@ public class TokenService {
         return Optional.empty();
     }
 
-    private SignedJWT generateIDToken(
+    private JWTClaimsSet idTokenClaims(
             String clientId,
             Subject subject,
             Map<String, Object> additionalTokenClaims,
             AccessTokenHash accessTokenHash,
             String vot,
             boolean isDocAppJourney,
-            JWSAlgorithm signingAlgorithm,
             String journeyId) {
 
         LOG.info("Generating IdToken");
@@ -262,21 +297,18 @@ public class TokenService {
         idTokenClaims.setClaim("vtm", trustMarkUri.toString());
 
         try {
-            return generateSignedJWT(
-                    idTokenClaims.toJWTClaimsSet(), Optional.empty(), signingAlgorithm);
+            return idTokenClaims.toJWTClaimsSet();
         } catch (com.nimbusds.oauth2.sdk.ParseException e) {
             LOG.error("Error when trying to parse IDTokenClaims to JWTClaimSet", e);
             throw new RuntimeException(e);
         }
     }
 
-    private AccessToken generateAndStoreAccessToken(
+    private JWTClaimsSet accessTokenClaims(
             String clientId,
-            Subject internalSubject,
             List<String> scopes,
             Subject subject,
-            OIDCClaimsRequest claimsRequest,
-            JWSAlgorithm signingAlgorithm) {
+            OIDCClaimsRequest claimsRequest) {
 
         LOG.info("Generating AccessToken");
         Date expiryDate =
@@ -305,13 +337,16 @@ public class TokenService {
         } else {
             LOG.info("No identity claims to populate in access token");
         }
+        return claimSetBuilder.build();
+    }
 
-        SignedJWT signedJWT =
-                generateSignedJWT(claimSetBuilder.build(), Optional.empty(), signingAlgorithm);
-        AccessToken accessToken =
-                new BearerAccessToken(
-                        signedJWT.serialize(), configService.getAccessTokenExpiry(), null);
+    private AccessToken toAccessToken(SignedJWT signedJWT) {
+        return new BearerAccessToken(
+                signedJWT.serialize(), configService.getAccessTokenExpiry(), null);
+    }
 
+    private void storeAccessToken(
+            String clientId, Subject internalSubject, Subject subject, AccessToken accessToken) {
         try {
             redisConnectionService.saveWithExpiry(
                     ACCESS_TOKEN_PREFIX + clientId + "." + subject.getValue(),
@@ -323,31 +358,24 @@ public class TokenService {
             LOG.error("Unable to save access token to Redis");
             throw new RuntimeException(e);
         }
-        return accessToken;
     }
 
-    private RefreshToken generateAndStoreRefreshToken(
-            String clientId,
-            Subject internalSubject,
-            List<String> scopes,
-            Subject subject,
-            JWSAlgorithm signingAlgorithm) {
+    private JWTClaimsSet refreshTokenClaims(String clientId, List<String> scopes, Subject subject) {
         LOG.info("Generating RefreshToken");
         Date expiryDate = NowHelper.nowPlus(configService.getSessionExpiry(), ChronoUnit.SECONDS);
-        var jwtId = IdGenerator.generate();
-        JWTClaimsSet claimsSet =
-                new JWTClaimsSet.Builder()
-                        .claim("scope", scopes)
-                        .issuer(configService.getOidcApiBaseURL().get())
-                        .expirationTime(expiryDate)
-                        .issueTime(NowHelper.now())
-                        .claim("client_id", clientId)
-                        .subject(subject.getValue())
-                        .jwtID(jwtId)
-                        .build();
-        SignedJWT signedJWT = generateSignedJWT(claimsSet, Optional.empty(), signingAlgorithm);
-        RefreshToken refreshToken = new RefreshToken(signedJWT.serialize());
+        return new JWTClaimsSet.Builder()
+                .claim("scope", scopes)
+                .issuer(configService.getOidcApiBaseURL().get())
+                .expirationTime(expiryDate)
+                .issueTime(NowHelper.now())
+                .claim("client_id", clientId)
+                .subject(subject.getValue())
+                .jwtID(IdGenerator.generate())
+                .build();
+    }
 
+    private void storeRefreshToken(
+            RefreshToken refreshToken, String jwtId, Subject internalSubject) {
         String redisKey = REFRESH_TOKEN_PREFIX + jwtId;
         var store = new RefreshTokenStore(refreshToken.getValue(), internalSubject.toString());
         try {
@@ -358,48 +386,147 @@ public class TokenService {
         } catch (JsonException e) {
             throw new RuntimeException("Error serializing refresh token store", e);
         }
+    }
+
+    /*
+     * Sends the Sign request without waiting for it, so tokens that don't depend on each other are
+     * signed at the same time. The time each signature took is added to signingLatencies.
+     */
+    private CompletableFuture<SignedJWT> signAsync(
+            JWTClaimsSet claimsSet,
+            JWSAlgorithm algorithm,
+            String tokenType,
+            Map<String, Double> signingLatencies) {
+        var signingKey = signingKeyAlias(algorithm);
+        long startedAt = System.nanoTime();
+        return signAsync(claimsSet, algorithm, signingKey)
+                .exceptionallyCompose(
+                        e -> {
+                            var cause = e instanceof CompletionException ? e.getCause() : e;
+                            if (!isUnusableKey(cause)) {
+                                return CompletableFuture.failedFuture(cause);
+                            }
+                            kmsConnectionService.invalidatePublicKey(signingKey);
+                            return signAsync(claimsSet, algorithm, signingKey);
+                        })
+                .whenComplete(
+                        (signedJWT, e) ->
+                                signingLatencies.put(
+                                        tokenType, (System.nanoTime() - startedAt) / 1_000_000d));
+    }
+
+    private CompletableFuture<SignedJWT> signAsync(
+            JWTClaimsSet claimsSet, JWSAlgorithm algorithm, String signingKey) {
+        var signingInput = signingInput(claimsSet, Optional.empty(), algorithm, signingKey);
+        return kmsConnectionService
+                .signAsync(signingInput.signRequest())
+                .thenApply(signResult -> toSignedJWT(signingInput, signResult, algorithm));
+    }
 
-        return refreshToken;
+    private void publishSigningLatencies(Map<String, Double> signingLatencies) {
+        signingLatencies.forEach(
+                (tokenType, latency) ->
+                        LOG.info("Signed {} token in {} ms", tokenType, Math.round(latency)));
+        if (Objects.isNull(metricsService)) {
+            return;
+        }
+        try {
+            signingLatencies.forEach(
+                    (tokenType, latency) ->
+                            metricsService.putEmbeddedValues(
+                                    Map.of(TOKEN_SIGNING_LATENCY.getValue(), List.of(latency)),
+                                    Unit.MILLISECONDS,
+                                    Map.of(
+                                            ENVIRONMENT.getValue(),
+                                            configService.getEnvironment(),
+                                            TOKEN_TYPE.getValue(),
+                                            tokenType)));
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to publish token signing metrics", e);
+        }
     }
 
     public SignedJWT generateSignedJWT(
             JWTClaimsSet claimsSet, Optional<String> type, JWSAlgorithm algorithm) {
 
-        var signingKey =
-                algorithm == JWSAlgorithm.ES256
-                        ? configService.getTokenSigningKeyAlias()
-                        : configService.getTokenSigningKeyRsaAlias();
+        var signingKey = signingKeyAlias(algorithm);
+
+        try {
+            return generateSignedJWT(claimsSet, type, algorithm, signingKey);
+        } catch (DisabledException | NotFoundException | KmsInvalidStateException e) {
+            LOG.warn("Signing key {} is no longer usable, looking it up again", signingKey, e);
+            kmsConnectionService.invalidatePublicKey(signingKey);
+            return generateSignedJWT(claimsSet, type, algorithm, signingKey);
+        }
+    }
+
+    private SignedJWT generateSignedJWT(
+            JWTClaimsSet claimsSet,
+            Optional<String> type,
+            JWSAlgorithm algorithm,
+            String signingKey) {
+        var signingInput = signingInput(claimsSet, type, algorithm, signingKey);
+        SignResponse signResult = kmsConnectionService.sign(signingInput.signRequest());
+        return toSignedJWT(signingInput, signResult, algorithm);
+    }
+
+    private String signingKeyAlias(JWSAlgorithm algorithm) {
+        return algorithm == JWSAlgorithm.ES256
+                ? configService.getTokenSigningKeyAlias()
+                : configService.getTokenSigningKeyRsaAlias();
+    }
+
+    private boolean isUnusableKey(Throwable e) {
+        if (e instanceof DisabledException
+                || e instanceof NotFoundException
+                || e instanceof KmsInvalidStateException) {
+            LOG.warn("Signing key is no longer usable, looking it up again", e);
+            return true;
+        }
+        return false;
+    }
+
+    private SigningInput signingInput(
+            JWTClaimsSet claimsSet,
+            Optional<String> type,
+            JWSAlgorithm algorithm,
+            String signingKey) {
 
         var signingKeyId =
                 kmsConnectionService
                         .getPublicKey(GetPublicKeyRequest.builder().keyId(signingKey).build())
                         .keyId();
 
-        try {
-            var jwsHeader = new JWSHeader.Builder(algorithm).keyID(hashSha256String(signingKeyId));
-
-            type.map(JOSEObjectType::new).ifPresent(jwsHeader::type);
-
-            var signingAlgorithm =
-                    algorithm == JWSAlgorithm.ES256
-                            ? SigningAlgorithmSpec.ECDSA_SHA_256
-                            : SigningAlgorithmSpec.RSASSA_PKCS1_V1_5_SHA_256;
-
-            Base64URL encodedHeader = jwsHeader.build().toBase64URL();
-            Base64URL encodedClaims = Base64URL.encode(claimsSet.toString());
-            String message = encodedHeader + "." + encodedClaims;
-            SignRequest signRequest =
-                    SignRequest.builder()
-                            .message(SdkBytes.fromByteArray(message.getBytes()))
-                            .keyId(signingKeyId)
-                            .signingAlgorithm(signingAlgorithm)
-                            .build();
-            SignResponse signResult = kmsConnectionService.sign(signRequest);
-            LOG.info("Token has been signed successfully using {}", algorithm.getName());
+        var jwsHeader = new JWSHeader.Builder(algorithm).keyID(hashSha256String(signingKeyId));
 
+        type.map(JOSEObjectType::new).ifPresent(jwsHeader::type);
+
+        var signingAlgorithm =
+                algorithm == JWSAlgorithm.ES256
+                        ? SigningAlgorithmSpec.ECDSA_SHA_256
+                        : SigningAlgorithmSpec.RSASSA_PKCS1_V1_5_SHA_256;
+
+        Base64URL encodedHeader = jwsHeader.build().toBase64URL();
+        Base64URL encodedClaims = Base64URL.encode(claimsSet.toString());
+        String message = encodedHeader + "." + encodedClaims;
+        SignRequest signRequest =
+                SignRequest.builder()
+                        .message(SdkBytes.fromByteArray(message.getBytes()))
+                        .keyId(signingKeyId)
+                        .signingAlgorithm(signingAlgorithm)
+                        .build();
+        return new SigningInput(message, signRequest);
+    }
+
+    private SignedJWT toSignedJWT(
+            SigningInput signingInput, SignResponse signResult, JWSAlgorithm algorithm) {
+        LOG.info("Token has been signed successfully using {}", algorithm.getName());
+        try {
             if (algorithm == JWSAlgorithm.RS256) {
                 return SignedJWT.parse(
-                        message + "." + Base64URL.encode(signResult.signature().asByteArray()));
+                        signingInput.message()
+                                + "."
+                                + Base64URL.encode(signResult.signature().asByteArray()));
             }
 
             String signature =
@@ -408,10 +535,12 @@ public class TokenService {
                                             signResult.signature().asByteArray(),
                                             ECDSA.getSignatureByteArrayLength(algorithm)))
                             .toString();
-            return SignedJWT.parse(message + "." + signature);
+            return SignedJWT.parse(signingInput.message() + "." + signature);
         } catch (java.text.ParseException | JOSEException e) {
             LOG.error("Exception thrown when trying to parse SignedJWT or JWTClaimSet", e);
             throw new RuntimeException(e);
         }
     }
+
+    private record SigningInput(String message, SignRequest signRequest) {}
 }
@@ -2,8 +2,11 @@ package uk.gov.di.authentication.shared.services;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyType;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
@@ -12,20 +15,54 @@ import com.nimbusds.oauth2.sdk.token.RefreshToken;
 import com.nimbusds.openid.connect.sdk.OIDCScopeValue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
 import uk.gov.di.authentication.shared.helpers.NowHelper;
+import uk.gov.di.authentication.shared.helpers.ReadThroughCache;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetricDimensions.ENVIRONMENT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.TOKEN_VERIFIER_CACHE_HIT;
+import static uk.gov.di.authentication.shared.domain.CloudwatchMetrics.TOKEN_VERIFIER_CACHE_MISS;
 
 public class TokenValidationService {
 
     private final JwksService jwksService;
     private final ConfigurationService configuration;
+    private final PeriodicMetricsPublisher metricsPublisher;
     private static final Logger LOG = LogManager.getLogger(TokenValidationService.class);
+    private static final Duration VERIFIER_TTL = Duration.ofHours(1);
+    private static final int MAX_CACHED_VERIFIERS = 10;
+    private final ReadThroughCache<String, JWSVerifier> verifiers =
+            new ReadThroughCache<>(
+                    VERIFIER_TTL, Duration.ZERO, MAX_CACHED_VERIFIERS, Clock.systemUTC());
+    private long publishedHits = 0;
+    private long publishedMisses = 0;
 
     public TokenValidationService(JwksService jwksService, ConfigurationService configuration) {
+        this(jwksService, configuration, new PeriodicMetricsPublisher(null));
+    }
+
+    public TokenValidationService(
+            JwksService jwksService,
+            ConfigurationService configuration,
+            CloudwatchMetricsService metricsService) {
+        this(jwksService, configuration, new PeriodicMetricsPublisher(metricsService));
+    }
+
+    TokenValidationService(
+            JwksService jwksService,
+            ConfigurationService configuration,
+            PeriodicMetricsPublisher metricsPublisher) {
         this.jwksService = jwksService;
         this.configuration = configuration;
+        this.metricsPublisher = metricsPublisher;
     }
 
     public boolean validateAccessTokenSignature(AccessToken accessToken) {
@@ -61,16 +98,17 @@ public class TokenValidationService {
     public boolean isTokenSignatureValid(String tokenValue) {
         try {
             var jwt = SignedJWT.parse(tokenValue);
+            var useRsaKey =
+                    JWSAlgorithm.RS256 == jwt.getHeader().getAlgorithm()
+                            && configuration.isRsaSigningAvailable();
 
-            if (JWSAlgorithm.RS256 == jwt.getHeader().getAlgorithm()
-                    && configuration.isRsaSigningAvailable()) {
-                return jwt.verify(
-                        new RSASSAVerifier(
-                                jwksService.getPublicTokenRsaJwkWithOpaqueId().toRSAKey()));
-            } else {
-                return jwt.verify(
-                        new ECDSAVerifier(jwksService.getPublicTokenJwkWithOpaqueId().toECKey()));
-            }
+            var jwk =
+                    Optional.ofNullable(jwt.getHeader().getKeyID())
+                            .flatMap(keyId -> findSigningJwk(keyId, useRsaKey))
+                            .orElseGet(() -> currentSigningJwk(useRsaKey));
+            var verifier = getVerifier(jwk);
+            publishVerifierCacheMetricsIfDue();
+            return jwt.verify(verifier);
 
         } catch (JOSEException | java.text.ParseException e) {
             LOG.warn("Unable to validate Signature of Token", e);
@@ -78,6 +116,65 @@ public class TokenValidationService {
         }
     }
 
+    /*
+     * Only the token signing key the algorithm and configuration allow is searched, so a token
+     * carrying the ID of another key held by JwksService, such as the doc app signing key, is
+     * never checked against it.
+     */
+    private Optional<JWK> findSigningJwk(String keyId, boolean useRsaKey) {
+        return useRsaKey
+                ? jwksService.findPublicTokenRsaJwkWithKeyId(keyId)
+                : jwksService.findPublicTokenJwkWithKeyId(keyId);
+    }
+
+    private JWK currentSigningJwk(boolean useRsaKey) {
+        return useRsaKey
+                ? jwksService.getPublicTokenRsaJwkWithOpaqueId()
+                : jwksService.getPublicTokenJwkWithOpaqueId();
+    }
+
+    /*
+     * Verifiers are thread-safe, so one is built per signing key and reused for every token. They
+     * are keyed by key ID, so a rotated key gets a new verifier while tokens signed with the
+     * previous one can still be checked until its verifier expires.
+     */
+    private JWSVerifier getVerifier(JWK jwk) throws JOSEException {
+        var cacheKey = isNull(jwk.getKeyID()) ? jwk.computeThumbprint().toString() : jwk.getKeyID();
+        return verifiers
+                .get(cacheKey, keyId -> createVerifier(jwk))
+                .orElseThrow(() -> new JOSEException("Unable to create verifier for key"));
+    }
+
+    private static Optional<JWSVerifier> createVerifier(JWK jwk) {
+        try {
+            if (KeyType.RSA.equals(jwk.getKeyType())) {
+                return Optional.of(new RSASSAVerifier(jwk.toRSAKey()));
+            }
+            return Optional.of(new ECDSAVerifier(jwk.toECKey()));
+        } catch (JOSEException e) {
+            LOG.warn("Unable to create verifier for key {}", jwk.getKeyID(), e);
+            return Optional.empty();
+        }
+    }
+
+    private void publishVerifierCacheMetricsIfDue() {
+        metricsPublisher.publishIfDue(
+                metricsService -> {
+                    var hits = verifiers.hits() - publishedHits;
+                    var misses = verifiers.misses() - publishedMisses;
+                    publishedHits += hits;
+                    publishedMisses += misses;
+                    metricsService.putEmbeddedValues(
+                            Map.of(
+                                    TOKEN_VERIFIER_CACHE_HIT.getValue(),
+                                    List.of((double) hits),
+                                    TOKEN_VERIFIER_CACHE_MISS.getValue(),
+                                    List.of((double) misses)),
+                            Unit.COUNT,
+                            Map.of(ENVIRONMENT.getValue(), configuration.getEnvironment()));
+                });
+    }
+
     public boolean validateRefreshTokenScopes(
             List<String> clientScopes, List<String> refreshTokenScopes) {
         if (!clientScopes.containsAll(refreshTokenScopes)) {
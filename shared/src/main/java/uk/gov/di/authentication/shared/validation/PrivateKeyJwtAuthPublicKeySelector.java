@@ -17,14 +17,23 @@ import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 public class PrivateKeyJwtAuthPublicKeySelector implements ClientCredentialsSelector<String> {
     private final String publicKey;
     private final KeyType keyType;
+    private final PublicKey parsedPublicKey;
 
     public PrivateKeyJwtAuthPublicKeySelector(String publicKey, KeyType keyType) {
         this.publicKey = publicKey;
         this.keyType = keyType;
+        this.parsedPublicKey = null;
+    }
+
+    public PrivateKeyJwtAuthPublicKeySelector(PublicKey parsedPublicKey) {
+        this.publicKey = null;
+        this.keyType = null;
+        this.parsedPublicKey = parsedPublicKey;
     }
 
     @Override
@@ -43,6 +52,12 @@ public class PrivateKeyJwtAuthPublicKeySelector implements ClientCredentialsSele
             boolean forceRefresh,
             Context<String> context)
             throws InvalidClientException {
+        if (Objects.nonNull(parsedPublicKey)) {
+            return Collections.singletonList(parsedPublicKey);
+        }
+        if (Objects.isNull(publicKey)) {
+            throw new InvalidClientException("No valid public key registered for client");
+        }
         byte[] decodedKey = Base64.getMimeDecoder().decode(publicKey);
         try {
             X509EncodedKeySpec ecPublicKeySpec = new X509EncodedKeySpec(decodedKey);
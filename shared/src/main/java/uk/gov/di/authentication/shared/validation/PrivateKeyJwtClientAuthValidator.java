@@ -1,7 +1,6 @@
 package uk.gov.di.authentication.shared.validation;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.jwk.KeyType;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
@@ -52,7 +51,8 @@ public class PrivateKeyJwtClientAuthValidator extends TokenClientAuthValidator {
                 LOG.warn("Invalid ClientID in PrivateKeyJWT");
                 throw new InvalidClientException("ClientID missing from PrivateKeyJWT");
             }
-            var clientRegistry = getClientRegistryFromTokenAuth(privateKeyJWT.getClientID());
+            var compiledClient = getCompiledClientFromTokenAuth(privateKeyJWT.getClientID());
+            var clientRegistry = compiledClient.getClientRegistry();
             attachLogFieldToLogs(CLIENT_ID, clientRegistry.getClientID());
             addAnnotation("client_id", clientRegistry.getClientID());
             var tokenUrl =
@@ -81,7 +81,7 @@ public class PrivateKeyJwtClientAuthValidator extends TokenClientAuthValidator {
             ClientAuthenticationVerifier<?> authenticationVerifier =
                     new ClientAuthenticationVerifier<>(
                             new PrivateKeyJwtAuthPublicKeySelector(
-                                    clientRegistry.getPublicKey(), KeyType.RSA),
+                                    compiledClient.getPublicKey().orElse(null)),
                             Collections.singleton(new Audience(tokenUrl)));
             authenticationVerifier.verify(privateKeyJWT, null, null);
             return clientRegistry;
@@ -5,6 +5,7 @@ import com.nimbusds.oauth2.sdk.id.ClientID;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.exceptions.TokenAuthInvalidException;
 import uk.gov.di.authentication.shared.services.DynamoClientService;
 
@@ -32,4 +33,14 @@ public abstract class TokenClientAuthValidator {
                                 new InvalidClientException(
                                         "Invalid ClientID: " + clientID.getValue()));
     }
+
+    protected CompiledClientRegistry getCompiledClientFromTokenAuth(ClientID clientID)
+            throws InvalidClientException {
+        return dynamoClientService
+                .getCompiledClient(clientID.getValue())
+                .orElseThrow(
+                        () ->
+                                new InvalidClientException(
+                                        "Invalid ClientID: " + clientID.getValue()));
+    }
 }
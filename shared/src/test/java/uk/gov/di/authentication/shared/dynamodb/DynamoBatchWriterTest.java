@@ -0,0 +1,137 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import uk.gov.di.authentication.shared.entity.BulkEmailUser;
+import uk.gov.di.authentication.shared.exceptions.UnprocessedItemsException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DynamoBatchWriterTest {
+
+    private static final String TABLE_NAME = "bulk-email-users";
+    private static final BatchWriteItemResponse ALL_PROCESSED =
+            BatchWriteItemResponse.builder().build();
+
+    private final DynamoDbClient client = mock(DynamoDbClient.class);
+
+    @SuppressWarnings("unchecked")
+    private final DynamoDbTable<BulkEmailUser> table = mock(DynamoDbTable.class);
+
+    private final DynamoBatchWriter<BulkEmailUser> writer =
+            new DynamoBatchWriter<>(client, table, 0);
+
+    @BeforeEach
+    void setUp() {
+        when(table.tableName()).thenReturn(TABLE_NAME);
+        when(table.tableSchema()).thenReturn(TableSchema.fromBean(BulkEmailUser.class));
+    }
+
+    @Test
+    void shouldWriteInBatchesOf25AndFlushTheRestOnClose() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(ALL_PROCESSED);
+
+        for (int i = 0; i < 60; i++) {
+            writer.put(user(i));
+        }
+        verify(client, times(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+        writer.close();
+
+        assertThat(writtenBatchSizes(3), equalTo(List.of(25, 25, 10)));
+        assertThat(writer.written(), equalTo(60L));
+    }
+
+    @Test
+    void shouldNotWriteAnythingWhenNothingIsBuffered() {
+        writer.close();
+
+        verify(client, never()).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void shouldRetryOnlyTheItemsLeftUnprocessed() {
+        var unprocessed = List.of(putRequest(3), putRequest(7));
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(
+                        BatchWriteItemResponse.builder()
+                                .unprocessedItems(Map.of(TABLE_NAME, unprocessed))
+                                .build())
+                .thenReturn(ALL_PROCESSED);
+
+        for (int i = 0; i < 10; i++) {
+            writer.put(user(i));
+        }
+        writer.close();
+
+        var requests = capturedRequests(2);
+        assertThat(requests.get(1).requestItems(), equalTo(Map.of(TABLE_NAME, unprocessed)));
+        assertThat(writer.written(), equalTo(10L));
+    }
+
+    @Test
+    void shouldRetryABatchRejectedForThrottling() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(ProvisionedThroughputExceededException.builder().build())
+                .thenReturn(ALL_PROCESSED);
+
+        writer.put(user(1)).flush();
+
+        var requests = capturedRequests(2);
+        assertThat(requests.get(1), equalTo(requests.get(0)));
+    }
+
+    @Test
+    void shouldThrowOnceRetriesAreExhausted() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(
+                        BatchWriteItemResponse.builder()
+                                .unprocessedItems(Map.of(TABLE_NAME, List.of(putRequest(1))))
+                                .build());
+
+        writer.put(user(1));
+
+        assertThrows(UnprocessedItemsException.class, writer::flush);
+        verify(client, times(8)).batchWriteItem(any(BatchWriteItemRequest.class));
+        assertThat(writer.written(), equalTo(0L));
+    }
+
+    private List<BatchWriteItemRequest> capturedRequests(int count) {
+        var captor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(client, times(count)).batchWriteItem(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private List<Integer> writtenBatchSizes(int count) {
+        return capturedRequests(count).stream()
+                .map(request -> request.requestItems().get(TABLE_NAME).size())
+                .collect(Collectors.toList());
+    }
+
+    private WriteRequest putRequest(int index) {
+        return BatchWrites.putRequest(table, user(index));
+    }
+
+    private static BulkEmailUser user(int index) {
+        return new BulkEmailUser().withSubjectID("subject-" + index);
+    }
+}
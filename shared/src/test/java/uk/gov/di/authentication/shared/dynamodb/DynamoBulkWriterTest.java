@@ -0,0 +1,182 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import uk.gov.di.authentication.shared.entity.UserCredentials;
+import uk.gov.di.authentication.shared.entity.UserProfile;
+import uk.gov.di.authentication.shared.exceptions.UnprocessedItemsException;
+import uk.gov.di.authentication.shared.services.CloudwatchMetricsService;
+import uk.gov.di.authentication.shared.services.PeriodicMetricsPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DynamoBulkWriterTest {
+
+    private static final String PROFILE_TABLE = "user-profile";
+    private static final String CREDENTIALS_TABLE = "user-credentials";
+    private static final BatchWriteItemResponse ALL_PROCESSED =
+            BatchWriteItemResponse.builder().build();
+
+    private final DynamoDbClient client = mock(DynamoDbClient.class);
+    private final PeriodicMetricsPublisher metricsPublisher = mock(PeriodicMetricsPublisher.class);
+    private final CloudwatchMetricsService metricsService = mock(CloudwatchMetricsService.class);
+
+    @SuppressWarnings("unchecked")
+    private final DynamoDbTable<UserProfile> profileTable = mock(DynamoDbTable.class);
+
+    @SuppressWarnings("unchecked")
+    private final DynamoDbTable<UserCredentials> credentialsTable = mock(DynamoDbTable.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(profileTable.tableName()).thenReturn(PROFILE_TABLE);
+        when(profileTable.tableSchema()).thenReturn(TableSchema.fromBean(UserProfile.class));
+        when(credentialsTable.tableName()).thenReturn(CREDENTIALS_TABLE);
+        when(credentialsTable.tableSchema())
+                .thenReturn(TableSchema.fromBean(UserCredentials.class));
+        doAnswer(
+                        invocation -> {
+                            invocation.<Consumer<CloudwatchMetricsService>>getArgument(0)
+                                    .accept(metricsService);
+                            return null;
+                        })
+                .when(metricsPublisher)
+                .publishNow(any(Consumer.class));
+    }
+
+    @Test
+    void shouldWriteEveryItemAcrossTablesInBatchesOfAtMost25() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(ALL_PROCESSED);
+
+        var writer = writer(4);
+        for (int i = 0; i < 60; i++) {
+            writer.put(profileTable, profile(i)).delete(credentialsTable, key(i));
+        }
+        writer.close();
+
+        var requests = capturedRequests(5);
+        requests.forEach(request -> assertThat(itemCount(request), lessThanOrEqualTo(25)));
+        assertThat(requests.stream().mapToInt(this::itemCount).sum(), equalTo(120));
+        assertThat(writer.written(), equalTo(120L));
+    }
+
+    @Test
+    void shouldCarryOnPastABatchThatCannotBeWritten() {
+        var cause = DynamoDbException.builder().message("Validation error").build();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(cause)
+                .thenReturn(ALL_PROCESSED);
+
+        var writer = writer(1);
+        for (int i = 0; i < 100; i++) {
+            writer.put(profileTable, profile(i));
+        }
+
+        var exception = assertThrows(UnprocessedItemsException.class, writer::close);
+        assertThat(exception.getMessage(), equalTo("Unable to write 25 of 100 items"));
+        assertThat(exception.getCause(), equalTo(cause));
+        verify(client, times(4)).batchWriteItem(any(BatchWriteItemRequest.class));
+        assertThat(writer.written(), equalTo(75L));
+        assertThat(writer.failed(), equalTo(25L));
+    }
+
+    @Test
+    void shouldBlockAddingOnceEveryThreadHasABatchQueued() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            release.await();
+                            return ALL_PROCESSED;
+                        });
+        var writer = writer(1);
+
+        var adder =
+                new Thread(
+                        () -> {
+                            for (int i = 0; i < 100; i++) {
+                                writer.put(profileTable, profile(i));
+                            }
+                        });
+        adder.start();
+        while (adder.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+        verify(client, times(1)).batchWriteItem(any(BatchWriteItemRequest.class));
+
+        release.countDown();
+        adder.join();
+        writer.close();
+
+        verify(client, times(4)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void shouldPublishWrittenAndFailedItemCountsWhenClosed() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(ALL_PROCESSED)
+                .thenThrow(DynamoDbException.builder().message("Validation error").build());
+
+        var writer = writer(1);
+        for (int i = 0; i < 30; i++) {
+            writer.put(profileTable, profile(i));
+        }
+
+        assertThrows(UnprocessedItemsException.class, writer::close);
+        verify(metricsService)
+                .putEmbeddedValues(
+                        Map.of(
+                                "BulkWriteItems",
+                                List.of(25.0),
+                                "BulkWriteFailedItems",
+                                List.of(5.0)),
+                        Unit.COUNT,
+                        Map.of("Environment", "test"));
+    }
+
+    private DynamoBulkWriter writer(int concurrency) {
+        return new DynamoBulkWriter(client, concurrency, metricsPublisher, "test", 0);
+    }
+
+    private List<BatchWriteItemRequest> capturedRequests(int count) {
+        var captor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(client, times(count)).batchWriteItem(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private int itemCount(BatchWriteItemRequest request) {
+        return request.requestItems().values().stream().mapToInt(List::size).sum();
+    }
+
+    private static UserProfile profile(int index) {
+        return new UserProfile().withEmail("user-" + index + "@example.com");
+    }
+
+    private static Key key(int index) {
+        return Key.builder().partitionValue("user-" + index + "@example.com").build();
+    }
+}
@@ -0,0 +1,175 @@
+package uk.gov.di.authentication.shared.dynamodb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import uk.gov.di.authentication.shared.entity.UserProfile;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DynamoUpdateTest {
+
+    private static final String EMAIL = "joe.bloggs@digital.cabinet-office.gov.uk";
+    private static final String PHONE_NUMBER = "+447700900000";
+    private static final String UPDATED = "2021-11-01T10:00:00.000";
+
+    @SuppressWarnings("unchecked")
+    private final DynamoDbTable<UserProfile> table = mock(DynamoDbTable.class);
+
+    @BeforeEach
+    void setUp() {
+        when(table.tableName()).thenReturn("user-profile");
+        when(table.tableSchema()).thenReturn(TableSchema.fromBean(UserProfile.class));
+    }
+
+    @Test
+    void shouldSetOnlyTheNamedAttributesOfAnExistingItem() {
+        var request =
+                new DynamoUpdate<>(
+                                table,
+                                new UserProfile()
+                                        .withPhoneNumber(PHONE_NUMBER)
+                                        .withUpdated(UPDATED)
+                                        .withCreated(UPDATED))
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER, UserProfile.ATTRIBUTE_UPDATED)
+                        .toRequest(EMAIL);
+
+        assertThat(request.tableName(), equalTo("user-profile"));
+        assertThat(request.key(), equalTo(Map.of("Email", AttributeValue.fromS(EMAIL))));
+        assertThat(request.updateExpression(), equalTo("SET #a0 = :v0, #a1 = :v1"));
+        assertThat(request.conditionExpression(), equalTo("attribute_exists(#a2)"));
+        assertThat(
+                request.expressionAttributeNames(),
+                equalTo(Map.of("#a0", "PhoneNumber", "#a1", "Updated", "#a2", "Email")));
+        assertThat(
+                request.expressionAttributeValues(),
+                equalTo(
+                        Map.of(
+                                ":v0",
+                                AttributeValue.fromS(PHONE_NUMBER),
+                                ":v1",
+                                AttributeValue.fromS(UPDATED))));
+        assertThat(
+                request.returnValuesOnConditionCheckFailure(),
+                equalTo(ReturnValuesOnConditionCheckFailure.ALL_OLD));
+    }
+
+    @Test
+    void shouldRemoveAttributesWithoutAValue() {
+        var request =
+                new DynamoUpdate<>(table, new UserProfile().withUpdated(UPDATED))
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER, UserProfile.ATTRIBUTE_UPDATED)
+                        .remove(UserProfile.ATTRIBUTE_LEGACY_SUBJECT_ID)
+                        .toRequest(EMAIL);
+
+        assertThat(request.updateExpression(), equalTo("SET #a1 = :v0 REMOVE #a0, #a2"));
+        assertThat(
+                request.expressionAttributeNames(),
+                equalTo(
+                        Map.of(
+                                "#a0",
+                                "PhoneNumber",
+                                "#a1",
+                                "Updated",
+                                "#a2",
+                                "LegacySubjectID",
+                                "#a3",
+                                "Email")));
+        assertThat(
+                request.expressionAttributeValues(),
+                equalTo(Map.of(":v0", AttributeValue.fromS(UPDATED))));
+    }
+
+    @Test
+    void shouldLeaveOutExpressionValuesWhenOnlyRemoving() {
+        var request =
+                new DynamoUpdate<>(table, new UserProfile())
+                        .remove(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .toRequest(EMAIL);
+
+        assertThat(request.updateExpression(), equalTo("REMOVE #a0"));
+        assertThat(request.hasExpressionAttributeValues(), is(false));
+    }
+
+    @Test
+    void shouldOnlyUseTheLastOfSetOrRemoveForAnAttribute() {
+        var profile = new UserProfile().withPhoneNumber(PHONE_NUMBER);
+
+        var setLast =
+                new DynamoUpdate<>(table, profile)
+                        .remove(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .toRequest(EMAIL);
+        var removeLast =
+                new DynamoUpdate<>(table, profile)
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .remove(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .toRequest(EMAIL);
+
+        assertThat(setLast.updateExpression(), equalTo("SET #a0 = :v0"));
+        assertThat(removeLast.updateExpression(), equalTo("REMOVE #a0"));
+    }
+
+    @Test
+    void shouldGiveTheVersionConditionItsOwnPlaceholders() {
+        var request =
+                new DynamoUpdate<>(
+                                table,
+                                new UserProfile()
+                                        .withPhoneNumber(PHONE_NUMBER)
+                                        .withUpdated(UPDATED))
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER, UserProfile.ATTRIBUTE_UPDATED)
+                        .ifUnchangedSince(UserProfile.ATTRIBUTE_UPDATED, "2021-10-01T10:00:00.000")
+                        .toRequest(EMAIL);
+
+        assertThat(request.updateExpression(), equalTo("SET #a0 = :v0, #a1 = :v1"));
+        assertThat(
+                request.conditionExpression(),
+                equalTo("attribute_exists(#a2) AND #a3 = :expected"));
+        assertThat(request.expressionAttributeNames().get("#a3"), equalTo("Updated"));
+        assertThat(
+                request.expressionAttributeValues().get(":v1"),
+                equalTo(AttributeValue.fromS(UPDATED)));
+        assertThat(
+                request.expressionAttributeValues().get(":expected"),
+                equalTo(AttributeValue.fromS("2021-10-01T10:00:00.000")));
+    }
+
+    @Test
+    void shouldRequireNoVersionWhenTheItemHasNeverBeenUpdated() {
+        var request =
+                new DynamoUpdate<>(table, new UserProfile().withUpdated(UPDATED))
+                        .set(UserProfile.ATTRIBUTE_UPDATED)
+                        .ifUnchangedSince(UserProfile.ATTRIBUTE_UPDATED, null)
+                        .toRequest(EMAIL);
+
+        assertThat(
+                request.conditionExpression(),
+                equalTo("attribute_exists(#a1) AND attribute_not_exists(#a2)"));
+        assertThat(request.expressionAttributeValues().containsKey(":expected"), is(false));
+    }
+
+    @Test
+    void shouldOnlySetAnAttributeWhichIsAbsentWhenAsked() {
+        var request =
+                new DynamoUpdate<>(table, new UserProfile().withPhoneNumber(PHONE_NUMBER))
+                        .set(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .ifAbsent(UserProfile.ATTRIBUTE_PHONE_NUMBER)
+                        .toRequest(EMAIL);
+
+        assertThat(request.updateExpression(), equalTo("SET #a0 = :v0"));
+        assertThat(
+                request.conditionExpression(),
+                equalTo("attribute_exists(#a1) AND attribute_not_exists(#a2)"));
+        assertThat(request.expressionAttributeNames().get("#a2"), equalTo("PhoneNumber"));
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.di.authentication.shared.entity;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.sharedtest.helper.KeyPairHelper;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledClientRegistryTest {
+
+    private static final String INTERNAL_SECTOR_URI = "https://test.account.gov.uk";
+
+    @Test
+    void shouldDecodeTheClientPublicKeyOnce() {
+        var keyPair = KeyPairHelper.GENERATE_RSA_KEY_PAIR();
+        var client =
+                new ClientRegistry()
+                        .withClientID("client-id")
+                        .withPublicKey(
+                                Base64.getMimeEncoder()
+                                        .encodeToString(keyPair.getPublic().getEncoded()));
+
+        var compiled = CompiledClientRegistry.compile(client, INTERNAL_SECTOR_URI);
+
+        assertThat(compiled.getPublicKey().orElseThrow(), equalTo(keyPair.getPublic()));
+        assertTrue(compiled.getVerifier().isPresent());
+    }
+
+    @Test
+    void shouldHaveNoVerifierWhenThePublicKeyIsInvalid() {
+        var client = new ClientRegistry().withClientID("client-id").withPublicKey("not-a-key");
+
+        var compiled = CompiledClientRegistry.compile(client, INTERNAL_SECTOR_URI);
+
+        assertTrue(compiled.getPublicKey().isEmpty());
+        assertTrue(compiled.getVerifier().isEmpty());
+    }
+
+    @Test
+    void shouldMatchRegisteredRedirectUrls() {
+        var client =
+                new ClientRegistry()
+                        .withRedirectUrls(List.of("https://rp.gov.uk/callback"))
+                        .withPostLogoutRedirectUrls(List.of("https://rp.gov.uk/signed-out"));
+
+        var compiled = CompiledClientRegistry.compile(client, INTERNAL_SECTOR_URI);
+
+        assertTrue(compiled.isRedirectUrlRegistered("https://rp.gov.uk/callback"));
+        assertFalse(compiled.isRedirectUrlRegistered("https://rp.gov.uk/other"));
+        assertTrue(compiled.isPostLogoutRedirectUrlRegistered("https://rp.gov.uk/signed-out"));
+        assertFalse(compiled.isPostLogoutRedirectUrlRegistered("https://rp.gov.uk/callback"));
+    }
+
+    @Test
+    void shouldWorkOutTheSectorIdentifier() {
+        var client =
+                new ClientRegistry()
+                        .withRedirectUrls(List.of("https://www.rp.gov.uk/callback"))
+                        .withSectorIdentifierUri("https://sector.gov.uk");
+
+        var compiled = CompiledClientRegistry.compile(client, INTERNAL_SECTOR_URI);
+
+        assertThat(compiled.getSectorIdentifier(), equalTo("sector.gov.uk"));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import uk.gov.di.authentication.shared.entity.ClientConsent;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.entity.ValidScopes;
 import uk.gov.di.authentication.shared.services.AuthenticationService;
@@ -109,6 +110,28 @@ class ClientSubjectHelperTest {
         assertEquals(subject1, subject2);
     }
 
+    @Test
+    void shouldReturnSameSubjectIDForCompiledClientAsForClientRegistry() {
+        var clientRegistry =
+                generateClientRegistryPairwise(
+                        keyPair,
+                        "test-client-id-1",
+                        PAIRWISE.toString(),
+                        "https://test.com",
+                        false);
+
+        var subject =
+                ClientSubjectHelper.getSubject(
+                        userProfile, clientRegistry, authenticationService, INTERNAL_SECTOR_URI);
+        var compiledSubject =
+                ClientSubjectHelper.getSubject(
+                        userProfile,
+                        CompiledClientRegistry.compile(clientRegistry, INTERNAL_SECTOR_URI),
+                        authenticationService);
+
+        assertEquals(subject, compiledSubject);
+    }
+
     @Test
     void shouldReturnSameSubjectIDForMultipleClientsWithPublicSubjectType() {
         ClientRegistry clientRegistry1 =
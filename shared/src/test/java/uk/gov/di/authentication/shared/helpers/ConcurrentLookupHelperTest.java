@@ -0,0 +1,71 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.di.authentication.shared.helpers.ConcurrentLookupHelper.join;
+import static uk.gov.di.authentication.shared.helpers.ConcurrentLookupHelper.lookup;
+
+class ConcurrentLookupHelperTest {
+
+    @AfterEach
+    void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    void shouldRunLookupsAlongsideEachOther() {
+        var bothStarted = new CountDownLatch(2);
+        var first = lookup(() -> awaitOther(bothStarted));
+        var second = lookup(() -> awaitOther(bothStarted));
+
+        assertThat(join(first), equalTo(true));
+        assertThat(join(second), equalTo(true));
+    }
+
+    @Test
+    void shouldRunLookupOffTheCallingThread() {
+        var callingThread = Thread.currentThread().getName();
+
+        assertThat(join(lookup(() -> Thread.currentThread().getName())), not(callingThread));
+    }
+
+    @Test
+    void shouldCarryLogContextToLookupThread() {
+        ThreadContext.put("session-id", "a-session-id");
+
+        assertThat(join(lookup(() -> ThreadContext.get("session-id"))), equalTo("a-session-id"));
+    }
+
+    @Test
+    void shouldRethrowTheExceptionTheLookupFailedWith() {
+        var exception =
+                assertThrows(
+                        IllegalStateException.class,
+                        () ->
+                                join(
+                                        lookup(
+                                                () -> {
+                                                    throw new IllegalStateException("failed");
+                                                })));
+
+        assertThat(exception.getMessage(), equalTo("failed"));
+    }
+
+    private static boolean awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
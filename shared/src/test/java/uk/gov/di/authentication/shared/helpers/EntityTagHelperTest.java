@@ -0,0 +1,42 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.entityTag;
+import static uk.gov.di.authentication.shared.helpers.EntityTagHelper.ifNoneMatchHeaderMatches;
+
+class EntityTagHelperTest {
+
+    private static final String ENTITY_TAG = entityTag("{\"keys\":[]}");
+
+    @Test
+    void shouldGiveTheSameQuotedTagForTheSameBody() {
+        assertThat(entityTag("{\"keys\":[]}"), equalTo(ENTITY_TAG));
+        assertThat(entityTag("{\"keys\":[{}]}"), not(equalTo(ENTITY_TAG)));
+        assertTrue(ENTITY_TAG.startsWith("\"") && ENTITY_TAG.endsWith("\""));
+    }
+
+    @Test
+    void shouldMatchAnyTagListedInIfNoneMatch() {
+        assertTrue(
+                ifNoneMatchHeaderMatches(
+                        Map.of("If-None-Match", "\"other\", " + ENTITY_TAG), ENTITY_TAG));
+        assertTrue(ifNoneMatchHeaderMatches(Map.of("if-none-match", ENTITY_TAG), ENTITY_TAG));
+        assertTrue(
+                ifNoneMatchHeaderMatches(Map.of("If-None-Match", "W/" + ENTITY_TAG), ENTITY_TAG));
+        assertTrue(ifNoneMatchHeaderMatches(Map.of("If-None-Match", "*"), ENTITY_TAG));
+    }
+
+    @Test
+    void shouldNotMatchWhenIfNoneMatchIsMissingOrDifferent() {
+        assertFalse(ifNoneMatchHeaderMatches(null, ENTITY_TAG));
+        assertFalse(ifNoneMatchHeaderMatches(Map.of("If-None-Match", "\"other\""), ENTITY_TAG));
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.di.authentication.shared.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadThroughCacheTest {
+
+    private final Clock clock = mock(Clock.class);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ReadThroughCache<String, String> cache =
+            new ReadThroughCache<>(Duration.ofSeconds(60), Duration.ofSeconds(10), 2, clock);
+
+    @Test
+    void shouldOnlyLoadAValueOnceWithinItsTtl() {
+        assertThat(cache.get("key", this::load), equalTo(Optional.of("value-for-key")));
+        assertThat(cache.get("key", this::load), equalTo(Optional.of("value-for-key")));
+
+        assertThat(loads.get(), equalTo(1));
+        assertThat(cache.hits(), equalTo(1L));
+        assertThat(cache.misses(), equalTo(1L));
+    }
+
+    @Test
+    void shouldKeepAbsentValuesForTheNegativeTtl() {
+        cache.get("unknown", key -> loadAbsent());
+        when(clock.millis()).thenReturn(9_000L);
+        cache.get("unknown", key -> loadAbsent());
+        when(clock.millis()).thenReturn(11_000L);
+        cache.get("unknown", key -> loadAbsent());
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedEntryOnceFull() {
+        cache.get("first", this::load);
+        cache.get("second", this::load);
+        cache.get("first", this::load);
+        cache.get("third", this::load);
+
+        cache.get("first", this::load);
+        assertThat(loads.get(), equalTo(3));
+        cache.get("second", this::load);
+        assertThat(loads.get(), equalTo(4));
+    }
+
+    @Test
+    void shouldReloadAnInvalidatedKey() {
+        cache.get("key", this::load);
+        cache.get("other", this::load);
+        cache.invalidate("key");
+        cache.get("key", this::load);
+        cache.get("other", this::load);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void shouldNotCacheALoadThatStartedBeforeInvalidation() {
+        var pending = new CompletableFuture<Optional<String>>();
+        var result = cache.getAsync("key", key -> pending);
+
+        cache.invalidateAll();
+        pending.complete(Optional.of("stale"));
+
+        assertThat(result.join(), equalTo(Optional.of("stale")));
+        assertThat(cache.get("key", this::load), equalTo(Optional.of("value-for-key")));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    private Optional<String> load(String key) {
+        loads.incrementAndGet();
+        return Optional.of("value-for-" + key);
+    }
+
+    private Optional<String> loadAbsent() {
+        loads.incrementAndGet();
+        return Optional.empty();
+    }
+}
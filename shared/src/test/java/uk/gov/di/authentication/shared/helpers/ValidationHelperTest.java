@@ -364,10 +364,10 @@ class ValidationHelperTest {
 
         var codeStorageService = mock(CodeStorageService.class);
 
-        // This simulates the Redis increment counter's side effect which isn't captured
+        // The increment returns the new count, including this attempt
         previousAttempts++;
 
-        when(codeStorageService.getIncorrectMfaCodeAttemptsCount(EMAIL_ADDRESS))
+        when(codeStorageService.increaseIncorrectMfaCodeAttemptsCount(EMAIL_ADDRESS))
                 .thenReturn(previousAttempts);
 
         assertEquals(
@@ -0,0 +1,155 @@
+package uk.gov.di.authentication.shared.serialization;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nimbusds.oauth2.sdk.id.Subject;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.CodeRequestType;
+import uk.gov.di.authentication.shared.entity.CredentialTrustLevel;
+import uk.gov.di.authentication.shared.entity.LevelOfConfidence;
+import uk.gov.di.authentication.shared.entity.MFAMethodType;
+import uk.gov.di.authentication.shared.entity.Session;
+import uk.gov.di.authentication.shared.entity.VectorOfTrust;
+import uk.gov.di.authentication.shared.services.SerializationService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactSessionCodecTest {
+
+    private final CompactSessionCodec codec = new CompactSessionCodec();
+
+    @Test
+    void shouldRoundTripSession() throws Json.JsonException {
+        var session =
+                new Session("session-id")
+                        .addClientSession("client-session-1")
+                        .addClientSession("client-session-2")
+                        .setEmailAddress("joe.bloggs@digital.cabinet-office.gov.uk")
+                        .setCurrentCredentialStrength(CredentialTrustLevel.MEDIUM_LEVEL)
+                        .setNewAccount(Session.AccountState.EXISTING)
+                        .setAuthenticated(true)
+                        .setVerifiedMfaMethodType(MFAMethodType.SMS)
+                        .setInternalCommonSubjectIdentifier("internal-subject")
+                        .setCodeRequestCount(CodeRequestType.SMS_SIGN_IN, 3)
+                        .incrementPasswordResetCount();
+        session.incrementProcessingIdentityAttempts();
+
+        var encoded = codec.encode(session);
+        var decoded = codec.decodeSession(encoded);
+
+        assertThat(CompactSessionCodec.isCompact(encoded), is(true));
+        assertThat(decoded.getSessionId(), equalTo("session-id"));
+        assertThat(
+                decoded.getClientSessions(),
+                equalTo(List.of("client-session-1", "client-session-2")));
+        assertThat(decoded.getEmailAddress(), equalTo(session.getEmailAddress()));
+        assertThat(decoded.getPasswordResetCount(), equalTo(1));
+        assertThat(decoded.getCodeRequestCountMap(), equalTo(session.getCodeRequestCountMap()));
+        assertThat(
+                decoded.getCurrentCredentialStrength(), equalTo(CredentialTrustLevel.MEDIUM_LEVEL));
+        assertThat(decoded.isNewAccount(), equalTo(Session.AccountState.EXISTING));
+        assertThat(decoded.isAuthenticated(), is(true));
+        assertThat(decoded.getProcessingIdentityAttempts(), equalTo(1));
+        assertThat(decoded.getVerifiedMfaMethodType(), equalTo(MFAMethodType.SMS));
+        assertThat(decoded.getInternalCommonSubjectIdentifier(), equalTo("internal-subject"));
+    }
+
+    @Test
+    void shouldKeepEverySessionFieldThroughARoundTrip() throws Json.JsonException {
+        var session =
+                new Session("session-id")
+                        .addClientSession("client-session-1")
+                        .setEmailAddress("joe.bloggs@digital.cabinet-office.gov.uk")
+                        .setRetryCount(2)
+                        .setPasswordResetCount(1)
+                        .setCodeRequestCount(CodeRequestType.EMAIL_REGISTRATION, 4)
+                        .setCurrentCredentialStrength(CredentialTrustLevel.LOW_LEVEL)
+                        .setNewAccount(Session.AccountState.NEW)
+                        .setAuthenticated(true)
+                        .setProcessingIdentityAttempts(3)
+                        .setVerifiedMfaMethodType(MFAMethodType.AUTH_APP)
+                        .setInternalCommonSubjectIdentifier("internal-subject");
+        var expected = toJsonObject(session);
+
+        for (Session.Field field : Session.Field.values()) {
+            assertTrue(expected.has(field.getKey()), "test session should set " + field);
+        }
+        assertThat(toJsonObject(codec.decodeSession(codec.encode(session))), equalTo(expected));
+    }
+
+    @Test
+    void shouldRoundTripSessionWithUnsetFields() throws Json.JsonException {
+        var decoded = codec.decodeSession(codec.encode(new Session("session-id")));
+
+        assertThat(decoded.getEmailAddress(), nullValue());
+        assertThat(decoded.getCurrentCredentialStrength(), nullValue());
+        assertThat(decoded.isNewAccount(), equalTo(Session.AccountState.UNKNOWN));
+        assertThat(decoded.getVerifiedMfaMethodType(), nullValue());
+    }
+
+    @Test
+    void shouldRoundTripClientSession() throws Json.JsonException {
+        var creationDate = LocalDateTime.of(2022, 10, 17, 9, 30, 15, 123456789);
+        var clientSession =
+                new ClientSession(
+                                Map.of(
+                                        "client_id",
+                                        List.of("test-client"),
+                                        "scope",
+                                        List.of("openid", "email")),
+                                creationDate,
+                                VectorOfTrust.of(
+                                        CredentialTrustLevel.MEDIUM_LEVEL,
+                                        LevelOfConfidence.MEDIUM_LEVEL),
+                                "test-client-name")
+                        .setIdTokenHint("id-token-hint")
+                        .setDocAppSubjectId(new Subject("doc-app-subject"));
+
+        var decoded = codec.decodeClientSession(codec.encode(clientSession));
+
+        assertThat(decoded.getAuthRequestParams(), equalTo(clientSession.getAuthRequestParams()));
+        assertThat(decoded.getCreationDate(), equalTo(creationDate));
+        assertThat(
+                decoded.getEffectiveVectorOfTrust(),
+                equalTo(clientSession.getEffectiveVectorOfTrust()));
+        assertThat(decoded.getIdTokenHint(), equalTo("id-token-hint"));
+        assertThat(decoded.getDocAppSubjectId(), equalTo(new Subject("doc-app-subject")));
+        assertThat(decoded.getClientName(), equalTo("test-client-name"));
+    }
+
+    @Test
+    void shouldBeSmallerThanJson() throws Json.JsonException {
+        var clientSession =
+                new ClientSession(
+                        Map.of("client_id", List.of("test-client"), "state", List.of("state")),
+                        LocalDateTime.now(),
+                        VectorOfTrust.getDefaults(),
+                        "test-client-name");
+
+        var json = SerializationService.getInstance().writeValueAsString(clientSession);
+
+        assertThat(codec.encode(clientSession).length(), lessThan(json.length()));
+    }
+
+    @Test
+    void shouldRejectValuesThatAreNotCompactEncoded() {
+        assertThrows(Json.JsonException.class, () -> codec.decodeSession("{\"session_id\":1}"));
+        assertThrows(Json.JsonException.class, () -> codec.decodeSession("~AAAA"));
+    }
+
+    private static JsonObject toJsonObject(Session session) throws Json.JsonException {
+        var json = SerializationService.getInstance().writeValueAsString(session);
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+}
@@ -4,16 +4,20 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import uk.gov.di.authentication.shared.entity.ClientSession;
+import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.entity.VectorOfTrust;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
 import uk.gov.di.authentication.shared.serialization.Json;
 import uk.gov.di.authentication.sharedtest.logging.CaptureLoggingExtension;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -22,7 +26,10 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.sharedtest.logging.LogEventMatcher.withMessageContaining;
 
@@ -52,7 +59,6 @@ class ClientSessionServiceTest {
     void shouldRetrieveClientSessionUsingRequestHeaders() throws Json.JsonException {
         when(redis.getValue("client-session-" + clientSessionId))
                 .thenReturn(generateSerialisedClientSession());
-        when(redis.keyExists("client-session-" + clientSessionId)).thenReturn(true);
 
         Optional<ClientSession> clientSessionInRedis =
                 clientSessionService.getClientSessionFromRequestHeaders(
@@ -110,11 +116,117 @@ class ClientSessionServiceTest {
 
     @Test
     void shouldReturnOptionalEmptyIfClientSessionIsNotPresentInRedis() {
-        when(redis.keyExists(clientSessionId)).thenReturn(false);
+        when(redis.getValue("client-session-" + clientSessionId)).thenReturn(null);
 
         assertTrue(clientSessionService.getClientSession(clientSessionId).isEmpty());
     }
 
+    @Test
+    void shouldRetrieveClientSessionAsynchronously() throws Json.JsonException {
+        when(redis.getValueAsync("client-session-" + clientSessionId))
+                .thenReturn(CompletableFuture.completedFuture(generateSerialisedClientSession()));
+
+        Optional<ClientSession> clientSession =
+                clientSessionService.getClientSessionAsync(clientSessionId).join();
+
+        assertTrue(clientSession.isPresent());
+        assertEquals("client-name", clientSession.get().getClientName());
+    }
+
+    @Test
+    void shouldReturnOptionalEmptyAsynchronouslyIfClientSessionIsNotPresentInRedis() {
+        when(redis.getValueAsync("client-session-" + clientSessionId))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertTrue(clientSessionService.getClientSessionAsync(clientSessionId).join().isEmpty());
+    }
+
+    @Test
+    void shouldRetrieveClientSessionAsynchronouslyUsingRequestHeaders() throws Json.JsonException {
+        when(redis.getValueAsync("client-session-" + clientSessionId))
+                .thenReturn(CompletableFuture.completedFuture(generateSerialisedClientSession()));
+        var headers = Map.of("Session-Id", sessionId, "Client-Session-Id", clientSessionId);
+
+        Optional<ClientSession> clientSession =
+                clientSessionService.getClientSessionFromRequestHeadersAsync(headers).join();
+
+        assertTrue(clientSession.isPresent());
+        verify(redis).getValueAsync("client-session-" + clientSessionId);
+        verifyNoMoreInteractions(redis);
+    }
+
+    @Test
+    void shouldNotCallRedisAsynchronouslyWithMissingHeader() {
+        Optional<ClientSession> clientSession =
+                clientSessionService
+                        .getClientSessionFromRequestHeadersAsync(Map.of("Something", "Else"))
+                        .join();
+
+        assertTrue(clientSession.isEmpty());
+        verifyNoMoreInteractions(redis);
+    }
+
+    @Test
+    void shouldRetrieveOnlyLiveClientSessionsWithASingleRedisCall() throws Json.JsonException {
+        when(redis.getValuesAsync(
+                        List.of("client-session-" + clientSessionId, "client-session-expired")))
+                .thenReturn(
+                        CompletableFuture.completedFuture(
+                                Arrays.asList(generateSerialisedClientSession(), null)));
+
+        var clientSessions =
+                clientSessionService
+                        .getClientSessionsAsync(List.of(clientSessionId, "expired"))
+                        .join();
+
+        assertThat(clientSessions.keySet(), is(Set.of(clientSessionId)));
+        assertEquals("client-name", clientSessions.get(clientSessionId).getClientName());
+        verify(redis).getValuesAsync(anyList());
+        verifyNoMoreInteractions(redis);
+    }
+
+    @Test
+    void shouldDeleteClientSessionsWithPrefixedKeys() {
+        clientSessionService.deleteClientSessionsFromRedis(List.of(clientSessionId, "other"));
+
+        verify(redis)
+                .deleteValues(List.of("client-session-" + clientSessionId, "client-session-other"));
+    }
+
+    @Test
+    void shouldPruneExpiredClientSessionsBeforeEvictingLiveOnes() {
+        when(configuration.getMaxClientSessionsPerSession()).thenReturn(2);
+        var session =
+                new Session("session-id")
+                        .addClientSession("oldest")
+                        .addClientSession("expired")
+                        .addClientSession("older")
+                        .addClientSession("newest");
+        when(redis.getValues(
+                        List.of(
+                                "client-session-oldest",
+                                "client-session-expired",
+                                "client-session-older",
+                                "client-session-newest")))
+                .thenReturn(Arrays.asList("value", null, "value", "value"));
+
+        clientSessionService.pruneClientSessions(session);
+
+        assertThat(session.getClientSessions(), is(List.of("older", "newest")));
+        verify(redis).deleteValues(List.of("client-session-oldest"));
+    }
+
+    @Test
+    void shouldNotReadClientSessionsWhenSessionIsWithinLimit() {
+        when(configuration.getMaxClientSessionsPerSession()).thenReturn(2);
+        var session = new Session("session-id").addClientSession("a").addClientSession("b");
+
+        clientSessionService.pruneClientSessions(session);
+
+        assertThat(session.getClientSessions(), is(List.of("a", "b")));
+        verifyNoMoreInteractions(redis);
+    }
+
     @Test
     void shouldGenerateClientSession() {
         ClientSession clientSession =
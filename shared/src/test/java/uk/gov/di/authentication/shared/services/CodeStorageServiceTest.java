@@ -8,12 +8,18 @@ import uk.gov.di.authentication.shared.entity.MFAMethodType;
 import uk.gov.di.authentication.shared.entity.NotificationType;
 import uk.gov.di.authentication.shared.helpers.IdGenerator;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.shared.entity.NotificationType.VERIFY_EMAIL;
@@ -251,6 +257,23 @@ class CodeStorageServiceTest {
                         TEST_EMAIL, RedisKeys.PASSWORD_RESET_BLOCK.prefix));
     }
 
+    @Test
+    void shouldReturnBlockedPrefixesForEmailUsingASingleLookup() {
+        when(redisConnectionService.getValues(
+                        List.of(
+                                RedisKeys.CODE_REQUEST_BLOCK.getKeyWithTestEmailHash(),
+                                RedisKeys.CODE_BLOCK.getKeyWithTestEmailHash())))
+                .thenReturn(Arrays.asList(null, CODE_BLOCKED_VALUE));
+
+        var blockedPrefixes =
+                codeStorageService.getBlockedPrefixesForEmail(
+                        TEST_EMAIL,
+                        List.of(RedisKeys.CODE_REQUEST_BLOCK.prefix, RedisKeys.CODE_BLOCK.prefix));
+
+        assertThat(blockedPrefixes, equalTo(Set.of(RedisKeys.CODE_BLOCK.prefix)));
+        verify(redisConnectionService, never()).getValue(anyString());
+    }
+
     @Test
     void shouldCallRedisWithValidMfaCodeAndHashedEmail() {
         codeStorageService.saveOtpCode(
@@ -300,63 +323,33 @@ class CodeStorageServiceTest {
     }
 
     @Test
-    void shouldCreateCountInRedisWhenThereHasBeenNoPreviousIncorrectMfaCodeAttemptGenericKey() {
-        when(redisConnectionService.getValue(
-                        RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithTestEmailHash()))
-                .thenReturn(null);
-        codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL);
-
-        verify(redisConnectionService)
-                .saveWithExpiry(
+    void shouldAtomicallyIncrementIncorrectMfaCodeAttemptCountGenericKey() {
+        when(redisConnectionService.incrementWithExpiry(
                         RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithTestEmailHash(),
-                        String.valueOf(1),
-                        CODE_EXPIRY_TIME);
-    }
+                        CODE_EXPIRY_TIME))
+                .thenReturn(4L);
 
-    @ParameterizedTest
-    @EnumSource(MFAMethodType.class)
-    void shouldCreateCountInRedisWhenThereHasBeenNoPreviousIncorrectMfaCodeAttemptMfaSpecificKeys(
-            MFAMethodType mfaMethodType) {
-        when(redisConnectionService.getValue(
-                        RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithMfaTypeModifier(mfaMethodType)))
-                .thenReturn(null);
-        codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL, mfaMethodType);
+        int count = codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL);
 
-        verify(redisConnectionService)
-                .saveWithExpiry(
-                        RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithMfaTypeModifier(mfaMethodType),
-                        String.valueOf(1),
-                        CODE_EXPIRY_TIME);
-    }
-
-    @Test
-    void shouldIncrementCountWhenThereHasBeenPreviousIncorrectMfaCodeAttemptGenericKey() {
-        when(redisConnectionService.getValue(
-                        RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithTestEmailHash()))
-                .thenReturn(String.valueOf(3));
-        codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL);
-
-        verify(redisConnectionService)
-                .saveWithExpiry(
-                        RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithTestEmailHash(),
-                        String.valueOf(4),
-                        CODE_EXPIRY_TIME);
+        assertThat(count, equalTo(4));
+        verify(redisConnectionService, never()).getValue(anyString());
     }
 
     @ParameterizedTest
     @EnumSource(MFAMethodType.class)
-    void shouldIncrementCountWhenThereHasBeenPreviousIncorrectMfaCodeAttemptMfaSpecificKeys(
+    void shouldAtomicallyIncrementIncorrectMfaCodeAttemptCountMfaSpecificKeys(
             MFAMethodType mfaMethodType) {
-        when(redisConnectionService.getValue(
-                        RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithMfaTypeModifier(mfaMethodType)))
-                .thenReturn(String.valueOf(3));
-        codeStorageService.increaseIncorrectMfaCodeAttemptsCount(TEST_EMAIL, mfaMethodType);
-
-        verify(redisConnectionService)
-                .saveWithExpiry(
+        when(redisConnectionService.incrementWithExpiry(
                         RedisKeys.INCORRECT_MFA_COUNTER.getKeyWithMfaTypeModifier(mfaMethodType),
-                        String.valueOf(4),
-                        CODE_EXPIRY_TIME);
+                        CODE_EXPIRY_TIME))
+                .thenReturn(1L);
+
+        int count =
+                codeStorageService.increaseIncorrectMfaCodeAttemptsCount(
+                        TEST_EMAIL, mfaMethodType);
+
+        assertThat(count, equalTo(1));
+        verify(redisConnectionService, never()).getValue(anyString());
     }
 
     @Test
@@ -395,31 +388,16 @@ class CodeStorageServiceTest {
     }
 
     @Test
-    void shouldCreateCountInRedisWhenThereHasBeenNoPreviousIncorrectPasswordAttempt() {
-        when(redisConnectionService.getValue(
-                        RedisKeys.INCORRECT_PASSWORD_COUNTER.getKeyWithTestEmailHash()))
-                .thenReturn(null);
-        codeStorageService.increaseIncorrectPasswordCount(TEST_EMAIL);
-
-        verify(redisConnectionService)
-                .saveWithExpiry(
+    void shouldAtomicallyIncrementIncorrectPasswordCount() {
+        when(redisConnectionService.incrementWithExpiry(
                         RedisKeys.INCORRECT_PASSWORD_COUNTER.getKeyWithTestEmailHash(),
-                        String.valueOf(1),
-                        CODE_EXPIRY_TIME);
-    }
+                        CODE_EXPIRY_TIME))
+                .thenReturn(4L);
 
-    @Test
-    void shouldIncrementCountWhenThereHasBeenPreviousIncorrectPasswordAttempts() {
-        when(redisConnectionService.getValue(
-                        RedisKeys.INCORRECT_PASSWORD_COUNTER.getKeyWithTestEmailHash()))
-                .thenReturn(String.valueOf(3));
-        codeStorageService.increaseIncorrectPasswordCount(TEST_EMAIL);
+        int count = codeStorageService.increaseIncorrectPasswordCount(TEST_EMAIL);
 
-        verify(redisConnectionService)
-                .saveWithExpiry(
-                        RedisKeys.INCORRECT_PASSWORD_COUNTER.getKeyWithTestEmailHash(),
-                        String.valueOf(4),
-                        CODE_EXPIRY_TIME);
+        assertThat(count, equalTo(4));
+        verify(redisConnectionService, never()).getValue(anyString());
     }
 
     @Test
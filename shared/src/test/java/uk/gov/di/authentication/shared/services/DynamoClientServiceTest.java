@@ -3,17 +3,35 @@ package uk.gov.di.authentication.shared.services;
 import com.nimbusds.oauth2.sdk.id.ClientID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.ClientRegistryVersion;
+import uk.gov.di.authentication.shared.entity.UpdateClientConfigRequest;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DynamoClientServiceTest {
@@ -22,6 +40,9 @@ class DynamoClientServiceTest {
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
     private final DynamoDbEnhancedClient dynamoDbEnhancedClient =
             mock(DynamoDbEnhancedClient.class);
+    private final DynamoDbTable<ClientRegistry> clientTable = mock(DynamoDbTable.class);
+    private final DynamoDbTable<ClientRegistryVersion> versionTable = mock(DynamoDbTable.class);
+    private final Clock clock = mock(Clock.class);
     private DynamoClientService dynamoClientService;
 
     @BeforeEach
@@ -78,6 +99,161 @@ class DynamoClientServiceTest {
         assertFalse(dynamoClientService.isTestJourney(CLIENT_ID.toString(), "test@test.com"));
     }
 
+    @Test
+    void shouldServeRepeatedClientLookupsFromTheCache() {
+        var client = generateClientRegistry(CLIENT_ID.toString());
+        when(clientTable.getItem(any(Key.class))).thenReturn(client);
+        var service = cachingClientService();
+
+        assertThat(service.getClient(CLIENT_ID.toString()), equalTo(Optional.of(client)));
+        assertThat(service.getClient(CLIENT_ID.toString()), equalTo(Optional.of(client)));
+        assertTrue(service.isValidClient(CLIENT_ID.toString()));
+
+        verify(clientTable, times(1)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldCompileEachCachedClientOnlyOnce() {
+        when(clientTable.getItem(any(Key.class)))
+                .thenReturn(generateClientRegistry(CLIENT_ID.toString()));
+        var service = cachingClientService();
+
+        var first = service.getCompiledClient(CLIENT_ID.toString()).orElseThrow();
+        var second = service.getCompiledClient(CLIENT_ID.toString()).orElseThrow();
+
+        assertThat(second, sameInstance(first));
+        assertThat(
+                service.getClient(CLIENT_ID.toString()).orElseThrow(),
+                sameInstance(first.getClientRegistry()));
+    }
+
+    @Test
+    void shouldCacheUnknownClientsForTheNegativeTtl() {
+        when(clientTable.getItem(any(Key.class))).thenReturn(null);
+        var service = cachingClientService();
+
+        assertThat(service.getClient(CLIENT_ID.toString()), equalTo(Optional.empty()));
+        when(clock.millis()).thenReturn(29_000L);
+        assertFalse(service.isValidClient(CLIENT_ID.toString()));
+        verify(clientTable, times(1)).getItem(any(Key.class));
+
+        when(clock.millis()).thenReturn(31_000L);
+        assertFalse(service.isValidClient(CLIENT_ID.toString()));
+        verify(clientTable, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldReloadAClientOnceItsEntryHasExpired() {
+        when(clientTable.getItem(any(Key.class)))
+                .thenReturn(generateClientRegistry(CLIENT_ID.toString()));
+        var service = cachingClientService();
+
+        service.getClient(CLIENT_ID.toString());
+        when(clock.millis()).thenReturn(301_000L);
+        service.getClient(CLIENT_ID.toString());
+
+        verify(clientTable, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldClearTheCacheWhenTheVersionMarkerChanges() {
+        var client = generateClientRegistry(CLIENT_ID.toString());
+        var updatedClient = generateClientRegistry(CLIENT_ID.toString()).withClientName("new");
+        when(clientTable.getItem(any(Key.class))).thenReturn(client, updatedClient);
+        var service = cachingClientService();
+
+        assertThat(service.getClient(CLIENT_ID.toString()), equalTo(Optional.of(client)));
+
+        when(versionTable.getItem(any(Key.class)))
+                .thenReturn(new ClientRegistryVersion().withVersion("a-new-version"));
+        when(clock.millis()).thenReturn(10_000L);
+        assertThat(service.getClient(CLIENT_ID.toString()), equalTo(Optional.of(client)));
+
+        when(clock.millis()).thenReturn(31_000L);
+        assertThat(service.getClient(CLIENT_ID.toString()), equalTo(Optional.of(updatedClient)));
+        verify(versionTable, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldWriteANewVersionMarkerWhenAClientIsUpdated() {
+        when(clientTable.getItem(any(Key.class)))
+                .thenReturn(generateClientRegistry(CLIENT_ID.toString()));
+        var service = cachingClientService();
+
+        service.getClient(CLIENT_ID.toString());
+        service.updateClient(CLIENT_ID.toString(), new UpdateClientConfigRequest());
+        service.getClient(CLIENT_ID.toString());
+
+        verify(versionTable)
+                .putItem(
+                        argThat(
+                                (ClientRegistryVersion version) ->
+                                        DynamoClientService.VERSION_MARKER_CLIENT_ID.equals(
+                                                version.getClientID())));
+        verify(clientTable, times(3)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldNotTreatTheVersionMarkerAsAClient() {
+        var service = cachingClientService();
+
+        assertFalse(service.isValidClient(DynamoClientService.VERSION_MARKER_CLIENT_ID));
+        verify(clientTable, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldReadTheVersionMarkerAsynchronouslyOnTheAsyncPath() {
+        var asyncClient = mock(DynamoDbEnhancedAsyncClient.class);
+        DynamoDbAsyncTable<ClientRegistry> asyncClientTable = mock(DynamoDbAsyncTable.class);
+        DynamoDbAsyncTable<ClientRegistryVersion> asyncVersionTable =
+                mock(DynamoDbAsyncTable.class);
+        doReturn(asyncClientTable)
+                .when(asyncClient)
+                .table(anyString(), argThat(schema -> isSchemaFor(schema, ClientRegistry.class)));
+        doReturn(asyncVersionTable)
+                .when(asyncClient)
+                .table(
+                        anyString(),
+                        argThat(schema -> isSchemaFor(schema, ClientRegistryVersion.class)));
+        var client = generateClientRegistry(CLIENT_ID.toString());
+        when(asyncClientTable.getItem(any(Key.class))).thenReturn(completedFuture(client));
+        when(asyncVersionTable.getItem(any(Key.class)))
+                .thenReturn(completedFuture(new ClientRegistryVersion().withVersion("v1")));
+        var service = cachingClientService(asyncClient);
+
+        assertThat(
+                service.getClientAsync(CLIENT_ID.toString()).join(),
+                equalTo(Optional.of(client)));
+
+        verify(asyncVersionTable).getItem(any(Key.class));
+        verify(versionTable, never()).getItem(any(Key.class));
+    }
+
+    private DynamoClientService cachingClientService() {
+        return cachingClientService(null);
+    }
+
+    private DynamoClientService cachingClientService(DynamoDbEnhancedAsyncClient asyncClient) {
+        when(configurationService.getClientRegistryCacheTtlSeconds()).thenReturn(300L);
+        when(configurationService.getClientRegistryCacheNegativeTtlSeconds()).thenReturn(30L);
+        when(configurationService.getClientRegistryCacheMaxSize()).thenReturn(10);
+        when(configurationService.getClientRegistryCacheVersionCheckSeconds()).thenReturn(30L);
+        when(configurationService.getClock()).thenReturn(clock);
+        doReturn(clientTable)
+                .when(dynamoDbEnhancedClient)
+                .table(anyString(), argThat(schema -> isSchemaFor(schema, ClientRegistry.class)));
+        doReturn(versionTable)
+                .when(dynamoDbEnhancedClient)
+                .table(
+                        anyString(),
+                        argThat(schema -> isSchemaFor(schema, ClientRegistryVersion.class)));
+        return new DynamoClientService(configurationService, dynamoDbEnhancedClient, asyncClient);
+    }
+
+    private static boolean isSchemaFor(TableSchema<?> schema, Class<?> itemClass) {
+        return schema != null && schema.itemType().rawClass() == itemClass;
+    }
+
     private ClientRegistry generateClientRegistry(String clientId) {
         return new ClientRegistry().withClientID(clientId);
     }
@@ -3,6 +3,7 @@ package uk.gov.di.authentication.shared.services;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.KeyUse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
@@ -10,6 +11,7 @@ import software.amazon.awssdk.services.kms.model.GetPublicKeyResponse;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
 import software.amazon.awssdk.services.kms.model.SigningAlgorithmSpec;
 
+import java.time.Clock;
 import java.util.Base64;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -23,8 +25,14 @@ class JwksServiceTest {
 
     private final ConfigurationService configurationService = mock(ConfigurationService.class);
     private final KmsConnectionService kmsConnectionService = mock(KmsConnectionService.class);
-    private final JwksService jwksService =
-            new JwksService(configurationService, kmsConnectionService);
+    private JwksService jwksService;
+
+    @BeforeEach
+    void setUp() {
+        when(configurationService.getClock()).thenReturn(Clock.systemUTC());
+        when(configurationService.getSigningKeyCacheTtlSeconds()).thenReturn(900L);
+        jwksService = new JwksService(configurationService, kmsConnectionService);
+    }
 
     @Test
     void shouldRetrievePublicTokenSigningKeyFromKmsAndParseToJwk() {
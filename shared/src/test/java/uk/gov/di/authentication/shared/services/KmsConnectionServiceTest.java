@@ -0,0 +1,55 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
+import software.amazon.awssdk.services.kms.model.GetPublicKeyResponse;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KmsConnectionServiceTest {
+
+    private static final String KEY_ALIAS = "alias/token-signing-key";
+    private static final GetPublicKeyRequest REQUEST =
+            GetPublicKeyRequest.builder().keyId(KEY_ALIAS).build();
+
+    private final KmsClient kmsClient = mock(KmsClient.class);
+    private final KmsAsyncClient kmsAsyncClient = mock(KmsAsyncClient.class);
+    private final KmsConnectionService kmsConnectionService =
+            new KmsConnectionService(kmsClient, kmsAsyncClient, Duration.ofMinutes(5));
+
+    @Test
+    void shouldOnlyRetrieveEachPublicKeyFromKmsOnce() {
+        when(kmsClient.getPublicKey(any(GetPublicKeyRequest.class)))
+                .thenReturn(GetPublicKeyResponse.builder().keyId("key-id").build());
+
+        kmsConnectionService.getPublicKey(REQUEST);
+        var response = kmsConnectionService.getPublicKey(REQUEST);
+
+        assertThat(response.keyId(), equalTo("key-id"));
+        verify(kmsClient, times(1)).getPublicKey(any(GetPublicKeyRequest.class));
+    }
+
+    @Test
+    void shouldRetrieveThePublicKeyAgainOnceInvalidated() {
+        when(kmsClient.getPublicKey(any(GetPublicKeyRequest.class)))
+                .thenReturn(
+                        GetPublicKeyResponse.builder().keyId("old-key-id").build(),
+                        GetPublicKeyResponse.builder().keyId("new-key-id").build());
+
+        kmsConnectionService.getPublicKey(REQUEST);
+        kmsConnectionService.invalidatePublicKey(KEY_ALIAS);
+
+        assertThat(kmsConnectionService.getPublicKey(REQUEST).keyId(), equalTo("new-key-id"));
+        verify(kmsClient, times(2)).getPublicKey(any(GetPublicKeyRequest.class));
+    }
+}
@@ -59,6 +59,30 @@ class LambdaInvokerServiceTest {
         verify(lambdaClient).invoke(invokeRequest);
     }
 
+    @Test
+    void shouldInvokeTheLambdaWithOnlyTheSegmentWhenNoCheckpointYet() {
+        var functionName = "BULK_USER_EMAIL_AUDIENCE_LOADER";
+        when(configurationService.getBulkEmailLoaderLambdaName()).thenReturn(functionName);
+        when(scheduledEvent.getDetail()).thenReturn(Map.of("segment", 2, "totalSegments", 4));
+
+        JSONObject detail =
+                new JSONObject().appendField("segment", 2).appendField("totalSegments", 4);
+        String payloadString = new JSONObject().appendField("detail", detail).toJSONString();
+
+        InvokeRequest invokeRequest =
+                InvokeRequest.builder()
+                        .functionName(functionName)
+                        .invocationType(InvocationType.EVENT)
+                        .payload(SdkBytes.fromUtf8String(payloadString))
+                        .build();
+        LambdaInvokerService lambdaInvokerService =
+                new LambdaInvokerService(configurationService, lambdaClient);
+
+        lambdaInvokerService.invokeWithPayload(scheduledEvent);
+
+        verify(lambdaClient).invoke(invokeRequest);
+    }
+
     @Test
     void shouldThrowErrorWhenLambdaNameNotSetInEnvironment() throws Json.JsonException {
         when(configurationService.getBulkEmailLoaderLambdaName()).thenReturn("");
@@ -0,0 +1,75 @@
+package uk.gov.di.authentication.shared.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PeriodicMetricsPublisherTest {
+
+    private final CloudwatchMetricsService metricsService = mock(CloudwatchMetricsService.class);
+    private final Clock clock = mock(Clock.class);
+
+    @SuppressWarnings("unchecked")
+    private final Consumer<CloudwatchMetricsService> publication = mock(Consumer.class);
+
+    private final PeriodicMetricsPublisher publisher =
+            new PeriodicMetricsPublisher(metricsService, Duration.ofSeconds(60), clock);
+
+    @Test
+    void shouldPublishOnTheCallingThreadWhenDue() {
+        publisher.publishIfDue(publication);
+
+        verify(publication).accept(metricsService);
+    }
+
+    @Test
+    void shouldPublishAtMostOncePerInterval() {
+        when(clock.millis()).thenReturn(1000L);
+        publisher.publishIfDue(publication);
+        publisher.publishIfDue(publication);
+
+        when(clock.millis()).thenReturn(60999L);
+        publisher.publishIfDue(publication);
+        verify(publication, times(1)).accept(metricsService);
+
+        when(clock.millis()).thenReturn(61000L);
+        publisher.publishIfDue(publication);
+        verify(publication, times(2)).accept(metricsService);
+    }
+
+    @Test
+    void shouldPublishImmediatelyWhenAskedToEvenWithinTheInterval() {
+        publisher.publishIfDue(publication);
+        publisher.publishNow(publication);
+
+        verify(publication, times(2)).accept(metricsService);
+    }
+
+    @Test
+    void shouldDoNothingWithoutAMetricsService() {
+        var disabled = new PeriodicMetricsPublisher(null, Duration.ZERO, clock);
+
+        disabled.publishIfDue(publication);
+        disabled.publishNow(publication);
+
+        verify(publication, never()).accept(null);
+    }
+
+    @Test
+    void shouldNotLetAFailedPublicationEscape() {
+        doThrow(new RuntimeException("EMF unavailable")).when(publication).accept(metricsService);
+
+        assertDoesNotThrow(() -> publisher.publishIfDue(publication));
+        assertDoesNotThrow(() -> publisher.publishNow(publication));
+    }
+}
@@ -0,0 +1,155 @@
+package uk.gov.di.authentication.shared.services;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisConnectionServiceTest {
+
+    private static final String ENVIRONMENT = "test";
+    private static final Map<String, String> POOL_DIMENSIONS = Map.of("Environment", ENVIRONMENT);
+    private static final Map<String, String> GET_VALUE_DIMENSIONS =
+            Map.of("Environment", ENVIRONMENT, "RedisCommand", "getValue");
+
+    private final RedisClient client = mock(RedisClient.class);
+
+    @SuppressWarnings("unchecked")
+    private final GenericObjectPool<StatefulRedisConnection<String, String>> pool =
+            mock(GenericObjectPool.class);
+
+    @SuppressWarnings("unchecked")
+    private final StatefulRedisConnection<String, String> connection =
+            mock(StatefulRedisConnection.class);
+
+    @SuppressWarnings("unchecked")
+    private final RedisCommands<String, String> commands = mock(RedisCommands.class);
+
+    private final CloudwatchMetricsService metricsService = mock(CloudwatchMetricsService.class);
+    private final Clock clock = mock(Clock.class);
+    private RedisConnectionService redis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(pool.borrowObject()).thenReturn(connection);
+        when(pool.getMeanBorrowWaitDuration()).thenReturn(Duration.ZERO);
+        when(pool.getMaxBorrowWaitDuration()).thenReturn(Duration.ZERO);
+        when(connection.sync()).thenReturn(commands);
+        when(commands.get("key")).thenReturn("value");
+        redis =
+                new RedisConnectionService(
+                        client,
+                        pool,
+                        new PeriodicMetricsPublisher(metricsService, Duration.ofSeconds(60), clock),
+                        ENVIRONMENT);
+    }
+
+    @Test
+    void shouldPublishMetricsOnTheRequestThreadOncePerInterval() {
+        redis.getValue("key");
+        assertThat(publishedValues(Unit.COUNT), equalTo(List.of(1.0)));
+
+        redis.getValue("key");
+        verify(metricsService).putEmbeddedValues(any(), eq(Unit.COUNT), eq(GET_VALUE_DIMENSIONS));
+    }
+
+    @Test
+    void shouldNotIncludeTheBorrowWaitInCommandLatency() throws Exception {
+        when(pool.borrowObject())
+                .thenAnswer(
+                        invocation -> {
+                            Thread.sleep(200);
+                            return connection;
+                        });
+
+        redis.getValue("key");
+
+        assertThat(publishedValues(Unit.MILLISECONDS), hasSize(1));
+        assertThat(publishedValues(Unit.MILLISECONDS), everyItem(lessThan(200.0)));
+    }
+
+    @Test
+    void shouldSampleLatenciesButCountEveryCommand() {
+        redis.getValue("key");
+        for (int i = 0; i < 150; i++) {
+            redis.getValue("key");
+        }
+        redis.close();
+
+        assertThat(publishedValues(Unit.MILLISECONDS), hasSize(100));
+        assertThat(publishedValues(Unit.COUNT), equalTo(List.of(150.0)));
+    }
+
+    @Test
+    void shouldPublishPoolChurnSinceTheLastPublish() {
+        when(pool.getCreatedCount()).thenReturn(5L, 8L);
+        when(pool.getDestroyedCount()).thenReturn(2L, 2L);
+
+        redis.getValue("key");
+        when(clock.millis()).thenReturn(60_000L);
+        redis.getValue("key");
+
+        verify(metricsService).putEmbeddedValues(poolCounts(5.0, 2.0), Unit.COUNT, POOL_DIMENSIONS);
+        verify(metricsService).putEmbeddedValues(poolCounts(3.0, 0.0), Unit.COUNT, POOL_DIMENSIONS);
+    }
+
+    @Test
+    void shouldPublishOutstandingMetricsWhenClosed() {
+        redis.getValue("key");
+        redis.getValue("key");
+        redis.getValue("key");
+
+        redis.close();
+
+        verify(metricsService)
+                .putEmbeddedValues(
+                        Map.of("RedisCommandCount", List.of(2.0)),
+                        Unit.COUNT,
+                        GET_VALUE_DIMENSIONS);
+        verify(pool).close();
+        verify(client).shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Double> publishedValues(Unit unit) {
+        ArgumentCaptor<Map<String, List<Double>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(metricsService, atLeastOnce())
+                .putEmbeddedValues(captor.capture(), eq(unit), eq(GET_VALUE_DIMENSIONS));
+        return captor.getValue().values().iterator().next();
+    }
+
+    private static Map<String, List<Double>> poolCounts(double created, double destroyed) {
+        return Map.of(
+                "RedisPoolActive",
+                List.of(0.0),
+                "RedisPoolIdle",
+                List.of(0.0),
+                "RedisPoolWaiters",
+                List.of(0.0),
+                "RedisPoolCreated",
+                List.of(created),
+                "RedisPoolDestroyed",
+                List.of(destroyed));
+    }
+}
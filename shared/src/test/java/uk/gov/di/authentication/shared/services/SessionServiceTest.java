@@ -2,11 +2,15 @@ package uk.gov.di.authentication.shared.services;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import uk.gov.di.authentication.shared.entity.Session;
 import uk.gov.di.authentication.shared.helpers.CookieHelper;
+import uk.gov.di.authentication.shared.serialization.CompactSessionCodec;
 import uk.gov.di.authentication.shared.serialization.Json;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -16,11 +20,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 class SessionServiceTest {
@@ -43,9 +51,33 @@ class SessionServiceTest {
                 .saveWithExpiry("session-id", objectMapper.writeValueAsString(session), 1234L);
     }
 
+    @Test
+    void shouldPersistCompactSessionWhenCompactEncodingIsEnabled() {
+        when(configuration.getSessionExpiry()).thenReturn(1234L);
+        when(configuration.isCompactSessionEncodingEnabled()).thenReturn(true);
+
+        sessionService.save(new Session("session-id").addClientSession("client-session-id"));
+
+        verify(redis).saveWithExpiry(eq("session-id"), startsWith("~"), eq(1234L));
+    }
+
+    @Test
+    void shouldReadBothJsonAndCompactEncodedSessions() throws Json.JsonException {
+        var session = new Session("session-id").addClientSession("client-session-id");
+        when(redis.getValue("json-session-id"))
+                .thenReturn(objectMapper.writeValueAsString(session));
+        when(redis.getValue("compact-session-id"))
+                .thenReturn(new CompactSessionCodec().encode(session));
+
+        var jsonSession = sessionService.readSessionFromRedis("json-session-id");
+        var compactSession = sessionService.readSessionFromRedis("compact-session-id");
+
+        assertThat(jsonSession.get().getClientSessions(), is(session.getClientSessions()));
+        assertThat(compactSession.get().getClientSessions(), is(session.getClientSessions()));
+    }
+
     @Test
     void shouldRetrieveSessionUsingRequestHeaders() throws Json.JsonException {
-        when(redis.keyExists("session-id")).thenReturn(true);
         when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
 
         var sessionInRedis =
@@ -58,7 +90,6 @@ class SessionServiceTest {
 
     @Test
     void shouldNotRetrieveSessionForLowerCaseHeaderName() throws Json.JsonException {
-        when(redis.keyExists("session-id")).thenReturn(true);
         when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
 
         var sessionInRedis =
@@ -66,6 +97,17 @@ class SessionServiceTest {
         assertTrue(sessionInRedis.isEmpty());
     }
 
+    @Test
+    void shouldReadSessionWithASingleRedisCall() throws Json.JsonException {
+        when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
+
+        var session = sessionService.readSessionFromRedis("session-id");
+
+        assertTrue(session.isPresent());
+        verify(redis).getValue("session-id");
+        verifyNoMoreInteractions(redis);
+    }
+
     @Test
     void shouldNotRetrieveSessionWithNoHeaders() {
         var session = sessionService.getSessionFromRequestHeaders(Collections.emptyMap());
@@ -86,7 +128,7 @@ class SessionServiceTest {
 
     @Test
     void shouldNotRetrieveSessionIfNotPresentInRedis() {
-        when(redis.keyExists("session-id")).thenReturn(false);
+        when(redis.getValue("session-id")).thenReturn(null);
 
         var session =
                 sessionService.getSessionFromRequestHeaders(Map.of("Session-Id", "session-id"));
@@ -107,7 +149,6 @@ class SessionServiceTest {
     @Test
     void shouldReturnSessionFromSessionCookieCalledWithValidCookieHeaderValues()
             throws Json.JsonException {
-        when(redis.keyExists("session-id")).thenReturn(true);
         when(redis.getValue("session-id")).thenReturn(generateSearlizedSession());
 
         Optional<Session> sessionFromSessionCookie =
@@ -122,7 +163,7 @@ class SessionServiceTest {
 
     @Test
     void shouldNotReturnSessionFromSessionCookieCalledWithMissingSessionId() {
-        when(redis.keyExists("session-id")).thenReturn(false);
+        when(redis.getValue("session-id")).thenReturn(null);
         Optional<Session> session =
                 sessionService.getSessionFromSessionCookie(
                         Map.ofEntries(
@@ -133,14 +174,109 @@ class SessionServiceTest {
     }
 
     @Test
-    void shouldUpdateSessionIdInRedisAndDeleteOldKey() {
+    void shouldUpdateSessionIdInRedisAndDeleteOldKeyInASingleBatch() {
+        when(configuration.getSessionExpiry()).thenReturn(1234L);
         var session = new Session("session-id").addClientSession("client-session-id");
 
         sessionService.save(session);
         sessionService.updateSessionId(session);
 
-        verify(redis, times(2)).saveWithExpiry(anyString(), anyString(), anyLong());
-        verify(redis).deleteValue("session-id");
+        var captor = ArgumentCaptor.forClass(RedisBatch.class);
+        verify(redis).saveWithExpiry(anyString(), anyString(), anyLong());
+        verify(redis).executeBatch(captor.capture());
+        var commands = captor.getValue().getCommands();
+        assertThat(commands.size(), is(2));
+        assertThat(commands.get(0).type(), is(RedisBatch.CommandType.SETEX));
+        assertThat(commands.get(0).key(), is(session.getSessionId()));
+        assertThat(commands.get(0).seconds(), is(1234L));
+        assertThat(commands.get(1).type(), is(RedisBatch.CommandType.DEL));
+        assertThat(commands.get(1).key(), is("session-id"));
+    }
+
+    @Test
+    void shouldWriteOnlyChangedFieldsToTheSessionHash() {
+        when(configuration.getSessionExpiry()).thenReturn(1234L);
+        when(configuration.isSessionHashStorageEnabled()).thenReturn(true);
+        var sessionHash = completeSessionHash();
+        when(redis.executeBatch(any())).thenReturn(Arrays.asList(sessionHash, null), List.of());
+
+        var session = sessionService.readSessionFromRedis("session-id").orElseThrow();
+        session.setAuthenticated(true);
+        sessionService.save(session);
+
+        var captor = ArgumentCaptor.forClass(RedisBatch.class);
+        verify(redis, times(2)).executeBatch(captor.capture());
+        var commands = captor.getAllValues().get(1).getCommands();
+        assertThat(session.getClientSessions(), is(List.of("client-session-id")));
+        assertThat(commands.size(), is(2));
+        assertThat(commands.get(0).type(), is(RedisBatch.CommandType.HSET));
+        assertThat(commands.get(0).key(), is("session-hash-session-id"));
+        assertThat(commands.get(0).fields(), is(Map.of("authenticated", "true")));
+        assertThat(commands.get(1).type(), is(RedisBatch.CommandType.EXPIRE));
+        assertThat(commands.get(1).seconds(), is(1234L));
+        assertTrue(session.getDirtyFields().isEmpty());
+    }
+
+    @Test
+    void shouldReadTheSessionHashAndValueInASingleBatch() {
+        when(configuration.isSessionHashStorageEnabled()).thenReturn(true);
+        when(redis.executeBatch(any())).thenReturn(Arrays.asList(Map.of(), null));
+
+        assertTrue(sessionService.readSessionFromRedis("session-id").isEmpty());
+
+        var captor = ArgumentCaptor.forClass(RedisBatch.class);
+        verify(redis).executeBatch(captor.capture());
+        verifyNoMoreInteractions(redis);
+        var commands = captor.getValue().getCommands();
+        assertThat(commands.get(0).type(), is(RedisBatch.CommandType.HGETALL));
+        assertThat(commands.get(0).key(), is("session-hash-session-id"));
+        assertThat(commands.get(1).type(), is(RedisBatch.CommandType.GET));
+        assertThat(commands.get(1).key(), is("session-id"));
+    }
+
+    @Test
+    void shouldFallBackToTheSessionValueWhenTheHashIsMissingFields() throws Json.JsonException {
+        when(configuration.isSessionHashStorageEnabled()).thenReturn(true);
+        when(redis.executeBatch(any()))
+                .thenReturn(
+                        Arrays.asList(
+                                Map.of("session_id", "\"session-id\"", "authenticated", "true"),
+                                generateSearlizedSession()));
+
+        var session = sessionService.readSessionFromRedis("session-id").orElseThrow();
+
+        assertThat(session.getClientSessions(), is(List.of("client-session-id")));
+        assertFalse(session.isAuthenticated());
+    }
+
+    @Test
+    void shouldNotReturnASessionWhenOnlyAnIncompleteHashExists() {
+        when(configuration.isSessionHashStorageEnabled()).thenReturn(true);
+        when(redis.executeBatch(any()))
+                .thenReturn(
+                        Arrays.asList(
+                                Map.of("session_id", "\"session-id\"", "authenticated", "true"),
+                                null));
+
+        assertTrue(sessionService.readSessionFromRedis("session-id").isEmpty());
+    }
+
+    @Test
+    void shouldMigrateJsonSessionToTheSessionHash() throws Json.JsonException {
+        when(configuration.getSessionExpiry()).thenReturn(1234L);
+        when(configuration.isSessionHashStorageEnabled()).thenReturn(true);
+        when(redis.executeBatch(any()))
+                .thenReturn(Arrays.asList(Map.of(), generateSearlizedSession()), List.of());
+
+        var session = sessionService.readSessionFromRedis("session-id").orElseThrow();
+        sessionService.save(session);
+
+        var captor = ArgumentCaptor.forClass(RedisBatch.class);
+        verify(redis, times(2)).executeBatch(captor.capture());
+        var commands = captor.getAllValues().get(1).getCommands();
+        assertThat(commands.get(0).fields().size(), is(Session.Field.values().length));
+        assertThat(commands.get(2).type(), is(RedisBatch.CommandType.DEL));
+        assertThat(commands.get(2).key(), is("session-id"));
     }
 
     @Test
@@ -153,6 +289,16 @@ class SessionServiceTest {
         verify(redis).deleteValue("session-id");
     }
 
+    private Map<String, String> completeSessionHash() {
+        var hashRedis = mock(RedisConnectionService.class);
+        new SessionService(configuration, hashRedis)
+                .save(new Session("session-id").addClientSession("client-session-id"));
+
+        var captor = ArgumentCaptor.forClass(RedisBatch.class);
+        verify(hashRedis).executeBatch(captor.capture());
+        return captor.getValue().getCommands().get(0).fields();
+    }
+
     private String generateSearlizedSession() throws Json.JsonException {
         var session = new Session("session-id").addClientSession("client-session-id");
 
@@ -0,0 +1,126 @@
+package uk.gov.di.authentication.shared.services;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SigningKeyStoreTest {
+
+    private static final String ALIAS = "alias/token-signing-key";
+    private static final String DOC_APP_ALIAS = "alias/doc-app-token-signing-key";
+
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final Clock clock = mock(Clock.class);
+
+    @SuppressWarnings("unchecked")
+    private final Function<String, JWK> loader = mock(Function.class);
+
+    private SigningKeyStore keyStore;
+    private ECKey firstKey;
+    private ECKey rotatedKey;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        when(configurationService.getClock()).thenReturn(clock);
+        when(configurationService.getSigningKeyCacheTtlSeconds()).thenReturn(100L);
+        when(configurationService.getSigningKeyRotationWindowSeconds()).thenReturn(1000L);
+        keyStore =
+                new SigningKeyStore(
+                        configurationService,
+                        loader,
+                        new PeriodicMetricsPublisher(null),
+                        Runnable::run);
+        firstKey = new ECKeyGenerator(Curve.P_256).keyID("first-key").generate();
+        rotatedKey = new ECKeyGenerator(Curve.P_256).keyID("rotated-key").generate();
+    }
+
+    @Test
+    void shouldOnlyLoadAKeyOnceWithinItsTtl() {
+        when(loader.apply(ALIAS)).thenReturn(firstKey);
+
+        keyStore.getCurrentKey(ALIAS);
+        when(clock.millis()).thenReturn(70_000L);
+
+        assertThat(keyStore.getCurrentKey(ALIAS), equalTo(firstKey));
+        verify(loader, times(1)).apply(ALIAS);
+    }
+
+    @Test
+    void shouldRefreshAKeyAheadOfItExpiring() {
+        when(loader.apply(ALIAS)).thenReturn(firstKey, rotatedKey);
+
+        keyStore.getCurrentKey(ALIAS);
+        when(clock.millis()).thenReturn(90_000L);
+
+        assertThat(keyStore.getCurrentKey(ALIAS), equalTo(firstKey));
+        assertThat(keyStore.getCurrentKey(ALIAS), equalTo(rotatedKey));
+        verify(loader, times(2)).apply(ALIAS);
+    }
+
+    @Test
+    void shouldKeepPublishingThePreviousKeyForTheRotationWindow() {
+        when(loader.apply(ALIAS)).thenReturn(firstKey, rotatedKey);
+
+        keyStore.getCurrentKey(ALIAS);
+        when(clock.millis()).thenReturn(100_000L);
+
+        assertThat(keyStore.getCurrentKey(ALIAS), equalTo(rotatedKey));
+        assertThat(keyStore.getPreviousKeys(), equalTo(List.of(firstKey)));
+        assertThat(keyStore.findKey("first-key", ALIAS), equalTo(Optional.of(firstKey)));
+
+        when(clock.millis()).thenReturn(1_100_000L);
+        assertThat(keyStore.getPreviousKeys(), empty());
+        assertThat(keyStore.findKey("first-key", ALIAS), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldOnlyFindKeysHeldForTheGivenAlias() {
+        when(loader.apply(ALIAS)).thenReturn(firstKey);
+        when(loader.apply(DOC_APP_ALIAS)).thenReturn(rotatedKey);
+
+        keyStore.getCurrentKey(ALIAS);
+        keyStore.getCurrentKey(DOC_APP_ALIAS);
+
+        assertThat(keyStore.findKey("first-key", ALIAS), equalTo(Optional.of(firstKey)));
+        assertThat(keyStore.findKey("rotated-key", ALIAS), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldKeepServingTheCachedKeyWhenARefreshFails() {
+        when(loader.apply(ALIAS))
+                .thenReturn(firstKey)
+                .thenThrow(new RuntimeException("KMS unavailable"));
+
+        keyStore.getCurrentKey(ALIAS);
+        when(clock.millis()).thenReturn(100_000L);
+
+        assertThat(keyStore.getCurrentKey(ALIAS), equalTo(firstKey));
+        assertThat(keyStore.getCurrentKey(ALIAS), equalTo(firstKey));
+        verify(loader, times(2)).apply(ALIAS);
+    }
+
+    @Test
+    void shouldThrowWhenAKeyCannotBeLoadedAtAll() {
+        when(loader.apply(ALIAS)).thenThrow(new RuntimeException("KMS unavailable"));
+
+        assertThrows(RuntimeException.class, () -> keyStore.getCurrentKey(ALIAS));
+    }
+}
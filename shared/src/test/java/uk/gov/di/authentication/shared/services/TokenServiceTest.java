@@ -9,6 +9,7 @@ import com.nimbusds.jose.crypto.impl.ECDSA;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.AuthorizationCode;
 import com.nimbusds.oauth2.sdk.ErrorObject;
@@ -34,6 +35,7 @@ import org.mockito.ArgumentCaptor;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
 import software.amazon.awssdk.services.kms.model.GetPublicKeyResponse;
+import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
 import software.amazon.awssdk.services.kms.model.SignRequest;
 import software.amazon.awssdk.services.kms.model.SignResponse;
 import software.amazon.awssdk.services.kms.model.SigningAlgorithmSpec;
@@ -59,6 +61,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -72,6 +75,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.authentication.shared.helpers.ConstructUriHelper.buildURI;
@@ -291,6 +297,79 @@ public class TokenServiceTest {
         assertNull(tokenResponse.getOIDCTokens().getRefreshToken());
     }
 
+    @Test
+    void shouldLookUpTheSigningKeyAgainWhenTheCachedKeyCanNoLongerBeUsed()
+            throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        var signResponse = accessTokenSignResponse();
+        when(kmsConnectionService.sign(any(SignRequest.class)))
+                .thenThrow(KmsInvalidStateException.builder().message("pending deletion").build())
+                .thenReturn(signResponse);
+
+        tokenService.generateSignedJWT(
+                new JWTClaimsSet.Builder().subject("a-subject").build(),
+                Optional.empty(),
+                JWSAlgorithm.ES256);
+
+        verify(kmsConnectionService).invalidatePublicKey(KEY_ID);
+        verify(kmsConnectionService, times(2)).getPublicKey(any(GetPublicKeyRequest.class));
+    }
+
+    @Test
+    void shouldSendEverySignRequestOfATokenResponseWithoutWaitingForTheOthers()
+            throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        var accessTokenSignature = new CompletableFuture<SignResponse>();
+        var refreshTokenSignature = new CompletableFuture<SignResponse>();
+        var signResponse = accessTokenSignResponse();
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(accessTokenSignature, refreshTokenSignature)
+                .thenReturn(CompletableFuture.completedFuture(signResponse));
+
+        var tokenResponse =
+                CompletableFuture.supplyAsync(
+                        () ->
+                                tokenService.generateRefreshTokenResponse(
+                                        CLIENT_ID,
+                                        INTERNAL_SUBJECT,
+                                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                                        PUBLIC_SUBJECT,
+                                        JWSAlgorithm.ES256));
+
+        verify(kmsConnectionService, timeout(1000).times(2)).signAsync(any(SignRequest.class));
+        refreshTokenSignature.complete(signResponse);
+        accessTokenSignature.complete(signResponse);
+
+        assertNotNull(tokenResponse.join().getTokens().getRefreshToken());
+        verify(kmsConnectionService, never()).sign(any(SignRequest.class));
+    }
+
+    @Test
+    void shouldLookUpTheSigningKeyAgainWhenAnAsyncSignRequestFindsItUnusable()
+            throws JOSEException {
+        when(configurationService.getTokenSigningKeyAlias()).thenReturn(KEY_ID);
+        var signResponse = accessTokenSignResponse();
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(
+                        CompletableFuture.failedFuture(
+                                KmsInvalidStateException.builder()
+                                        .message("pending deletion")
+                                        .build()))
+                .thenReturn(CompletableFuture.completedFuture(signResponse));
+
+        var tokenResponse =
+                tokenService.generateRefreshTokenResponse(
+                        CLIENT_ID,
+                        INTERNAL_SUBJECT,
+                        SCOPES_OFFLINE_ACCESS.toStringList(),
+                        PUBLIC_SUBJECT,
+                        JWSAlgorithm.ES256);
+
+        assertNotNull(tokenResponse.getTokens().getAccessToken());
+        verify(kmsConnectionService).invalidatePublicKey(KEY_ID);
+        verify(kmsConnectionService, times(3)).signAsync(any(SignRequest.class));
+    }
+
     @Test
     void shouldSuccessfullyValidateTokenRequest() {
         Map<String, List<String>> customParams = new HashMap<>();
@@ -423,7 +502,8 @@ public class TokenServiceTest {
                         .signingAlgorithm(SigningAlgorithmSpec.ECDSA_SHA_256)
                         .build();
 
-        when(kmsConnectionService.sign(any(SignRequest.class))).thenReturn(idTokenSignedResult);
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(idTokenSignedResult));
     }
 
     private SignedJWT createSignedIdToken(ECKey ecSigningKey) {
@@ -433,6 +513,11 @@ public class TokenServiceTest {
     }
 
     private void createSignedAccessToken() throws JOSEException {
+        when(kmsConnectionService.signAsync(any(SignRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(accessTokenSignResponse()));
+    }
+
+    private SignResponse accessTokenSignResponse() throws JOSEException {
         ECKey ecSigningKey =
                 new ECKeyGenerator(Curve.P_256)
                         .keyID(KEY_ID)
@@ -449,14 +534,11 @@ public class TokenServiceTest {
                         ecSigningKey.getKeyID());
         byte[] accessTokenSignatureDer =
                 ECDSA.transcodeSignatureToDER(signedJWT.getSignature().decode());
-        SignResponse accessTokenResult =
-                SignResponse.builder()
-                        .signature(SdkBytes.fromByteArray(accessTokenSignatureDer))
-                        .signingAlgorithm(SigningAlgorithmSpec.ECDSA_SHA_256)
-                        .keyId(KEY_ID)
-                        .build();
-
-        when(kmsConnectionService.sign(any(SignRequest.class))).thenReturn(accessTokenResult);
+        return SignResponse.builder()
+                .signature(SdkBytes.fromByteArray(accessTokenSignatureDer))
+                .signingAlgorithm(SigningAlgorithmSpec.ECDSA_SHA_256)
+                .keyId(KEY_ID)
+                .build();
     }
 
     private void assertSuccessfulTokenResponse(OIDCTokenResponse tokenResponse)
@@ -14,16 +14,20 @@ import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
 import com.nimbusds.oauth2.sdk.token.RefreshToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
 import uk.gov.di.authentication.shared.helpers.NowHelper;
 import uk.gov.di.authentication.sharedtest.helper.TokenGeneratorHelper;
 
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TokenValidationServiceTest {
@@ -84,6 +88,65 @@ class TokenValidationServiceTest {
                         new BearerAccessToken(signedAccessToken.serialize())));
     }
 
+    @Test
+    void shouldNotValidateRsaSignedAccessTokenWhenRsaSigningIsNotAvailable() throws JOSEException {
+        var docAppKey = new RSAKeyGenerator(2048).keyID("doc-app-key-id").generate();
+        when(configurationService.isRsaSigningAvailable()).thenReturn(false);
+
+        var signedAccessToken =
+                TokenGeneratorHelper.generateSignedToken(
+                        CLIENT_ID,
+                        BASE_URL,
+                        SCOPES,
+                        new RSASSASigner(docAppKey),
+                        SUBJECT,
+                        "doc-app-key-id");
+
+        assertFalse(tokenValidationService.isTokenSignatureValid(signedAccessToken.serialize()));
+        verify(jwksService).findPublicTokenJwkWithKeyId("doc-app-key-id");
+        verify(jwksService, never()).findPublicTokenRsaJwkWithKeyId("doc-app-key-id");
+    }
+
+    @Test
+    void shouldValidateTokensSignedWithANewKeyOnceTheSigningKeyIsRotated() throws JOSEException {
+        assertTrue(
+                tokenValidationService.isTokenSignatureValid(
+                        createSignedAccessToken(signer).serialize()));
+
+        var rotatedKey = new ECKeyGenerator(Curve.P_256).keyID("rotated-key-id").generate();
+        when(jwksService.getPublicTokenJwkWithOpaqueId()).thenReturn(rotatedKey.toPublicJWK());
+
+        assertTrue(
+                tokenValidationService.isTokenSignatureValid(
+                        createSignedAccessToken(new ECDSASigner(rotatedKey)).serialize()));
+        assertFalse(
+                tokenValidationService.isTokenSignatureValid(
+                        createSignedAccessToken(signer).serialize()));
+    }
+
+    @Test
+    void shouldPublishVerifierCacheHitsAndMisses() {
+        var metricsService = mock(CloudwatchMetricsService.class);
+        when(configurationService.getEnvironment()).thenReturn("test");
+        var service =
+                new TokenValidationService(
+                        jwksService,
+                        configurationService,
+                        new PeriodicMetricsPublisher(metricsService));
+
+        service.isTokenSignatureValid(createSignedAccessToken(signer).serialize());
+
+        verify(metricsService)
+                .putEmbeddedValues(
+                        Map.of(
+                                "TokenVerifierCacheHit",
+                                List.of(0.0),
+                                "TokenVerifierCacheMiss",
+                                List.of(1.0)),
+                        Unit.COUNT,
+                        Map.of("Environment", "test"));
+    }
+
     @Test
     void shouldSuccessfullyValidateRefreshToken() {
         Date expiryDate = NowHelper.nowPlus(2, ChronoUnit.MINUTES);
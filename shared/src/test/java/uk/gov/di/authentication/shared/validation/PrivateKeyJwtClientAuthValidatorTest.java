@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import uk.gov.di.authentication.shared.entity.ClientRegistry;
+import uk.gov.di.authentication.shared.entity.CompiledClientRegistry;
 import uk.gov.di.authentication.shared.exceptions.TokenAuthInvalidException;
 import uk.gov.di.authentication.shared.helpers.NowHelper;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
@@ -75,8 +76,9 @@ class PrivateKeyJwtClientAuthValidatorTest {
                 generateClientRegistry(
                         publicKey, ClientAuthenticationMethod.PRIVATE_KEY_JWT.getValue());
         var requestString = generateSerialisedPrivateKeyJWT(algorithm, expiryDate.getTime());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(expectedClientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(CompiledClientRegistry.compile(expectedClientRegistry, null)));
 
         var clientRegistryOutput =
                 privateKeyJwtClientAuthValidator.validateTokenAuthAndReturnClientRegistryIfValid(
@@ -95,8 +97,9 @@ class PrivateKeyJwtClientAuthValidatorTest {
         var expectedClientRegistry = generateClientRegistry(publicKey, null);
         var requestString =
                 generateSerialisedPrivateKeyJWT(JWSAlgorithm.RS256, expiryDate.getTime());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(expectedClientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(CompiledClientRegistry.compile(expectedClientRegistry, null)));
 
         var clientRegistryOutput =
                 privateKeyJwtClientAuthValidator.validateTokenAuthAndReturnClientRegistryIfValid(
@@ -113,8 +116,9 @@ class PrivateKeyJwtClientAuthValidatorTest {
         var expectedClientRegistry =
                 generateClientRegistry(
                         publicKey, ClientAuthenticationMethod.CLIENT_SECRET_POST.getValue());
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(expectedClientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(CompiledClientRegistry.compile(expectedClientRegistry, null)));
         var requestString =
                 generateSerialisedPrivateKeyJWT(
                         JWSAlgorithm.RS256, NowHelper.nowMinus(2, ChronoUnit.MINUTES).getTime());
@@ -142,8 +146,9 @@ class PrivateKeyJwtClientAuthValidatorTest {
         var publicKey =
                 Base64.getMimeEncoder().encodeToString(RSA_KEY_PAIR.getPublic().getEncoded());
         var expectedClientRegistry = generateClientRegistry(publicKey, null);
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(expectedClientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(CompiledClientRegistry.compile(expectedClientRegistry, null)));
         var requestString =
                 generateSerialisedPrivateKeyJWT(
                         JWSAlgorithm.RS256, NowHelper.nowMinus(2, ChronoUnit.MINUTES).getTime());
@@ -171,8 +176,9 @@ class PrivateKeyJwtClientAuthValidatorTest {
         var publicKey =
                 Base64.getMimeEncoder().encodeToString(invalidKeyPair.getPublic().getEncoded());
         var expectedClientRegistry = generateClientRegistry(publicKey, null);
-        when(dynamoClientService.getClient(CLIENT_ID.getValue()))
-                .thenReturn(Optional.of(expectedClientRegistry));
+        when(dynamoClientService.getCompiledClient(CLIENT_ID.getValue()))
+                .thenReturn(
+                        Optional.of(CompiledClientRegistry.compile(expectedClientRegistry, null)));
         var requestString =
                 generateSerialisedPrivateKeyJWT(
                         JWSAlgorithm.RS256, NowHelper.nowPlus(5, ChronoUnit.MINUTES).getTime());
@@ -14,6 +14,7 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import uk.gov.di.authentication.shared.entity.MFAMethod;
 import uk.gov.di.authentication.shared.entity.MFAMethodType;
 import uk.gov.di.authentication.shared.entity.TermsAndConditions;
+import uk.gov.di.authentication.shared.entity.User;
 import uk.gov.di.authentication.shared.entity.UserCredentials;
 import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.helpers.Argon2EncoderHelper;
@@ -26,10 +27,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import static uk.gov.di.authentication.shared.helpers.InstrumentationHelper.segmentedFunctionCall;
 
@@ -70,14 +72,19 @@ public class BulkTestUserCreateHandler implements RequestHandler<S3Event, Void>
 
         ResponseInputStream<GetObjectResponse> fileContent = client.getObject(getObjectRequest);
 
+        // Argon2 hashing limits how fast a CSV loads, so it gets its own bounded pool
+        var hashingExecutor =
+                Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
         segmentedFunctionCall(
                 "lineReader",
                 () -> {
                     List<String> batch = new ArrayList<>();
                     String line;
 
-                    try (var bufferedReader =
-                            new BufferedReader(new InputStreamReader(fileContent))) {
+                    try (var writer = dynamoService.openTestUserWriter();
+                            var bufferedReader =
+                                    new BufferedReader(new InputStreamReader(fileContent))) {
                         while ((line = bufferedReader.readLine()) != null) {
                             if (!line.isBlank() && !line.equals(CSV_HEADER_ROW_TEXT)) {
                                 batch.add(line.strip());
@@ -86,52 +93,61 @@ public class BulkTestUserCreateHandler implements RequestHandler<S3Event, Void>
                             if (batch.size() % 500 == 0 && !batch.isEmpty()) {
                                 final List<String> finalBatch = batch;
                                 segmentedFunctionCall(
-                                        "dbWriteFullBatch", () -> addTestUsersBatch(finalBatch));
+                                        "dbWriteFullBatch",
+                                        () ->
+                                                addTestUsersBatch(
+                                                        writer, finalBatch, hashingExecutor));
                                 batch = new ArrayList<>();
                             }
                         }
+
+                        final List<String> finalBatch = batch;
+
+                        segmentedFunctionCall(
+                                "dbWriteFinalBatch",
+                                () -> addTestUsersBatch(writer, finalBatch, hashingExecutor));
                     } catch (IOException e) {
                         LOG.error("Error reading S3 object", e);
+                    } catch (RuntimeException e) {
+                        LOG.error("User Profile or Credentials Dynamo Table exception thrown", e);
+                    } finally {
+                        hashingExecutor.shutdown();
                     }
-
-                    final List<String> finalBatch = batch;
-
-                    segmentedFunctionCall("dbWriteFinalBatch", () -> addTestUsersBatch(finalBatch));
                 });
 
         return null;
     }
 
-    private void addTestUsersBatch(List<String> batchOfIndividualUsersAsRawCsv) {
+    private void addTestUsersBatch(
+            DynamoService.TestUserWriter writer,
+            List<String> batchOfIndividualUsersAsRawCsv,
+            Executor hashingExecutor) {
         String dateTime = LocalDateTime.now().toString();
-        Map<UserProfile, UserCredentials> testUsers = new HashMap<>();
 
         segmentedFunctionCall(
                 "parseTestUsersCsv",
-                () ->
-                        batchOfIndividualUsersAsRawCsv.forEach(
-                                rawCsvUserString -> {
-                                    String[] testUserCsvAsArray = rawCsvUserString.split(",", -1);
-                                    String subjectId = new Subject().getValue();
-
-                                    var userProfile =
-                                            getUserProfileFromTestUserArrayList(
-                                                    testUserCsvAsArray, dateTime, subjectId);
-
-                                    var userCredentials =
-                                            getUserCredentialsFromTestUserArrayList(
-                                                    testUserCsvAsArray, dateTime, subjectId);
-
-                                    testUsers.put(userProfile, userCredentials);
-                                }));
-
-        try {
-            segmentedFunctionCall(
-                    "dynamoCreateBatchTestUsers",
-                    () -> dynamoService.createBatchTestUsers(testUsers));
-        } catch (Exception e) {
-            LOG.error("User Profile or Credentials Dynamo Table exception thrown", e);
-        }
+                () -> {
+                    List<CompletableFuture<User>> testUsers = new ArrayList<>();
+                    for (String rawCsvUserString : batchOfIndividualUsersAsRawCsv) {
+                        testUsers.add(
+                                CompletableFuture.supplyAsync(
+                                        () -> parseTestUser(rawCsvUserString, dateTime),
+                                        hashingExecutor));
+                    }
+                    for (var testUser : testUsers) {
+                        var user = testUser.join();
+                        writer.add(user.getUserProfile(), user.getUserCredentials());
+                    }
+                });
+    }
+
+    private User parseTestUser(String rawCsvUserString, String dateTime) {
+        String[] testUserCsvAsArray = rawCsvUserString.split(",", -1);
+        String subjectId = new Subject().getValue();
+
+        return new User(
+                getUserProfileFromTestUserArrayList(testUserCsvAsArray, dateTime, subjectId),
+                getUserCredentialsFromTestUserArrayList(testUserCsvAsArray, dateTime, subjectId));
     }
 
     private UserProfile getUserProfileFromTestUserArrayList(
@@ -8,8 +8,8 @@ import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.services.ConfigurationService;
 import uk.gov.di.authentication.shared.services.DynamoService;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class BulkTestUserDeleteHandler implements RequestHandler<String, Void> {
     private static final Logger LOG = LogManager.getLogger(BulkTestUserDeleteHandler.class);
@@ -33,26 +33,14 @@ public class BulkTestUserDeleteHandler implements RequestHandler<String, Void> {
         long durationInMilliseconds = (endTime - startTime) / 1000000;
         LOG.info("{} records found in {} ms", allTestUsers.size(), durationInMilliseconds);
 
-        List<String> batch = new ArrayList<>();
-
-        while (!allTestUsers.isEmpty()) {
-
-            String testUserEmailAddress = allTestUsers.remove(0).getEmail();
-            batch.add(testUserEmailAddress);
-
-            if (batch.size() % 100 == 0) {
-                deleteTestUserBatch(batch);
-                batch = new ArrayList<>();
-            }
-        }
-
-        deleteTestUserBatch(batch);
+        deleteTestUsers(
+                allTestUsers.stream().map(UserProfile::getEmail).collect(Collectors.toList()));
         return null;
     }
 
-    private void deleteTestUserBatch(List<String> batch) {
+    private void deleteTestUsers(List<String> emailAddresses) {
         try {
-            dynamoService.deleteBatchTestUsers(batch);
+            dynamoService.deleteBatchTestUsers(emailAddresses);
         } catch (Exception e) {
             LOG.error("User Profile or Credentials Dynamo Table exception thrown", e);
         }
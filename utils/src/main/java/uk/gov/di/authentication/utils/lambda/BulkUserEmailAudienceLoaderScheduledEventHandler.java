@@ -14,6 +14,8 @@ import uk.gov.di.authentication.shared.services.LambdaInvokerService;
 import uk.gov.di.authentication.shared.services.SystemService;
 import uk.gov.di.authentication.utils.exceptions.IncludedTermsAndConditionsConfigMissingException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -27,6 +29,8 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
 
     public static final String LAST_EVALUATED_KEY = "lastEvaluatedKey";
     public static final String GLOBAL_USERS_ADDED_COUNT = "globalUsersAddedCount";
+    public static final String SEGMENT = "segment";
+    public static final String TOTAL_SEGMENTS = "totalSegments";
 
     private final BulkEmailUsersService bulkEmailUsersService;
 
@@ -81,6 +85,16 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
             throw new IncludedTermsAndConditionsConfigMissingException();
         }
 
+        int totalSegments = configurationService.getBulkUserEmailAudienceLoadTotalSegments();
+        Integer segment = null;
+        if (event.getDetail() != null && event.getDetail().containsKey(SEGMENT)) {
+            segment = Integer.parseInt(event.getDetail().get(SEGMENT).toString());
+            totalSegments = Integer.parseInt(event.getDetail().get(TOTAL_SEGMENTS).toString());
+        } else if (totalSegments > 1) {
+            fanOutSegments(event, totalSegments);
+            return null;
+        }
+
         if (event.getDetail() != null && event.getDetail().containsKey(LAST_EVALUATED_KEY)) {
             String lastEvaluatedKey = event.getDetail().get(LAST_EVALUATED_KEY).toString();
             exclusiveStartKey =
@@ -92,8 +106,12 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
                     Long.parseLong(event.getDetail().get(GLOBAL_USERS_ADDED_COUNT).toString());
         }
 
-        final Long remainingItemsLimit =
-                bulkUserEmailMaxAudienceLoadUserCount - existingCountOfAddedUsers;
+        final long maxAudienceLoadUserCount =
+                segment == null
+                        ? bulkUserEmailMaxAudienceLoadUserCount
+                        : segmentShare(
+                                bulkUserEmailMaxAudienceLoadUserCount, segment, totalSegments);
+        final Long remainingItemsLimit = maxAudienceLoadUserCount - existingCountOfAddedUsers;
         final Long currentBatchSize = Math.min(batchSize, remainingItemsLimit);
 
         LOG.info(
@@ -104,17 +122,23 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
 
         AtomicLong itemCounter = new AtomicLong();
         AtomicReference<String> lastEmail = new AtomicReference<>();
+        List<String> subjectIds = new ArrayList<>();
         itemCounter.set(0);
 
-        dynamoService
-                .getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
-                        exclusiveStartKey, includedTermsAndConditions)
-                .takeWhile(userProfile -> (currentBatchSize > itemCounter.get()))
+        var audience =
+                segment == null
+                        ? dynamoService.getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                                exclusiveStartKey, includedTermsAndConditions)
+                        : dynamoService.getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                                exclusiveStartKey,
+                                includedTermsAndConditions,
+                                segment,
+                                totalSegments);
+        audience.takeWhile(userProfile -> (currentBatchSize > itemCounter.get()))
                 .forEach(
                         userProfile -> {
                             itemCounter.getAndIncrement();
-                            bulkEmailUsersService.addUser(
-                                    userProfile.getSubjectID(), BulkEmailStatus.PENDING);
+                            subjectIds.add(userProfile.getSubjectID());
                             LOG.info("Bulk User Email added item number: {}", itemCounter);
                             if (itemCounter.get() >= remainingItemsLimit) {
                                 LOG.info(
@@ -124,6 +148,10 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
                             lastEmail.set(userProfile.getEmail());
                         });
 
+        if (!subjectIds.isEmpty()) {
+            bulkEmailUsersService.addUsers(subjectIds, BulkEmailStatus.PENDING);
+        }
+
         LOG.info(
                 "Bulk User Email audience batch load complete.  Total users added this batch: {}",
                 itemCounter);
@@ -136,12 +164,14 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
                     "Bulk User Email max audience load max user count reached. Total users added {}",
                     totalUsersAddedSoFar);
         } else {
-            event.setDetail(
-                    Map.of(
-                            LAST_EVALUATED_KEY,
-                            lastEmail.get(),
-                            GLOBAL_USERS_ADDED_COUNT,
-                            totalUsersAddedSoFar));
+            Map<String, Object> detail = new HashMap<>();
+            detail.put(LAST_EVALUATED_KEY, lastEmail.get());
+            detail.put(GLOBAL_USERS_ADDED_COUNT, totalUsersAddedSoFar);
+            if (segment != null) {
+                detail.put(SEGMENT, segment);
+                detail.put(TOTAL_SEGMENTS, totalSegments);
+            }
+            event.setDetail(detail);
             LOG.info(
                     "Bulk User Email re-invoke.  Total users added so far {}",
                     totalUsersAddedSoFar);
@@ -150,4 +180,22 @@ public class BulkUserEmailAudienceLoaderScheduledEventHandler
 
         return null;
     }
+
+    /*
+     * The max audience count covers the whole load, not each segment. Every segment gets an equal
+     * share rounded down and segment 0 also takes the remainder, so the segments together never
+     * add more users than the max. Each segment tracks its own count.
+     */
+    private static long segmentShare(long maxCount, int segment, int totalSegments) {
+        var share = maxCount / totalSegments;
+        return segment == 0 ? share + maxCount % totalSegments : share;
+    }
+
+    private void fanOutSegments(ScheduledEvent event, int totalSegments) {
+        LOG.info("Bulk User Email audience load fanning out across {} segments", totalSegments);
+        for (int segment = 0; segment < totalSegments; segment++) {
+            event.setDetail(Map.of(SEGMENT, segment, TOTAL_SEGMENTS, totalSegments));
+            lambdaInvokerService.invokeWithPayload(event);
+        }
+    }
 }
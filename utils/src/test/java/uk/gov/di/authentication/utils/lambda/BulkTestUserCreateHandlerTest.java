@@ -10,6 +10,8 @@ import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import uk.gov.di.authentication.shared.entity.UserCredentials;
+import uk.gov.di.authentication.shared.entity.UserProfile;
 import uk.gov.di.authentication.shared.services.DynamoService;
 
 import java.io.ByteArrayInputStream;
@@ -26,6 +28,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,11 +37,12 @@ class BulkTestUserCreateHandlerTest {
 
     private BulkTestUserCreateHandler handler;
     private final DynamoService mockDynamoService = mock(DynamoService.class);
+    private final DynamoService.TestUserWriter mockTestUserWriter =
+            mock(DynamoService.TestUserWriter.class);
     private final S3Event mockS3Event = mock(S3Event.class);
     private final Context mockContext = mock(Context.class);
     private final S3Client mockS3Client = mock(S3Client.class);
     private String mockS3TextContent;
-    private static final int LINES_PER_BATCH_WRITE = 500;
     private static final String BUCKET_NAME = "test-bucket";
     private static final String BUCKET_KEY = "test-key";
 
@@ -61,6 +65,7 @@ class BulkTestUserCreateHandlerTest {
         when(mockS3Client.getObject(any(GetObjectRequest.class)))
                 .thenReturn(mockS3ObjectInputStream);
 
+        when(mockDynamoService.openTestUserWriter()).thenReturn(mockTestUserWriter);
         this.handler = new BulkTestUserCreateHandler(mockDynamoService, mockS3Client);
 
         when(mockS3Event.getRecords())
@@ -77,7 +82,7 @@ class BulkTestUserCreateHandlerTest {
     }
 
     @Test
-    void shouldCallDynamoServiceWithCorrectNumberOfBatches() {
+    void shouldWriteEveryTestUserThroughOneWriter() {
         handler.handleRequest(mockS3Event, mockContext);
 
         var mockInputAsArray = mockS3TextContent.split("\r?\n|\r");
@@ -88,9 +93,10 @@ class BulkTestUserCreateHandlerTest {
                 Collections.singleton(
                         "Email,Password,Phone2FA,PhoneNumber,AuthApp2FA,AuthAppSecret"));
 
-        int numberOfBatchWritesExpected =
-                (int) (Math.ceil((double) mockInputAsArrayList.size() / LINES_PER_BATCH_WRITE));
-        verify(mockDynamoService, times(numberOfBatchWritesExpected))
-                .createBatchTestUsers(anyMap());
+        verify(mockDynamoService, times(1)).openTestUserWriter();
+        verify(mockTestUserWriter, times(mockInputAsArrayList.size()))
+                .add(any(UserProfile.class), any(UserCredentials.class));
+        verify(mockTestUserWriter).close();
+        verify(mockDynamoService, never()).createBatchTestUsers(anyMap());
     }
 }
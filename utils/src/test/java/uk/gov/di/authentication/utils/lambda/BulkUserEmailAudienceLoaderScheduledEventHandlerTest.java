@@ -13,14 +13,12 @@ import uk.gov.di.authentication.shared.services.DynamoService;
 import uk.gov.di.authentication.shared.services.LambdaInvokerService;
 import uk.gov.di.authentication.utils.exceptions.IncludedTermsAndConditionsConfigMissingException;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -72,7 +70,7 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        verify(bulkEmailUsersService).addUser(SUBJECT_ID, BulkEmailStatus.PENDING);
+        verify(bulkEmailUsersService).addUsers(List.of(SUBJECT_ID), BulkEmailStatus.PENDING);
     }
 
     @Test
@@ -87,7 +85,7 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        verify(bulkEmailUsersService, never()).addUser(SUBJECT_ID, BulkEmailStatus.PENDING);
+        verify(bulkEmailUsersService, never()).addUsers(any(), any());
     }
 
     @Test
@@ -102,11 +100,8 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        List.of(TEST_SUBJECT_IDS)
-                .forEach(
-                        id ->
-                                verify(bulkEmailUsersService, times(1))
-                                        .addUser(id, BulkEmailStatus.PENDING));
+        verify(bulkEmailUsersService, times(1))
+                .addUsers(List.of(TEST_SUBJECT_IDS), BulkEmailStatus.PENDING);
     }
 
     @Test
@@ -121,7 +116,10 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        verify(bulkEmailUsersService, times(3)).addUser(any(), eq(BulkEmailStatus.PENDING));
+        verify(bulkEmailUsersService)
+                .addUsers(
+                        List.of(TEST_SUBJECT_IDS[0], TEST_SUBJECT_IDS[1], TEST_SUBJECT_IDS[2]),
+                        BulkEmailStatus.PENDING);
     }
 
     @Test
@@ -141,16 +139,7 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        subjectIds.forEach(
-                subjectId ->
-                        verify(bulkEmailUsersService, times(1))
-                                .addUser(subjectId, BulkEmailStatus.PENDING));
-
-        List.of(TEST_SUBJECT_IDS[3], TEST_SUBJECT_IDS[4])
-                .forEach(
-                        otherSubjectId ->
-                                verify(bulkEmailUsersService, never())
-                                        .addUser(otherSubjectId, BulkEmailStatus.PENDING));
+        verify(bulkEmailUsersService, times(1)).addUsers(subjectIds, BulkEmailStatus.PENDING);
 
         var expectedLastEvaluatedEmail = emailFromSubjectId(TEST_SUBJECT_IDS[2]);
         verify(scheduledEvent, times(1))
@@ -191,14 +180,7 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        subjectIds.forEach(
-                id -> verify(bulkEmailUsersService, times(1)).addUser(id, BulkEmailStatus.PENDING));
-
-        List.of(TEST_SUBJECT_IDS[0])
-                .forEach(
-                        id ->
-                                verify(bulkEmailUsersService, never())
-                                        .addUser(id, BulkEmailStatus.PENDING));
+        verify(bulkEmailUsersService, times(1)).addUsers(subjectIds, BulkEmailStatus.PENDING);
 
         verify(scheduledEvent, times(1))
                 .setDetail(
@@ -230,11 +212,7 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
 
         bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
 
-        Arrays.stream(TEST_SUBJECT_IDS)
-                .forEach(
-                        id ->
-                                verify(bulkEmailUsersService, never())
-                                        .addUser(id, BulkEmailStatus.PENDING));
+        verify(bulkEmailUsersService, never()).addUsers(any(), any());
 
         verify(scheduledEvent, never()).setDetail(any());
         verify(lambdaInvokerService, never()).invokeWithPayload(any());
@@ -252,7 +230,113 @@ class BulkUserEmailAudienceLoaderScheduledEventHandlerTest {
                                 scheduledEvent, mockContext),
                 "Excluded terms and conditions configuration is missing");
 
-        verify(bulkEmailUsersService, never()).addUser(SUBJECT_ID, BulkEmailStatus.PENDING);
+        verify(bulkEmailUsersService, never()).addUsers(any(), any());
+    }
+
+    @Test
+    void shouldInvokeOneLambdaPerSegmentWhenSegmentsConfigured() {
+        when(configurationService.getBulkUserEmailMaxAudienceLoadUserCount()).thenReturn(100L);
+        when(configurationService.getBulkUserEmailAudienceLoadUserBatchSize()).thenReturn(10L);
+        when(configurationService.getBulkUserEmailIncludedTermsAndConditions())
+                .thenReturn(List.of("1.5", "1.6"));
+        when(configurationService.getBulkUserEmailAudienceLoadTotalSegments()).thenReturn(3);
+
+        bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
+
+        for (int segment = 0; segment < 3; segment++) {
+            verify(scheduledEvent).setDetail(Map.of("segment", segment, "totalSegments", 3));
+        }
+        verify(lambdaInvokerService, times(3)).invokeWithPayload(scheduledEvent);
+        verify(bulkEmailUsersService, never()).addUsers(any(), any());
+    }
+
+    @Test
+    void shouldScanSegmentAndReinvokeWithSegmentCheckpoint() {
+        when(configurationService.getBulkUserEmailMaxAudienceLoadUserCount()).thenReturn(100L);
+        when(configurationService.getBulkUserEmailAudienceLoadUserBatchSize()).thenReturn(2L);
+        when(configurationService.getBulkUserEmailIncludedTermsAndConditions())
+                .thenReturn(List.of("1.5", "1.6"));
+        when(configurationService.getBulkUserEmailAudienceLoadTotalSegments()).thenReturn(4);
+        when(scheduledEvent.getDetail()).thenReturn(Map.of("segment", 1, "totalSegments", 4));
+        when(dynamoService.getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                        null, List.of("1.5", "1.6"), 1, 4))
+                .thenReturn(testUserProfilesFromSubjectIds(List.of(TEST_SUBJECT_IDS)));
+
+        bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
+
+        verify(bulkEmailUsersService)
+                .addUsers(
+                        List.of(TEST_SUBJECT_IDS[0], TEST_SUBJECT_IDS[1]), BulkEmailStatus.PENDING);
+        verify(scheduledEvent)
+                .setDetail(
+                        Map.of(
+                                "lastEvaluatedKey",
+                                emailFromSubjectId(TEST_SUBJECT_IDS[1]),
+                                "globalUsersAddedCount",
+                                2L,
+                                "segment",
+                                1,
+                                "totalSegments",
+                                4));
+        verify(lambdaInvokerService).invokeWithPayload(scheduledEvent);
+    }
+
+    @Test
+    void shouldLimitEachSegmentToItsShareOfTheMaxAudience() {
+        when(configurationService.getBulkUserEmailMaxAudienceLoadUserCount()).thenReturn(6L);
+        when(configurationService.getBulkUserEmailAudienceLoadUserBatchSize()).thenReturn(10L);
+        when(configurationService.getBulkUserEmailIncludedTermsAndConditions())
+                .thenReturn(List.of("1.5", "1.6"));
+        when(scheduledEvent.getDetail()).thenReturn(Map.of("segment", 0, "totalSegments", 3));
+        when(dynamoService.getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                        null, List.of("1.5", "1.6"), 0, 3))
+                .thenReturn(testUserProfilesFromSubjectIds(List.of(TEST_SUBJECT_IDS)));
+
+        bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
+
+        verify(bulkEmailUsersService)
+                .addUsers(
+                        List.of(TEST_SUBJECT_IDS[0], TEST_SUBJECT_IDS[1]), BulkEmailStatus.PENDING);
+        verify(lambdaInvokerService, never()).invokeWithPayload(any());
+    }
+
+    @Test
+    void shouldRoundTheShareOfOtherSegmentsDown() {
+        when(configurationService.getBulkUserEmailMaxAudienceLoadUserCount()).thenReturn(7L);
+        when(configurationService.getBulkUserEmailAudienceLoadUserBatchSize()).thenReturn(10L);
+        when(configurationService.getBulkUserEmailIncludedTermsAndConditions())
+                .thenReturn(List.of("1.5", "1.6"));
+        when(scheduledEvent.getDetail()).thenReturn(Map.of("segment", 1, "totalSegments", 3));
+        when(dynamoService.getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                        null, List.of("1.5", "1.6"), 1, 3))
+                .thenReturn(testUserProfilesFromSubjectIds(List.of(TEST_SUBJECT_IDS)));
+
+        bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
+
+        verify(bulkEmailUsersService)
+                .addUsers(
+                        List.of(TEST_SUBJECT_IDS[0], TEST_SUBJECT_IDS[1]), BulkEmailStatus.PENDING);
+        verify(lambdaInvokerService, never()).invokeWithPayload(any());
+    }
+
+    @Test
+    void shouldGiveTheRemainderOfTheMaxAudienceToTheFirstSegment() {
+        when(configurationService.getBulkUserEmailMaxAudienceLoadUserCount()).thenReturn(7L);
+        when(configurationService.getBulkUserEmailAudienceLoadUserBatchSize()).thenReturn(10L);
+        when(configurationService.getBulkUserEmailIncludedTermsAndConditions())
+                .thenReturn(List.of("1.5", "1.6"));
+        when(scheduledEvent.getDetail()).thenReturn(Map.of("segment", 0, "totalSegments", 3));
+        when(dynamoService.getBulkUserEmailAudienceStreamOnTermsAndConditionsVersion(
+                        null, List.of("1.5", "1.6"), 0, 3))
+                .thenReturn(testUserProfilesFromSubjectIds(List.of(TEST_SUBJECT_IDS)));
+
+        bulkUserEmailAudienceLoaderScheduledEventHandler.handleRequest(scheduledEvent, mockContext);
+
+        verify(bulkEmailUsersService)
+                .addUsers(
+                        List.of(TEST_SUBJECT_IDS[0], TEST_SUBJECT_IDS[1], TEST_SUBJECT_IDS[2]),
+                        BulkEmailStatus.PENDING);
+        verify(lambdaInvokerService, never()).invokeWithPayload(any());
     }
 
     private String emailFromSubjectId(String subjectId) {